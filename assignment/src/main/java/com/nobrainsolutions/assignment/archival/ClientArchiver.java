@@ -0,0 +1,208 @@
+package com.nobrainsolutions.assignment.archival;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nobrainsolutions.assignment.entity.Client;
+import com.nobrainsolutions.assignment.repository.ClientRepository;
+import com.nobrainsolutions.assignment.service.ClientChangeListener;
+import com.nobrainsolutions.assignment.service.ClientService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ *
+ * The ClientArchiver class removes clients that have not been created or updated for maxAge, appending
+ * each to an NDJSON archive file first if one is configured.
+ * Every change is queued with the version it produced, so the queue is in change order and the clients due
+ * for archival are always at its head. A sweep takes at most batchSize entries off the head and removes each
+ * client only if it is still at the queued version; an entry superseded by a later change is dropped, and
+ * the later change keeps the client. Each removal holds only the lock of its own ID number, through
+ * ClientService, so requests never wait for a whole sweep. The archive is written before the clients are
+ * removed, so a failed write loses nothing; a client changed in between stays in the store, and the archive
+ * then also holds the version it had.
+ * The queue holds one entry per change made within maxAge plus one per older client. It lives in memory:
+ * after a restart, restored clients count as changed when they were restored.
+ * Enabled with client.archival.enabled=true on a leader; followers receive the removals from the leader.
+ */
+
+@Slf4j
+@Component
+@ConditionalOnExpression("${client.archival.enabled:false} and '${client.replication.role:leader}' != 'follower'")
+public class ClientArchiver implements ClientChangeListener, SmartInitializingSingleton, DisposableBean {
+
+    private final ClientService clientService;
+
+    private final ClientRepository clientRepository;
+
+    private final ObjectMapper objectMapper;
+
+    private final long maxAgeNanos;
+
+    private final Duration sweepInterval;
+
+    private final int batchSize;
+
+    private final Path archiveFile;
+
+    private final LongSupplier nanoTime;
+
+    private final Queue<Change> changes = new ConcurrentLinkedQueue<>();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "client-archival");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * The ClientService is injected lazily, because it is built with every ClientChangeListener, this one included.
+     */
+    @Autowired
+    public ClientArchiver(@Lazy ClientService clientService, ClientRepository clientRepository, ObjectMapper objectMapper,
+                          @Value("${client.archival.max-age}") Duration maxAge,
+                          @Value("${client.archival.sweep-interval:PT1S}") Duration sweepInterval,
+                          @Value("${client.archival.batch-size:1000}") int batchSize,
+                          @Value("${client.archival.file:}") String archiveFile) {
+        this(clientService, clientRepository, objectMapper, maxAge, sweepInterval, batchSize,
+                archiveFile.isEmpty() ? null : Path.of(archiveFile), System::nanoTime);
+    }
+
+    ClientArchiver(ClientService clientService, ClientRepository clientRepository, ObjectMapper objectMapper,
+                   Duration maxAge, Duration sweepInterval, int batchSize, Path archiveFile, LongSupplier nanoTime) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        this.clientService = clientService;
+        this.clientRepository = clientRepository;
+        this.objectMapper = objectMapper;
+        this.maxAgeNanos = maxAge.toNanos();
+        this.sweepInterval = sweepInterval;
+        this.batchSize = batchSize;
+        this.archiveFile = archiveFile;
+        this.nanoTime = nanoTime;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long interval = sweepInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::sweepQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void onCreated(Client client) {
+        changes.add(new Change(client.getIdNumber(), client.getVersion(), nanoTime.getAsLong()));
+    }
+
+    @Override
+    public void onUpdated(Client previous, Client current) {
+        changes.add(new Change(current.getIdNumber(), current.getVersion(), nanoTime.getAsLong()));
+    }
+
+    /**
+     * Archives the clients of up to batchSize changes that are older than maxAge.
+     *
+     * @return The number of clients archived.
+     * @throws IOException if the archive file cannot be written; the changes of this sweep are then kept
+     *                     for the next one.
+     */
+    public int sweep() throws IOException {
+        long deadline = nanoTime.getAsLong() - maxAgeNanos;
+        List<Change> due = new ArrayList<>();
+        List<Client> clients = new ArrayList<>();
+        for (Change change : changes) {
+            if (due.size() == batchSize || change.changedAt - deadline > 0) {
+                break;
+            }
+            due.add(change);
+            clientRepository.findByIdNumber(change.idNumber)
+                    .filter(client -> client.getVersion() == change.version)
+                    .ifPresent(clients::add);
+        }
+        if (!clients.isEmpty() && archiveFile != null) {
+            append(clients);
+        }
+
+        int archived = 0;
+        for (Change change : due) {
+            changes.poll();
+            if (clientService.removeClient(change.idNumber, change.version) != null) {
+                archived++;
+            }
+        }
+        return archived;
+    }
+
+    /**
+     * Returns the number of changes waiting to age.
+     *
+     * @return The queue length.
+     */
+    public int pending() {
+        return changes.size();
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    private void sweepQuietly() {
+        try {
+            int archived = sweep();
+            if (archived > 0) {
+                log.info("Archived {} clients not changed for {}", archived, Duration.ofNanos(maxAgeNanos));
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Client archival sweep failed", e);
+        }
+    }
+
+    private void append(List<Client> clients) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(archiveFile,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE))) {
+            for (Client client : clients) {
+                out.write(objectMapper.writeValueAsBytes(client));
+                out.write('\n');
+            }
+        }
+    }
+
+    /**
+     * A client version and when it was stored.
+     */
+    private static final class Change {
+
+        private final String idNumber;
+
+        private final long version;
+
+        private final long changedAt;
+
+        private Change(String idNumber, long version, long changedAt) {
+            this.idNumber = idNumber;
+            this.version = version;
+            this.changedAt = changedAt;
+        }
+    }
+}
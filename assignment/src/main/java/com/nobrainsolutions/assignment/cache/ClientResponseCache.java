@@ -0,0 +1,241 @@
+package com.nobrainsolutions.assignment.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nobrainsolutions.assignment.entity.Client;
+import com.nobrainsolutions.assignment.exception.ClientException;
+import com.nobrainsolutions.assignment.exception.ErrorCode;
+import com.nobrainsolutions.assignment.service.ClientChangeListener;
+import com.nobrainsolutions.assignment.service.ClientService;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ *
+ * The ClientResponseCache class keeps the JSON body and strong ETag of recently read clients, so GET
+ * /clients/{idNumber} serializes a client once per change instead of once per request.
+ * Entries are loaded inside ConcurrentHashMap.computeIfAbsent and invalidated from ClientService change
+ * notifications, which are delivered after the write is stored. An invalidation therefore either waits
+ * for a concurrent load of the same ID number and removes its result, or happens before the load reads
+ * the store; a stale body can never outlive the write that replaced it.
+ * The cache holds at most maxEntries entries, evicted in CLOCK order: an entry read since the last sweep
+ * gets a second chance, the rest leave in insertion order. Entries also expire ttl after they were loaded.
+ */
+
+@Component
+public class ClientResponseCache implements ClientChangeListener {
+
+    private final ObjectMapper objectMapper;
+
+    private final int maxEntries;
+
+    private final long ttlNanos;
+
+    private final LongSupplier nanoTime;
+
+    private final ConcurrentHashMap<String, CachedClient> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Entries in insertion order for the CLOCK sweep. Invalidated entries stay queued until the sweep
+     * reaches them and count towards maxEntries until then, which keeps the queue itself bounded.
+     */
+    private final Queue<CachedClient> clock = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger clockSize = new AtomicInteger();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    @Autowired
+    public ClientResponseCache(ObjectMapper objectMapper,
+                               @Value("${client.cache.max-entries:10000}") int maxEntries,
+                               @Value("${client.cache.ttl:PT5M}") Duration ttl) {
+        this(objectMapper, maxEntries, ttl, System::nanoTime);
+    }
+
+    ClientResponseCache(ObjectMapper objectMapper, int maxEntries, Duration ttl, LongSupplier nanoTime) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        this.objectMapper = objectMapper;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.nanoTime = nanoTime;
+    }
+
+    /**
+     * Returns the cached response for a client, loading and serializing the client on a miss.
+     *
+     * @param idNumber The ID number of the client.
+     * @param loader   Reads the client from the store; it may throw, in which case nothing is cached.
+     * @return The JSON body and ETag of the client.
+     */
+    public CachedClient get(String idNumber, Function<String, Client> loader) {
+        long now = nanoTime.getAsLong();
+        CachedClient cached = entries.get(idNumber);
+        if (cached != null) {
+            if (now - cached.loadedAt < ttlNanos) {
+                cached.referenced = true;
+                hits.increment();
+                return cached;
+            }
+            entries.remove(idNumber, cached);
+        }
+
+        misses.increment();
+        boolean[] loaded = new boolean[1];
+        cached = entries.computeIfAbsent(idNumber, key -> {
+            loaded[0] = true;
+            return serialize(key, loader.apply(key), nanoTime.getAsLong());
+        });
+        if (loaded[0]) {
+            clock.add(cached);
+            if (clockSize.incrementAndGet() > maxEntries) {
+                evict();
+            }
+        }
+        return cached;
+    }
+
+    /**
+     * Resolves the If-Match header of a conditional update to the client version it was read at, for
+     * ClientService.updateClient to check under its lock. Entity tags are compared strongly, so weak tags
+     * never match.
+     *
+     * @param idNumber The ID number of the client to update.
+     * @param ifMatch  The If-Match header, or null.
+     * @param loader   Reads the client from the store.
+     * @return The version the matching ETag was served for, or ClientService.ANY_VERSION if the header
+     * is absent or "*".
+     * @throws ClientException if no listed ETag is the client's current one.
+     */
+    public long expectedVersion(String idNumber, String ifMatch, Function<String, Client> loader) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return ClientService.ANY_VERSION;
+        }
+        CachedClient current = get(idNumber, loader);
+        for (String etag : ifMatch.split(",")) {
+            if (etag.trim().equals(current.etag)) {
+                return current.version;
+            }
+        }
+        throw new ClientException(ErrorCode.VERSION_CONFLICT);
+    }
+
+    /**
+     * Serializes a client the way get does, without caching it, so the response to a write carries the
+     * ETag that a later GET will return.
+     *
+     * @param client The client as stored.
+     * @return The JSON body and ETag of the client.
+     */
+    public CachedClient serialize(Client client) {
+        return serialize(client.getIdNumber(), client, nanoTime.getAsLong());
+    }
+
+    @Override
+    public void onCreated(Client client) {
+        entries.remove(client.getIdNumber());
+    }
+
+    @Override
+    public void onUpdated(Client previous, Client current) {
+        entries.remove(previous.getIdNumber());
+        entries.remove(current.getIdNumber());
+    }
+
+    @Override
+    public void onRemoved(Client client) {
+        entries.remove(client.getIdNumber());
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    private CachedClient serialize(String idNumber, Client client, long loadedAt) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(client);
+            return new CachedClient(idNumber, body, "\"" + DigestUtils.md5DigestAsHex(body) + "\"",
+                    client.getVersion(), loadedAt);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void evict() {
+        while (clockSize.get() > maxEntries) {
+            CachedClient candidate = clock.poll();
+            if (candidate == null) {
+                return;
+            }
+            if (candidate.referenced && entries.get(candidate.idNumber) == candidate) {
+                candidate.referenced = false;
+                clock.add(candidate);
+                continue;
+            }
+            clockSize.decrementAndGet();
+            entries.remove(candidate.idNumber, candidate);
+        }
+    }
+
+    /**
+     * The serialized form of one client.
+     */
+    public static final class CachedClient {
+
+        private final String idNumber;
+
+        /**
+         * The client as JSON, as the controller would have written it; must not be modified.
+         */
+        @Getter
+        private final byte[] body;
+
+        /**
+         * Strong ETag, quoted: the MD5 of the body.
+         */
+        @Getter
+        private final String etag;
+
+        /**
+         * The version of the client the body was serialized from.
+         */
+        @Getter
+        private final long version;
+
+        private final long loadedAt;
+
+        private volatile boolean referenced;
+
+        private CachedClient(String idNumber, byte[] body, String etag, long version, long loadedAt) {
+            this.idNumber = idNumber;
+            this.body = body;
+            this.etag = etag;
+            this.version = version;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
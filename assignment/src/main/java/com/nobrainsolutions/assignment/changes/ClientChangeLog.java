@@ -0,0 +1,162 @@
+package com.nobrainsolutions.assignment.changes;
+
+import com.nobrainsolutions.assignment.dto.ClientChangeEvent;
+import com.nobrainsolutions.assignment.dto.ClientChangeEvent.Type;
+import com.nobrainsolutions.assignment.entity.Client;
+import com.nobrainsolutions.assignment.exception.ClientException;
+import com.nobrainsolutions.assignment.exception.ErrorCode;
+import com.nobrainsolutions.assignment.service.ClientChangeListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongSupplier;
+
+/**
+ *
+ * The ClientChangeLog class records every create, update and removal as a sequenced ClientChangeEvent in a
+ * fixed-size ring buffer, for consumers that follow the changes instead of polling searches.
+ * Publishing claims the next sequence number and stores the event in its slot; it never waits for
+ * consumers. A consumer reads through a Cursor at its own pace, and one that falls more than capacity
+ * events behind has lost its place and must start again from a fresh read of the data.
+ * Sequence numbers of a run start at the start time in milliseconds times one thousand, so unless the
+ * previous run averaged over a million changes a second, an offset kept from before a restart is older
+ * than the new run's events and is refused, not misread. They also stay below 2^53, so JavaScript
+ * consumers read them exactly.
+ */
+
+@Component
+public class ClientChangeLog implements ClientChangeListener {
+
+    /**
+     * Response header carrying the sequence number a snapshot of the store starts after.
+     */
+    public static final String SEQUENCE_HEADER = "X-Change-Sequence";
+
+    private final AtomicReferenceArray<ClientChangeEvent> ring;
+
+    private final int mask;
+
+    private final long firstSequence;
+
+    private final AtomicLong lastSequence;
+
+    private final LongSupplier clock;
+
+    @Autowired
+    public ClientChangeLog(@Value("${client.changes.capacity:65536}") int capacity) {
+        this(capacity, System::currentTimeMillis);
+    }
+
+    ClientChangeLog(int capacity, LongSupplier clock) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.ring = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.clock = clock;
+        this.firstSequence = clock.getAsLong() * 1_000L + 1;
+        this.lastSequence = new AtomicLong(firstSequence - 1);
+    }
+
+    @Override
+    public void onCreated(Client client) {
+        publish(Type.CREATED, null, client);
+    }
+
+    @Override
+    public void onUpdated(Client previous, Client current) {
+        publish(Type.UPDATED, previous.getIdNumber(), current);
+    }
+
+    @Override
+    public void onRemoved(Client client) {
+        publish(Type.REMOVED, client.getIdNumber(), client);
+    }
+
+    /**
+     * Returns the sequence number of the latest event, or the one before the first event of this run if
+     * there has been none yet.
+     */
+    public long lastSequence() {
+        return lastSequence.get();
+    }
+
+    /**
+     * Opens a cursor that returns the events after a given sequence number.
+     *
+     * @param after The sequence number of the last event the consumer has seen, or null to follow only
+     *              events published from now on.
+     * @return The cursor.
+     * @throws ClientException if the events after the given sequence number are no longer, or were never,
+     *                         held by this log.
+     */
+    public Cursor cursor(Long after) {
+        long last = lastSequence.get();
+        if (after == null) {
+            return new Cursor(last);
+        }
+        if (after > last || after < Math.max(firstSequence, last - mask) - 1) {
+            throw new ClientException(ErrorCode.CHANGE_OFFSET_UNAVAILABLE);
+        }
+        return new Cursor(after);
+    }
+
+    private void publish(Type type, String previousIdNumber, Client client) {
+        long sequence = lastSequence.incrementAndGet();
+        ring.set((int) sequence & mask, new ClientChangeEvent(sequence, type, clock.getAsLong(), previousIdNumber, client));
+    }
+
+    /**
+     * A consumer's position in the log. A cursor is not thread-safe.
+     */
+    public final class Cursor {
+
+        private long position;
+
+        private Cursor(long position) {
+            this.position = position;
+        }
+
+        /**
+         * Returns the sequence number of the last event returned by poll.
+         */
+        public long position() {
+            return position;
+        }
+
+        /**
+         * Returns the next events without waiting. Events come in sequence order without gaps, so the
+         * result stops early at an event whose sequence number was claimed but which is still being stored.
+         *
+         * @param max The maximum number of events to return.
+         * @return The events after the position, possibly none.
+         * @throws ClientException if the consumer fell so far behind that the next event was overwritten.
+         */
+        public List<ClientChangeEvent> poll(int max) {
+            List<ClientChangeEvent> events = new ArrayList<>(Math.min(max, 64));
+            long last = lastSequence.get();
+            while (events.size() < max && position < last) {
+                long next = position + 1;
+                ClientChangeEvent event = ring.get((int) next & mask);
+                if (event == null || event.getSequence() < next) {
+                    break;
+                }
+                if (event.getSequence() > next) {
+                    throw new ClientException(ErrorCode.CHANGE_OFFSET_UNAVAILABLE);
+                }
+                events.add(event);
+                position = next;
+            }
+            return events;
+        }
+    }
+}
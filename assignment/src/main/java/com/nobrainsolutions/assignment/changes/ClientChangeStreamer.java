@@ -0,0 +1,159 @@
+package com.nobrainsolutions.assignment.changes;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nobrainsolutions.assignment.dto.ClientChangeEvent;
+import com.nobrainsolutions.assignment.exception.ClientException;
+import com.nobrainsolutions.assignment.exception.ErrorCode;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ *
+ * The ClientChangeStreamer class serves the ClientChangeLog to servlet clients as an endless response in
+ * NDJSON, one event per line, or as Server-Sent Events whose id is the event sequence number.
+ * Each stream has its own thread, which polls the log and writes what it finds, so a slow consumer only
+ * ever holds up itself; at most maxStreams streams are open at once. An idle stream gets a heartbeat
+ * every 15 seconds, which also notices consumers that have gone away.
+ * A consumer that falls too far behind has its stream ended; resuming from its last sequence number
+ * then fails with 410 Gone.
+ */
+
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ClientChangeStreamer implements DisposableBean {
+
+    private static final int BATCH_SIZE = 256;
+
+    private static final long POLL_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private static final long HEARTBEAT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(15);
+
+    private static final MediaType NDJSON = MediaType.APPLICATION_NDJSON;
+
+    private static final MediaType EVENT_STREAM = MediaType.TEXT_EVENT_STREAM;
+
+    private final ClientChangeLog changeLog;
+
+    private final ObjectMapper objectMapper;
+
+    private final ThreadPoolExecutor executor;
+
+    public ClientChangeStreamer(ClientChangeLog changeLog, ObjectMapper objectMapper,
+                                @Value("${client.changes.max-streams:100}") int maxStreams) {
+        this.changeLog = changeLog;
+        this.objectMapper = objectMapper;
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(0, maxStreams, 60, TimeUnit.SECONDS, new SynchronousQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "client-changes-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts streaming the events after a given sequence number.
+     *
+     * @param after       The sequence number of the last event the consumer has seen, or null for new events only.
+     * @param eventStream true for Server-Sent Events, false for NDJSON.
+     * @return The emitter the stream is written to.
+     * @throws ClientException if the offset is no longer available or too many streams are open.
+     */
+    public ResponseBodyEmitter open(Long after, boolean eventStream) {
+        ClientChangeLog.Cursor cursor = changeLog.cursor(after);
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(0L);
+        Stream stream = new Stream(cursor, emitter, eventStream);
+        emitter.onCompletion(stream::close);
+        emitter.onError(error -> stream.close());
+        try {
+            executor.execute(stream);
+        } catch (RejectedExecutionException e) {
+            throw new ClientException(ErrorCode.TOO_MANY_REQUESTS);
+        }
+        return emitter;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private final class Stream implements Runnable {
+
+        private final ClientChangeLog.Cursor cursor;
+
+        private final ResponseBodyEmitter emitter;
+
+        private final boolean eventStream;
+
+        private volatile boolean open = true;
+
+        private Stream(ClientChangeLog.Cursor cursor, ResponseBodyEmitter emitter, boolean eventStream) {
+            this.cursor = cursor;
+            this.emitter = emitter;
+            this.eventStream = eventStream;
+        }
+
+        @Override
+        public void run() {
+            MediaType mediaType = eventStream ? EVENT_STREAM : NDJSON;
+            byte[] heartbeat = (eventStream ? ":\n\n" : "\n").getBytes(StandardCharsets.UTF_8);
+            long lastWrite = System.nanoTime();
+            try {
+                while (open && !Thread.currentThread().isInterrupted()) {
+                    List<ClientChangeEvent> events = cursor.poll(BATCH_SIZE);
+                    long now = System.nanoTime();
+                    if (!events.isEmpty()) {
+                        emitter.send(encode(events), mediaType);
+                        lastWrite = now;
+                    } else if (now - lastWrite >= HEARTBEAT_INTERVAL_NANOS) {
+                        emitter.send(heartbeat, mediaType);
+                        lastWrite = now;
+                    } else {
+                        LockSupport.parkNanos(POLL_INTERVAL_NANOS);
+                    }
+                }
+                emitter.complete();
+            } catch (ClientException e) {
+                // Fell behind the log; the consumer finds out when it resumes.
+                emitter.complete();
+            } catch (IOException | IllegalStateException e) {
+                // The consumer has gone and the request is completed by the container.
+            }
+        }
+
+        private void close() {
+            open = false;
+        }
+
+        private byte[] encode(List<ClientChangeEvent> events) throws IOException {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(events.size() * 256);
+            for (ClientChangeEvent event : events) {
+                if (eventStream) {
+                    out.write(("id: " + event.getSequence() + "\nevent: " + event.getType().name().toLowerCase()
+                            + "\ndata: ").getBytes(StandardCharsets.UTF_8));
+                    objectMapper.writeValue(out, event);
+                    out.write('\n');
+                } else {
+                    objectMapper.writeValue(out, event);
+                }
+                out.write('\n');
+            }
+            return out.toByteArray();
+        }
+    }
+}
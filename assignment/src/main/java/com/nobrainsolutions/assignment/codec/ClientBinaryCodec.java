@@ -0,0 +1,106 @@
+package com.nobrainsolutions.assignment.codec;
+
+import com.nobrainsolutions.assignment.entity.Client;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ *
+ * The ClientBinaryCodec class encodes clients in a compact length-prefixed binary form.
+ * Each field is written as an int byte length followed by its UTF-8 bytes, with -1 for null,
+ * in the order firstName, lastName, mobileNumber, idNumber, physicalAddress.
+ */
+
+public final class ClientBinaryCodec {
+
+    private ClientBinaryCodec() {
+    }
+
+    /**
+     * Writes a client.
+     *
+     * @param out    The output to write to.
+     * @param client The client to write.
+     * @throws IOException if the output cannot be written.
+     */
+    public static void write(DataOutput out, Client client) throws IOException {
+        writeString(out, client.getFirstName());
+        writeString(out, client.getLastName());
+        writeString(out, client.getMobileNumber());
+        writeString(out, client.getIdNumber());
+        writeString(out, client.getPhysicalAddress());
+    }
+
+    /**
+     * Reads a client written by write.
+     *
+     * @param in The input to read from.
+     * @return The client.
+     * @throws IOException if the input cannot be read or is truncated.
+     */
+    public static Client read(DataInput in) throws IOException {
+        return read(in, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Reads a client written by write from untrusted input, rejecting a field length prefix above a limit
+     * before anything is allocated for it.
+     *
+     * @param in             The input to read from.
+     * @param maxFieldLength The largest field byte length accepted.
+     * @return The client.
+     * @throws IOException if the input cannot be read, is truncated or has a longer field.
+     */
+    public static Client read(DataInput in, int maxFieldLength) throws IOException {
+        String firstName = readString(in, maxFieldLength);
+        String lastName = readString(in, maxFieldLength);
+        String mobileNumber = readString(in, maxFieldLength);
+        String idNumber = readString(in, maxFieldLength);
+        String physicalAddress = readString(in, maxFieldLength);
+        return new Client(firstName, lastName, mobileNumber, idNumber, physicalAddress);
+    }
+
+    /**
+     * Writes a nullable string as its byte length and UTF-8 bytes.
+     *
+     * @param out   The output to write to.
+     * @param value The string to write, or null.
+     * @throws IOException if the output cannot be written.
+     */
+    public static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads a nullable string written by writeString.
+     *
+     * @param in The input to read from.
+     * @return The string, or null.
+     * @throws IOException if the input cannot be read or is truncated.
+     */
+    public static String readString(DataInput in) throws IOException {
+        return readString(in, Integer.MAX_VALUE);
+    }
+
+    private static String readString(DataInput in, int maxLength) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > maxLength) {
+            throw new IOException("Field of " + length + " bytes exceeds " + maxLength);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
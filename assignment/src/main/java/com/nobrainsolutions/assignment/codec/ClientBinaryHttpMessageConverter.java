@@ -0,0 +1,102 @@
+package com.nobrainsolutions.assignment.codec;
+
+import com.nobrainsolutions.assignment.entity.Client;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ *
+ * The ClientBinaryHttpMessageConverter class reads and writes a Client as application/x-client-binary,
+ * a compact alternative to JSON for internal callers, chosen through the Content-Type and Accept headers.
+ * A body is one client in ClientBinaryCodec form followed by its version as a long, the record
+ * ClientExportService writes for the binary export. Like the JSON version property, the version of a
+ * request body is ignored and may be left out, so a client read with GET can be sent back unchanged.
+ * Clients read here go through the same bean validation as JSON ones.
+ */
+
+public class ClientBinaryHttpMessageConverter extends AbstractHttpMessageConverter<Client> {
+
+    /**
+     * The media type of the binary encoding.
+     */
+    public static final String MEDIA_TYPE_VALUE = "application/x-client-binary";
+
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+
+    /**
+     * The longest field accepted in a request, in UTF-8 bytes; longer length prefixes are rejected before
+     * anything is allocated for them.
+     */
+    public static final int MAX_FIELD_LENGTH = 64 * 1024;
+
+    public ClientBinaryHttpMessageConverter() {
+        super(MEDIA_TYPE);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Client.class == clazz;
+    }
+
+    @Override
+    protected Client readInternal(Class<? extends Client> clazz, HttpInputMessage inputMessage) throws IOException {
+        DataInputStream in = new DataInputStream(inputMessage.getBody());
+        try {
+            Client client = ClientBinaryCodec.read(in, MAX_FIELD_LENGTH);
+            int trailing = in.readNBytes(Long.BYTES + 1).length;
+            if (trailing != 0 && trailing != Long.BYTES) {
+                throw new IOException("Trailing bytes after the client");
+            }
+            return client;
+        } catch (IOException e) {
+            throw new HttpMessageNotReadableException("Invalid binary client: " + e.getMessage(), e, inputMessage);
+        }
+    }
+
+    @Override
+    protected void writeInternal(Client client, HttpOutputMessage outputMessage) throws IOException {
+        byte[] body = encode(client);
+        outputMessage.getHeaders().setContentLength(body.length);
+        outputMessage.getBody().write(body);
+    }
+
+    /**
+     * Encodes a client and its version into an array of exactly the right size, in one pass and without
+     * the per-field stream writes of ClientBinaryCodec.write.
+     */
+    private static byte[] encode(Client client) {
+        byte[][] fields = {
+                bytes(client.getFirstName()),
+                bytes(client.getLastName()),
+                bytes(client.getMobileNumber()),
+                bytes(client.getIdNumber()),
+                bytes(client.getPhysicalAddress())
+        };
+        int size = Long.BYTES;
+        for (byte[] field : fields) {
+            size += Integer.BYTES + (field != null ? field.length : 0);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        for (byte[] field : fields) {
+            if (field == null) {
+                buffer.putInt(-1);
+            } else {
+                buffer.putInt(field.length).put(field);
+            }
+        }
+        buffer.putLong(client.getVersion());
+        return buffer.array();
+    }
+
+    private static byte[] bytes(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+}
@@ -0,0 +1,26 @@
+package com.nobrainsolutions.assignment.config;
+
+import com.nobrainsolutions.assignment.codec.ClientBinaryHttpMessageConverter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ *
+ * The ClientBinaryConfig class lets ClientController read and write clients as application/x-client-binary.
+ * The converter is added after the default ones, so JSON stays the answer to requests that accept any type
+ * and the binary encoding is only used when a caller names it in Content-Type or Accept.
+ */
+
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ClientBinaryConfig implements WebMvcConfigurer {
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new ClientBinaryHttpMessageConverter());
+    }
+}
@@ -0,0 +1,24 @@
+package com.nobrainsolutions.assignment.config;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ *
+ * The LazyInitializationConfig class keeps the beans that start background work eager when beans are
+ * otherwise created on first use, as in the lazy profile.
+ * Nothing depends on ClientPersistenceManager, ClientReplicator or ClientArchiver, so a lazy one would
+ * never be created: the store would not be recovered, a follower would not replicate, and nothing would be
+ * archived. Each of them starts its work from SmartInitializingSingleton, so beans of that type are excluded.
+ */
+
+@Configuration
+public class LazyInitializationConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter backgroundWorkExcludeFilter() {
+        return LazyInitializationExcludeFilter.forBeanTypes(SmartInitializingSingleton.class);
+    }
+}
@@ -0,0 +1,29 @@
+package com.nobrainsolutions.assignment.config;
+
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.Executors;
+
+/**
+ *
+ * The VirtualThreadConfig class runs every Tomcat request, and therefore every ClientController handler,
+ * on its own virtual thread instead of the fixed platform-thread worker pool.
+ * A request blocked on I/O or on a lock then releases its carrier thread, so concurrency is bounded by
+ * server.tomcat.max-connections rather than server.tomcat.threads.max.
+ * Enabled with spring.threads.virtual.enabled=true, the property Spring Boot 3.2 uses for the same switch,
+ * so the setting keeps its meaning after an upgrade.
+ */
+
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+}
@@ -1,28 +1,70 @@
 package com.nobrainsolutions.assignment.controller;
 
 
+import com.nobrainsolutions.assignment.cache.ClientResponseCache;
+import com.nobrainsolutions.assignment.changes.ClientChangeLog;
+import com.nobrainsolutions.assignment.changes.ClientChangeStreamer;
+import com.nobrainsolutions.assignment.codec.ClientBinaryHttpMessageConverter;
+import com.nobrainsolutions.assignment.dto.BulkImportResult;
+import com.nobrainsolutions.assignment.dto.ClientLookupRequest;
+import com.nobrainsolutions.assignment.dto.ClientLookupResult;
+import com.nobrainsolutions.assignment.dto.ClientPage;
+import com.nobrainsolutions.assignment.dto.ClientSearchCriteria;
 import com.nobrainsolutions.assignment.entity.Client;
+import com.nobrainsolutions.assignment.search.ClientTextIndex;
+import com.nobrainsolutions.assignment.service.ClientExportService;
+import com.nobrainsolutions.assignment.service.ClientImportService;
 import com.nobrainsolutions.assignment.service.ClientService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import jakarta.validation.Valid;
 
-import java.util.Optional;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * The ClientController class is responsible for handling client-related API endpoints.
- * It provides operations to create, retrieve, update, and search clients.
+ * It provides operations to create, retrieve, update, delete, and search clients, and a stream of their changes.
+ * Active on the default servlet stack; ReactiveClientController serves the same API on WebFlux.
  */
 
 @RestController
 @RequestMapping("/clients")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class ClientController {
 
     @Autowired
     private ClientService clientService;
 
+    @Autowired
+    private ClientImportService clientImportService;
+
+    @Autowired
+    private ClientExportService clientExportService;
+
+    @Autowired
+    private ClientTextIndex clientTextIndex;
+
+    @Autowired
+    private ClientResponseCache clientResponseCache;
+
+    @Autowired
+    private ClientChangeStreamer clientChangeStreamer;
+
+    @Autowired
+    private ClientChangeLog clientChangeLog;
+
 
     /**
      * This method is used to create a client.
@@ -37,65 +79,328 @@ public class ClientController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdClient);
     }
 
+    /**
+     * This method is used to import clients in bulk from a JSON array.
+     * The body is streamed, so uploads of any size are accepted.
+     *
+     * @param body The JSON array of clients.
+     * @return The ResponseEntity containing the per-row import summary.
+     * @throws IOException if the body cannot be read.
+     */
+
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkImportResult> importClientsJson(InputStream body) throws IOException {
+        return ResponseEntity.ok(clientImportService.importJson(body));
+    }
+
+    /**
+     * This method is used to import clients in bulk from CSV with a header line.
+     * The body is streamed, so uploads of any size are accepted.
+     *
+     * @param body The CSV upload.
+     * @return The ResponseEntity containing the per-row import summary.
+     * @throws IOException if the body cannot be read.
+     */
+
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    public ResponseEntity<BulkImportResult> importClientsCsv(InputStream body) throws IOException {
+        return ResponseEntity.ok(clientImportService.importCsv(body));
+    }
+
     /**
      * This method is used to get a client by ID.
+     * The response carries a strong ETag; a request whose If-None-Match matches it gets 304 Not Modified.
      *
      * @param idNumber The ID number of the client.
-     * @return The ResponseEntity containing the client.
+     * @return The ResponseEntity containing the client as JSON.
      */
 
     @GetMapping("/{idNumber}")
-    public ResponseEntity<Client> getClientById(@PathVariable String idNumber) {
-        Client client = clientService.getClientById(idNumber);
-        if (client != null) {
-            return ResponseEntity.ok(client);
-        } else {
-            return ResponseEntity.notFound().build();
-        }
+    public ResponseEntity<byte[]> getClientById(@PathVariable String idNumber) {
+        ClientResponseCache.CachedClient client = clientResponseCache.get(idNumber, clientService::getClientById);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(client.getEtag())
+                .body(client.getBody());
+    }
+
+    /**
+     * This method is used to get a client by ID in the binary encoding of ClientBinaryHttpMessageConverter.
+     * The client is encoded per request; conditional requests use the ETags of the JSON form.
+     *
+     * @param idNumber The ID number of the client.
+     * @return The ResponseEntity containing the client.
+     */
+
+    @GetMapping(value = "/{idNumber}", produces = ClientBinaryHttpMessageConverter.MEDIA_TYPE_VALUE)
+    public ResponseEntity<Client> getBinaryClientById(@PathVariable String idNumber) {
+        return ResponseEntity.ok(clientService.getClientById(idNumber));
     }
 
     /**
      * This method is used to update a client.
+     * With an If-Match header the update only applies if the client still has one of the listed ETags,
+     * as returned by getClientById, and otherwise fails with 412 Precondition Failed.
      *
      * @param idNumber The ID number of the client to update.
+     * @param ifMatch  The ETags the update is conditional on, or null.
      * @param client   The updated client object.
-     * @return The ResponseEntity containing the updated client.
+     * @return The ResponseEntity containing the updated client as JSON, with its new ETag.
      */
 
     @PutMapping("/{idNumber}")
-    public ResponseEntity<Client> updateClient(@PathVariable String idNumber, @Valid @RequestBody Client client) {
-        Client updatedClient = clientService.updateClient(idNumber, client);
+    public ResponseEntity<byte[]> updateClient(@PathVariable String idNumber,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                               @Valid @RequestBody Client client) {
+        long expectedVersion = clientResponseCache.expectedVersion(idNumber, ifMatch, clientService::getClientById);
+        Client updatedClient = clientService.updateClient(idNumber, client, expectedVersion);
         if (updatedClient != null) {
-            return ResponseEntity.ok(updatedClient);
+            ClientResponseCache.CachedClient response = clientResponseCache.serialize(updatedClient);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .eTag(response.getEtag())
+                    .body(response.getBody());
         } else {
             return ResponseEntity.notFound().build();
         }
     }
 
+    /**
+     * This method is used to delete a client.
+     * With an If-Match header the deletion only applies if the client still has one of the listed ETags,
+     * as returned by getClientById, and otherwise fails with 412 Precondition Failed.
+     *
+     * @param idNumber The ID number of the client to delete.
+     * @param ifMatch  The ETags the deletion is conditional on, or null.
+     * @return The empty ResponseEntity.
+     */
+
+    @DeleteMapping("/{idNumber}")
+    public ResponseEntity<Void> deleteClient(@PathVariable String idNumber,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        long expectedVersion = clientResponseCache.expectedVersion(idNumber, ifMatch, clientService::getClientById);
+        clientService.deleteClient(idNumber, expectedVersion);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * This method is used to stream every change as NDJSON, one ClientChangeEvent per line.
+     * The response stays open; a blank line is sent as a heartbeat while there are no changes.
+     *
+     * @param after The sequence number of the last event already received, or none for new events only.
+     * @return The ResponseEntity streaming the events.
+     */
+
+    @GetMapping(value = "/changes", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ResponseBodyEmitter> streamChanges(@RequestParam(required = false) Long after) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(clientChangeStreamer.open(after, false));
+    }
+
+    /**
+     * This method is used to stream every change as Server-Sent Events.
+     * Each event is named created, updated or removed and its id is the sequence number, so a reconnecting
+     * EventSource resumes where it left off.
+     *
+     * @param after       The sequence number of the last event already received, or none for new events only.
+     * @param lastEventId The id of the last event received, sent by a reconnecting EventSource.
+     * @return The ResponseEntity streaming the events.
+     */
+
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<ResponseBodyEmitter> streamChangeEvents(@RequestParam(required = false) Long after,
+                                                                  @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .body(clientChangeStreamer.open(lastEventId != null ? lastEventId : after, true));
+    }
+
+    /**
+     * This method is used to stream every stored client as NDJSON, one client per line, for a replication
+     * follower catching up. The X-Change-Sequence header holds the sequence number of the last change
+     * that the snapshot is sure to contain; replaying the changes after it, in order, brings a copy of
+     * the snapshot up to date, even though later changes may already show in it.
+     *
+     * @return The ResponseEntity streaming the clients.
+     */
+
+    @GetMapping(value = "/snapshot", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamSnapshot() {
+        long sequence = clientChangeLog.lastSequence();
+        return ResponseEntity.ok()
+                .header(ClientChangeLog.SEQUENCE_HEADER, Long.toString(sequence))
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> clientExportService.export(ClientExportService.Format.NDJSON, out));
+    }
+
+    /**
+     * This method is used to resolve many ID numbers and mobile numbers in one request.
+     * Results are written in request order, ID numbers first, as a JSON array; keys without a client
+     * are marked found=false.
+     *
+     * @param request The keys to resolve, up to ClientService.MAX_LOOKUP_SIZE in total.
+     * @return The ResponseEntity containing one result per key.
+     */
+
+    @PostMapping(value = "/lookup", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<ClientLookupResult>> lookupClients(@RequestBody ClientLookupRequest request) {
+        return ResponseEntity.ok(clientService.lookupClients(request.getIdNumbers(), request.getMobileNumbers()));
+    }
+
+    /**
+     * This method is used to resolve many ID numbers and mobile numbers in one request, as NDJSON.
+     * Results are as for the JSON form, one per line, but each is written as soon as it is resolved, so
+     * the response starts before the last key is looked up and only one result is held at a time.
+     *
+     * @param request The keys to resolve, up to ClientService.MAX_LOOKUP_SIZE in total.
+     * @return The ResponseEntity streaming one result per key.
+     */
+
+    @PostMapping(value = "/lookup", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamLookupClients(@RequestBody ClientLookupRequest request) {
+        Stream<ClientLookupResult> results = clientService.streamLookupClients(request.getIdNumbers(), request.getMobileNumbers());
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> {
+                    Iterable<ClientLookupResult> lines = results::iterator;
+                    try (results) {
+                        clientExportService.writeNdjson(lines, out);
+                    }
+                });
+    }
+
+    /**
+     * This method is used to export every stored client, for reconciliation.
+     * Clients are streamed straight from the store, so exports of any size use constant memory, and
+     * the response is gzip-compressed when the Accept-Encoding header allows it.
+     * The X-Change-Sequence header is as for /clients/snapshot.
+     *
+     * @param format         The format: ndjson (the default), csv or binary.
+     * @param acceptEncoding The encodings the caller accepts.
+     * @return The ResponseEntity streaming the clients.
+     */
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportClients(@RequestParam(defaultValue = "ndjson") String format,
+                                                               @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        ClientExportService.Format exportFormat = ClientExportService.Format.of(format);
+        boolean gzip = acceptsGzip(acceptEncoding);
+        long sequence = clientChangeLog.lastSequence();
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(ClientChangeLog.SEQUENCE_HEADER, Long.toString(sequence))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"clients." + exportFormat.getExtension() + "\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()));
+        if (!gzip) {
+            return response.body(out -> clientExportService.export(exportFormat, out));
+        }
+        return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(out -> {
+            GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024);
+            clientExportService.export(exportFormat, compressed);
+            compressed.finish();
+        });
+    }
+
     /**
      * This method is used to search for clients.
+     * Every provided parameter must match; results are ordered by ID number and paginated.
      *
      * @param firstName    The first name of the client.
+     * @param lastName     The last name of the client.
      * @param idNumber     The ID number of the client.
      * @param mobileNumber The mobile number of the client.
-     * @return The ResponseEntity containing the search result.
+     * @param cursor       The nextCursor of the previous page, if any.
+     * @param limit        The maximum number of clients per page.
+     * @return The ResponseEntity containing the page of matching clients.
      */
 
     @GetMapping("/search")
-    public ResponseEntity<Client> searchClient(@RequestParam(required = false) String firstName,
-                                               @RequestParam(required = false) String idNumber,
-                                               @RequestParam(required = false) String mobileNumber) {
+    public ResponseEntity<ClientPage> searchClients(@RequestParam(required = false) String firstName,
+                                                    @RequestParam(required = false) String lastName,
+                                                    @RequestParam(required = false) String idNumber,
+                                                    @RequestParam(required = false) String mobileNumber,
+                                                    @RequestParam(required = false) String cursor,
+                                                    @RequestParam(defaultValue = "50") int limit) {
 
-        if (firstName == null && idNumber == null && mobileNumber == null) {
+        ClientSearchCriteria criteria = new ClientSearchCriteria(firstName, lastName, idNumber, mobileNumber);
+        if (criteria.isEmpty()) {
             return ResponseEntity.badRequest().build();
         }
 
-        Optional<Client> optionalClient = clientService.searchClient(firstName, idNumber, mobileNumber);
-        if (optionalClient.isPresent()) {
-            return ResponseEntity.ok(optionalClient.get());
-        } else {
-            return ResponseEntity.notFound().build();
+        return ResponseEntity.ok(clientService.searchClients(criteria, cursor, limit));
+    }
+
+    /**
+     * This method is used to search for clients by name or address prefix, e.g. "vis nag".
+     *
+     * @param q     The query; every term must be a prefix of a first name, last name or address word.
+     * @param limit The maximum number of clients to return.
+     * @return The ResponseEntity containing the matching clients.
+     */
+
+    @GetMapping("/search/prefix")
+    public ResponseEntity<List<Client>> searchClientsByPrefix(@RequestParam String q,
+                                                              @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(clientTextIndex.searchByPrefix(q, Math.min(limit, ClientService.MAX_PAGE_SIZE)));
+    }
+
+    /**
+     * This method is used to search for clients by name or address, tolerating typos.
+     *
+     * @param q        A single search term.
+     * @param maxEdits The maximum number of typos (insertions, deletions or substitutions), up to 2.
+     * @param limit    The maximum number of clients to return.
+     * @return The ResponseEntity containing the matching clients, closest matches first.
+     */
+
+    @GetMapping("/search/fuzzy")
+    public ResponseEntity<List<Client>> searchClientsFuzzy(@RequestParam String q,
+                                                           @RequestParam(defaultValue = "1") int maxEdits,
+                                                           @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(clientTextIndex.searchFuzzy(q, maxEdits, Math.min(limit, ClientService.MAX_PAGE_SIZE)));
+    }
+
+    /**
+     * Tells whether an Accept-Encoding header allows a gzip-compressed response: gzip, x-gzip or * is
+     * listed with a non-zero quality, and gzip is not refused explicitly with q=0.
+     *
+     * @param acceptEncoding The Accept-Encoding header, or null.
+     * @return true if the response may be gzip-compressed.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        boolean wildcard = false;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parameters = element.split(";");
+            String coding = parameters[0].trim().toLowerCase(Locale.ROOT);
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                return quality(parameters) > 0;
+            }
+            if (coding.equals("*")) {
+                wildcard = quality(parameters) > 0;
+            }
         }
+        return wildcard;
     }
-}
 
+    /**
+     * Returns the q parameter of an Accept-Encoding element, 1 if it has none and 0 if it is malformed.
+     */
+    private static double quality(String[] parameters) {
+        for (int i = 1; i < parameters.length; i++) {
+            String parameter = parameters[i].trim();
+            if (parameter.regionMatches(true, 0, "q=", 0, 2)) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
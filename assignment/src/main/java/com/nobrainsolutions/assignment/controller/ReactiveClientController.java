@@ -0,0 +1,272 @@
+package com.nobrainsolutions.assignment.controller;
+
+
+import com.nobrainsolutions.assignment.cache.ClientResponseCache;
+import com.nobrainsolutions.assignment.changes.ClientChangeLog;
+import com.nobrainsolutions.assignment.dto.ClientChangeEvent;
+import com.nobrainsolutions.assignment.dto.ClientLookupRequest;
+import com.nobrainsolutions.assignment.dto.ClientLookupResult;
+import com.nobrainsolutions.assignment.dto.ClientPage;
+import com.nobrainsolutions.assignment.dto.ClientSearchCriteria;
+import com.nobrainsolutions.assignment.entity.Client;
+import com.nobrainsolutions.assignment.exception.ClientException;
+import com.nobrainsolutions.assignment.exception.ErrorCode;
+import com.nobrainsolutions.assignment.search.ClientTextIndex;
+import com.nobrainsolutions.assignment.service.ClientService;
+import com.nobrainsolutions.assignment.service.ReactiveClientService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.*;
+import jakarta.validation.Valid;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * The ReactiveClientController class serves the /clients API on the non-blocking WebFlux stack.
+ * It offers the same create, retrieve, update, delete and search contract as ClientController, plus
+ * /clients/search/stream, which streams every match as NDJSON or Server-Sent Events.
+ * /clients/changes streams every change, likewise as NDJSON or Server-Sent Events.
+ * Active when spring.main.web-application-type=reactive; bulk import and export and the binary client
+ * encoding stay on the servlet stack.
+ */
+
+@RestController
+@RequestMapping("/clients")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveClientController {
+
+    @Autowired
+    private ReactiveClientService reactiveClientService;
+
+    @Autowired
+    private ClientTextIndex clientTextIndex;
+
+    @Autowired
+    private ClientResponseCache clientResponseCache;
+
+
+    /**
+     * This method is used to create a client.
+     *
+     * @param client The client object to be created.
+     * @return The ResponseEntity containing the created client.
+     */
+
+    @PostMapping
+    public Mono<ResponseEntity<Client>> createClient(@Valid @RequestBody Client client) {
+        return reactiveClientService.createClient(client)
+                .map(createdClient -> ResponseEntity.status(HttpStatus.CREATED).body(createdClient));
+    }
+
+    /**
+     * This method is used to get a client by ID.
+     * The response carries a strong ETag; a request whose If-None-Match matches it gets 304 Not Modified.
+     *
+     * @param idNumber The ID number of the client.
+     * @return The ResponseEntity containing the client as JSON.
+     */
+
+    @GetMapping("/{idNumber}")
+    public Mono<ResponseEntity<byte[]>> getClientById(@PathVariable String idNumber) {
+        return reactiveClientService.getCachedClientById(idNumber)
+                .map(client -> ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .eTag(client.getEtag())
+                        .body(client.getBody()));
+    }
+
+    /**
+     * This method is used to update a client.
+     * With an If-Match header the update only applies if the client still has one of the listed ETags,
+     * and otherwise fails with 412 Precondition Failed.
+     *
+     * @param idNumber The ID number of the client to update.
+     * @param ifMatch  The ETags the update is conditional on, or null.
+     * @param client   The updated client object.
+     * @return The ResponseEntity containing the updated client as JSON, with its new ETag.
+     */
+
+    @PutMapping("/{idNumber}")
+    public Mono<ResponseEntity<byte[]>> updateClient(@PathVariable String idNumber,
+                                                     @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                     @Valid @RequestBody Client client) {
+        return reactiveClientService.updateClient(idNumber, client, ifMatch)
+                .map(clientResponseCache::serialize)
+                .map(updated -> ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .eTag(updated.getEtag())
+                        .body(updated.getBody()));
+    }
+
+    /**
+     * This method is used to delete a client.
+     * With an If-Match header the deletion only applies if the client still has one of the listed ETags,
+     * and otherwise fails with 412 Precondition Failed.
+     *
+     * @param idNumber The ID number of the client to delete.
+     * @param ifMatch  The ETags the deletion is conditional on, or null.
+     * @return The empty ResponseEntity.
+     */
+
+    @DeleteMapping("/{idNumber}")
+    public Mono<ResponseEntity<Void>> deleteClient(@PathVariable String idNumber,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return reactiveClientService.deleteClient(idNumber, ifMatch).map(client -> ResponseEntity.noContent().build());
+    }
+
+    /**
+     * This method is used to search for clients.
+     * Every provided parameter must match; results are ordered by ID number and paginated.
+     *
+     * @param firstName    The first name of the client.
+     * @param lastName     The last name of the client.
+     * @param idNumber     The ID number of the client.
+     * @param mobileNumber The mobile number of the client.
+     * @param cursor       The nextCursor of the previous page, if any.
+     * @param limit        The maximum number of clients per page.
+     * @return The ResponseEntity containing the page of matching clients.
+     */
+
+    @GetMapping("/search")
+    public Mono<ResponseEntity<ClientPage>> searchClients(@RequestParam(required = false) String firstName,
+                                                          @RequestParam(required = false) String lastName,
+                                                          @RequestParam(required = false) String idNumber,
+                                                          @RequestParam(required = false) String mobileNumber,
+                                                          @RequestParam(required = false) String cursor,
+                                                          @RequestParam(defaultValue = "50") int limit) {
+
+        ClientSearchCriteria criteria = new ClientSearchCriteria(firstName, lastName, idNumber, mobileNumber);
+        if (criteria.isEmpty()) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+
+        return reactiveClientService.searchClients(criteria, cursor, limit).map(ResponseEntity::ok);
+    }
+
+    /**
+     * This method is used to stream every client matching the search, ordered by ID number.
+     * The format follows the Accept header: application/x-ndjson (the default) or text/event-stream.
+     *
+     * @param firstName    The first name of the client.
+     * @param lastName     The last name of the client.
+     * @param idNumber     The ID number of the client.
+     * @param mobileNumber The mobile number of the client.
+     * @return The matching clients, one per line or event.
+     */
+
+    @GetMapping(value = "/search/stream", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<Client> streamClients(@RequestParam(required = false) String firstName,
+                                      @RequestParam(required = false) String lastName,
+                                      @RequestParam(required = false) String idNumber,
+                                      @RequestParam(required = false) String mobileNumber) {
+
+        ClientSearchCriteria criteria = new ClientSearchCriteria(firstName, lastName, idNumber, mobileNumber);
+        if (criteria.isEmpty()) {
+            return Flux.error(new ClientException(ErrorCode.NO_SEARCH_CRITERIA_PROVIDED));
+        }
+
+        return reactiveClientService.streamClients(criteria);
+    }
+
+    /**
+     * This method is used to resolve many ID numbers and mobile numbers in one request.
+     * Results are written in request order, ID numbers first, as a JSON array or NDJSON following the
+     * Accept header; keys without a client are marked found=false.
+     *
+     * @param request The keys to resolve, up to ClientService.MAX_LOOKUP_SIZE in total.
+     * @return One result per key.
+     */
+
+    @PostMapping(value = "/lookup", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<ClientLookupResult> lookupClients(@RequestBody ClientLookupRequest request) {
+        return reactiveClientService.lookupClients(request.getIdNumbers(), request.getMobileNumbers());
+    }
+
+    /**
+     * This method is used to stream every stored client as NDJSON, one client per line, for a replication
+     * follower catching up. The X-Change-Sequence header holds the sequence number of the last change
+     * that the snapshot is sure to contain; replaying the changes after it, in order, brings a copy of
+     * the snapshot up to date, even though later changes may already show in it.
+     *
+     * @return The ResponseEntity streaming the clients.
+     */
+
+    @GetMapping(value = "/snapshot", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<Flux<Client>> streamSnapshot() {
+        long sequence = reactiveClientService.lastChangeSequence();
+        return ResponseEntity.ok()
+                .header(ClientChangeLog.SEQUENCE_HEADER, Long.toString(sequence))
+                .body(reactiveClientService.streamAllClients());
+    }
+
+    /**
+     * This method is used to stream every change as NDJSON, one ClientChangeEvent per line.
+     *
+     * @param after The sequence number of the last event already received, or none for new events only.
+     * @return The events, without end.
+     */
+
+    @GetMapping(value = "/changes", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ClientChangeEvent> streamChanges(@RequestParam(required = false) Long after) {
+        return reactiveClientService.streamChanges(after);
+    }
+
+    /**
+     * This method is used to stream every change as Server-Sent Events.
+     * Each event is named created, updated or removed and its id is the sequence number, so a reconnecting
+     * EventSource resumes where it left off.
+     *
+     * @param after       The sequence number of the last event already received, or none for new events only.
+     * @param lastEventId The id of the last event received, sent by a reconnecting EventSource.
+     * @return The events, without end.
+     */
+
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<ClientChangeEvent>> streamChangeEvents(@RequestParam(required = false) Long after,
+                                                                       @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return reactiveClientService.streamChanges(lastEventId != null ? lastEventId : after)
+                .map(event -> ServerSentEvent.builder(event)
+                        .id(Long.toString(event.getSequence()))
+                        .event(event.getType().name().toLowerCase())
+                        .build());
+    }
+
+    /**
+     * This method is used to search for clients by name or address prefix, e.g. "vis nag".
+     *
+     * @param q     The query; every term must be a prefix of a first name, last name or address word.
+     * @param limit The maximum number of clients to return.
+     * @return The ResponseEntity containing the matching clients.
+     */
+
+    @GetMapping("/search/prefix")
+    public Mono<ResponseEntity<List<Client>>> searchClientsByPrefix(@RequestParam String q,
+                                                                    @RequestParam(defaultValue = "10") int limit) {
+        return Mono.fromSupplier(() ->
+                ResponseEntity.ok(clientTextIndex.searchByPrefix(q, Math.min(limit, ClientService.MAX_PAGE_SIZE))));
+    }
+
+    /**
+     * This method is used to search for clients by name or address, tolerating typos.
+     *
+     * @param q        A single search term.
+     * @param maxEdits The maximum number of typos (insertions, deletions or substitutions), up to 2.
+     * @param limit    The maximum number of clients to return.
+     * @return The ResponseEntity containing the matching clients, closest matches first.
+     */
+
+    @GetMapping("/search/fuzzy")
+    public Mono<ResponseEntity<List<Client>>> searchClientsFuzzy(@RequestParam String q,
+                                                                 @RequestParam(defaultValue = "1") int maxEdits,
+                                                                 @RequestParam(defaultValue = "10") int limit) {
+        return Mono.fromSupplier(() ->
+                ResponseEntity.ok(clientTextIndex.searchFuzzy(q, maxEdits, Math.min(limit, ClientService.MAX_PAGE_SIZE))));
+    }
+}
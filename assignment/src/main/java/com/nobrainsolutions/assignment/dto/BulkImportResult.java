@@ -0,0 +1,73 @@
+package com.nobrainsolutions.assignment.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The BulkImportResult class is used to summarise the outcome of a bulk client import.
+ * Only failed rows are listed individually, and that list is capped so the summary
+ * stays small no matter how large the upload is.
+ */
+
+@Getter
+@Setter
+public class BulkImportResult {
+
+    /**
+     * total
+     */
+    private long total;
+
+    /**
+     * created
+     */
+    private long created;
+
+    /**
+     * failed
+     */
+    private long failed;
+
+    /**
+     * errors
+     */
+    private List<RowError> errors = new ArrayList<>();
+
+    /**
+     * errorsTruncated
+     */
+    private boolean errorsTruncated;
+
+    /**
+     * The RowError class describes why a single row of the import was rejected.
+     */
+
+    @Getter
+    @Setter
+    public static class RowError {
+
+        /**
+         * row, counted from 1 in the order the records appear in the upload
+         */
+        private long row;
+
+        /**
+         * idNumber
+         */
+        private String idNumber;
+
+        /**
+         * message
+         */
+        private String message;
+
+        public RowError(long row, String idNumber, String message) {
+            this.row = row;
+            this.idNumber = idNumber;
+            this.message = message;
+        }
+    }
+}
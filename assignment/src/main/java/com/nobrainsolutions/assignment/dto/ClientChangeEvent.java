@@ -0,0 +1,50 @@
+package com.nobrainsolutions.assignment.dto;
+
+import com.nobrainsolutions.assignment.entity.Client;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The ClientChangeEvent class is used to describe one successful create, update or removal of a client.
+ * Events are numbered by a sequence that increases by one per event; pass the sequence of the last
+ * event received back to resume the change stream after it.
+ */
+
+@Getter
+@AllArgsConstructor
+public class ClientChangeEvent {
+
+    /**
+     * The kind of change.
+     */
+    public enum Type {
+        CREATED,
+        UPDATED,
+        REMOVED
+    }
+
+    /**
+     * sequence
+     */
+    private final long sequence;
+
+    /**
+     * type
+     */
+    private final Type type;
+
+    /**
+     * timestamp, in milliseconds since the epoch
+     */
+    private final long timestamp;
+
+    /**
+     * previousIdNumber, the ID number before an update or removal; null for a create
+     */
+    private final String previousIdNumber;
+
+    /**
+     * client, as it is after the change; for a removal, as it was when removed
+     */
+    private final Client client;
+}
@@ -0,0 +1,31 @@
+package com.nobrainsolutions.assignment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * The ClientLookupRequest class is used to resolve many clients in one request.
+ * Either list may be omitted; results come back for the ID numbers first, then the mobile numbers,
+ * each in the order given.
+ */
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClientLookupRequest {
+
+    /**
+     * idNumbers
+     */
+    private List<String> idNumbers;
+
+    /**
+     * mobileNumbers
+     */
+    private List<String> mobileNumbers;
+}
@@ -0,0 +1,37 @@
+package com.nobrainsolutions.assignment.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.nobrainsolutions.assignment.entity.Client;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The ClientLookupResult class is used to report how one key of a ClientLookupRequest resolved.
+ * Exactly one of idNumber and mobileNumber is set, echoing the key; client is absent when found is false.
+ */
+
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ClientLookupResult {
+
+    /**
+     * idNumber, for an ID number lookup
+     */
+    private final String idNumber;
+
+    /**
+     * mobileNumber, for a mobile number lookup
+     */
+    private final String mobileNumber;
+
+    /**
+     * found
+     */
+    private final boolean found;
+
+    /**
+     * client, if found
+     */
+    private final Client client;
+}
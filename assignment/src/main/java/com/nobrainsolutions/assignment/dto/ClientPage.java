@@ -0,0 +1,31 @@
+package com.nobrainsolutions.assignment.dto;
+
+import com.nobrainsolutions.assignment.entity.Client;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * The ClientPage class is used to return one page of search results.
+ * Results are ordered by ID number; pass nextCursor back to fetch the following page.
+ */
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClientPage {
+
+    /**
+     * clients
+     */
+    private List<Client> clients;
+
+    /**
+     * nextCursor, or null on the last page
+     */
+    private String nextCursor;
+}
@@ -0,0 +1,63 @@
+package com.nobrainsolutions.assignment.dto;
+
+import com.nobrainsolutions.assignment.entity.Client;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Objects;
+
+/**
+ * The ClientSearchCriteria class is used to combine search predicates.
+ * Every non-null field must match exactly; null fields are ignored.
+ */
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClientSearchCriteria {
+
+    /**
+     * firstName
+     */
+    private String firstName;
+
+    /**
+     * lastName
+     */
+    private String lastName;
+
+    /**
+     * idNumber
+     */
+    private String idNumber;
+
+    /**
+     * mobileNumber
+     */
+    private String mobileNumber;
+
+    /**
+     * Checks if no predicate is set.
+     *
+     * @return true if every field is null, false otherwise.
+     */
+    public boolean isEmpty() {
+        return firstName == null && lastName == null && idNumber == null && mobileNumber == null;
+    }
+
+    /**
+     * Checks if a client satisfies every predicate.
+     *
+     * @param client The client to check.
+     * @return true if the client matches, false otherwise.
+     */
+    public boolean matches(Client client) {
+        return (firstName == null || firstName.equals(client.getFirstName()))
+                && (lastName == null || lastName.equals(client.getLastName()))
+                && (idNumber == null || idNumber.equals(client.getIdNumber()))
+                && (mobileNumber == null || Objects.equals(mobileNumber, client.getMobileNumber()));
+    }
+}
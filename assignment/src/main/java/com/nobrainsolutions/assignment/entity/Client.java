@@ -1,18 +1,21 @@
 package com.nobrainsolutions.assignment.entity;
 
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
-import lombok.Setter;
+import lombok.With;
 
 /**
  * The Client class is used to define client information.
+ * Instances are immutable: the store replaces them on every change instead of modifying them, and a
+ * changed copy is made with the with methods.
  */
 
 @Getter
-@Setter
+@With
 @NoArgsConstructor
 @AllArgsConstructor
 public class Client {
@@ -45,5 +48,15 @@ public class Client {
      */
     private String physicalAddress;
 
+    /**
+     * version, assigned by the store: 1 when the client is created, incremented by every update.
+     * Read-only in JSON, so a request body cannot set it.
+     */
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private long version;
+
+    public Client(String firstName, String lastName, String mobileNumber, String idNumber, String physicalAddress) {
+        this(firstName, lastName, mobileNumber, idNumber, physicalAddress, 0);
+    }
 }
 
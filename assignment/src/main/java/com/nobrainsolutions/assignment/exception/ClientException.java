@@ -0,0 +1,31 @@
+package com.nobrainsolutions.assignment.exception;
+
+/**
+ *
+ * The ClientException class reports an expected rejection of a client request, identified by its ErrorCode.
+ * These are outcomes of ordinary input, not bugs, so no stack trace is captured: creating one costs
+ * about as much as any small object instead of a walk over every frame of the request thread. It
+ * extends IllegalArgumentException and keeps the code's message, so existing callers that catch
+ * IllegalArgumentException or compare messages are unaffected.
+ * A new instance is thrown every time, because a shared instance would collect the suppressed
+ * exceptions that try-with-resources and reactive operators attach to it.
+ */
+
+public class ClientException extends IllegalArgumentException {
+
+    private final ErrorCode errorCode;
+
+    public ClientException(ErrorCode errorCode) {
+        super(errorCode.getMessage());
+        this.errorCode = errorCode;
+    }
+
+    public ErrorCode getErrorCode() {
+        return errorCode;
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
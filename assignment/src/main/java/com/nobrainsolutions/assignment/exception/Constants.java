@@ -32,6 +32,39 @@ public class Constants {
      * Error message for no search criteria provided.
      */
     public static final String NO_SEARCH_CRITERIA_PROVIDED = "No search criteria provided";
-}
 
+    /**
+     * Error message for a search cursor that was not issued by the service.
+     */
+    public static final String INVALID_SEARCH_CURSOR = "Invalid search cursor";
+
+    /**
+     * Error message for a field value that is too long to be stored.
+     */
+    public static final String FIELD_TOO_LONG = "Field value too long";
 
+    /**
+     * Error message for a request refused by the rate limit.
+     */
+    public static final String TOO_MANY_REQUESTS = "Too many requests";
+
+    /**
+     * Error message for a conditional update of a client that has changed since it was read.
+     */
+    public static final String VERSION_CONFLICT = "Client has been modified";
+
+    /**
+     * Error message for a change stream offset whose events are no longer held.
+     */
+    public static final String CHANGE_OFFSET_UNAVAILABLE = "Change offset no longer available";
+
+    /**
+     * Error message for an export format that is not supported.
+     */
+    public static final String INVALID_EXPORT_FORMAT = "Unknown export format";
+
+    /**
+     * Error message for a batch lookup with more keys than one request may resolve.
+     */
+    public static final String LOOKUP_TOO_LARGE = "Too many lookup keys";
+}
@@ -0,0 +1,43 @@
+package com.nobrainsolutions.assignment.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ *
+ * The ErrorCode enum lists every expected way a client request can be rejected, with the message and
+ * HTTP status it is reported with. GlobalExceptionHandler and ClientMetrics dispatch on the code
+ * instead of comparing messages.
+ */
+
+public enum ErrorCode {
+
+    INVALID_ID_NUMBER(Constants.INVALID_ID_NUMBER, HttpStatus.BAD_REQUEST),
+    NO_SEARCH_CRITERIA_PROVIDED(Constants.NO_SEARCH_CRITERIA_PROVIDED, HttpStatus.BAD_REQUEST),
+    INVALID_SEARCH_CURSOR(Constants.INVALID_SEARCH_CURSOR, HttpStatus.BAD_REQUEST),
+    INVALID_EXPORT_FORMAT(Constants.INVALID_EXPORT_FORMAT, HttpStatus.BAD_REQUEST),
+    LOOKUP_TOO_LARGE(Constants.LOOKUP_TOO_LARGE, HttpStatus.BAD_REQUEST),
+    FIELD_TOO_LONG(Constants.FIELD_TOO_LONG, HttpStatus.BAD_REQUEST),
+    CLIENT_NOT_FOUND(Constants.CLIENT_NOT_FOUND, HttpStatus.NOT_FOUND),
+    DUPLICATE_ID_NUMBER(Constants.DUPLICATE_ID_NUMBER, HttpStatus.CONFLICT),
+    DUPLICATE_MOBILE_NUMBER(Constants.DUPLICATE_MOBILE_NUMBER, HttpStatus.CONFLICT),
+    VERSION_CONFLICT(Constants.VERSION_CONFLICT, HttpStatus.PRECONDITION_FAILED),
+    CHANGE_OFFSET_UNAVAILABLE(Constants.CHANGE_OFFSET_UNAVAILABLE, HttpStatus.GONE),
+    TOO_MANY_REQUESTS(Constants.TOO_MANY_REQUESTS, HttpStatus.TOO_MANY_REQUESTS);
+
+    private final String message;
+
+    private final HttpStatus status;
+
+    ErrorCode(String message, HttpStatus status) {
+        this.message = message;
+        this.status = status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+}
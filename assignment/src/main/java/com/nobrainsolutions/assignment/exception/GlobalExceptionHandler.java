@@ -1,54 +1,85 @@
 package com.nobrainsolutions.assignment.exception;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nobrainsolutions.assignment.metrics.ClientMetrics;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import java.io.UncheckedIOException;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ *
+ * The GlobalExceptionHandler class turns exceptions into ErrorResponse bodies.
+ * Expected rejections arrive as ClientException and are answered from a body serialized at most once
+ * per millisecond per ErrorCode, so a flood of invalid or duplicate requests costs neither a stack
+ * trace, nor timestamp formatting, nor JSON serialization per request.
+ */
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    @Autowired
+    private ClientMetrics clientMetrics;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * The last body sent per ErrorCode, indexed by ordinal, reused while its timestamp is current.
+     */
+    private final AtomicReferenceArray<CachedBody> errorBodies = new AtomicReferenceArray<>(ErrorCode.values().length);
+
+    private volatile CachedTimestamp timestamp = new CachedTimestamp(Long.MIN_VALUE, null);
+
     /**
-     * Exception handler for IllegalArgumentException.
-     * Handles validation exceptions and returns an ErrorResponse with the corresponding error details.
+     * Exception handler for ClientException.
+     * Returns the ErrorResponse for the exception's ErrorCode with its HTTP status.
+     *
+     * @param ex The ClientException instance.
+     * @return The ResponseEntity containing the serialized ErrorResponse.
+     */
+
+    @ExceptionHandler(ClientException.class)
+    public ResponseEntity<byte[]> handleClientException(ClientException ex) {
+        ErrorCode errorCode = ex.getErrorCode();
+        long now = System.currentTimeMillis();
+        CachedBody body = errorBodies.get(errorCode.ordinal());
+        if (body == null || body.millis != now) {
+            ErrorResponse errorResponse = errorResponse(errorCode.getStatus(), errorCode.getMessage(), timestamp(now));
+            try {
+                body = new CachedBody(now, objectMapper.writeValueAsBytes(errorResponse));
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException(e);
+            }
+            errorBodies.set(errorCode.ordinal(), body);
+        }
+        return ResponseEntity.status(errorCode.getStatus()).contentType(MediaType.APPLICATION_JSON).body(body.json);
+    }
+
+    /**
+     * Exception handler for IllegalArgumentException that is not a ClientException.
+     * Returns an ErrorResponse with the exception's message.
      *
      * @param ex The IllegalArgumentException instance.
-     * @return The ResponseEntity containing the ErrorResponse and HttpStatus.BAD_REQUEST.
+     * @return The ResponseEntity containing the ErrorResponse and HttpStatus.CONFLICT.
      */
 
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<ErrorResponse> handleIllegalArgumentException(IllegalArgumentException ex) {
-        if (ex.getMessage().equals("Invalid South African ID Number")) {
-            ErrorResponse errorResponse = new ErrorResponse();
-            errorResponse.setTimestamp(LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME));
-            errorResponse.setStatus(HttpStatus.BAD_REQUEST.value());
-            errorResponse.setError(HttpStatus.BAD_REQUEST.getReasonPhrase());
-            errorResponse.setMessage(ex.getMessage());
-
-            return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
-        }
-        else if (ex.getMessage().equals("Client not found")) {
-            ErrorResponse errorResponse = new ErrorResponse();
-            errorResponse.setTimestamp(LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME));
-            errorResponse.setStatus(HttpStatus.NOT_FOUND.value());
-            errorResponse.setError(HttpStatus.NOT_FOUND.getReasonPhrase());
-            errorResponse.setMessage(ex.getMessage());
-
-            return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
-        } else {
-            ErrorResponse errorResponse = new ErrorResponse();
-            errorResponse.setTimestamp(LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME));
-            errorResponse.setStatus(HttpStatus.CONFLICT.value());
-            errorResponse.setError(HttpStatus.CONFLICT.getReasonPhrase());
-            errorResponse.setMessage(ex.getMessage());
-
-            return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
-        }
+        ErrorResponse errorResponse = errorResponse(HttpStatus.CONFLICT, ex.getMessage(), timestamp(System.currentTimeMillis()));
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
     }
 
 
@@ -62,19 +93,61 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(ConstraintViolationException.class)
     public ResponseEntity<ErrorResponse> handleConstraintViolationException(ConstraintViolationException ex) {
-
-        ErrorResponse errorResponse = new ErrorResponse();
-        errorResponse.setTimestamp(LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME));
-        errorResponse.setStatus(HttpStatus.BAD_REQUEST.value());
-        errorResponse.setError(HttpStatus.BAD_REQUEST.getReasonPhrase());
+        clientMetrics.constraintViolation();
 
         StringBuilder errorMessage = new StringBuilder();
         for (ConstraintViolation<?> violation : ex.getConstraintViolations()) {
             errorMessage.append(violation.getMessage()).append("; ");
         }
-        errorResponse.setMessage(errorMessage.toString().trim());
+        ErrorResponse errorResponse = errorResponse(HttpStatus.BAD_REQUEST, errorMessage.toString().trim(),
+                timestamp(System.currentTimeMillis()));
 
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
+    private static ErrorResponse errorResponse(HttpStatus status, String message, String timestamp) {
+        ErrorResponse errorResponse = new ErrorResponse();
+        errorResponse.setTimestamp(timestamp);
+        errorResponse.setStatus(status.value());
+        errorResponse.setError(status.getReasonPhrase());
+        errorResponse.setMessage(message);
+        return errorResponse;
+    }
+
+    /**
+     * Formats the current time, reusing the text of the previous call within the same millisecond.
+     */
+    private String timestamp(long millis) {
+        CachedTimestamp cached = timestamp;
+        if (cached.millis != millis) {
+            cached = new CachedTimestamp(millis, LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault())
+                    .format(DateTimeFormatter.ISO_DATE_TIME));
+            timestamp = cached;
+        }
+        return cached.text;
+    }
+
+    private static final class CachedTimestamp {
+
+        private final long millis;
+
+        private final String text;
+
+        private CachedTimestamp(long millis, String text) {
+            this.millis = millis;
+            this.text = text;
+        }
+    }
+
+    private static final class CachedBody {
+
+        private final long millis;
+
+        private final byte[] json;
+
+        private CachedBody(long millis, byte[] json) {
+            this.millis = millis;
+            this.json = json;
+        }
+    }
 }
@@ -0,0 +1,308 @@
+package com.nobrainsolutions.assignment.keyfilter;
+
+import com.nobrainsolutions.assignment.entity.Client;
+import com.nobrainsolutions.assignment.repository.ClientRepository;
+import com.nobrainsolutions.assignment.service.ClientChangeListener;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ *
+ * The ClientKeyFilter class keeps a counting Bloom filter over the stored ID numbers and mobile numbers, so
+ * ClientService can answer lookups of keys that are definitely absent, such as scrapers probing random ID
+ * numbers, without touching the store and its locks.
+ * The filter follows the store through ClientService change notifications, which are delivered after the
+ * write is stored. A reader that races a create may therefore miss the new client, as if it had read just
+ * before the create; once the create has returned, the client is always found. The filter is notified
+ * right after the write-ahead log and before ClientChangeLog, so a consumer that has seen a change event
+ * always finds the client it names.
+ * When the filter holds more keys than it was sized for, it is rebuilt twice as large from the store on a
+ * background thread while the old one keeps answering. Changes made during the rebuild go to both filters,
+ * except removals, which the new filter skips: it may then report a removed key as present, never the reverse.
+ * Creates gain nothing, because the store claims the ID number and mobile number of a new client in the same
+ * atomic step that checks them; the filter lags that step and cannot stand in for it.
+ * A check costs one cache miss, about as much as a miss in the heap engine's hash index, and it is added to
+ * every lookup of a stored key. The filter pays off where lookups in the store cost more, such as behind
+ * the read lock of the compact engine under many threads; ClientKeyFilterBenchmark compares the two.
+ * Enabled with client.key-filter.enabled=true; otherwise every key counts as possibly present.
+ */
+
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class ClientKeyFilter implements ClientChangeListener {
+
+    private static final long ID_NUMBER_SEED = 0x9e3779b97f4a7c15L;
+
+    private static final long MOBILE_NUMBER_SEED = 0xc2b2ae3d27d4eb4fL;
+
+    private final ClientRepository clientRepository;
+
+    private final boolean enabled;
+
+    private final double falsePositiveRate;
+
+    private final int initialCapacity;
+
+    /**
+     * Held shared by writers while they update the filters and exclusively while a rebuild starts or ends,
+     * so every change lands in the filter that answers afterwards.
+     */
+    private final ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    private final LongAdder negatives = new LongAdder();
+
+    private final LongAdder falsePositives = new LongAdder();
+
+    private volatile CountingBloomFilter filter;
+
+    private CountingBloomFilter next;
+
+    @Autowired
+    public ClientKeyFilter(ClientRepository clientRepository,
+                           @Value("${client.key-filter.enabled:false}") boolean enabled,
+                           @Value("${client.key-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                           @Value("${client.store.initial-capacity:1024}") int initialCapacity) {
+        this.clientRepository = clientRepository;
+        this.enabled = enabled;
+        this.falsePositiveRate = falsePositiveRate;
+        this.initialCapacity = 2 * Math.max(1, initialCapacity);
+        if (enabled) {
+            CountingBloomFilter initial = new CountingBloomFilter(capacityFor(clientRepository.size()), falsePositiveRate);
+            for (Client client : clientRepository.findAll()) {
+                add(initial, client);
+            }
+            this.filter = initial;
+        }
+    }
+
+    /**
+     * Returns a filter that reports every key as possibly present, for a ClientService built without one.
+     *
+     * @return The disabled filter.
+     */
+    public static ClientKeyFilter disabled() {
+        return new ClientKeyFilter(null, false, 0.01, 1);
+    }
+
+    /**
+     * Checks whether a client may have the given ID number.
+     *
+     * @param idNumber The ID number.
+     * @return false if no client has the ID number, true if one probably has or the key is null.
+     */
+    public boolean mightContainIdNumber(String idNumber) {
+        return mightContain(idNumber, ID_NUMBER_SEED);
+    }
+
+    /**
+     * Checks whether a client may have the given mobile number.
+     *
+     * @param mobileNumber The mobile number.
+     * @return false if no client has the mobile number, true if one probably has or the key is null.
+     */
+    public boolean mightContainMobileNumber(String mobileNumber) {
+        return mightContain(mobileNumber, MOBILE_NUMBER_SEED);
+    }
+
+    /**
+     * Records that a key reported as possibly present was not found in the store.
+     */
+    public void falsePositive() {
+        if (enabled) {
+            falsePositives.increment();
+        }
+    }
+
+    @Override
+    public void onCreated(Client client) {
+        if (enabled) {
+            withFilters(() -> {
+                add(filter, client);
+                if (next != null) {
+                    add(next, client);
+                }
+            });
+            rebuildIfFull();
+        }
+    }
+
+    @Override
+    public void onUpdated(Client previous, Client current) {
+        if (!enabled) {
+            return;
+        }
+        boolean idNumberChanged = !previous.getIdNumber().equals(current.getIdNumber());
+        boolean mobileNumberChanged = !Objects.equals(previous.getMobileNumber(), current.getMobileNumber());
+        if (!idNumberChanged && !mobileNumberChanged) {
+            return;
+        }
+        Client added = new Client(null, null, mobileNumberChanged ? current.getMobileNumber() : null,
+                idNumberChanged ? current.getIdNumber() : null, null);
+        Client removed = new Client(null, null, mobileNumberChanged ? previous.getMobileNumber() : null,
+                idNumberChanged ? previous.getIdNumber() : null, null);
+        withFilters(() -> {
+            add(filter, added);
+            if (next != null) {
+                add(next, added);
+            }
+            remove(filter, removed);
+        });
+        rebuildIfFull();
+    }
+
+    @Override
+    public void onRemoved(Client client) {
+        if (enabled) {
+            withFilters(() -> remove(filter, client));
+        }
+    }
+
+    /**
+     * Replaces the filter with one built from the store and sized for twice its keys, dropping the false
+     * positives left by saturated counters and earlier rebuilds. Concurrent changes are kept.
+     */
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        CountingBloomFilter rebuilt = new CountingBloomFilter(capacityFor(clientRepository.size()), falsePositiveRate);
+        rebuildLock.writeLock().lock();
+        try {
+            next = rebuilt;
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+        boolean complete = false;
+        try {
+            for (Client client : clientRepository.findAll()) {
+                add(rebuilt, client);
+            }
+            complete = true;
+        } finally {
+            rebuildLock.writeLock().lock();
+            try {
+                // An incomplete filter would report stored keys as absent, so a failed rebuild keeps the old one.
+                if (complete) {
+                    filter = rebuilt;
+                }
+                next = null;
+            } finally {
+                rebuildLock.writeLock().unlock();
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the false-positive rate expected from the number of keys in the filter and its size.
+     *
+     * @return The expected rate, or 1 when the filter is disabled.
+     */
+    public double expectedFalsePositiveRate() {
+        return enabled ? filter.expectedFalsePositiveRate() : 1;
+    }
+
+    /**
+     * Returns the share of lookups of absent keys that the filter let through to the store.
+     *
+     * @return The observed rate, or 0 before any absent key was looked up.
+     */
+    public double observedFalsePositiveRate() {
+        long passed = falsePositives.sum();
+        long total = passed + negatives.sum();
+        return total == 0 ? 0 : (double) passed / total;
+    }
+
+    public long negativeCount() {
+        return negatives.sum();
+    }
+
+    public long falsePositiveCount() {
+        return falsePositives.sum();
+    }
+
+    /**
+     * Returns the heap memory taken by the filter.
+     *
+     * @return The size of its counters in bytes, or 0 when the filter is disabled.
+     */
+    public long bytes() {
+        return enabled ? filter.bytes() : 0;
+    }
+
+    private boolean mightContain(String key, long seed) {
+        if (!enabled || key == null || filter.mightContain(CountingBloomFilter.hash(key, seed))) {
+            return true;
+        }
+        negatives.increment();
+        return false;
+    }
+
+    private void withFilters(Runnable update) {
+        rebuildLock.readLock().lock();
+        try {
+            update.run();
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    private void rebuildIfFull() {
+        CountingBloomFilter current = filter;
+        if (current.size() > current.capacity() && rebuilding.compareAndSet(false, true)) {
+            Thread thread = new Thread(() -> {
+                try {
+                    rebuild();
+                    log.info("Rebuilt the client key filter for {} keys", filter.capacity());
+                } catch (RuntimeException e) {
+                    log.warn("Client key filter rebuild failed", e);
+                } finally {
+                    rebuilding.set(false);
+                }
+            }, "client-key-filter");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    private int capacityFor(int clients) {
+        return (int) Math.min(Integer.MAX_VALUE / 2, Math.max(initialCapacity, 4L * clients));
+    }
+
+    /**
+     * Adds the ID number and mobile number of a client, skipping either if it is null.
+     */
+    private static void add(CountingBloomFilter target, Client client) {
+        if (client.getIdNumber() != null) {
+            target.add(CountingBloomFilter.hash(client.getIdNumber(), ID_NUMBER_SEED));
+        }
+        if (client.getMobileNumber() != null) {
+            target.add(CountingBloomFilter.hash(client.getMobileNumber(), MOBILE_NUMBER_SEED));
+        }
+    }
+
+    private static void remove(CountingBloomFilter target, Client client) {
+        if (client.getIdNumber() != null) {
+            target.remove(CountingBloomFilter.hash(client.getIdNumber(), ID_NUMBER_SEED));
+        }
+        if (client.getMobileNumber() != null) {
+            target.remove(CountingBloomFilter.hash(client.getMobileNumber(), MOBILE_NUMBER_SEED));
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.nobrainsolutions.assignment.keyfilter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ *
+ * The CountingBloomFilter class is a Bloom filter with 4-bit counters instead of bits, so keys can be
+ * removed as well as added. Sixteen counters share a long and every counter is updated with a
+ * compare-and-set, so the filter is safe for concurrent use without locks.
+ * The filter is blocked: the counters of a key all lie in one block of 128 counters, the size of a cache
+ * line, so checking a key costs one memory access instead of one per counter. The uneven load of the blocks
+ * costs some accuracy, which the filter makes up for with a fifth more counters.
+ * A counter that reaches 15 is never decremented again: a key whose counters saturated stays a false
+ * positive until the filter is rebuilt, but no key is ever reported absent while it is present.
+ * Keys are given as 64-bit hashes; the high half picks the block and the low half the counters in it.
+ */
+
+final class CountingBloomFilter {
+
+    private static final int MAX_COUNT = 15;
+
+    private static final int WORDS_PER_BLOCK = 8;
+
+    private static final int COUNTERS_PER_BLOCK = WORDS_PER_BLOCK * 16;
+
+    private static final int MAX_BLOCKS = (1 << 24) - 1;
+
+    private final AtomicLongArray words;
+
+    private final int blocks;
+
+    private final int hashes;
+
+    private final int capacity;
+
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * Creates a filter with about the false-positive rate given for capacity keys; it rises beyond that.
+     *
+     * @param capacity          The number of keys the filter is sized for.
+     * @param falsePositiveRate The target false-positive rate at capacity, between 0 and 1.
+     */
+    CountingBloomFilter(int capacity, double falsePositiveRate) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("falsePositiveRate must be between 0 and 1");
+        }
+        double countersPerKey = -Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        long required = (long) Math.ceil(capacity * countersPerKey * 1.2 / COUNTERS_PER_BLOCK);
+        this.blocks = (int) Math.max(1, Math.min(required, MAX_BLOCKS));
+        this.words = new AtomicLongArray(blocks * WORDS_PER_BLOCK);
+        this.hashes = (int) Math.max(1, Math.min(16, Math.round(countersPerKey * Math.log(2))));
+        this.capacity = capacity;
+    }
+
+    /**
+     * Adds a key.
+     *
+     * @param hash The 64-bit hash of the key.
+     */
+    void add(long hash) {
+        int base = base(hash);
+        int first = (int) hash;
+        int step = stride(hash);
+        for (int i = 0; i < hashes; i++) {
+            increment(base + (first + i * step & COUNTERS_PER_BLOCK - 1));
+        }
+        size.incrementAndGet();
+    }
+
+    /**
+     * Removes a key that was added before; removing any other key may make present keys look absent.
+     *
+     * @param hash The 64-bit hash of the key.
+     */
+    void remove(long hash) {
+        int base = base(hash);
+        int first = (int) hash;
+        int step = stride(hash);
+        for (int i = 0; i < hashes; i++) {
+            decrement(base + (first + i * step & COUNTERS_PER_BLOCK - 1));
+        }
+        size.decrementAndGet();
+    }
+
+    /**
+     * Checks whether a key may have been added.
+     *
+     * @param hash The 64-bit hash of the key.
+     * @return false if the key was definitely not added, true if it probably was.
+     */
+    boolean mightContain(long hash) {
+        int base = base(hash);
+        int first = (int) hash;
+        int step = stride(hash);
+        for (int i = 0; i < hashes; i++) {
+            int counter = base + (first + i * step & COUNTERS_PER_BLOCK - 1);
+            if ((words.get(counter >>> 4) >>> shift(counter) & MAX_COUNT) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the expected false-positive rate for the keys currently added, as for an unblocked filter
+     * with the same number of counters, which the blocked one comes close to.
+     *
+     * @return The probability that an absent key is reported as present.
+     */
+    double expectedFalsePositiveRate() {
+        double counters = (double) blocks * COUNTERS_PER_BLOCK;
+        return Math.pow(1 - Math.exp(-hashes * Math.max(0, size.get()) / counters), hashes);
+    }
+
+    int size() {
+        return size.get();
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the heap memory taken by the counters.
+     *
+     * @return The size of the counter array in bytes.
+     */
+    long bytes() {
+        return (long) words.length() * Long.BYTES;
+    }
+
+    /**
+     * Returns the first counter of the block of a key, mapping the high half of the hash onto the blocks by
+     * multiplication, so the number of blocks need not be a power of two.
+     */
+    private int base(long hash) {
+        return (int) ((hash >>> 32) * blocks >>> 32) * COUNTERS_PER_BLOCK;
+    }
+
+    /**
+     * Returns an odd step, so the counters of a key within its block are all distinct.
+     */
+    private static int stride(long hash) {
+        return (int) (hash >>> 7) | 1;
+    }
+
+    private void increment(int counter) {
+        int word = counter >>> 4;
+        int shift = shift(counter);
+        while (true) {
+            long value = words.get(word);
+            if ((value >>> shift & MAX_COUNT) == MAX_COUNT || words.compareAndSet(word, value, value + (1L << shift))) {
+                return;
+            }
+        }
+    }
+
+    private void decrement(int counter) {
+        int word = counter >>> 4;
+        int shift = shift(counter);
+        while (true) {
+            long value = words.get(word);
+            long count = value >>> shift & MAX_COUNT;
+            if (count == 0 || count == MAX_COUNT || words.compareAndSet(word, value, value - (1L << shift))) {
+                return;
+            }
+        }
+    }
+
+    private static int shift(int counter) {
+        return (counter & 15) << 2;
+    }
+
+    /**
+     * Hashes a string to 64 bits, FNV-1a over its chars followed by the MurmurHash3 finalizer.
+     *
+     * @param key  The key.
+     * @param seed Distinguishes keys of different kinds that have the same text.
+     * @return The hash.
+     */
+    static long hash(String key, long seed) {
+        long h = 0xcbf29ce484222325L ^ seed;
+        for (int i = 0; i < key.length(); i++) {
+            h = (h ^ key.charAt(i)) * 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
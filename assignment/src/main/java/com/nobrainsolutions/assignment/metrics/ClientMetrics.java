@@ -0,0 +1,226 @@
+package com.nobrainsolutions.assignment.metrics;
+
+import com.nobrainsolutions.assignment.exception.ClientException;
+import com.nobrainsolutions.assignment.exception.ErrorCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *
+ * The ClientMetrics class records the latency and outcome of every ClientService operation and counts
+ * validation failures.
+ * Every timer and counter is registered up front and looked up by array index or a small map, so
+ * recording a call costs two System.nanoTime calls and one histogram update and never touches the
+ * MeterRegistry. Timers publish percentile histograms bounded to 1 microsecond to 10 seconds, so the Prometheus
+ * endpoint can aggregate percentiles across instances.
+ * Meters:
+ * client.service{operation, outcome} - timer per operation and outcome;
+ * client.validation.failures{reason} - counter per rejected input;
+ * client.rate.limited{scope} - requests refused by the per-client or the global rate limit.
+ */
+
+@Component
+public class ClientMetrics {
+
+    /**
+     * The instrumented ClientService operations.
+     */
+    public enum Operation {
+        CREATE("create"),
+        GET("get"),
+        UPDATE("update"),
+        SEARCH("search"),
+        LOOKUP("lookup"),
+        DELETE("delete");
+
+        private final String tag;
+
+        Operation(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    /**
+     * How an operation ended.
+     */
+    public enum Outcome {
+        SUCCESS("success"),
+        INVALID("invalid"),
+        DUPLICATE("duplicate"),
+        NOT_FOUND("not_found"),
+        VERSION_CONFLICT("version_conflict"),
+        ERROR("error");
+
+        private final String tag;
+
+        Outcome(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    /**
+     * The rate limit that refused a request.
+     */
+    public enum RateLimitScope {
+        CLIENT("client"),
+        GLOBAL("global");
+
+        private final String tag;
+
+        RateLimitScope(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    /**
+     * Validation failure reasons, keyed by the error code that reports them.
+     */
+    private static final Map<ErrorCode, String> VALIDATION_REASONS = Map.of(
+            ErrorCode.INVALID_ID_NUMBER, "invalid_id_number",
+            ErrorCode.NO_SEARCH_CRITERIA_PROVIDED, "no_search_criteria",
+            ErrorCode.INVALID_SEARCH_CURSOR, "invalid_search_cursor",
+            ErrorCode.FIELD_TOO_LONG, "field_too_long",
+            ErrorCode.LOOKUP_TOO_LARGE, "lookup_too_large");
+
+    /**
+     * Reason tag for bean validation failures of a request body.
+     */
+    public static final String CONSTRAINT_VIOLATION = "constraint_violation";
+
+    private final Timer[][] timers = new Timer[Operation.values().length][Outcome.values().length];
+
+    private final Map<ErrorCode, Counter> validationFailures;
+
+    private final Counter constraintViolations;
+
+    private final Counter[] rateLimited = new Counter[RateLimitScope.values().length];
+
+    public ClientMetrics(MeterRegistry meterRegistry) {
+        for (Operation operation : Operation.values()) {
+            for (Outcome outcome : Outcome.values()) {
+                timers[operation.ordinal()][outcome.ordinal()] = Timer.builder("client.service")
+                        .description("Latency of ClientService operations")
+                        .tag("operation", operation.tag)
+                        .tag("outcome", outcome.tag)
+                        .publishPercentileHistogram()
+                        .minimumExpectedValue(Duration.ofNanos(1_000))
+                        .maximumExpectedValue(Duration.ofSeconds(10))
+                        .register(meterRegistry);
+            }
+        }
+
+        validationFailures = new EnumMap<>(ErrorCode.class);
+        VALIDATION_REASONS.forEach((code, reason) -> validationFailures.put(code, validationFailureCounter(meterRegistry, reason)));
+        constraintViolations = validationFailureCounter(meterRegistry, CONSTRAINT_VIOLATION);
+
+        for (RateLimitScope scope : RateLimitScope.values()) {
+            rateLimited[scope.ordinal()] = Counter.builder("client.rate.limited")
+                    .description("Client requests refused by a rate limit")
+                    .tag("scope", scope.tag)
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Returns metrics that record into a registry without backends, for services created outside Spring.
+     *
+     * @return Metrics whose meters do nothing.
+     */
+    public static ClientMetrics disabled() {
+        return new ClientMetrics(new CompositeMeterRegistry());
+    }
+
+    /**
+     * Marks the start of an operation.
+     *
+     * @return The start time to pass to success or failure.
+     */
+    public long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Records an operation that completed normally.
+     *
+     * @param operation The operation.
+     * @param startTime The value returned by start.
+     */
+    public void success(Operation operation, long startTime) {
+        record(operation, Outcome.SUCCESS, startTime);
+    }
+
+    /**
+     * Records an operation that threw, classifying the exception the way GlobalExceptionHandler maps it
+     * to a response, and counts validation failures.
+     *
+     * @param operation The operation.
+     * @param startTime The value returned by start.
+     * @param exception The exception thrown by the operation.
+     */
+    public void failure(Operation operation, long startTime, RuntimeException exception) {
+        Outcome outcome = outcomeOf(exception);
+        record(operation, outcome, startTime);
+        if (outcome == Outcome.INVALID) {
+            validationFailures.get(((ClientException) exception).getErrorCode()).increment();
+        }
+    }
+
+    /**
+     * Counts a request body rejected by bean validation before it reached the ClientService.
+     */
+    public void constraintViolation() {
+        constraintViolations.increment();
+    }
+
+    /**
+     * Counts a request refused by a rate limit before it reached the ClientService.
+     *
+     * @param scope The limit that refused it.
+     */
+    public void rateLimited(RateLimitScope scope) {
+        rateLimited[scope.ordinal()].increment();
+    }
+
+    private void record(Operation operation, Outcome outcome, long startTime) {
+        timers[operation.ordinal()][outcome.ordinal()].record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+    }
+
+    private static Outcome outcomeOf(RuntimeException exception) {
+        if (exception instanceof ResponseStatusException
+                && ((ResponseStatusException) exception).getStatusCode().value() == HttpStatus.NOT_FOUND.value()) {
+            return Outcome.NOT_FOUND;
+        }
+        if (!(exception instanceof ClientException)) {
+            return Outcome.ERROR;
+        }
+        switch (((ClientException) exception).getErrorCode().getStatus()) {
+            case BAD_REQUEST:
+                return Outcome.INVALID;
+            case CONFLICT:
+                return Outcome.DUPLICATE;
+            case NOT_FOUND:
+                return Outcome.NOT_FOUND;
+            case PRECONDITION_FAILED:
+                return Outcome.VERSION_CONFLICT;
+            default:
+                return Outcome.ERROR;
+        }
+    }
+
+    private static Counter validationFailureCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("client.validation.failures")
+                .description("Client requests rejected as invalid")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
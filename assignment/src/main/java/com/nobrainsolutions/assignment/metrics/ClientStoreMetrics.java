@@ -0,0 +1,120 @@
+package com.nobrainsolutions.assignment.metrics;
+
+import com.nobrainsolutions.assignment.cache.ClientResponseCache;
+import com.nobrainsolutions.assignment.keyfilter.ClientKeyFilter;
+import com.nobrainsolutions.assignment.repository.ClientRepository;
+import com.nobrainsolutions.assignment.repository.CompactClientRepository;
+import com.nobrainsolutions.assignment.repository.ShardedClientRepository;
+import com.nobrainsolutions.assignment.search.ClientTextIndex;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ *
+ * The ClientStoreMetrics class exposes the size of the client store, its indexes, the response cache and the key filter.
+ * Gauges and function counters are only evaluated when the registry is scraped, so they add nothing to the request path.
+ * Meters:
+ * client.store.size - number of stored clients;
+ * client.index.size{index} - distinct keys per secondary index and distinct tokens of the text index;
+ * client.store.offheap.bytes - off-heap memory reserved by the compact storage engine, over all shards, when it is active;
+ * client.cache.size - entries in the client response cache;
+ * client.cache.requests{result} - response cache hits and misses;
+ * client.key-filter.false-positive-rate{kind} - share of absent keys the key filter passes on to the store, expected
+ * from its fill and observed on lookups, when the filter is enabled;
+ * client.key-filter.lookups{result} - lookups of absent keys answered by the key filter (negative) and passed on to
+ * the store (false_positive);
+ * client.key-filter.size - heap memory taken by the key filter.
+ */
+
+@Component
+public class ClientStoreMetrics implements MeterBinder {
+
+    private final ClientRepository clientRepository;
+
+    private final ClientTextIndex clientTextIndex;
+
+    private final ClientResponseCache clientResponseCache;
+
+    private final ClientKeyFilter clientKeyFilter;
+
+    public ClientStoreMetrics(ClientRepository clientRepository, ClientTextIndex clientTextIndex,
+                              ClientResponseCache clientResponseCache, ClientKeyFilter clientKeyFilter) {
+        this.clientRepository = clientRepository;
+        this.clientTextIndex = clientTextIndex;
+        this.clientResponseCache = clientResponseCache;
+        this.clientKeyFilter = clientKeyFilter;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("client.store.size", clientRepository, ClientRepository::size)
+                .description("Number of stored clients")
+                .register(registry);
+
+        for (String index : clientRepository.indexSizes().keySet()) {
+            Gauge.builder("client.index.size", clientRepository, repository -> repository.indexSizes().getOrDefault(index, 0))
+                    .description("Distinct keys in a client index")
+                    .tag("index", index)
+                    .register(registry);
+        }
+        Gauge.builder("client.index.size", clientTextIndex, ClientTextIndex::tokenCount)
+                .description("Distinct keys in a client index")
+                .tag("index", "text")
+                .register(registry);
+
+        List<ClientRepository> engines = clientRepository instanceof ShardedClientRepository
+                ? ((ShardedClientRepository) clientRepository).shards() : List.of(clientRepository);
+        List<CompactClientRepository> compactEngines = engines.stream()
+                .filter(CompactClientRepository.class::isInstance)
+                .map(CompactClientRepository.class::cast)
+                .collect(Collectors.toList());
+        if (!compactEngines.isEmpty()) {
+            Gauge.builder("client.store.offheap.bytes", compactEngines,
+                            repositories -> repositories.stream().mapToLong(CompactClientRepository::offHeapBytes).sum())
+                    .description("Off-heap memory reserved by the compact storage engine")
+                    .baseUnit("bytes")
+                    .register(registry);
+        }
+
+        Gauge.builder("client.cache.size", clientResponseCache, ClientResponseCache::size)
+                .description("Entries in the client response cache")
+                .register(registry);
+        FunctionCounter.builder("client.cache.requests", clientResponseCache, ClientResponseCache::hitCount)
+                .description("Client response cache lookups")
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("client.cache.requests", clientResponseCache, ClientResponseCache::missCount)
+                .description("Client response cache lookups")
+                .tag("result", "miss")
+                .register(registry);
+
+        if (clientKeyFilter.isEnabled()) {
+            Gauge.builder("client.key-filter.false-positive-rate", clientKeyFilter, ClientKeyFilter::expectedFalsePositiveRate)
+                    .description("Share of absent keys the client key filter passes on to the store")
+                    .tag("kind", "expected")
+                    .register(registry);
+            Gauge.builder("client.key-filter.false-positive-rate", clientKeyFilter, ClientKeyFilter::observedFalsePositiveRate)
+                    .description("Share of absent keys the client key filter passes on to the store")
+                    .tag("kind", "observed")
+                    .register(registry);
+            FunctionCounter.builder("client.key-filter.lookups", clientKeyFilter, ClientKeyFilter::negativeCount)
+                    .description("Lookups of absent keys by how the client key filter answered them")
+                    .tag("result", "negative")
+                    .register(registry);
+            FunctionCounter.builder("client.key-filter.lookups", clientKeyFilter, ClientKeyFilter::falsePositiveCount)
+                    .description("Lookups of absent keys by how the client key filter answered them")
+                    .tag("result", "false_positive")
+                    .register(registry);
+            Gauge.builder("client.key-filter.size", clientKeyFilter, ClientKeyFilter::bytes)
+                    .description("Heap memory taken by the client key filter")
+                    .baseUnit("bytes")
+                    .register(registry);
+        }
+    }
+}
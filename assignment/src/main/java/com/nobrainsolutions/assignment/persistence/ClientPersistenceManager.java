@@ -0,0 +1,193 @@
+package com.nobrainsolutions.assignment.persistence;
+
+import com.nobrainsolutions.assignment.entity.Client;
+import com.nobrainsolutions.assignment.repository.ClientRepository;
+import com.nobrainsolutions.assignment.service.ClientService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ *
+ * The ClientPersistenceManager class rebuilds the client store when the application starts and keeps
+ * the persisted state compact while it runs.
+ * On startup, before the web server accepts requests, it loads the latest snapshot in parallel batches
+ * and replays the write-ahead log tail after it; change listeners such as the search index are
+ * rebuilt along the way. It then takes a snapshot periodically and on shutdown, and deletes the log
+ * segments the snapshot covers.
+ */
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "client.persistence.enabled", havingValue = "true")
+public class ClientPersistenceManager implements SmartInitializingSingleton, DisposableBean {
+
+    private static final int RESTORE_BATCH_SIZE = 10_000;
+
+    private final ClientService clientService;
+
+    private final ClientRepository clientRepository;
+
+    private final ClientWriteAheadLog writeAheadLog;
+
+    private final ClientSnapshotStore snapshotStore;
+
+    private final Duration snapshotInterval;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "client-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ClientPersistenceManager(ClientService clientService, ClientRepository clientRepository,
+                                    ClientWriteAheadLog writeAheadLog, ClientSnapshotStore snapshotStore,
+                                    @Value("${client.persistence.snapshot-interval:PT10M}") Duration snapshotInterval) {
+        this.clientService = clientService;
+        this.clientRepository = clientRepository;
+        this.writeAheadLog = writeAheadLog;
+        this.snapshotStore = snapshotStore;
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not recover the client store", e);
+        }
+        long interval = snapshotInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::snapshotQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Loads the latest snapshot and replays the write-ahead log after it, then starts logging.
+     *
+     * @throws IOException if the snapshot or log cannot be read.
+     */
+    public void recover() throws IOException {
+        long started = System.nanoTime();
+
+        // Snapshot entries have distinct ID numbers, so they can be restored in any order.
+        ExecutorService loaders = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        long snapshotLsn;
+        try {
+            ParallelRestorer restorer = new ParallelRestorer(loaders);
+            snapshotLsn = snapshotStore.loadLatest(restorer);
+            restorer.finish();
+        } finally {
+            loaders.shutdownNow();
+        }
+        int snapshotClients = clientRepository.size();
+
+        // Log records must be replayed in order, because later records may depend on earlier ones.
+        long nextLsn = writeAheadLog.replay(snapshotLsn,
+                (operation, previousIdNumber, client) -> {
+                    if (operation == ClientWriteAheadLog.REMOVED) {
+                        clientService.removeClient(previousIdNumber);
+                    } else {
+                        clientService.restoreClient(previousIdNumber, client);
+                    }
+                });
+        writeAheadLog.start(nextLsn);
+
+        log.info("Recovered {} clients ({} from snapshot at LSN {}, log replayed up to LSN {}) in {} ms",
+                clientRepository.size(), snapshotClients, snapshotLsn, nextLsn - 1,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    /**
+     * Takes a snapshot of the store and deletes the log segments it makes redundant.
+     *
+     * @throws IOException if the snapshot cannot be written.
+     */
+    public void snapshot() throws IOException {
+        long lsn = writeAheadLog.currentLsn();
+        long count = snapshotStore.write(clientRepository.findAll(), lsn);
+        writeAheadLog.deleteSegmentsBefore(lsn);
+        log.info("Wrote snapshot of {} clients at LSN {}", count, lsn);
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+        snapshotQuietly();
+        writeAheadLog.close();
+    }
+
+    /**
+     * Collects snapshot entries into batches and restores each batch on a worker thread.
+     */
+    private final class ParallelRestorer implements Consumer<Client> {
+
+        private final ExecutorService executor;
+
+        private final List<Future<?>> pending = new ArrayList<>();
+
+        private List<Client> batch = new ArrayList<>(RESTORE_BATCH_SIZE);
+
+        private ParallelRestorer(ExecutorService executor) {
+            this.executor = executor;
+        }
+
+        @Override
+        public void accept(Client client) {
+            batch.add(client);
+            if (batch.size() == RESTORE_BATCH_SIZE) {
+                submit();
+            }
+        }
+
+        private void submit() {
+            List<Client> clients = batch;
+            batch = new ArrayList<>(RESTORE_BATCH_SIZE);
+            pending.add(executor.submit(() -> {
+                for (Client client : clients) {
+                    clientService.restoreClient(null, client);
+                }
+            }));
+        }
+
+        /**
+         * Restores the last partial batch and waits for every batch to finish.
+         */
+        private void finish() throws IOException {
+            submit();
+            try {
+                for (Future<?> future : pending) {
+                    future.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while restoring the snapshot", e);
+            } catch (ExecutionException e) {
+                throw new IOException("Could not restore the snapshot", e.getCause());
+            }
+        }
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (IOException | RuntimeException e) {
+            log.error("Could not write a client snapshot", e);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.nobrainsolutions.assignment.persistence;
+
+import com.nobrainsolutions.assignment.codec.ClientBinaryCodec;
+import com.nobrainsolutions.assignment.entity.Client;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ *
+ * The ClientSnapshotStore class writes and loads compact binary snapshots of the client store.
+ * A snapshot holds a header (magic number, format version and the write-ahead log LSN it was taken at),
+ * the clients in ClientBinaryCodec form each preceded by a continuation flag, and a trailing CRC32.
+ * Snapshots are written to a temporary file, forced to disk and then atomically renamed, so a snapshot
+ * file is either complete or absent.
+ */
+
+@Component
+@ConditionalOnProperty(name = "client.persistence.enabled", havingValue = "true")
+public class ClientSnapshotStore {
+
+    private static final int MAGIC = 0x434C4E53;
+
+    private static final int FORMAT_VERSION = 1;
+
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+
+    private static final String SNAPSHOT_SUFFIX = ".bin";
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Path directory;
+
+    public ClientSnapshotStore(@Value("${client.persistence.directory:data}") Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+    }
+
+    /**
+     * Writes a snapshot and deletes the older ones.
+     *
+     * @param clients The clients to write.
+     * @param lsn     The write-ahead log LSN the snapshot was started at.
+     * @return The number of clients written.
+     * @throws IOException if the snapshot cannot be written.
+     */
+    public long write(Iterable<Client> clients, long lsn) throws IOException {
+        Path target = directory.resolve(SNAPSHOT_PREFIX + String.format("%020d", lsn) + SNAPSHOT_SUFFIX);
+        Path temporary = directory.resolve(target.getFileName() + ".tmp");
+        long count = 0;
+
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            BufferedOutputStream buffered = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE);
+            CRC32 crc = new CRC32();
+            DataOutputStream out = new DataOutputStream(new CheckedOutputStream(buffered, crc));
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(lsn);
+            for (Client client : clients) {
+                out.writeBoolean(true);
+                ClientBinaryCodec.write(out, client);
+                count++;
+            }
+            out.writeBoolean(false);
+            out.flush();
+
+            DataOutputStream trailer = new DataOutputStream(buffered);
+            trailer.writeLong(crc.getValue());
+            trailer.flush();
+            channel.force(true);
+        }
+
+        Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        for (Path snapshot : snapshots()) {
+            if (!snapshot.equals(target)) {
+                Files.deleteIfExists(snapshot);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Loads the latest snapshot.
+     *
+     * @param consumer Receives every client of the snapshot.
+     * @return The LSN the snapshot was taken at, or 0 if there is no snapshot.
+     * @throws IOException if the snapshot cannot be read or fails its checksum.
+     */
+    public long loadLatest(Consumer<Client> consumer) throws IOException {
+        List<Path> snapshots = snapshots();
+        if (snapshots.isEmpty()) {
+            return 0;
+        }
+        Path latest = snapshots.get(snapshots.size() - 1);
+
+        CRC32 crc = new CRC32();
+        try (InputStream raw = new BufferedInputStream(Files.newInputStream(latest), BUFFER_SIZE)) {
+            DataInputStream in = new DataInputStream(new CheckedInputStream(raw, crc));
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                throw new IOException("Unsupported snapshot format: " + latest);
+            }
+            long lsn = in.readLong();
+            while (in.readBoolean()) {
+                consumer.accept(ClientBinaryCodec.read(in));
+            }
+            long expected = crc.getValue();
+            if (new DataInputStream(raw).readLong() != expected) {
+                throw new IOException("Snapshot checksum mismatch: " + latest);
+            }
+            return lsn;
+        }
+    }
+
+    private List<Path> snapshots() throws IOException {
+        List<Path> snapshots = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.startsWith(SNAPSHOT_PREFIX) && name.endsWith(SNAPSHOT_SUFFIX);
+            }).forEach(snapshots::add);
+        }
+        snapshots.sort(null);
+        return snapshots;
+    }
+}
@@ -0,0 +1,467 @@
+package com.nobrainsolutions.assignment.persistence;
+
+import com.nobrainsolutions.assignment.codec.ClientBinaryCodec;
+import com.nobrainsolutions.assignment.entity.Client;
+import com.nobrainsolutions.assignment.service.ClientChangeListener;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ *
+ * The ClientWriteAheadLog class appends every client change to memory-mapped, append-only log segments.
+ * Each record is written as an int payload length, an int CRC32, a long log sequence number (LSN) and
+ * the payload: an operation byte, the previous ID number and the client in ClientBinaryCodec form.
+ * A zero length marks the end of the written part of a segment.
+ * In group-commit mode a single flusher thread forces the mapped segment to disk on behalf of all
+ * writers waiting at that moment, and each writer returns once its own record is durable.
+ * Writers block on ReentrantLocks rather than monitors, so a virtual thread waiting for the disk
+ * releases its carrier thread.
+ * If a flush fails, the log stops accepting records: the waiting writers and every later one fail, so their
+ * changes are rolled back instead of being reported as stored; records written after the last successful
+ * flush may or may not survive a restart.
+ */
+
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "client.persistence.enabled", havingValue = "true")
+public class ClientWriteAheadLog implements ClientChangeListener, Closeable {
+
+    /**
+     * Operation code of a create record.
+     */
+    public static final byte CREATED = 1;
+
+    /**
+     * Operation code of an update record.
+     */
+    public static final byte UPDATED = 2;
+
+    /**
+     * Operation code of a remove record, whose previous ID number is the removed client's.
+     */
+    public static final byte REMOVED = 3;
+
+    private static final String SEGMENT_PREFIX = "wal-";
+
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private static final int HEADER_BYTES = 16;
+
+    private final Path directory;
+
+    private final int segmentSize;
+
+    private final boolean groupCommit;
+
+    private final long groupCommitNanos;
+
+    private final Consumer<MappedByteBuffer> force;
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+
+    private final ReentrantLock durabilityLock = new ReentrantLock();
+
+    private final Condition durable = durabilityLock.newCondition();
+
+    private MappedByteBuffer segment;
+
+    private long nextLsn;
+
+    private volatile long writtenLsn = -1;
+
+    private volatile long durableLsn = -1;
+
+    private volatile boolean appending;
+
+    private volatile Throwable failure;
+
+    private Thread flusher;
+
+    @Autowired
+    public ClientWriteAheadLog(@Value("${client.persistence.directory:data}") Path directory,
+                               @Value("${client.persistence.segment-size:67108864}") int segmentSize,
+                               @Value("${client.persistence.fsync:group}") String fsync,
+                               @Value("${client.persistence.group-commit-interval:PT0.001S}") Duration groupCommitInterval) throws IOException {
+        this(directory, segmentSize, fsync, groupCommitInterval, MappedByteBuffer::force);
+    }
+
+    ClientWriteAheadLog(Path directory, int segmentSize, String fsync, Duration groupCommitInterval,
+                        Consumer<MappedByteBuffer> force) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.segmentSize = segmentSize;
+        this.groupCommit = "group".equalsIgnoreCase(fsync);
+        this.groupCommitNanos = groupCommitInterval.toNanos();
+        this.force = force;
+    }
+
+    /**
+     * Receives a replayed record.
+     */
+    public interface ReplayHandler {
+
+        /**
+         * Applies a replayed record.
+         *
+         * @param operation        The operation code.
+         * @param previousIdNumber The ID number the client had before the change, or null for a create.
+         * @param client           The client as it was after the change.
+         */
+        void apply(byte operation, String previousIdNumber, Client client);
+    }
+
+    /**
+     * Replays every intact record with an LSN of at least fromLsn, in log order.
+     * A torn or corrupt record ends its segment, since it can only be the tail of the last write before a
+     * crash; replay goes on with the next segment, which the restarted log began after that crash.
+     *
+     * @param fromLsn The first LSN to replay.
+     * @param handler The handler receiving the records.
+     * @return The LSN to assign to the next record.
+     * @throws IOException if a segment cannot be read.
+     */
+    public long replay(long fromLsn, ReplayHandler handler) throws IOException {
+        long next = fromLsn;
+        for (Path path : segments()) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                CRC32 crc = new CRC32();
+                while (buffer.remaining() >= HEADER_BYTES) {
+                    int length = buffer.getInt();
+                    int checksum = buffer.getInt();
+                    if (length <= 0 || buffer.remaining() < Long.BYTES + length) {
+                        break;
+                    }
+                    long lsn = buffer.getLong();
+                    byte[] payload = new byte[length];
+                    buffer.get(payload);
+
+                    crc.reset();
+                    crc.update(longBytes(lsn));
+                    crc.update(payload);
+                    if ((int) crc.getValue() != checksum) {
+                        log.warn("Skipping the rest of {} after corrupt record {}", path, lsn);
+                        break;
+                    }
+                    if (lsn >= fromLsn) {
+                        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+                        byte operation = in.readByte();
+                        String previousIdNumber = ClientBinaryCodec.readString(in);
+                        handler.apply(operation, previousIdNumber, ClientBinaryCodec.read(in));
+                    }
+                    next = Math.max(next, lsn + 1);
+                }
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Starts appending to a new segment. Changes received before this call are not logged,
+     * so recovery can replay changes through the ClientService without logging them twice.
+     *
+     * @param firstLsn The LSN of the first record to append.
+     * @throws IOException if the segment cannot be created.
+     */
+    public void start(long firstLsn) throws IOException {
+        appendLock.lock();
+        try {
+            nextLsn = firstLsn;
+            writtenLsn = firstLsn - 1;
+            durableLsn = firstLsn - 1;
+            segment = openSegment(firstLsn);
+            appending = true;
+        } finally {
+            appendLock.unlock();
+        }
+        if (groupCommit) {
+            flusher = new Thread(this::flushLoop, "client-wal-flusher");
+            flusher.setDaemon(true);
+            flusher.start();
+        }
+    }
+
+    @Override
+    public void onCreated(Client client) {
+        append(CREATED, null, client);
+    }
+
+    @Override
+    public void onUpdated(Client previous, Client current) {
+        append(UPDATED, previous.getIdNumber(), current);
+    }
+
+    @Override
+    public void onRemoved(Client client) {
+        append(REMOVED, client.getIdNumber(), client);
+    }
+
+    /**
+     * Returns the LSN that the next record will be assigned. Every change with a lower LSN has
+     * already been applied to the store.
+     *
+     * @return The next LSN.
+     */
+    public long currentLsn() {
+        appendLock.lock();
+        try {
+            return nextLsn;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Deletes the segments that only hold records below an LSN, typically after a snapshot at that LSN.
+     *
+     * @param lsn The lowest LSN that must be kept.
+     * @throws IOException if a segment cannot be deleted.
+     */
+    public void deleteSegmentsBefore(long lsn) throws IOException {
+        List<Path> segments = segments();
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            if (firstLsnOf(segments.get(i + 1)) <= lsn) {
+                Files.deleteIfExists(segments.get(i));
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        appendLock.lock();
+        try {
+            appending = false;
+        } finally {
+            appendLock.unlock();
+        }
+        if (flusher != null) {
+            flusher.interrupt();
+            try {
+                flusher.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        appendLock.lock();
+        try {
+            if (segment != null) {
+                segment.force();
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private void append(byte operation, String previousIdNumber, Client client) {
+        if (!appending) {
+            return;
+        }
+        checkNotFailed();
+
+        byte[] payload;
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(operation);
+            ClientBinaryCodec.writeString(out, previousIdNumber);
+            ClientBinaryCodec.write(out, client);
+            payload = bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (HEADER_BYTES + payload.length > segmentSize) {
+            throw new IllegalStateException("Write-ahead log record larger than segment size");
+        }
+
+        long lsn;
+        appendLock.lock();
+        try {
+            lsn = nextLsn++;
+            if (segment.remaining() < HEADER_BYTES + payload.length) {
+                try {
+                    rollSegment(lsn);
+                } catch (RuntimeException | Error e) {
+                    fail(e);
+                    throw e;
+                }
+            }
+            CRC32 crc = new CRC32();
+            crc.update(longBytes(lsn));
+            crc.update(payload);
+            segment.putInt(payload.length);
+            segment.putInt((int) crc.getValue());
+            segment.putLong(lsn);
+            segment.put(payload);
+            writtenLsn = lsn;
+        } finally {
+            appendLock.unlock();
+        }
+
+        if (groupCommit) {
+            awaitDurable(lsn);
+        }
+    }
+
+    /**
+     * Blocks until the flusher has forced the record with the given LSN to disk.
+     *
+     * @throws IllegalStateException if the log failed before the record became durable.
+     */
+    private void awaitDurable(long lsn) {
+        LockSupport.unpark(flusher);
+        durabilityLock.lock();
+        try {
+            while (durableLsn < lsn && appending && failure == null) {
+                durable.await();
+            }
+            if (durableLsn < lsn) {
+                checkNotFailed();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the write-ahead log", e);
+        } finally {
+            durabilityLock.unlock();
+        }
+    }
+
+    private void flushLoop() {
+        while (appending) {
+            if (durableLsn >= writtenLsn) {
+                LockSupport.park(this);
+                continue;
+            }
+            // Give concurrent writers a moment to join this flush.
+            if (groupCommitNanos > 0) {
+                LockSupport.parkNanos(groupCommitNanos);
+            }
+
+            MappedByteBuffer target;
+            long lsn;
+            appendLock.lock();
+            try {
+                target = segment;
+                lsn = writtenLsn;
+            } finally {
+                appendLock.unlock();
+            }
+            try {
+                force.accept(target);
+            } catch (Throwable e) {
+                log.error("Write-ahead log flush failed, refusing further writes", e);
+                fail(e);
+                return;
+            }
+            markDurable(lsn);
+        }
+        markDurable(writtenLsn);
+    }
+
+    /**
+     * Marks the log failed and wakes every writer waiting for a flush, so that each of them fails.
+     */
+    private void fail(Throwable cause) {
+        durabilityLock.lock();
+        try {
+            if (failure == null) {
+                failure = cause;
+            }
+            durable.signalAll();
+        } finally {
+            durabilityLock.unlock();
+        }
+    }
+
+    private void checkNotFailed() {
+        Throwable cause = failure;
+        if (cause != null) {
+            throw new IllegalStateException("Write-ahead log failed", cause);
+        }
+    }
+
+    private void markDurable(long lsn) {
+        durabilityLock.lock();
+        try {
+            if (lsn > durableLsn) {
+                durableLsn = lsn;
+            }
+            durable.signalAll();
+        } finally {
+            durabilityLock.unlock();
+        }
+    }
+
+    /**
+     * Forces the current segment and switches to a new one. Called with appendLock held.
+     */
+    private void rollSegment(long firstLsn) {
+        force.accept(segment);
+        markDurable(firstLsn - 1);
+        try {
+            segment = openSegment(firstLsn);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private MappedByteBuffer openSegment(long firstLsn) throws IOException {
+        Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, firstLsn, SEGMENT_SUFFIX));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+    }
+
+    private List<Path> segments() throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+            }).forEach(segments::add);
+        }
+        segments.sort((a, b) -> Long.compare(firstLsnOf(a), firstLsnOf(b)));
+        return segments;
+    }
+
+    private static long firstLsnOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static byte[] longBytes(long value) {
+        byte[] bytes = new byte[Long.BYTES];
+        for (int i = Long.BYTES - 1; i >= 0; i--) {
+            bytes[i] = (byte) value;
+            value >>>= 8;
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,125 @@
+package com.nobrainsolutions.assignment.ratelimit;
+
+import com.nobrainsolutions.assignment.metrics.ClientMetrics;
+import com.nobrainsolutions.assignment.metrics.ClientMetrics.RateLimitScope;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ *
+ * The ClientRateLimiter class decides whether a request may proceed, with one TokenBucket per caller
+ * and one shared by all callers. A request must get a token from its caller's bucket first, so a
+ * caller over its own limit is refused without draining the global bucket.
+ * Caller buckets live in a fixed number of stripes, each a ConcurrentHashMap bounded to
+ * maxClients / stripes entries. A full bucket holds no information, so when a stripe is full its full
+ * buckets are dropped, at most once per second per stripe. If the stripe is still full, every new
+ * caller hashed to it shares the stripe's overflow bucket until room frees up, so memory stays bounded
+ * even when callers rotate keys, and those callers are still limited.
+ */
+
+@Component
+public class ClientRateLimiter {
+
+    private static final int STRIPES = 64;
+
+    private static final long SWEEP_INTERVAL_NANOS = 1_000_000_000L;
+
+    private final double clientPermitsPerSecond;
+
+    private final int clientBurst;
+
+    private final int stripeCapacity;
+
+    private final TokenBucket global;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    private final ClientMetrics metrics;
+
+    @Autowired
+    public ClientRateLimiter(@Value("${client.rate-limit.client.permits-per-second:100}") double clientPermitsPerSecond,
+                             @Value("${client.rate-limit.client.burst:200}") int clientBurst,
+                             @Value("${client.rate-limit.global.permits-per-second:10000}") double globalPermitsPerSecond,
+                             @Value("${client.rate-limit.global.burst:20000}") int globalBurst,
+                             @Value("${client.rate-limit.max-clients:100000}") int maxClients,
+                             ClientMetrics metrics) {
+        this.clientPermitsPerSecond = clientPermitsPerSecond;
+        this.clientBurst = clientBurst;
+        this.stripeCapacity = Math.max(1, maxClients / STRIPES);
+        this.global = new TokenBucket(globalPermitsPerSecond, globalBurst);
+        this.metrics = metrics;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(new TokenBucket(clientPermitsPerSecond, clientBurst));
+        }
+    }
+
+    /**
+     * Takes a token for a caller from its bucket and from the global bucket.
+     *
+     * @param key Identifies the caller, e.g. its API key or IP address.
+     * @return 0 if the request may proceed, otherwise the nanoseconds until it could.
+     */
+    public long tryAcquire(String key) {
+        return tryAcquire(key, System.nanoTime());
+    }
+
+    long tryAcquire(String key, long now) {
+        long wait = bucketFor(key, now).tryAcquire(now);
+        if (wait > 0) {
+            metrics.rateLimited(RateLimitScope.CLIENT);
+            return wait;
+        }
+        wait = global.tryAcquire(now);
+        if (wait > 0) {
+            metrics.rateLimited(RateLimitScope.GLOBAL);
+        }
+        return wait;
+    }
+
+    /**
+     * Number of callers with their own bucket.
+     */
+    public int trackedClients() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.buckets.size();
+        }
+        return size;
+    }
+
+    private TokenBucket bucketFor(String key, long now) {
+        int h = key.hashCode();
+        Stripe stripe = stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+        TokenBucket bucket = stripe.buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (stripe.buckets.size() >= stripeCapacity) {
+            long lastSweep = stripe.lastSweep;
+            if (now - lastSweep >= SWEEP_INTERVAL_NANOS || lastSweep == Long.MIN_VALUE) {
+                stripe.lastSweep = now;
+                stripe.buckets.values().removeIf(candidate -> candidate.isFull(now));
+            }
+            if (stripe.buckets.size() >= stripeCapacity) {
+                return stripe.overflow;
+            }
+        }
+        return stripe.buckets.computeIfAbsent(key, k -> new TokenBucket(clientPermitsPerSecond, clientBurst));
+    }
+
+    private static final class Stripe {
+
+        private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+        private final TokenBucket overflow;
+
+        private volatile long lastSweep = Long.MIN_VALUE;
+
+        private Stripe(TokenBucket overflow) {
+            this.overflow = overflow;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.nobrainsolutions.assignment.ratelimit;
+
+import com.nobrainsolutions.assignment.exception.ClientException;
+import com.nobrainsolutions.assignment.exception.ErrorCode;
+import com.nobrainsolutions.assignment.exception.GlobalExceptionHandler;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ *
+ * The RateLimitFilter class applies the ClientRateLimiter to every /clients request before it reaches
+ * ClientController. Callers are identified by the API key header when present and by their IP address
+ * otherwise. A refused request gets 429 Too Many Requests with a Retry-After header in seconds.
+ * The API key is not authenticated here, so per-key limits are only as strong as the gateway that
+ * issues keys; a caller rotating keys is still held by the global limit.
+ * Off unless client.rate-limit.enabled=true. Behind a proxy every caller without an API key would have the
+ * proxy's address and share its bucket, so enable it there only with server.forward-headers-strategy=native,
+ * which takes the address from the X-Forwarded-For header of trusted proxies.
+ */
+
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "client.rate-limit.enabled", havingValue = "true")
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final ClientRateLimiter clientRateLimiter;
+
+    private final GlobalExceptionHandler globalExceptionHandler;
+
+    private final String apiKeyHeader;
+
+    public RateLimitFilter(ClientRateLimiter clientRateLimiter, GlobalExceptionHandler globalExceptionHandler,
+                           @Value("${client.rate-limit.api-key-header:X-API-Key}") String apiKeyHeader) {
+        this.clientRateLimiter = clientRateLimiter;
+        this.globalExceptionHandler = globalExceptionHandler;
+        this.apiKeyHeader = apiKeyHeader;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(request.getContextPath() + "/clients");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String apiKey = request.getHeader(apiKeyHeader);
+        // Prefixed so that an API key can never name, and drain, the bucket of an IP address.
+        String key = apiKey != null ? "key:" + apiKey : "ip:" + request.getRemoteAddr();
+
+        long wait = clientRateLimiter.tryAcquire(key);
+        if (wait == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        ResponseEntity<byte[]> error = globalExceptionHandler.handleClientException(new ClientException(ErrorCode.TOO_MANY_REQUESTS));
+        response.setStatus(error.getStatusCode().value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, (wait + 999_999_999L) / 1_000_000_000L)));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getOutputStream().write(error.getBody());
+    }
+}
@@ -0,0 +1,74 @@
+package com.nobrainsolutions.assignment.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ *
+ * The TokenBucket class admits up to burst requests at once and permitsPerSecond on average.
+ * It is implemented as the generic cell rate algorithm: instead of a token count and a refill time,
+ * the bucket keeps a single theoretical arrival time, the instant at which it would be full again.
+ * A request is admitted if that instant, pushed back by one interval, stays within burst intervals of
+ * now. The whole state is one long, so acquiring is a read and a compareAndSet without locks. The long
+ * is a field of the bucket updated through a field updater rather than a separate AtomicLong, which
+ * saves a pointer chase on every request.
+ */
+
+public final class TokenBucket {
+
+    private final long intervalNanos;
+
+    private final long toleranceNanos;
+
+    private static final AtomicLongFieldUpdater<TokenBucket> THEORETICAL_ARRIVAL =
+            AtomicLongFieldUpdater.newUpdater(TokenBucket.class, "theoreticalArrival");
+
+    /**
+     * Long.MIN_VALUE until the first request, so a new bucket starts full whatever the nanoTime origin.
+     */
+    private volatile long theoreticalArrival = Long.MIN_VALUE;
+
+    /**
+     * Creates a full bucket.
+     *
+     * @param permitsPerSecond The sustained rate.
+     * @param burst            The number of requests admitted at once from a full bucket.
+     */
+    public TokenBucket(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("permitsPerSecond and burst must be positive");
+        }
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / permitsPerSecond));
+        this.toleranceNanos = intervalNanos * burst;
+    }
+
+    /**
+     * Takes one token if available.
+     *
+     * @param now The current System.nanoTime.
+     * @return 0 if the request is admitted, otherwise the nanoseconds until a token is available.
+     */
+    public long tryAcquire(long now) {
+        while (true) {
+            long arrival = theoreticalArrival;
+            long next = Math.max(arrival, now) + intervalNanos;
+            long wait = next - now - toleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (THEORETICAL_ARRIVAL.compareAndSet(this, arrival, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Whether the bucket is full, in which case it is indistinguishable from a new bucket and can be dropped.
+     *
+     * @param now The current System.nanoTime.
+     * @return true if no tokens have been taken that are not yet refilled.
+     */
+    public boolean isFull(long now) {
+        long arrival = theoreticalArrival;
+        return arrival == Long.MIN_VALUE || arrival - now <= 0;
+    }
+}
@@ -0,0 +1,62 @@
+package com.nobrainsolutions.assignment.replication;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ *
+ * The ClientReplicationFilter class keeps a follower read-only on the servlet stack. A request that would
+ * change clients is answered with 307 Temporary Redirect to the same URL on the leader, which HTTP clients
+ * follow with the same method and body; reads, including POST /clients/lookup, are served by the follower
+ * from its own copy.
+ */
+
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "client.replication.role", havingValue = "follower")
+public class ClientReplicationFilter extends OncePerRequestFilter {
+
+    private static final String LOOKUP_PATH = "/clients/lookup";
+
+    private final String leaderUrl;
+
+    public ClientReplicationFilter(@Value("${client.replication.leader-url}") String leaderUrl) {
+        this.leaderUrl = leaderUrl.endsWith("/") ? leaderUrl.substring(0, leaderUrl.length() - 1) : leaderUrl;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !isWrite(request.getMethod(), request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) {
+        String query = request.getQueryString();
+        response.setStatus(HttpStatus.TEMPORARY_REDIRECT.value());
+        response.setHeader(HttpHeaders.LOCATION, leaderUrl + request.getRequestURI() + (query != null ? "?" + query : ""));
+    }
+
+    /**
+     * Tells whether a request changes clients and must therefore be sent to the leader.
+     *
+     * @param method The request method.
+     * @param path   The request path within the application.
+     * @return true for a request to /clients with any method but GET, HEAD and OPTIONS, except the
+     * POST /clients/lookup read.
+     */
+    static boolean isWrite(String method, String path) {
+        if (!path.startsWith("/clients") || HttpMethod.POST.matches(method) && path.equals(LOOKUP_PATH)) {
+            return false;
+        }
+        return !HttpMethod.GET.matches(method) && !HttpMethod.HEAD.matches(method) && !HttpMethod.OPTIONS.matches(method);
+    }
+}
@@ -0,0 +1,223 @@
+package com.nobrainsolutions.assignment.replication;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nobrainsolutions.assignment.changes.ClientChangeLog;
+import com.nobrainsolutions.assignment.dto.ClientChangeEvent;
+import com.nobrainsolutions.assignment.entity.Client;
+import com.nobrainsolutions.assignment.service.ClientService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ *
+ * The ClientReplicator class keeps the store of a follower a copy of its leader's.
+ * A new follower catches up first: it loads the leader's /clients/snapshot, drops any client the snapshot
+ * does not have, and then follows /clients/changes from the sequence number the snapshot was taken at.
+ * Every change is applied in leader order through ClientService.restoreClient, so the search index,
+ * response cache and the follower's own change log stay in step. Changes replayed over a snapshot that
+ * already shows them converge on the leader's state, because each carries the whole client and its version.
+ * When the connection drops, the follower resumes after the last change it applied; when the leader no
+ * longer holds that change, because the follower fell too far behind or the leader restarted, it catches
+ * up again from a fresh snapshot. Reads are served locally throughout and may lag the leader.
+ * Enabled with client.replication.role=follower.
+ */
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "client.replication.role", havingValue = "follower")
+public class ClientReplicator implements SmartInitializingSingleton, DisposableBean {
+
+    private final ClientService clientService;
+
+    private final ObjectMapper objectMapper;
+
+    private final String leaderUrl;
+
+    private final Duration retryInterval;
+
+    private final HttpClient httpClient;
+
+    private final Thread thread;
+
+    private volatile boolean running = true;
+
+    private volatile Long position;
+
+    private volatile Stream<String> body;
+
+    public ClientReplicator(ClientService clientService, ObjectMapper objectMapper,
+                            @Value("${client.replication.leader-url}") String leaderUrl,
+                            @Value("${client.replication.retry-interval:PT1S}") Duration retryInterval) {
+        this.clientService = clientService;
+        this.objectMapper = objectMapper;
+        this.leaderUrl = leaderUrl.endsWith("/") ? leaderUrl.substring(0, leaderUrl.length() - 1) : leaderUrl;
+        this.retryInterval = retryInterval;
+        this.httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        this.thread = new Thread(this::run, "client-replication");
+        this.thread.setDaemon(true);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        thread.start();
+    }
+
+    /**
+     * Returns the leader sequence number of the last change applied.
+     *
+     * @return The sequence number, or null until the follower has caught up.
+     */
+    public Long position() {
+        return position;
+    }
+
+    @Override
+    public void destroy() {
+        running = false;
+        thread.interrupt();
+        Stream<String> current = body;
+        if (current != null) {
+            current.close();
+        }
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                replicate();
+            } catch (InterruptedException e) {
+                return;
+            } catch (IOException | RuntimeException e) {
+                if (running) {
+                    log.warn("Replication from {} interrupted, retrying in {}: {}", leaderUrl, retryInterval, e.toString());
+                }
+            }
+            try {
+                Thread.sleep(retryInterval.toMillis());
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Catches up if needed, then applies changes until the leader ends the stream.
+     */
+    private void replicate() throws IOException, InterruptedException {
+        if (position == null) {
+            HttpResponse<Stream<String>> snapshot = get("/clients/snapshot");
+            long sequence = snapshot.headers().firstValueAsLong(ClientChangeLog.SEQUENCE_HEADER)
+                    .orElseThrow(() -> new IOException("Snapshot without " + ClientChangeLog.SEQUENCE_HEADER + " header"));
+            int count;
+            try (Stream<String> lines = snapshot.body()) {
+                count = applySnapshot(lines);
+            }
+            position = sequence;
+            log.info("Caught up with {} from a snapshot of {} clients at sequence {}", leaderUrl, count, sequence);
+        }
+
+        HttpResponse<Stream<String>> changes = get("/clients/changes?after=" + position);
+        try (Stream<String> lines = changes.body()) {
+            if (changes.statusCode() == HttpStatus.GONE.value()) {
+                log.info("Change {} is no longer held by {}, catching up again", position, leaderUrl);
+                position = null;
+                return;
+            }
+            applyChanges(lines);
+        }
+    }
+
+    private HttpResponse<Stream<String>> get(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(leaderUrl + path))
+                .header("Accept", MediaType.APPLICATION_NDJSON_VALUE)
+                .GET()
+                .build();
+        HttpResponse<Stream<String>> response = httpClient.send(request, HttpResponse.BodyHandlers.ofLines());
+        body = response.body();
+        if (response.statusCode() != HttpStatus.OK.value() && response.statusCode() != HttpStatus.GONE.value()) {
+            response.body().close();
+            throw new IOException("Leader answered " + path + " with " + response.statusCode());
+        }
+        return response;
+    }
+
+    /**
+     * Restores every client of a snapshot, then removes the clients the snapshot does not have.
+     *
+     * @param lines The snapshot, one client per line.
+     * @return The number of clients in the snapshot.
+     * @throws IOException if a line is not a client.
+     */
+    int applySnapshot(Stream<String> lines) throws IOException {
+        Set<String> idNumbers = new HashSet<>();
+        for (Iterator<String> iterator = lines.iterator(); iterator.hasNext(); ) {
+            String line = iterator.next();
+            if (!line.isBlank()) {
+                Client client = readClient(objectMapper.readTree(line));
+                clientService.restoreClient(null, client);
+                idNumbers.add(client.getIdNumber());
+            }
+        }
+
+        // Clients created since the snapshot was taken arrive with the changes, so anything else left here
+        // moved to another ID number on the leader while this follower was not following.
+        List<String> stale = new ArrayList<>();
+        for (Client client : clientService.getAllClients()) {
+            if (!idNumbers.contains(client.getIdNumber())) {
+                stale.add(client.getIdNumber());
+            }
+        }
+        stale.forEach(clientService::removeClient);
+        return idNumbers.size();
+    }
+
+    /**
+     * Applies changes in order and advances the position past each.
+     *
+     * @param lines The changes, one ClientChangeEvent per line; blank lines are heartbeats.
+     * @throws IOException if a line is not a change.
+     */
+    void applyChanges(Stream<String> lines) throws IOException {
+        for (Iterator<String> iterator = lines.iterator(); iterator.hasNext(); ) {
+            String line = iterator.next();
+            if (line.isBlank()) {
+                continue;
+            }
+            JsonNode event = objectMapper.readTree(line);
+            String previousIdNumber = event.path("previousIdNumber").textValue();
+            if (ClientChangeEvent.Type.REMOVED.name().equals(event.path("type").asText())) {
+                clientService.removeClient(previousIdNumber);
+            } else {
+                clientService.restoreClient(previousIdNumber, readClient(event.path("client")));
+            }
+            position = event.path("sequence").asLong();
+        }
+    }
+
+    /**
+     * Reads a client with its version, which is ignored when a client is read from a request body.
+     */
+    private Client readClient(JsonNode node) throws IOException {
+        return objectMapper.treeToValue(node, Client.class).withVersion(node.path("version").asLong());
+    }
+}
@@ -0,0 +1,47 @@
+package com.nobrainsolutions.assignment.replication;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+
+/**
+ *
+ * The ReactiveClientReplicationFilter class keeps a follower read-only on the WebFlux stack, redirecting
+ * requests that would change clients to the leader as ClientReplicationFilter does.
+ */
+
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@ConditionalOnProperty(name = "client.replication.role", havingValue = "follower")
+public class ReactiveClientReplicationFilter implements WebFilter {
+
+    private final String leaderUrl;
+
+    public ReactiveClientReplicationFilter(@Value("${client.replication.leader-url}") String leaderUrl) {
+        this.leaderUrl = leaderUrl.endsWith("/") ? leaderUrl.substring(0, leaderUrl.length() - 1) : leaderUrl;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!ClientReplicationFilter.isWrite(request.getMethod().name(), request.getPath().pathWithinApplication().value())) {
+            return chain.filter(exchange);
+        }
+        String query = request.getURI().getRawQuery();
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.TEMPORARY_REDIRECT);
+        response.getHeaders().setLocation(URI.create(
+                leaderUrl + request.getURI().getRawPath() + (query != null ? "?" + query : "")));
+        return response.setComplete();
+    }
+}
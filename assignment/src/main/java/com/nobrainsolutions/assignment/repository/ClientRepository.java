@@ -0,0 +1,127 @@
+package com.nobrainsolutions.assignment.repository;
+
+import com.nobrainsolutions.assignment.dto.ClientSearchCriteria;
+import com.nobrainsolutions.assignment.entity.Client;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ *
+ * The ClientRepository interface defines the storage operations used by the ClientService.
+ * Implementations keep a primary index on the ID number and secondary indexes on the
+ * mobile number, first name and last name so that lookups, searches and uniqueness checks
+ * do not scan the store.
+ * Uniqueness of ID numbers and mobile numbers is enforced atomically by the implementation;
+ * callers are expected to serialize writes that target the same ID number.
+ */
+
+public interface ClientRepository {
+
+    /**
+     * Finds a client by ID number.
+     *
+     * @param idNumber The ID number of the client.
+     * @return The client with the specified ID number, if present.
+     */
+    Optional<Client> findByIdNumber(String idNumber);
+
+    /**
+     * Finds a client by mobile number.
+     *
+     * @param mobileNumber The mobile number of the client.
+     * @return The client with the specified mobile number, if present.
+     */
+    Optional<Client> findByMobileNumber(String mobileNumber);
+
+    /**
+     * Finds the clients matching every predicate of the search criteria, ordered by ID number.
+     * The most selective index is evaluated first and the other predicates are checked against
+     * its candidates.
+     *
+     * @param criteria      The search predicates; at least one must be set.
+     * @param afterIdNumber Only clients whose ID number sorts after this one are returned; null for the first page.
+     * @param limit         The maximum number of clients to return.
+     * @return The matching clients, ordered by ID number.
+     */
+    List<Client> search(ClientSearchCriteria criteria, String afterIdNumber, int limit);
+
+    /**
+     * Checks if a client with the given ID number is stored.
+     *
+     * @param idNumber The ID number to check.
+     * @return true if the ID number is in use, false otherwise.
+     */
+    boolean existsByIdNumber(String idNumber);
+
+    /**
+     * Checks if a client with the given mobile number is stored.
+     *
+     * @param mobileNumber The mobile number to check.
+     * @return true if the mobile number is in use, false otherwise.
+     */
+    boolean existsByMobileNumber(String mobileNumber);
+
+    /**
+     * Stores a new client at version 1 and adds it to every index. The repository takes ownership of
+     * the instance, which must not be modified afterwards.
+     *
+     * @param client The client to store.
+     * @return The stored client.
+     * @throws IllegalArgumentException if the ID number or mobile number is already in use.
+     */
+    Client save(Client client);
+
+    /**
+     * Replaces the details of a stored client and re-indexes it, including when the
+     * ID number or mobile number changes. The client is stored with the next version, and a
+     * concurrent reader sees either the old details or the new ones, never a mix.
+     *
+     * @param idNumber      The current ID number of the client.
+     * @param updatedClient The updated client details; its version is ignored.
+     * @return The updated client, or null if no client has the given ID number.
+     * @throws IllegalArgumentException if the new ID number or mobile number is already in use.
+     */
+    Client update(String idNumber, Client updatedClient);
+
+    /**
+     * Stores a client as-is, version included, replacing any client with the same ID number, without uniqueness checks.
+     * Used to rebuild the store from changes that were already validated, e.g. during recovery;
+     * applying the same change twice leaves the store unchanged.
+     *
+     * @param client The client to store.
+     * @return The client previously stored under the same ID number, or null.
+     */
+    Client restore(Client client);
+
+    /**
+     * Removes a client and all of its index entries.
+     *
+     * @param idNumber The ID number of the client.
+     * @return The removed client, or null if no client has the given ID number.
+     */
+    Client remove(String idNumber);
+
+    /**
+     * Returns a live view of every stored client. Iteration does not copy the store and does not
+     * block writers; it reflects each client as stored at some point during the iteration.
+     *
+     * @return The stored clients, in no particular order.
+     */
+    Iterable<Client> findAll();
+
+    /**
+     * Returns the number of stored clients.
+     *
+     * @return The number of stored clients.
+     */
+    int size();
+
+    /**
+     * Returns the number of distinct keys in each secondary index, for monitoring.
+     *
+     * @return The key count per index, keyed by the indexed field: mobileNumber, firstName and lastName.
+     */
+    Map<String, Integer> indexSizes();
+}
@@ -0,0 +1,580 @@
+package com.nobrainsolutions.assignment.repository;
+
+import com.nobrainsolutions.assignment.dto.ClientSearchCriteria;
+import com.nobrainsolutions.assignment.entity.Client;
+import com.nobrainsolutions.assignment.exception.ClientException;
+import com.nobrainsolutions.assignment.exception.ErrorCode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ *
+ * The CompactClientRepository class stores clients column by column in primitive arrays instead of
+ * one object graph per client. ID numbers and numeric mobile numbers are packed into longs, and names,
+ * physical addresses and any non-numeric mobile numbers are kept once each in an off-heap StringArena
+ * and referenced by int. A stored client therefore costs a few dozen bytes of heap and no objects;
+ * Client instances are only built when a client is returned to the caller.
+ * The primary and mobile number indexes are open-addressing long-to-slot maps, and the name indexes
+ * keep each shared name's bucket as a sorted array of packed ID numbers, so lookups and searches do not
+ * scan the store.
+ * Every access runs under one read-write lock: readers proceed in parallel and writers are serialized.
+ * The engine is selected with client.store.engine=compact and requires ID numbers of at most 17 digits;
+ * for 13-digit South African ID numbers, search results are ordered exactly as by InMemoryClientRepository.
+ */
+
+@Repository
+@ConditionalOnProperty(name = "client.store.engine", havingValue = "compact")
+@ConditionalOnExpression("${client.store.shards:1} <= 1")
+public class CompactClientRepository implements ClientRepository {
+
+    private static final int ARENA_CHUNK_SIZE = 1 << 20;
+
+    private static final int MAX_PACKED_DIGITS = 17;
+
+    /**
+     * Packed numbers keep their digit count above this bit, so leading zeros survive and 0 is never a valid code.
+     */
+    private static final int LENGTH_SHIFT = 57;
+
+    private static final long VALUE_MASK = (1L << LENGTH_SHIFT) - 1;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final StringArena strings = new StringArena(ARENA_CHUNK_SIZE);
+
+    private final LongIntHashMap slotsByIdNumber;
+
+    private final LongIntHashMap slotsByMobileNumber;
+
+    private final NameIndex idNumbersByFirstName = new NameIndex();
+
+    private final NameIndex idNumbersByLastName = new NameIndex();
+
+    /**
+     * Packed ID number per slot; 0 marks a free slot.
+     */
+    private long[] idNumbers;
+
+    /**
+     * Packed mobile number per slot; negative values are arena references of non-numeric mobile numbers.
+     */
+    private long[] mobileNumbers;
+
+    private int[] firstNames;
+
+    private int[] lastNames;
+
+    private int[] physicalAddresses;
+
+    private long[] versions;
+
+    private int slotCount;
+
+    private int[] freeSlots = new int[16];
+
+    private int freeSlotCount;
+
+    public CompactClientRepository() {
+        this(1024);
+    }
+
+    @Autowired
+    public CompactClientRepository(@Value("${client.store.initial-capacity:1024}") int initialCapacity) {
+        int capacity = Math.max(initialCapacity, 16);
+        idNumbers = new long[capacity];
+        mobileNumbers = new long[capacity];
+        firstNames = new int[capacity];
+        lastNames = new int[capacity];
+        physicalAddresses = new int[capacity];
+        versions = new long[capacity];
+        slotsByIdNumber = new LongIntHashMap(capacity);
+        slotsByMobileNumber = new LongIntHashMap(capacity);
+    }
+
+    @Override
+    public Optional<Client> findByIdNumber(String idNumber) {
+        long code = pack(idNumber);
+        if (code == 0) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            int slot = slotsByIdNumber.get(code);
+            return slot == LongIntHashMap.MISSING ? Optional.empty() : Optional.of(materialize(slot));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<Client> findByMobileNumber(String mobileNumber) {
+        lock.readLock().lock();
+        try {
+            int slot = mobileSlot(mobileNumber);
+            return slot == LongIntHashMap.MISSING ? Optional.empty() : Optional.of(materialize(slot));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Client> search(ClientSearchCriteria criteria, String afterIdNumber, int limit) {
+        if (criteria.getIdNumber() != null) {
+            return matchingPage(findByIdNumber(criteria.getIdNumber()).orElse(null), criteria, afterIdNumber);
+        }
+        if (criteria.getMobileNumber() != null) {
+            return matchingPage(findByMobileNumber(criteria.getMobileNumber()).orElse(null), criteria, afterIdNumber);
+        }
+        if (criteria.getFirstName() == null && criteria.getLastName() == null) {
+            return List.of();
+        }
+
+        long after = 0;
+        if (afterIdNumber != null) {
+            after = pack(afterIdNumber);
+            if (after == 0) {
+                throw new ClientException(ErrorCode.INVALID_SEARCH_CURSOR);
+            }
+        }
+
+        lock.readLock().lock();
+        try {
+            int firstName = strings.find(criteria.getFirstName());
+            int lastName = strings.find(criteria.getLastName());
+            SortedLongArray byFirstName = criteria.getFirstName() != null ? idNumbersByFirstName.get(firstName) : null;
+            SortedLongArray byLastName = criteria.getLastName() != null ? idNumbersByLastName.get(lastName) : null;
+            if ((criteria.getFirstName() != null && byFirstName == null)
+                    || (criteria.getLastName() != null && byLastName == null)) {
+                return List.of();
+            }
+
+            SortedLongArray candidates = byFirstName == null
+                    || (byLastName != null && byLastName.size() < byFirstName.size()) ? byLastName : byFirstName;
+            List<Client> result = new ArrayList<>(Math.min(limit, 64));
+            for (int i = candidates.indexAfter(after); i < candidates.size() && result.size() < limit; i++) {
+                int slot = slotsByIdNumber.get(candidates.get(i));
+                // Names are interned, so comparing references compares the names.
+                if ((byFirstName == null || firstNames[slot] == firstName)
+                        && (byLastName == null || lastNames[slot] == lastName)) {
+                    result.add(materialize(slot));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean existsByIdNumber(String idNumber) {
+        long code = pack(idNumber);
+        lock.readLock().lock();
+        try {
+            return slotsByIdNumber.containsKey(code);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean existsByMobileNumber(String mobileNumber) {
+        lock.readLock().lock();
+        try {
+            return mobileSlot(mobileNumber) != LongIntHashMap.MISSING;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Client save(Client client) {
+        long idNumber = packIdNumber(client.getIdNumber());
+        lock.writeLock().lock();
+        try {
+            if (slotsByIdNumber.containsKey(idNumber)) {
+                throw new ClientException(ErrorCode.DUPLICATE_ID_NUMBER);
+            }
+            if (mobileSlot(client.getMobileNumber()) != LongIntHashMap.MISSING) {
+                throw new ClientException(ErrorCode.DUPLICATE_MOBILE_NUMBER);
+            }
+            write(LongIntHashMap.MISSING, idNumber, client, 1);
+            return client.withVersion(1);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Client update(String idNumber, Client updatedClient) {
+        long code = pack(idNumber);
+        if (code == 0) {
+            return null;
+        }
+        lock.writeLock().lock();
+        try {
+            int slot = slotsByIdNumber.get(code);
+            if (slot == LongIntHashMap.MISSING) {
+                return null;
+            }
+            long newCode = packIdNumber(updatedClient.getIdNumber());
+            if (newCode != code && slotsByIdNumber.containsKey(newCode)) {
+                throw new ClientException(ErrorCode.DUPLICATE_ID_NUMBER);
+            }
+            int mobileSlot = mobileSlot(updatedClient.getMobileNumber());
+            if (mobileSlot != LongIntHashMap.MISSING && mobileSlot != slot) {
+                throw new ClientException(ErrorCode.DUPLICATE_MOBILE_NUMBER);
+            }
+            write(slot, newCode, updatedClient, versions[slot] + 1);
+            return materialize(slot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Client restore(Client client) {
+        long idNumber = packIdNumber(client.getIdNumber());
+        lock.writeLock().lock();
+        try {
+            int slot = slotsByIdNumber.get(idNumber);
+            if (slot == LongIntHashMap.MISSING) {
+                write(LongIntHashMap.MISSING, idNumber, client, client.getVersion());
+                return null;
+            }
+            Client previous = materialize(slot);
+            write(slot, idNumber, client, client.getVersion());
+            return previous;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Client remove(String idNumber) {
+        long code = pack(idNumber);
+        if (code == 0) {
+            return null;
+        }
+        lock.writeLock().lock();
+        try {
+            int slot = slotsByIdNumber.get(code);
+            if (slot == LongIntHashMap.MISSING) {
+                return null;
+            }
+            Client client = materialize(slot);
+            clear(slot);
+            freeSlot(slot);
+            return client;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Iterable<Client> findAll() {
+        return () -> new Iterator<>() {
+
+            private int nextSlot;
+
+            private Client next;
+
+            @Override
+            public boolean hasNext() {
+                if (next == null) {
+                    next = advance();
+                }
+                return next != null;
+            }
+
+            @Override
+            public Client next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Client client = next;
+                next = null;
+                return client;
+            }
+
+            private Client advance() {
+                lock.readLock().lock();
+                try {
+                    while (nextSlot < slotCount) {
+                        int slot = nextSlot++;
+                        if (idNumbers[slot] != 0) {
+                            return materialize(slot);
+                        }
+                    }
+                    return null;
+                } finally {
+                    lock.readLock().unlock();
+                }
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotsByIdNumber.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Map<String, Integer> indexSizes() {
+        lock.readLock().lock();
+        try {
+            return Map.of(
+                    "mobileNumber", slotsByMobileNumber.size(),
+                    "firstName", idNumbersByFirstName.size(),
+                    "lastName", idNumbersByLastName.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the off-heap memory reserved for names, physical addresses and non-numeric mobile numbers.
+     *
+     * @return The reserved off-heap bytes.
+     */
+    public long offHeapBytes() {
+        lock.readLock().lock();
+        try {
+            return strings.reservedBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of distinct strings held in the arena.
+     *
+     * @return The number of arena entries.
+     */
+    int stringCount() {
+        lock.readLock().lock();
+        try {
+            return strings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of slots allocated and not freed.
+     *
+     * @return The number of slots in use.
+     */
+    int usedSlots() {
+        lock.readLock().lock();
+        try {
+            return slotCount - freeSlotCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Stores a client in a slot, replacing whatever the slot held, and re-indexes it.
+     * The new strings are interned before the old ones are released, so unchanged fields keep their entries.
+     * Every string is interned before a slot is allocated or changed, and a rejected string releases the
+     * ones interned before it, so a failed write leaves the store and the arena as they were.
+     *
+     * @param slot     The slot to write, or LongIntHashMap.MISSING to allocate one.
+     * @param idNumber The packed ID number of the client.
+     * @param client   The client details.
+     * @param version  The version to store the client at.
+     */
+    private void write(int slot, long idNumber, Client client, long version) {
+        long mobileNumber = pack(client.getMobileNumber());
+        int firstName = 0;
+        int lastName = 0;
+        int physicalAddress;
+        try {
+            if (mobileNumber == 0 && client.getMobileNumber() != null) {
+                mobileNumber = -strings.intern(client.getMobileNumber());
+            }
+            firstName = strings.intern(client.getFirstName());
+            lastName = strings.intern(client.getLastName());
+            physicalAddress = strings.intern(client.getPhysicalAddress());
+        } catch (RuntimeException e) {
+            if (mobileNumber < 0) {
+                strings.release((int) -mobileNumber);
+            }
+            strings.release(firstName);
+            strings.release(lastName);
+            throw e;
+        }
+
+        if (slot == LongIntHashMap.MISSING) {
+            slot = allocateSlot();
+        }
+        clear(slot);
+
+        idNumbers[slot] = idNumber;
+        mobileNumbers[slot] = mobileNumber;
+        firstNames[slot] = firstName;
+        lastNames[slot] = lastName;
+        physicalAddresses[slot] = physicalAddress;
+        versions[slot] = version;
+
+        slotsByIdNumber.put(idNumber, slot);
+        if (mobileNumber != 0) {
+            slotsByMobileNumber.put(mobileNumber, slot);
+        }
+        idNumbersByFirstName.add(firstName, idNumber);
+        idNumbersByLastName.add(lastName, idNumber);
+    }
+
+    /**
+     * Removes a slot from every index and releases its strings. Free slots are left untouched.
+     *
+     * @param slot The slot to clear.
+     */
+    private void clear(int slot) {
+        long idNumber = idNumbers[slot];
+        if (idNumber == 0) {
+            return;
+        }
+        long mobileNumber = mobileNumbers[slot];
+        if (slotsByIdNumber.get(idNumber) == slot) {
+            slotsByIdNumber.remove(idNumber);
+        }
+        if (mobileNumber != 0 && slotsByMobileNumber.get(mobileNumber) == slot) {
+            slotsByMobileNumber.remove(mobileNumber);
+        }
+        idNumbersByFirstName.remove(firstNames[slot], idNumber);
+        idNumbersByLastName.remove(lastNames[slot], idNumber);
+
+        if (mobileNumber < 0) {
+            strings.release((int) -mobileNumber);
+        }
+        strings.release(firstNames[slot]);
+        strings.release(lastNames[slot]);
+        strings.release(physicalAddresses[slot]);
+        idNumbers[slot] = 0;
+    }
+
+    private Client materialize(int slot) {
+        long mobileNumber = mobileNumbers[slot];
+        return new Client(
+                strings.get(firstNames[slot]),
+                strings.get(lastNames[slot]),
+                mobileNumber < 0 ? strings.get((int) -mobileNumber) : unpack(mobileNumber),
+                unpack(idNumbers[slot]),
+                strings.get(physicalAddresses[slot]),
+                versions[slot]);
+    }
+
+    /**
+     * Finds the slot holding a mobile number without interning it.
+     *
+     * @param mobileNumber The mobile number, or null.
+     * @return The slot, or LongIntHashMap.MISSING.
+     */
+    private int mobileSlot(String mobileNumber) {
+        if (mobileNumber == null) {
+            return LongIntHashMap.MISSING;
+        }
+        long code = pack(mobileNumber);
+        if (code == 0) {
+            code = -strings.find(mobileNumber);
+        }
+        return code == 0 ? LongIntHashMap.MISSING : slotsByMobileNumber.get(code);
+    }
+
+    private int allocateSlot() {
+        if (freeSlotCount > 0) {
+            return freeSlots[--freeSlotCount];
+        }
+        if (slotCount == idNumbers.length) {
+            int capacity = slotCount + (slotCount >> 1);
+            idNumbers = Arrays.copyOf(idNumbers, capacity);
+            mobileNumbers = Arrays.copyOf(mobileNumbers, capacity);
+            firstNames = Arrays.copyOf(firstNames, capacity);
+            lastNames = Arrays.copyOf(lastNames, capacity);
+            physicalAddresses = Arrays.copyOf(physicalAddresses, capacity);
+            versions = Arrays.copyOf(versions, capacity);
+        }
+        return slotCount++;
+    }
+
+    private void freeSlot(int slot) {
+        if (freeSlotCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeSlotCount * 2);
+        }
+        freeSlots[freeSlotCount++] = slot;
+    }
+
+    private static List<Client> matchingPage(Client client, ClientSearchCriteria criteria, String afterIdNumber) {
+        if (client == null || !criteria.matches(client)
+                || (afterIdNumber != null && client.getIdNumber().compareTo(afterIdNumber) <= 0)) {
+            return List.of();
+        }
+        return List.of(client);
+    }
+
+    private static long packIdNumber(String idNumber) {
+        long code = pack(idNumber);
+        if (code == 0) {
+            throw new ClientException(ErrorCode.INVALID_ID_NUMBER);
+        }
+        return code;
+    }
+
+    /**
+     * Packs a string of up to MAX_PACKED_DIGITS decimal digits into a long that also records the digit count.
+     *
+     * @param digits The string to pack, or null.
+     * @return The packed number, or 0 if the string is null, empty or not purely numeric.
+     */
+    static long pack(String digits) {
+        if (digits == null || digits.isEmpty() || digits.length() > MAX_PACKED_DIGITS) {
+            return 0;
+        }
+        long value = 0;
+        for (int i = 0; i < digits.length(); i++) {
+            int digit = digits.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return 0;
+            }
+            value = value * 10 + digit;
+        }
+        return ((long) digits.length() << LENGTH_SHIFT) | value;
+    }
+
+    /**
+     * Restores the string packed by pack.
+     *
+     * @param code The packed number, or 0.
+     * @return The digits, or null for 0.
+     */
+    static String unpack(long code) {
+        if (code == 0) {
+            return null;
+        }
+        char[] digits = new char[(int) (code >>> LENGTH_SHIFT)];
+        long value = code & VALUE_MASK;
+        for (int i = digits.length - 1; i >= 0; i--) {
+            digits[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return new String(digits);
+    }
+}
@@ -0,0 +1,278 @@
+package com.nobrainsolutions.assignment.repository;
+
+import com.nobrainsolutions.assignment.dto.ClientSearchCriteria;
+import com.nobrainsolutions.assignment.entity.Client;
+import com.nobrainsolutions.assignment.exception.ClientException;
+import com.nobrainsolutions.assignment.exception.ErrorCode;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ *
+ * The InMemoryClientRepository class stores clients in concurrent hash maps.
+ * The primary index maps ID numbers to clients, and the secondary indexes map
+ * mobile numbers, first names and last names to ID numbers, so every lookup is O(1).
+ * ID numbers and mobile numbers are claimed with putIfAbsent, so two concurrent writers
+ * can never both store the same unique key.
+ * This is the default engine, selected with client.store.engine=heap.
+ */
+
+@Repository
+@ConditionalOnProperty(name = "client.store.engine", havingValue = "heap", matchIfMissing = true)
+@ConditionalOnExpression("${client.store.shards:1} <= 1")
+public class InMemoryClientRepository implements ClientRepository {
+
+    private final Map<String, Client> clientsByIdNumber = new ConcurrentHashMap<>();
+
+    private final Map<String, String> idNumbersByMobileNumber = new ConcurrentHashMap<>();
+
+    private final SecondaryIndex idNumbersByFirstName = new SecondaryIndex();
+
+    private final SecondaryIndex idNumbersByLastName = new SecondaryIndex();
+
+    @Override
+    public Optional<Client> findByIdNumber(String idNumber) {
+        if (idNumber == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(clientsByIdNumber.get(idNumber));
+    }
+
+    @Override
+    public Optional<Client> findByMobileNumber(String mobileNumber) {
+        if (mobileNumber == null) {
+            return Optional.empty();
+        }
+        return findByIdNumber(idNumbersByMobileNumber.get(mobileNumber));
+    }
+
+    @Override
+    public List<Client> search(ClientSearchCriteria criteria, String afterIdNumber, int limit) {
+        if (criteria.getIdNumber() != null) {
+            return matchingPage(findByIdNumber(criteria.getIdNumber()).orElse(null), criteria, afterIdNumber);
+        }
+        if (criteria.getMobileNumber() != null) {
+            return matchingPage(findByMobileNumber(criteria.getMobileNumber()).orElse(null), criteria, afterIdNumber);
+        }
+
+        NavigableSet<String> candidates;
+        if (criteria.getFirstName() != null && criteria.getLastName() != null) {
+            candidates = idNumbersByFirstName.count(criteria.getFirstName()) <= idNumbersByLastName.count(criteria.getLastName())
+                    ? idNumbersByFirstName.get(criteria.getFirstName())
+                    : idNumbersByLastName.get(criteria.getLastName());
+        } else if (criteria.getFirstName() != null) {
+            candidates = idNumbersByFirstName.get(criteria.getFirstName());
+        } else if (criteria.getLastName() != null) {
+            candidates = idNumbersByLastName.get(criteria.getLastName());
+        } else {
+            return List.of();
+        }
+
+        if (afterIdNumber != null) {
+            candidates = candidates.tailSet(afterIdNumber, false);
+        }
+        List<Client> result = new ArrayList<>(Math.min(limit, 64));
+        for (String idNumber : candidates) {
+            Client client = clientsByIdNumber.get(idNumber);
+            // Buckets may briefly hold an ID number whose client was just renamed, so re-check.
+            if (client != null && criteria.matches(client)) {
+                result.add(client);
+                if (result.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean existsByIdNumber(String idNumber) {
+        return idNumber != null && clientsByIdNumber.containsKey(idNumber);
+    }
+
+    @Override
+    public boolean existsByMobileNumber(String mobileNumber) {
+        return mobileNumber != null && idNumbersByMobileNumber.containsKey(mobileNumber);
+    }
+
+    @Override
+    public Client save(Client client) {
+        String idNumber = client.getIdNumber();
+        String mobileNumber = client.getMobileNumber();
+
+        if (clientsByIdNumber.containsKey(idNumber)) {
+            throw new ClientException(ErrorCode.DUPLICATE_ID_NUMBER);
+        }
+
+        Client stored = client.withVersion(1);
+        // The mobile number is claimed first: it is only reachable through the primary
+        // index, so a claim that is rolled back is never visible to readers.
+        claimMobileNumber(mobileNumber, idNumber);
+        if (clientsByIdNumber.putIfAbsent(idNumber, stored) != null) {
+            releaseMobileNumber(mobileNumber, idNumber);
+            throw new ClientException(ErrorCode.DUPLICATE_ID_NUMBER);
+        }
+
+        addNameIndexes(stored);
+        return stored;
+    }
+
+    @Override
+    public Client update(String idNumber, Client updatedClient) {
+        Client existing = clientsByIdNumber.get(idNumber);
+        if (existing == null) {
+            return null;
+        }
+
+        String newIdNumber = updatedClient.getIdNumber();
+        String oldMobileNumber = existing.getMobileNumber();
+        String newMobileNumber = updatedClient.getMobileNumber();
+        boolean idNumberChanged = !idNumber.equals(newIdNumber);
+        boolean mobileNumberChanged = !Objects.equals(oldMobileNumber, newMobileNumber);
+        Client client = updatedClient.withVersion(existing.getVersion() + 1);
+
+        if (idNumberChanged && clientsByIdNumber.containsKey(newIdNumber)) {
+            throw new ClientException(ErrorCode.DUPLICATE_ID_NUMBER);
+        }
+
+        if (mobileNumberChanged) {
+            claimMobileNumber(newMobileNumber, newIdNumber);
+        }
+        if (idNumberChanged && clientsByIdNumber.putIfAbsent(newIdNumber, client) != null) {
+            if (mobileNumberChanged) {
+                releaseMobileNumber(newMobileNumber, newIdNumber);
+            }
+            throw new ClientException(ErrorCode.DUPLICATE_ID_NUMBER);
+        }
+
+        removeNameIndexes(existing);
+        if (mobileNumberChanged) {
+            releaseMobileNumber(oldMobileNumber, idNumber);
+        } else if (idNumberChanged && newMobileNumber != null) {
+            idNumbersByMobileNumber.replace(newMobileNumber, idNumber, newIdNumber);
+        }
+        // Readers see either the old snapshot or the new one, never a mix of the two.
+        if (idNumberChanged) {
+            clientsByIdNumber.remove(idNumber, existing);
+        } else {
+            clientsByIdNumber.put(idNumber, client);
+        }
+
+        addNameIndexes(client);
+        return client;
+    }
+
+    @Override
+    public Client restore(Client client) {
+        String idNumber = client.getIdNumber();
+        Client previous = clientsByIdNumber.put(idNumber, client);
+        if (previous != null) {
+            releaseMobileNumber(previous.getMobileNumber(), idNumber);
+            removeNameIndexes(previous);
+        }
+        if (client.getMobileNumber() != null) {
+            idNumbersByMobileNumber.put(client.getMobileNumber(), idNumber);
+        }
+        addNameIndexes(client);
+        return previous;
+    }
+
+    @Override
+    public Client remove(String idNumber) {
+        Client client = clientsByIdNumber.remove(idNumber);
+        if (client != null) {
+            releaseMobileNumber(client.getMobileNumber(), idNumber);
+            removeNameIndexes(client);
+        }
+        return client;
+    }
+
+    @Override
+    public Iterable<Client> findAll() {
+        return Collections.unmodifiableCollection(clientsByIdNumber.values());
+    }
+
+    @Override
+    public int size() {
+        return clientsByIdNumber.size();
+    }
+
+    @Override
+    public Map<String, Integer> indexSizes() {
+        return Map.of(
+                "mobileNumber", idNumbersByMobileNumber.size(),
+                "firstName", idNumbersByFirstName.keyCount(),
+                "lastName", idNumbersByLastName.keyCount());
+    }
+
+    /**
+     * Claims a mobile number for a client.
+     *
+     * @param mobileNumber The mobile number to claim; null mobile numbers are not indexed.
+     * @param idNumber     The ID number of the client claiming it.
+     * @throws IllegalArgumentException if another client already holds the mobile number.
+     */
+    private void claimMobileNumber(String mobileNumber, String idNumber) {
+        if (mobileNumber != null && idNumbersByMobileNumber.putIfAbsent(mobileNumber, idNumber) != null) {
+            throw new ClientException(ErrorCode.DUPLICATE_MOBILE_NUMBER);
+        }
+    }
+
+    /**
+     * Releases a mobile number if it is still held by the given client.
+     *
+     * @param mobileNumber The mobile number to release.
+     * @param idNumber     The ID number of the client holding it.
+     */
+    private void releaseMobileNumber(String mobileNumber, String idNumber) {
+        if (mobileNumber != null) {
+            idNumbersByMobileNumber.remove(mobileNumber, idNumber);
+        }
+    }
+
+    /**
+     * Returns the page of results for a lookup by a unique key.
+     *
+     * @param client        The client found by the unique key, or null.
+     * @param criteria      The remaining predicates.
+     * @param afterIdNumber The ID number the page starts after, or null for the first page.
+     * @return The client if it matches and sorts after the cursor, otherwise an empty list.
+     */
+    private static List<Client> matchingPage(Client client, ClientSearchCriteria criteria, String afterIdNumber) {
+        if (client == null || !criteria.matches(client)
+                || (afterIdNumber != null && client.getIdNumber().compareTo(afterIdNumber) <= 0)) {
+            return List.of();
+        }
+        return List.of(client);
+    }
+
+    /**
+     * Adds the first and last name of a client to the name indexes.
+     *
+     * @param client The client to index.
+     */
+    private void addNameIndexes(Client client) {
+        idNumbersByFirstName.add(client.getFirstName(), client.getIdNumber());
+        idNumbersByLastName.add(client.getLastName(), client.getIdNumber());
+    }
+
+    /**
+     * Removes the first and last name of a client from the name indexes.
+     *
+     * @param client The client to remove from the indexes.
+     */
+    private void removeNameIndexes(Client client) {
+        idNumbersByFirstName.remove(client.getFirstName(), client.getIdNumber());
+        idNumbersByLastName.remove(client.getLastName(), client.getIdNumber());
+    }
+}
@@ -0,0 +1,134 @@
+package com.nobrainsolutions.assignment.repository;
+
+/**
+ *
+ * The LongIntHashMap class maps non-zero long keys to int values without boxing.
+ * Keys and values live in two parallel arrays probed linearly; removal shifts the following
+ * entries back instead of leaving tombstones, so lookups never slow down after many updates.
+ * The map is not thread-safe.
+ */
+
+final class LongIntHashMap {
+
+    /**
+     * Returned by get when a key is absent.
+     */
+    static final int MISSING = -1;
+
+    private long[] keys;
+
+    private int[] values;
+
+    private int size;
+
+    LongIntHashMap(int expectedSize) {
+        int capacity = 16;
+        while (capacity * 7 < expectedSize * 10) {
+            capacity <<= 1;
+        }
+        keys = new long[capacity];
+        values = new int[capacity];
+    }
+
+    /**
+     * Returns the value of a key.
+     *
+     * @param key The key; 0 is never stored.
+     * @return The value, or MISSING.
+     */
+    int get(long key) {
+        int mask = keys.length - 1;
+        for (int i = slot(key, mask); keys[i] != 0; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return values[i];
+            }
+        }
+        return MISSING;
+    }
+
+    boolean containsKey(long key) {
+        return key != 0 && get(key) != MISSING;
+    }
+
+    /**
+     * Maps a key to a value, replacing any previous value.
+     *
+     * @param key   The key; must not be 0.
+     * @param value The value; must not be MISSING.
+     */
+    void put(long key, int value) {
+        int mask = keys.length - 1;
+        int i = slot(key, mask);
+        while (keys[i] != 0) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size * 10 > keys.length * 7) {
+            resize();
+        }
+    }
+
+    /**
+     * Removes a key.
+     *
+     * @param key The key.
+     * @return The removed value, or MISSING.
+     */
+    int remove(long key) {
+        int mask = keys.length - 1;
+        int i = slot(key, mask);
+        while (keys[i] != key) {
+            if (keys[i] == 0) {
+                return MISSING;
+            }
+            i = (i + 1) & mask;
+        }
+        int removed = values[i];
+        size--;
+
+        // Shift back every following entry of the probe run that would otherwise become unreachable.
+        int gap = i;
+        for (int j = (i + 1) & mask; keys[j] != 0; j = (j + 1) & mask) {
+            int home = slot(keys[j], mask);
+            if (((j - home) & mask) >= ((j - gap) & mask)) {
+                keys[gap] = keys[j];
+                values[gap] = values[j];
+                gap = j;
+            }
+        }
+        keys[gap] = 0;
+        return removed;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new int[oldValues.length * 2];
+        int mask = keys.length - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] != 0) {
+                int i = slot(oldKeys[j], mask);
+                while (keys[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    private static int slot(long key, int mask) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,165 @@
+package com.nobrainsolutions.assignment.repository;
+
+/**
+ *
+ * The NameIndex class maps interned name references to the packed ID numbers of the clients that
+ * carry the name. Most names in a large store are held by a single client, so a bucket with one
+ * entry is stored inline in the table and only names shared by several clients get a SortedLongArray.
+ * The table is probed linearly and entries are shifted back on removal, as in LongIntHashMap.
+ * The index is not thread-safe.
+ */
+
+final class NameIndex {
+
+    private int[] names = new int[16];
+
+    /**
+     * The only ID number of a name while its bucket is null.
+     */
+    private long[] singles = new long[16];
+
+    private SortedLongArray[] buckets = new SortedLongArray[16];
+
+    private int size;
+
+    /**
+     * Adds an ID number under a name.
+     *
+     * @param name     The name reference; 0 (null) is not indexed.
+     * @param idNumber The packed ID number.
+     */
+    void add(int name, long idNumber) {
+        if (name == 0) {
+            return;
+        }
+        int mask = names.length - 1;
+        int i = slot(name, mask);
+        while (names[i] != 0 && names[i] != name) {
+            i = (i + 1) & mask;
+        }
+        if (names[i] == 0) {
+            names[i] = name;
+            singles[i] = idNumber;
+            if (++size * 10 > names.length * 7) {
+                resize();
+            }
+            return;
+        }
+        if (buckets[i] == null) {
+            if (singles[i] == idNumber) {
+                return;
+            }
+            buckets[i] = new SortedLongArray();
+            buckets[i].add(singles[i]);
+        }
+        buckets[i].add(idNumber);
+    }
+
+    /**
+     * Removes an ID number from a name, dropping the name once it has no ID numbers left.
+     *
+     * @param name     The name reference.
+     * @param idNumber The packed ID number.
+     */
+    void remove(int name, long idNumber) {
+        int i = find(name);
+        if (i < 0) {
+            return;
+        }
+        SortedLongArray bucket = buckets[i];
+        if (bucket != null) {
+            bucket.remove(idNumber);
+            if (bucket.size() == 1) {
+                singles[i] = bucket.get(0);
+                buckets[i] = null;
+            }
+        } else if (singles[i] == idNumber) {
+            delete(i);
+        }
+    }
+
+    /**
+     * Returns the ID numbers stored under a name.
+     *
+     * @param name The name reference.
+     * @return The sorted ID numbers, or null if the name is not indexed. Single entries are copied,
+     * larger buckets are returned live.
+     */
+    SortedLongArray get(int name) {
+        int i = find(name);
+        if (i < 0) {
+            return null;
+        }
+        if (buckets[i] != null) {
+            return buckets[i];
+        }
+        SortedLongArray single = new SortedLongArray();
+        single.add(singles[i]);
+        return single;
+    }
+
+    /**
+     * Returns the number of distinct names.
+     *
+     * @return The number of indexed names.
+     */
+    int size() {
+        return size;
+    }
+
+    private int find(int name) {
+        if (name == 0) {
+            return -1;
+        }
+        int mask = names.length - 1;
+        for (int i = slot(name, mask); names[i] != 0; i = (i + 1) & mask) {
+            if (names[i] == name) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void delete(int i) {
+        int mask = names.length - 1;
+        size--;
+        int gap = i;
+        for (int j = (i + 1) & mask; names[j] != 0; j = (j + 1) & mask) {
+            int home = slot(names[j], mask);
+            if (((j - home) & mask) >= ((j - gap) & mask)) {
+                names[gap] = names[j];
+                singles[gap] = singles[j];
+                buckets[gap] = buckets[j];
+                gap = j;
+            }
+        }
+        names[gap] = 0;
+        buckets[gap] = null;
+    }
+
+    private void resize() {
+        int[] oldNames = names;
+        long[] oldSingles = singles;
+        SortedLongArray[] oldBuckets = buckets;
+        names = new int[oldNames.length * 2];
+        singles = new long[oldNames.length * 2];
+        buckets = new SortedLongArray[oldNames.length * 2];
+        int mask = names.length - 1;
+        for (int j = 0; j < oldNames.length; j++) {
+            if (oldNames[j] != 0) {
+                int i = slot(oldNames[j], mask);
+                while (names[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                names[i] = oldNames[j];
+                singles[i] = oldSingles[j];
+                buckets[i] = oldBuckets[j];
+            }
+        }
+    }
+
+    private static int slot(int name, int mask) {
+        int hash = name * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
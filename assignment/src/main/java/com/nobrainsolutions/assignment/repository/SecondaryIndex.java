@@ -0,0 +1,96 @@
+package com.nobrainsolutions.assignment.repository;
+
+import java.util.Collections;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ *
+ * The SecondaryIndex class maps a non-unique key, such as a first name, to the ID numbers of the
+ * clients that carry it. ID numbers are kept sorted so that keyset pagination can resume from a
+ * cursor, and each bucket tracks its size so the most selective index can be chosen in O(1).
+ */
+
+class SecondaryIndex {
+
+    private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * Adds an ID number under a key.
+     *
+     * @param key      The key; null keys are not indexed.
+     * @param idNumber The ID number to add.
+     */
+    void add(String key, String idNumber) {
+        if (key == null) {
+            return;
+        }
+        buckets.compute(key, (k, bucket) -> {
+            Bucket target = bucket != null ? bucket : new Bucket();
+            if (target.idNumbers.add(idNumber)) {
+                target.size++;
+            }
+            return target;
+        });
+    }
+
+    /**
+     * Removes an ID number from a key, dropping the bucket once it is empty.
+     *
+     * @param key      The key; null keys are ignored.
+     * @param idNumber The ID number to remove.
+     */
+    void remove(String key, String idNumber) {
+        if (key == null) {
+            return;
+        }
+        buckets.computeIfPresent(key, (k, bucket) -> {
+            if (bucket.idNumbers.remove(idNumber)) {
+                bucket.size--;
+            }
+            return bucket.size == 0 ? null : bucket;
+        });
+    }
+
+    /**
+     * Returns the sorted ID numbers stored under a key.
+     *
+     * @param key The key.
+     * @return A live, sorted view of the ID numbers, or an empty set if the key is unknown.
+     */
+    NavigableSet<String> get(String key) {
+        Bucket bucket = key == null ? null : buckets.get(key);
+        return bucket == null ? Collections.emptyNavigableSet() : bucket.idNumbers;
+    }
+
+    /**
+     * Returns the number of ID numbers stored under a key.
+     *
+     * @param key The key.
+     * @return The bucket size, or 0 if the key is unknown.
+     */
+    int count(String key) {
+        Bucket bucket = key == null ? null : buckets.get(key);
+        return bucket == null ? 0 : bucket.size;
+    }
+
+    /**
+     * Returns the number of distinct keys.
+     *
+     * @return The number of distinct keys.
+     */
+    int keyCount() {
+        return buckets.size();
+    }
+
+    private static final class Bucket {
+
+        private final NavigableSet<String> idNumbers = new ConcurrentSkipListSet<>();
+
+        /**
+         * Only changed inside ConcurrentHashMap.compute, which serializes writers per key.
+         */
+        private volatile int size;
+    }
+}
@@ -0,0 +1,347 @@
+package com.nobrainsolutions.assignment.repository;
+
+import com.nobrainsolutions.assignment.dto.ClientSearchCriteria;
+import com.nobrainsolutions.assignment.entity.Client;
+import com.nobrainsolutions.assignment.exception.ClientException;
+import com.nobrainsolutions.assignment.exception.ErrorCode;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.StreamSupport;
+
+/**
+ *
+ * The ShardedClientRepository class splits the store into shards, each a complete repository of the configured
+ * engine with its own indexes and locking, and routes every client to one shard by a hash of its ID number.
+ * Writes to different shards never touch the same index or lock, which matters most for the compact
+ * engine, whose single read-write lock otherwise serializes every write.
+ * Mobile numbers must be unique across shards, so they are also claimed in one concurrent map from mobile
+ * number to ID number, with putIfAbsent as in InMemoryClientRepository, before the shard is written.
+ * Searches by name run on every shard in parallel, on a pool of one thread per additional shard, and the
+ * shards' pages, each already ordered by ID number, are merged into one. When the pool's queue is full the
+ * searching thread runs the shard searches itself.
+ * Moving a client to another shard, when its ID number changes, relies on the caller holding the locks
+ * for both ID numbers, as ClientService does. The copy on the new shard is hidden from reads until the old
+ * one is removed, so a search never returns the client twice. findAll visits the shards one after another
+ * and, like the iterators of a concurrent map, may still miss a client moved during the iteration or see
+ * it under both ID numbers.
+ * Enabled with client.store.shards greater than 1; client.store.engine then picks the engine of every shard.
+ */
+
+@Repository
+@ConditionalOnExpression("${client.store.shards:1} > 1")
+public class ShardedClientRepository implements ClientRepository, DisposableBean {
+
+    private static final int SEARCH_QUEUE_CAPACITY = 1024;
+
+    private final ClientRepository[] shards;
+
+    private final Map<String, String> idNumbersByMobileNumber = new ConcurrentHashMap<>();
+
+    /**
+     * New ID numbers of clients being moved to another shard, hidden from reads until the move completes.
+     */
+    private final Set<String> movingIdNumbers = ConcurrentHashMap.newKeySet();
+
+    private final ThreadPoolExecutor searchExecutor;
+
+    public ShardedClientRepository(List<ClientRepository> shards) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.shards = shards.toArray(new ClientRepository[0]);
+        int threads = Math.max(shards.size() - 1, 1);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.searchExecutor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(SEARCH_QUEUE_CAPACITY), runnable -> {
+            Thread thread = new Thread(runnable, "client-shard-search-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, (task, executor) -> task.run());
+        this.searchExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    @Autowired
+    public ShardedClientRepository(@Value("${client.store.shards:1}") int shardCount,
+                                   @Value("${client.store.engine:heap}") String engine,
+                                   @Value("${client.store.initial-capacity:1024}") int initialCapacity) {
+        this(createShards(shardCount, engine, initialCapacity));
+    }
+
+    @Override
+    public Optional<Client> findByIdNumber(String idNumber) {
+        if (idNumber == null || movingIdNumbers.contains(idNumber)) {
+            return Optional.empty();
+        }
+        return shardOf(idNumber).findByIdNumber(idNumber);
+    }
+
+    @Override
+    public Optional<Client> findByMobileNumber(String mobileNumber) {
+        if (mobileNumber == null) {
+            return Optional.empty();
+        }
+        return findByIdNumber(idNumbersByMobileNumber.get(mobileNumber))
+                .filter(client -> mobileNumber.equals(client.getMobileNumber()));
+    }
+
+    @Override
+    public List<Client> search(ClientSearchCriteria criteria, String afterIdNumber, int limit) {
+        if (criteria.getIdNumber() != null) {
+            return visible(shardOf(criteria.getIdNumber()).search(criteria, afterIdNumber, limit));
+        }
+        if (criteria.getMobileNumber() != null) {
+            String idNumber = idNumbersByMobileNumber.get(criteria.getMobileNumber());
+            return idNumber == null ? List.of() : visible(shardOf(idNumber).search(criteria, afterIdNumber, limit));
+        }
+        if (criteria.getFirstName() == null && criteria.getLastName() == null) {
+            return List.of();
+        }
+
+        List<CompletableFuture<List<Client>>> others = new ArrayList<>(shards.length - 1);
+        for (int i = 1; i < shards.length; i++) {
+            ClientRepository shard = shards[i];
+            others.add(CompletableFuture.supplyAsync(() -> shard.search(criteria, afterIdNumber, limit), searchExecutor));
+        }
+        List<List<Client>> pages = new ArrayList<>(shards.length);
+        pages.add(visible(shards[0].search(criteria, afterIdNumber, limit)));
+        for (CompletableFuture<List<Client>> page : others) {
+            pages.add(visible(page.join()));
+        }
+        return merge(pages, limit);
+    }
+
+    @Override
+    public boolean existsByIdNumber(String idNumber) {
+        return idNumber != null && shardOf(idNumber).existsByIdNumber(idNumber);
+    }
+
+    @Override
+    public boolean existsByMobileNumber(String mobileNumber) {
+        return mobileNumber != null && idNumbersByMobileNumber.containsKey(mobileNumber);
+    }
+
+    @Override
+    public Client save(Client client) {
+        String mobileNumber = client.getMobileNumber();
+        claimMobileNumber(mobileNumber, client.getIdNumber());
+        try {
+            return shardOf(client.getIdNumber()).save(client);
+        } catch (RuntimeException e) {
+            releaseMobileNumber(mobileNumber, client.getIdNumber());
+            throw e;
+        }
+    }
+
+    @Override
+    public Client update(String idNumber, Client updatedClient) {
+        ClientRepository source = shardOf(idNumber);
+        Client existing = source.findByIdNumber(idNumber).orElse(null);
+        if (existing == null) {
+            return null;
+        }
+
+        String newIdNumber = updatedClient.getIdNumber();
+        String oldMobileNumber = existing.getMobileNumber();
+        String newMobileNumber = updatedClient.getMobileNumber();
+        boolean mobileNumberChanged = !Objects.equals(oldMobileNumber, newMobileNumber);
+        ClientRepository target = shardOf(newIdNumber);
+
+        if (mobileNumberChanged) {
+            claimMobileNumber(newMobileNumber, newIdNumber);
+        }
+        Client client;
+        try {
+            if (target == source) {
+                client = source.update(idNumber, updatedClient);
+            } else {
+                if (target.existsByIdNumber(newIdNumber)) {
+                    throw new ClientException(ErrorCode.DUPLICATE_ID_NUMBER);
+                }
+                client = updatedClient.withVersion(existing.getVersion() + 1);
+                movingIdNumbers.add(newIdNumber);
+                try {
+                    target.restore(client);
+                    source.remove(idNumber);
+                } finally {
+                    movingIdNumbers.remove(newIdNumber);
+                }
+            }
+        } catch (RuntimeException e) {
+            if (mobileNumberChanged) {
+                releaseMobileNumber(newMobileNumber, newIdNumber);
+            }
+            throw e;
+        }
+
+        if (mobileNumberChanged) {
+            releaseMobileNumber(oldMobileNumber, idNumber);
+        } else if (!idNumber.equals(newIdNumber) && newMobileNumber != null) {
+            idNumbersByMobileNumber.replace(newMobileNumber, idNumber, newIdNumber);
+        }
+        return client;
+    }
+
+    @Override
+    public Client restore(Client client) {
+        String idNumber = client.getIdNumber();
+        Client previous = shardOf(idNumber).restore(client);
+        if (previous != null) {
+            releaseMobileNumber(previous.getMobileNumber(), idNumber);
+        }
+        if (client.getMobileNumber() != null) {
+            idNumbersByMobileNumber.put(client.getMobileNumber(), idNumber);
+        }
+        return previous;
+    }
+
+    @Override
+    public Client remove(String idNumber) {
+        Client client = shardOf(idNumber).remove(idNumber);
+        if (client != null) {
+            releaseMobileNumber(client.getMobileNumber(), idNumber);
+        }
+        return client;
+    }
+
+    @Override
+    public Iterable<Client> findAll() {
+        return () -> Arrays.stream(shards)
+                .flatMap(shard -> StreamSupport.stream(shard.findAll().spliterator(), false))
+                .filter(client -> !movingIdNumbers.contains(client.getIdNumber()))
+                .iterator();
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (ClientRepository shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    @Override
+    public Map<String, Integer> indexSizes() {
+        Map<String, Integer> sizes = new HashMap<>();
+        for (ClientRepository shard : shards) {
+            shard.indexSizes().forEach((index, size) -> sizes.merge(index, size, Integer::sum));
+        }
+        sizes.put("mobileNumber", idNumbersByMobileNumber.size());
+        return sizes;
+    }
+
+    @Override
+    public void destroy() {
+        searchExecutor.shutdownNow();
+    }
+
+    /**
+     * Returns the shards, in routing order.
+     *
+     * @return The shards.
+     */
+    public List<ClientRepository> shards() {
+        return List.of(shards);
+    }
+
+    private ClientRepository shardOf(String idNumber) {
+        int h = idNumber.hashCode();
+        return shards[((h ^ (h >>> 16)) & Integer.MAX_VALUE) % shards.length];
+    }
+
+    /**
+     * Claims a mobile number across all shards.
+     *
+     * @param mobileNumber The mobile number to claim; null mobile numbers are not indexed.
+     * @param idNumber     The ID number of the client claiming it.
+     * @throws ClientException if another client, on any shard, already holds the mobile number.
+     */
+    private void claimMobileNumber(String mobileNumber, String idNumber) {
+        if (mobileNumber != null && idNumbersByMobileNumber.putIfAbsent(mobileNumber, idNumber) != null) {
+            throw new ClientException(ErrorCode.DUPLICATE_MOBILE_NUMBER);
+        }
+    }
+
+    private void releaseMobileNumber(String mobileNumber, String idNumber) {
+        if (mobileNumber != null) {
+            idNumbersByMobileNumber.remove(mobileNumber, idNumber);
+        }
+    }
+
+    /**
+     * Drops the clients still being moved to another shard from a shard's page.
+     */
+    private List<Client> visible(List<Client> page) {
+        if (movingIdNumbers.isEmpty()) {
+            return page;
+        }
+        List<Client> visible = new ArrayList<>(page.size());
+        for (Client client : page) {
+            if (!movingIdNumbers.contains(client.getIdNumber())) {
+                visible.add(client);
+            }
+        }
+        return visible;
+    }
+
+    /**
+     * Merges pages ordered by ID number into the first limit clients of their union.
+     *
+     * @param pages The pages, one per shard.
+     * @param limit The maximum number of clients to return.
+     * @return The merged page, ordered by ID number.
+     */
+    private static List<Client> merge(List<List<Client>> pages, int limit) {
+        int[] positions = new int[pages.size()];
+        List<Client> result = new ArrayList<>(Math.min(limit, 64));
+        while (result.size() < limit) {
+            int next = -1;
+            for (int i = 0; i < pages.size(); i++) {
+                if (positions[i] < pages.get(i).size() && (next < 0 || pages.get(i).get(positions[i]).getIdNumber()
+                        .compareTo(pages.get(next).get(positions[next]).getIdNumber()) < 0)) {
+                    next = i;
+                }
+            }
+            if (next < 0) {
+                break;
+            }
+            result.add(pages.get(next).get(positions[next]++));
+        }
+        return result;
+    }
+
+    private static List<ClientRepository> createShards(int shardCount, String engine, int initialCapacity) {
+        List<ClientRepository> shards = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            switch (engine) {
+                case "heap":
+                    shards.add(new InMemoryClientRepository());
+                    break;
+                case "compact":
+                    shards.add(new CompactClientRepository(Math.max(initialCapacity / shardCount, 16)));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown storage engine " + engine);
+            }
+        }
+        return shards;
+    }
+}
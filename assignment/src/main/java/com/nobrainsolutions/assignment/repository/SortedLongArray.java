@@ -0,0 +1,74 @@
+package com.nobrainsolutions.assignment.repository;
+
+import java.util.Arrays;
+
+/**
+ *
+ * The SortedLongArray class is a set of longs kept in ascending order in a single array.
+ * It backs the name buckets of the CompactClientRepository: membership and the starting point of a
+ * page are found by binary search, and a bucket costs eight bytes per entry.
+ * The array is not thread-safe.
+ */
+
+final class SortedLongArray {
+
+    private long[] values = new long[4];
+
+    private int size;
+
+    /**
+     * Adds a value.
+     *
+     * @param value The value to add.
+     * @return true if the value was not present.
+     */
+    boolean add(long value) {
+        int index = Arrays.binarySearch(values, 0, size, value);
+        if (index >= 0) {
+            return false;
+        }
+        index = -index - 1;
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size + (size >> 1));
+        }
+        System.arraycopy(values, index, values, index + 1, size - index);
+        values[index] = value;
+        size++;
+        return true;
+    }
+
+    /**
+     * Removes a value.
+     *
+     * @param value The value to remove.
+     * @return true if the value was present.
+     */
+    boolean remove(long value) {
+        int index = Arrays.binarySearch(values, 0, size, value);
+        if (index < 0) {
+            return false;
+        }
+        System.arraycopy(values, index + 1, values, index, size - index - 1);
+        size--;
+        return true;
+    }
+
+    /**
+     * Returns the position of the first value greater than the given one.
+     *
+     * @param value The lower bound, exclusive.
+     * @return The index of the first greater value, or size if there is none.
+     */
+    int indexAfter(long value) {
+        int index = Arrays.binarySearch(values, 0, size, value);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    long get(int index) {
+        return values[index];
+    }
+
+    int size() {
+        return size;
+    }
+}
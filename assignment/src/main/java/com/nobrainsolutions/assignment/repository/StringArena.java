@@ -0,0 +1,308 @@
+package com.nobrainsolutions.assignment.repository;
+
+import com.nobrainsolutions.assignment.exception.ClientException;
+import com.nobrainsolutions.assignment.exception.ErrorCode;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ *
+ * The StringArena class stores deduplicated, reference-counted UTF-8 strings in off-heap memory.
+ * Strings are appended to direct byte buffers of chunkSize bytes and addressed by an int reference,
+ * so a caller holding a reference pays four bytes instead of a String and its backing array.
+ * Equal strings share one entry: intern returns the existing reference and bumps its count, and the
+ * entry is dropped from the lookup table once every holder has released it. The space of a dropped
+ * entry goes on a free list for its padded size and is taken by the next new string of that size, so
+ * a store whose clients are removed and replaced does not grow; space not reused yet is reported by
+ * deadBytes.
+ * Reference 0 stands for null.
+ * The arena is not thread-safe: writers must be serialized by the owner, and readers may run
+ * concurrently with each other but not with a writer.
+ */
+
+final class StringArena {
+
+    /**
+     * Entry header: reference count, hash and UTF-8 length, one int each.
+     */
+    private static final int HEADER_BYTES = 12;
+
+    private static final int ALIGNMENT = 4;
+
+    private static final int EMPTY = 0;
+
+    private static final int TOMBSTONE = -1;
+
+    private final int chunkShift;
+
+    private final int chunkMask;
+
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+
+    /**
+     * Next free global byte offset; starts past 0 so that no entry gets reference 0.
+     */
+    private long next = ALIGNMENT;
+
+    private long deadBytes;
+
+    /**
+     * Head reference of the free list of each padded entry size. A free entry keeps its length and links to
+     * the next one through its hash field.
+     */
+    private final Map<Integer, Integer> freeLists = new HashMap<>();
+
+    /**
+     * Open-addressing table of live references, probed linearly by hash.
+     */
+    private int[] table = new int[16];
+
+    private int liveEntries;
+
+    private int tombstones;
+
+    /**
+     * @param chunkSize Size of each off-heap buffer; rounded up to a power of two and bounds the longest string.
+     */
+    StringArena(int chunkSize) {
+        int size = Integer.highestOneBit(Math.max(chunkSize, 64) - 1) << 1;
+        this.chunkShift = Integer.numberOfTrailingZeros(size);
+        this.chunkMask = size - 1;
+    }
+
+    /**
+     * Returns the reference of a string, adding it if it is not stored yet, and counts one more holder.
+     *
+     * @param value The string, or null.
+     * @return The reference, or 0 for null.
+     * @throws IllegalArgumentException if the string does not fit in one chunk.
+     */
+    int intern(String value) {
+        if (value == null) {
+            return 0;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int hash = value.hashCode();
+        int ref = lookup(bytes, hash);
+        if (ref != 0) {
+            long offset = offset(ref);
+            putInt(offset, getInt(offset) + 1);
+            return ref;
+        }
+
+        ref = allocate(bytes, hash);
+        if ((liveEntries + tombstones + 1) * 2 > table.length) {
+            rehash();
+        }
+        insert(ref, hash);
+        liveEntries++;
+        return ref;
+    }
+
+    /**
+     * Returns the reference of a stored string without adding it or counting a holder.
+     *
+     * @param value The string, or null.
+     * @return The reference, or 0 if the string is null or not stored.
+     */
+    int find(String value) {
+        return value == null ? 0 : lookup(value.getBytes(StandardCharsets.UTF_8), value.hashCode());
+    }
+
+    /**
+     * Decodes a stored string.
+     *
+     * @param ref The reference returned by intern.
+     * @return The string, or null for reference 0.
+     */
+    String get(int ref) {
+        if (ref == 0) {
+            return null;
+        }
+        long offset = offset(ref);
+        byte[] bytes = new byte[getInt(offset + 8)];
+        chunk(offset).get(position(offset) + HEADER_BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Counts one holder less, dropping the entry once nobody holds it.
+     *
+     * @param ref The reference returned by intern, or 0.
+     */
+    void release(int ref) {
+        if (ref == 0) {
+            return;
+        }
+        long offset = offset(ref);
+        int count = getInt(offset) - 1;
+        putInt(offset, count);
+        if (count > 0) {
+            return;
+        }
+        int mask = table.length - 1;
+        for (int i = getInt(offset + 4) & mask; table[i] != EMPTY; i = (i + 1) & mask) {
+            if (table[i] == ref) {
+                table[i] = TOMBSTONE;
+                break;
+            }
+        }
+        liveEntries--;
+        tombstones++;
+        int size = entryBytes(getInt(offset + 8));
+        Integer head = freeLists.put(size, ref);
+        putInt(offset + 4, head != null ? head : 0);
+        deadBytes += size;
+    }
+
+    /**
+     * Returns the number of distinct strings held.
+     *
+     * @return The number of live entries.
+     */
+    int size() {
+        return liveEntries;
+    }
+
+    /**
+     * Returns the off-heap memory reserved by the arena.
+     *
+     * @return The total size of all chunks in bytes.
+     */
+    long reservedBytes() {
+        return (long) chunks.size() << chunkShift;
+    }
+
+    /**
+     * Returns the bytes taken by entries that are no longer held.
+     *
+     * @return The dead bytes.
+     */
+    long deadBytes() {
+        return deadBytes;
+    }
+
+    private int lookup(byte[] bytes, int hash) {
+        int mask = table.length - 1;
+        for (int i = hash & mask; table[i] != EMPTY; i = (i + 1) & mask) {
+            int ref = table[i];
+            if (ref != TOMBSTONE && getInt(offset(ref) + 4) == hash && contentEquals(ref, bytes)) {
+                return ref;
+            }
+        }
+        return 0;
+    }
+
+    private boolean contentEquals(int ref, byte[] bytes) {
+        long offset = offset(ref);
+        if (getInt(offset + 8) != bytes.length) {
+            return false;
+        }
+        ByteBuffer chunk = chunk(offset);
+        int start = position(offset) + HEADER_BYTES;
+        for (int i = 0; i < bytes.length; i++) {
+            if (chunk.get(start + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int allocate(byte[] bytes, int hash) {
+        int size = entryBytes(bytes.length);
+        if (size > chunkMask + 1) {
+            throw new ClientException(ErrorCode.FIELD_TOO_LONG);
+        }
+        Integer free = freeLists.get(size);
+        if (free != null) {
+            long offset = offset(free);
+            int nextFree = getInt(offset + 4);
+            if (nextFree != 0) {
+                freeLists.put(size, nextFree);
+            } else {
+                freeLists.remove(size);
+            }
+            deadBytes -= size;
+            write(offset, bytes, hash);
+            return free;
+        }
+        if (position(next) + size > chunkMask + 1) {
+            // Entries never straddle chunks; the tail of the full chunk is left unused.
+            deadBytes += chunkMask + 1 - position(next);
+            next = (next | chunkMask) + 1;
+        }
+        if ((next >>> chunkShift) == chunks.size()) {
+            chunks.add(ByteBuffer.allocateDirect(chunkMask + 1));
+        }
+        long offset = next;
+        if (offset / ALIGNMENT > Integer.MAX_VALUE) {
+            throw new IllegalStateException("String arena is full");
+        }
+        next += size;
+        write(offset, bytes, hash);
+        return (int) (offset / ALIGNMENT);
+    }
+
+    private void write(long offset, byte[] bytes, int hash) {
+        putInt(offset, 1);
+        putInt(offset + 4, hash);
+        putInt(offset + 8, bytes.length);
+        chunk(offset).put(position(offset) + HEADER_BYTES, bytes);
+    }
+
+    private void insert(int ref, int hash) {
+        int mask = table.length - 1;
+        int i = hash & mask;
+        while (table[i] != EMPTY && table[i] != TOMBSTONE) {
+            i = (i + 1) & mask;
+        }
+        if (table[i] == TOMBSTONE) {
+            tombstones--;
+        }
+        table[i] = ref;
+    }
+
+    private void rehash() {
+        int[] old = table;
+        int capacity = 16;
+        while (capacity < (liveEntries + 1) * 4) {
+            capacity <<= 1;
+        }
+        table = new int[capacity];
+        tombstones = 0;
+        for (int ref : old) {
+            if (ref != EMPTY && ref != TOMBSTONE) {
+                insert(ref, getInt(offset(ref) + 4));
+            }
+        }
+    }
+
+    private static int entryBytes(int length) {
+        return (HEADER_BYTES + length + ALIGNMENT - 1) & -ALIGNMENT;
+    }
+
+    private static long offset(int ref) {
+        return (ref & 0xFFFFFFFFL) * ALIGNMENT;
+    }
+
+    private ByteBuffer chunk(long offset) {
+        return chunks.get((int) (offset >>> chunkShift));
+    }
+
+    private int position(long offset) {
+        return (int) (offset & chunkMask);
+    }
+
+    private int getInt(long offset) {
+        return chunk(offset).getInt(position(offset));
+    }
+
+    private void putInt(long offset, int value) {
+        chunk(offset).putInt(position(offset), value);
+    }
+}
@@ -0,0 +1,412 @@
+package com.nobrainsolutions.assignment.search;
+
+import com.nobrainsolutions.assignment.entity.Client;
+import com.nobrainsolutions.assignment.repository.ClientRepository;
+import com.nobrainsolutions.assignment.service.ClientChangeListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ *
+ * The ClientTextIndex class supports prefix and typo-tolerant search over the first name, last name
+ * and physical address of every client.
+ * Each field is split into lower-case tokens. A sorted set of the distinct tokens answers prefix
+ * queries with a range scan, and a trigram index over the distinct tokens narrows fuzzy queries
+ * down to a few candidate tokens before their edit distance is computed. Terms of up to three letters per
+ * allowed edit can share no trigram with their matches, so short tokens are also indexed under every string
+ * left after deleting up to MAX_EDITS of their characters: a token within k edits of a term shares such a
+ * deletion with it, so a short term only looks up its own deletions.
+ * Per client, the index only holds one posting per token, so its memory grows with the number of tokens
+ * rather than the length of the text.
+ * The index is maintained incrementally from ClientService change notifications; all changes to a
+ * token happen inside ConcurrentHashMap.compute for that token, so concurrent writers cannot lose postings.
+ */
+
+@Component
+public class ClientTextIndex implements ClientChangeListener {
+
+    /**
+     * Largest supported edit distance for fuzzy queries.
+     */
+    public static final int MAX_EDITS = 2;
+
+    /**
+     * Longest token a term too short for the trigram index can match: three letters per edit, plus the edits.
+     */
+    private static final int MAX_SHORT_TOKEN_LENGTH = 4 * MAX_EDITS;
+
+    private final ClientRepository clientRepository;
+
+    private final Map<String, Set<String>> idNumbersByToken = new ConcurrentHashMap<>();
+
+    /**
+     * The distinct tokens in sorted order; only changed while idNumbersByToken holds the token's bucket lock.
+     */
+    private final NavigableSet<String> sortedTokens = new ConcurrentSkipListSet<>();
+
+    private final Map<String, Set<String>> tokensByTrigram = new ConcurrentHashMap<>();
+
+    /**
+     * The short tokens, under every string left after deleting up to MAX_EDITS of their characters.
+     */
+    private final Map<String, Set<String>> tokensByDeletion = new ConcurrentHashMap<>();
+
+    public ClientTextIndex(ClientRepository clientRepository) {
+        this.clientRepository = clientRepository;
+    }
+
+    @Override
+    public void onCreated(Client client) {
+        for (String token : tokens(client)) {
+            addPosting(token, client.getIdNumber());
+        }
+    }
+
+    @Override
+    public void onUpdated(Client previous, Client current) {
+        Set<String> previousTokens = tokens(previous);
+        Set<String> currentTokens = tokens(current);
+        boolean idNumberChanged = !previous.getIdNumber().equals(current.getIdNumber());
+        for (String token : previousTokens) {
+            if (idNumberChanged || !currentTokens.contains(token)) {
+                removePosting(token, previous.getIdNumber());
+            }
+        }
+        for (String token : currentTokens) {
+            if (idNumberChanged || !previousTokens.contains(token)) {
+                addPosting(token, current.getIdNumber());
+            }
+        }
+    }
+
+    @Override
+    public void onRemoved(Client client) {
+        for (String token : tokens(client)) {
+            removePosting(token, client.getIdNumber());
+        }
+    }
+
+    /**
+     * Finds clients with a token starting with every term of the query.
+     *
+     * @param query The query; each whitespace-separated term is matched as a prefix.
+     * @param limit The maximum number of clients to return.
+     * @return The matching clients, those with the shortest matching token first.
+     */
+    public List<Client> searchByPrefix(String query, int limit) {
+        List<String> terms = new ArrayList<>(tokenize(query));
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        // The longest term has the narrowest token range, so it drives the scan.
+        terms.sort(Comparator.comparingInt(String::length).reversed());
+        String driver = terms.get(0);
+        List<String> others = terms.subList(1, terms.size());
+
+        List<Client> result = new ArrayList<>(Math.min(limit, 64));
+        Set<String> seen = new LinkedHashSet<>();
+        for (String token : sortedTokens.subSet(driver, true, driver + Character.MAX_VALUE, false)) {
+            Set<String> idNumbers = idNumbersByToken.get(token);
+            if (idNumbers == null) {
+                continue;
+            }
+            for (String idNumber : idNumbers) {
+                if (!seen.add(idNumber)) {
+                    continue;
+                }
+                Client client = clientRepository.findByIdNumber(idNumber).orElse(null);
+                if (client != null && matchesPrefixes(client, driver, others)) {
+                    result.add(client);
+                    if (result.size() == limit) {
+                        return result;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds clients with a token within a small edit distance of the query.
+     *
+     * @param query    A single search term.
+     * @param maxEdits The maximum Levenshtein distance, capped at MAX_EDITS.
+     * @param limit    The maximum number of clients to return.
+     * @return The matching clients, closest matches first.
+     */
+    public List<Client> searchFuzzy(String query, int maxEdits, int limit) {
+        Set<String> terms = tokenize(query);
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        String term = terms.iterator().next();
+        int edits = Math.max(0, Math.min(maxEdits, MAX_EDITS));
+
+        List<String> candidates = new ArrayList<>();
+        Map<String, Integer> distances = new HashMap<>();
+        for (String token : fuzzyCandidates(term, edits)) {
+            if (Math.abs(token.length() - term.length()) <= edits) {
+                int distance = boundedEditDistance(term, token, edits);
+                if (distance <= edits) {
+                    candidates.add(token);
+                    distances.put(token, distance);
+                }
+            }
+        }
+        candidates.sort(Comparator.<String>comparingInt(distances::get).thenComparing(Comparator.naturalOrder()));
+
+        List<Client> result = new ArrayList<>(Math.min(limit, 64));
+        Set<String> seen = new LinkedHashSet<>();
+        for (String token : candidates) {
+            Set<String> idNumbers = idNumbersByToken.get(token);
+            if (idNumbers == null) {
+                continue;
+            }
+            for (String idNumber : idNumbers) {
+                if (!seen.add(idNumber)) {
+                    continue;
+                }
+                Client client = clientRepository.findByIdNumber(idNumber).orElse(null);
+                if (client != null && tokens(client).contains(token)) {
+                    result.add(client);
+                    if (result.size() == limit) {
+                        return result;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the tokens that can be within the given number of edits of a term, whose distance is then computed.
+     */
+    Collection<String> fuzzyCandidates(String term, int edits) {
+        // Every edit destroys at most three trigrams, so closer tokens share at least this many. A term too
+        // short to keep one through every edit, such as jan for jon, may share none with its matches; those
+        // share a deletion with it instead.
+        List<String> grams = trigrams(term);
+        int minShared = grams.size() - 3 * edits;
+        if (minShared > 0) {
+            return tokensSharing(grams, minShared, term.length(), edits);
+        }
+        Set<String> tokens = new HashSet<>();
+        for (String deletion : deletions(term, edits)) {
+            Set<String> matches = tokensByDeletion.get(deletion);
+            if (matches != null) {
+                tokens.addAll(matches);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Returns the tokens within edits of the given length that share at least minShared of the given trigrams.
+     */
+    private List<String> tokensSharing(List<String> grams, int minShared, int length, int edits) {
+        Map<String, Integer> shared = new HashMap<>();
+        for (String gram : grams) {
+            Set<String> tokens = tokensByTrigram.get(gram);
+            if (tokens != null) {
+                for (String token : tokens) {
+                    if (Math.abs(token.length() - length) <= edits) {
+                        shared.merge(token, 1, Integer::sum);
+                    }
+                }
+            }
+        }
+        List<String> tokens = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : shared.entrySet()) {
+            if (entry.getValue() >= minShared) {
+                tokens.add(entry.getKey());
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Returns the number of distinct tokens in the index.
+     *
+     * @return The number of distinct tokens.
+     */
+    public int tokenCount() {
+        return idNumbersByToken.size();
+    }
+
+    private void addPosting(String token, String idNumber) {
+        idNumbersByToken.compute(token, (t, idNumbers) -> {
+            Set<String> postings = idNumbers;
+            if (postings == null) {
+                postings = ConcurrentHashMap.newKeySet();
+                sortedTokens.add(t);
+                for (String gram : trigrams(t)) {
+                    tokensByTrigram.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(t);
+                }
+                if (t.length() <= MAX_SHORT_TOKEN_LENGTH) {
+                    for (String deletion : deletions(t, MAX_EDITS)) {
+                        tokensByDeletion.computeIfAbsent(deletion, d -> ConcurrentHashMap.newKeySet()).add(t);
+                    }
+                }
+            }
+            postings.add(idNumber);
+            return postings;
+        });
+    }
+
+    private void removePosting(String token, String idNumber) {
+        idNumbersByToken.computeIfPresent(token, (t, idNumbers) -> {
+            idNumbers.remove(idNumber);
+            if (!idNumbers.isEmpty()) {
+                return idNumbers;
+            }
+            for (String gram : trigrams(t)) {
+                tokensByTrigram.computeIfPresent(gram, (g, tokens) -> {
+                    tokens.remove(t);
+                    return tokens.isEmpty() ? null : tokens;
+                });
+            }
+            if (t.length() <= MAX_SHORT_TOKEN_LENGTH) {
+                for (String deletion : deletions(t, MAX_EDITS)) {
+                    tokensByDeletion.computeIfPresent(deletion, (d, tokens) -> {
+                        tokens.remove(t);
+                        return tokens.isEmpty() ? null : tokens;
+                    });
+                }
+            }
+            sortedTokens.remove(t);
+            return null;
+        });
+    }
+
+    private static boolean matchesPrefixes(Client client, String driver, List<String> others) {
+        Set<String> tokens = tokens(client);
+        if (!anyStartsWith(tokens, driver)) {
+            return false;
+        }
+        for (String term : others) {
+            if (!anyStartsWith(tokens, term)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean anyStartsWith(Set<String> tokens, String prefix) {
+        for (String token : tokens) {
+            if (token.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the distinct tokens of the indexed fields of a client.
+     */
+    static Set<String> tokens(Client client) {
+        Set<String> tokens = tokenize(client.getFirstName());
+        tokens.addAll(tokenize(client.getLastName()));
+        tokens.addAll(tokenize(client.getPhysicalAddress()));
+        return tokens;
+    }
+
+    /**
+     * Splits text into lower-case tokens of letters and digits.
+     */
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                token.append(Character.toLowerCase(c));
+            } else if (token.length() > 0) {
+                tokens.add(token.toString());
+                token.setLength(0);
+            }
+        }
+        if (token.length() > 0) {
+            tokens.add(token.toString());
+        }
+        return tokens;
+    }
+
+    /**
+     * Returns the trigrams of a token padded with ^ and $, so "al" yields ^al and al$.
+     */
+    static List<String> trigrams(String token) {
+        String padded = "^" + token + "$";
+        List<String> grams = new ArrayList<>(padded.length() - 2);
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    /**
+     * Returns the strings left after deleting up to max characters of a token, the token itself included,
+     * so "jon" yields jon, on, jn and jo for one deletion.
+     */
+    static Set<String> deletions(String token, int max) {
+        Set<String> deletions = new HashSet<>();
+        deletions.add(token);
+        Set<String> previous = Set.of(token);
+        for (int deleted = 0; deleted < max; deleted++) {
+            Set<String> next = new HashSet<>();
+            for (String s : previous) {
+                for (int i = 0; i < s.length(); i++) {
+                    String deletion = s.substring(0, i) + s.substring(i + 1);
+                    if (deletions.add(deletion)) {
+                        next.add(deletion);
+                    }
+                }
+            }
+            previous = next;
+        }
+        return deletions;
+    }
+
+    /**
+     * Computes the Levenshtein distance between two strings, giving up once it exceeds a bound.
+     *
+     * @return The distance, or max + 1 if it is larger than max.
+     */
+    static int boundedEditDistance(String a, String b, int max) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[b.length()], max + 1);
+    }
+}
@@ -0,0 +1,41 @@
+package com.nobrainsolutions.assignment.service;
+
+import com.nobrainsolutions.assignment.entity.Client;
+
+/**
+ *
+ * The ClientChangeListener interface is notified by the ClientService after every successful write.
+ * Notifications for the same ID number are delivered in commit order, because the service calls
+ * listeners while it still holds the lock for that ID number. Listeners must therefore be quick and
+ * must not call back into the ClientService.
+ * A listener that throws fails the write: the service undoes the change in the store and sends the reverse
+ * change to the listeners it had already notified.
+ */
+
+public interface ClientChangeListener {
+
+    /**
+     * Called after a client has been created.
+     *
+     * @param client The created client.
+     */
+    default void onCreated(Client client) {
+    }
+
+    /**
+     * Called after a client has been updated.
+     *
+     * @param previous The client as it was before the update.
+     * @param current  The client as it is after the update.
+     */
+    default void onUpdated(Client previous, Client current) {
+    }
+
+    /**
+     * Called after a client has been removed.
+     *
+     * @param client The removed client.
+     */
+    default void onRemoved(Client client) {
+    }
+}
@@ -0,0 +1,205 @@
+package com.nobrainsolutions.assignment.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nobrainsolutions.assignment.codec.ClientBinaryCodec;
+import com.nobrainsolutions.assignment.entity.Client;
+import com.nobrainsolutions.assignment.exception.ClientException;
+import com.nobrainsolutions.assignment.exception.ErrorCode;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ *
+ * The ClientExportService class writes every stored client to an output stream, for reconciliation and
+ * for replication followers catching up.
+ * It iterates the store's live view, which neither copies the store nor blocks writers, and writes
+ * through a fixed-size buffer, so memory use does not depend on the number of clients. Each client is
+ * written as one consistent version; clients changed during the export may appear before or after the
+ * change, and the change stream after the sequence number taken before the export covers them.
+ */
+
+@Service
+public class ClientExportService {
+
+    private static final String[] CSV_COLUMNS = {"firstName", "lastName", "mobileNumber", "idNumber", "physicalAddress", "version"};
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * The export formats.
+     */
+    public enum Format {
+
+        /**
+         * One JSON client per line.
+         */
+        NDJSON("application/x-ndjson", "ndjson"),
+
+        /**
+         * A header line, then one client per line, in the column order of CSV_COLUMNS; the bulk import accepts it.
+         */
+        CSV("text/csv", "csv"),
+
+        /**
+         * Each client in ClientBinaryCodec form followed by its version as a long, until the end of the stream.
+         */
+        BINARY("application/octet-stream", "bin");
+
+        private final String contentType;
+
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        /**
+         * Looks up a format by name, ignoring case.
+         *
+         * @param name The format name: ndjson, csv or binary.
+         * @return The format.
+         * @throws ClientException if no format has the name.
+         */
+        public static Format of(String name) {
+            for (Format format : values()) {
+                if (format.name().equalsIgnoreCase(name)) {
+                    return format;
+                }
+            }
+            throw new ClientException(ErrorCode.INVALID_EXPORT_FORMAT);
+        }
+    }
+
+    private final ClientService clientService;
+
+    private final ObjectMapper objectMapper;
+
+    public ClientExportService(ClientService clientService, ObjectMapper objectMapper) {
+        this.clientService = clientService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Writes every stored client. The output is flushed but not closed.
+     *
+     * @param format The format to write.
+     * @param out    The output to write to.
+     * @return The number of clients written.
+     * @throws IOException if the output cannot be written, e.g. because the consumer has gone.
+     */
+    public long export(Format format, OutputStream out) throws IOException {
+        switch (format) {
+            case NDJSON:
+                return writeNdjson(clientService.getAllClients(), out);
+            case CSV:
+                return exportCsv(out);
+            case BINARY:
+                return exportBinary(out);
+            default:
+                throw new IllegalArgumentException("Unknown export format " + format);
+        }
+    }
+
+    /**
+     * Writes values as NDJSON, one JSON value per line. The output is flushed but not closed.
+     *
+     * @param values The values to write.
+     * @param out    The output to write to.
+     * @return The number of values written.
+     * @throws IOException if the output cannot be written, e.g. because the consumer has gone.
+     */
+    public long writeNdjson(Iterable<?> values, OutputStream out) throws IOException {
+        long count = 0;
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(new SerializedString("\n"));
+        try (generator) {
+            for (Object value : values) {
+                generator.writeObject(value);
+                count++;
+            }
+            if (count > 0) {
+                generator.writeRaw('\n');
+            }
+        }
+        return count;
+    }
+
+    private long exportCsv(OutputStream out) throws IOException {
+        long count = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        writer.write(String.join(",", CSV_COLUMNS));
+        writer.write('\n');
+        for (Client client : clientService.getAllClients()) {
+            writeCsvField(writer, client.getFirstName());
+            writer.write(',');
+            writeCsvField(writer, client.getLastName());
+            writer.write(',');
+            writeCsvField(writer, client.getMobileNumber());
+            writer.write(',');
+            writeCsvField(writer, client.getIdNumber());
+            writer.write(',');
+            writeCsvField(writer, client.getPhysicalAddress());
+            writer.write(',');
+            writer.write(Long.toString(client.getVersion()));
+            writer.write('\n');
+            count++;
+        }
+        writer.flush();
+        return count;
+    }
+
+    private long exportBinary(OutputStream out) throws IOException {
+        long count = 0;
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out, BUFFER_SIZE));
+        for (Client client : clientService.getAllClients()) {
+            ClientBinaryCodec.write(data, client);
+            data.writeLong(client.getVersion());
+            count++;
+        }
+        data.flush();
+        return count;
+    }
+
+    /**
+     * Writes a CSV field, quoted when it holds a separator, quote, line break or surrounding space,
+     * as ClientImportService reads it. A null field is left empty.
+     */
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = !value.isEmpty()
+                && (Character.isWhitespace(value.charAt(0)) || Character.isWhitespace(value.charAt(value.length() - 1)));
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
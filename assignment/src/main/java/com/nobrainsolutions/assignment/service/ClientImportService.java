@@ -0,0 +1,348 @@
+package com.nobrainsolutions.assignment.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.nobrainsolutions.assignment.dto.BulkImportResult;
+import com.nobrainsolutions.assignment.entity.Client;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ *
+ * The ClientImportService class handles bulk client imports.
+ * Uploads are read with streaming parsers, one record at a time, and validated and inserted
+ * in fixed-size batches, so memory use does not depend on the size of the upload.
+ */
+
+@Service
+public class ClientImportService {
+
+    private static final String[] CSV_COLUMNS = {"firstName", "lastName", "mobileNumber", "idNumber", "physicalAddress"};
+
+    private final ClientService clientService;
+
+    private final ObjectMapper objectMapper;
+
+    private final Validator validator;
+
+    private final int batchSize;
+
+    private final int maxReportedErrors;
+
+    private final int maxRecordChars;
+
+    public ClientImportService(ClientService clientService, ObjectMapper objectMapper, Validator validator,
+                               @Value("${client.import.batch-size:1000}") int batchSize,
+                               @Value("${client.import.max-reported-errors:1000}") int maxReportedErrors,
+                               @Value("${client.import.max-record-chars:65536}") int maxRecordChars) {
+        this.clientService = clientService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+        this.maxRecordChars = maxRecordChars;
+    }
+
+    /**
+     * Imports clients from a JSON array.
+     * An element that is not a client object, or that does not bind to a client, is reported as a failed
+     * row and skipped; malformed JSON ends the import, since nothing after it can be read.
+     *
+     * @param inputStream The JSON array of clients.
+     * @return The import summary.
+     * @throws IOException if the upload cannot be read.
+     */
+    public BulkImportResult importJson(InputStream inputStream) throws IOException {
+        BulkImportResult result = new BulkImportResult();
+        List<Client> batch = new ArrayList<>(batchSize);
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(inputStream)) {
+            try {
+                if (parser.nextToken() != JsonToken.START_ARRAY) {
+                    reportError(result, result.getTotal() + 1, null, "Expected a JSON array of clients");
+                    return result;
+                }
+                JsonToken token;
+                while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+                    if (token != JsonToken.START_OBJECT) {
+                        parser.skipChildren();
+                        reportSkippedRow(batch, result, "Expected a client object");
+                        continue;
+                    }
+                    JsonStreamContext array = parser.getParsingContext().getParent();
+                    try {
+                        batch.add(objectMapper.readValue(parser, Client.class));
+                    } catch (MismatchedInputException e) {
+                        skipTo(parser, array);
+                        reportSkippedRow(batch, result, "Invalid client: " + e.getOriginalMessage());
+                        continue;
+                    }
+                    if (batch.size() == batchSize) {
+                        importBatch(batch, result);
+                    }
+                }
+            } catch (JsonProcessingException e) {
+                importBatch(batch, result);
+                reportError(result, result.getTotal() + 1, null, "Malformed JSON: " + e.getOriginalMessage());
+                return result;
+            }
+        }
+
+        importBatch(batch, result);
+        return result;
+    }
+
+    /**
+     * Imports clients from CSV, such as the CSV export writes.
+     * The first record is a header naming the columns; columns may appear in any order. Quoted fields may
+     * span lines. A record longer than client.import.max-record-chars, such as one opened by an unterminated
+     * quote, is reported as a failed row and reading resumes at the next line.
+     *
+     * @param inputStream The CSV upload, UTF-8 encoded.
+     * @return The import summary.
+     * @throws IOException if the upload cannot be read.
+     */
+    public BulkImportResult importCsv(InputStream inputStream) throws IOException {
+        BulkImportResult result = new BulkImportResult();
+        List<Client> batch = new ArrayList<>(batchSize);
+
+        Reader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        List<String> header;
+        try {
+            header = readCsvRecord(reader, maxRecordChars);
+        } catch (CsvRecordTooLongException e) {
+            reportError(result, 1, null, e.getMessage());
+            return result;
+        }
+        if (header == null) {
+            return result;
+        }
+        int[] columns = mapCsvColumns(header);
+        if (columns == null) {
+            reportError(result, 1, null, "CSV header must name the columns " + String.join(",", CSV_COLUMNS));
+            return result;
+        }
+
+        List<String> fields;
+        String[] values = new String[CSV_COLUMNS.length];
+        while (true) {
+            try {
+                fields = readCsvRecord(reader, maxRecordChars);
+            } catch (CsvRecordTooLongException e) {
+                reportSkippedRow(batch, result, e.getMessage());
+                continue;
+            }
+            if (fields == null) {
+                break;
+            }
+            if (fields.isEmpty()) {
+                continue;
+            }
+            for (int i = 0; i < values.length; i++) {
+                int column = columns[i];
+                values[i] = column >= 0 && column < fields.size() ? emptyToNull(fields.get(column)) : null;
+            }
+            batch.add(new Client(values[0], values[1], values[2], values[3], values[4]));
+            if (batch.size() == batchSize) {
+                importBatch(batch, result);
+            }
+        }
+
+        importBatch(batch, result);
+        return result;
+    }
+
+    /**
+     * Validates and inserts a batch of clients, recording the outcome of every row, then clears the batch.
+     *
+     * @param batch  The clients to import, in upload order.
+     * @param result The import summary to update.
+     */
+    private void importBatch(List<Client> batch, BulkImportResult result) {
+        long firstRow = result.getTotal() + 1;
+        String[] violations = new String[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            violations[i] = validate(batch.get(i));
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            Client client = batch.get(i);
+            long row = firstRow + i;
+            result.setTotal(row);
+            if (violations[i] != null) {
+                reportError(result, row, client.getIdNumber(), violations[i]);
+                continue;
+            }
+            try {
+                clientService.createClient(client);
+                result.setCreated(result.getCreated() + 1);
+            } catch (IllegalArgumentException e) {
+                reportError(result, row, client.getIdNumber(), e.getMessage());
+            }
+        }
+        batch.clear();
+    }
+
+    /**
+     * Runs bean validation on a client.
+     *
+     * @param client The client to validate.
+     * @return The constraint violations joined into one message, or null if the client is valid.
+     */
+    private String validate(Client client) {
+        Set<ConstraintViolation<Client>> violations = validator.validate(client);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        StringBuilder message = new StringBuilder();
+        for (ConstraintViolation<Client> violation : violations) {
+            if (message.length() > 0) {
+                message.append("; ");
+            }
+            message.append(violation.getPropertyPath()).append(' ').append(violation.getMessage());
+        }
+        return message.toString();
+    }
+
+    /**
+     * Steps over the rest of an array element that failed to bind, which is well-formed JSON, up to the
+     * array it belongs to.
+     */
+    private static void skipTo(JsonParser parser, JsonStreamContext array) throws IOException {
+        while (parser.getParsingContext() != array) {
+            if (parser.nextToken() == null) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Records a row that could not be read as a client, after importing the rows before it.
+     */
+    private void reportSkippedRow(List<Client> batch, BulkImportResult result, String message) {
+        importBatch(batch, result);
+        long row = result.getTotal() + 1;
+        result.setTotal(row);
+        reportError(result, row, null, message);
+    }
+
+    private void reportError(BulkImportResult result, long row, String idNumber, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < maxReportedErrors) {
+            result.getErrors().add(new BulkImportResult.RowError(row, idNumber, message));
+        } else {
+            result.setErrorsTruncated(true);
+        }
+    }
+
+    /**
+     * Maps the CSV header onto the client fields.
+     *
+     * @param header The header fields.
+     * @return For each of CSV_COLUMNS, the index of its column or -1 if it is absent;
+     * null if the header names none of the client fields.
+     */
+    private static int[] mapCsvColumns(List<String> header) {
+        int[] columns = new int[CSV_COLUMNS.length];
+        boolean any = false;
+        for (int i = 0; i < CSV_COLUMNS.length; i++) {
+            columns[i] = -1;
+            for (int j = 0; j < header.size(); j++) {
+                if (CSV_COLUMNS[i].equalsIgnoreCase(header.get(j).trim())) {
+                    columns[i] = j;
+                    any = true;
+                    break;
+                }
+            }
+        }
+        return any ? columns : null;
+    }
+
+    /**
+     * Reads the next CSV record. Fields may be quoted, with "" as an escaped quote, and a quoted field may
+     * hold separators and line breaks.
+     *
+     * @param reader   The CSV input.
+     * @param maxChars The longest record to read; the rest of a longer one is skipped up to the next line break.
+     * @return The fields of the record, empty for a blank line, or null at the end of the input.
+     * @throws IOException if the input cannot be read, or CsvRecordTooLongException if the record is too long.
+     */
+    static List<String> readCsvRecord(Reader reader, int maxChars) throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>(CSV_COLUMNS.length);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean blank = true;
+        int previous = -1;
+        int length = 0;
+        for (; c != -1; previous = c, c = reader.read()) {
+            if ((quoted || c != '\n') && ++length > maxChars) {
+                while (c != '\n' && c != -1) {
+                    c = reader.read();
+                }
+                throw new CsvRecordTooLongException(maxChars);
+            }
+            if (quoted) {
+                if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                // A quote straight after a closing one is an escaped quote inside the same field.
+                if (previous == '"') {
+                    field.append('"');
+                }
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            if (c != '\r') {
+                blank = false;
+            }
+        }
+        if (blank) {
+            return fields;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Thrown for a CSV record longer than the limit, once the reader has skipped to the next line.
+     */
+    static class CsvRecordTooLongException extends IOException {
+
+        CsvRecordTooLongException(int maxChars) {
+            super("CSV record longer than " + maxChars + " characters");
+        }
+    }
+}
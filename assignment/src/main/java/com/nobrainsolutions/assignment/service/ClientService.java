@@ -1,13 +1,31 @@
 package com.nobrainsolutions.assignment.service;
+import com.nobrainsolutions.assignment.dto.ClientLookupResult;
+import com.nobrainsolutions.assignment.dto.ClientPage;
+import com.nobrainsolutions.assignment.dto.ClientSearchCriteria;
 import com.nobrainsolutions.assignment.entity.Client;
-import com.nobrainsolutions.assignment.exception.Constants;
-import org.springframework.http.HttpStatus;
+import com.nobrainsolutions.assignment.exception.ClientException;
+import com.nobrainsolutions.assignment.exception.ErrorCode;
+import com.nobrainsolutions.assignment.keyfilter.ClientKeyFilter;
+import com.nobrainsolutions.assignment.metrics.ClientMetrics;
+import com.nobrainsolutions.assignment.metrics.ClientMetrics.Operation;
+import com.nobrainsolutions.assignment.repository.ClientRepository;
+import com.nobrainsolutions.assignment.repository.InMemoryClientRepository;
+import com.nobrainsolutions.assignment.validation.SaIdNumber;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.web.server.ResponseStatusException;
 
-import java.util.ArrayList;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Optional;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  *
@@ -18,18 +36,72 @@ import java.util.Optional;
 @Service
 public class ClientService {
 
-    private List<Client> clients;
+    /**
+     * Maximum number of clients returned by one search page.
+     */
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    /**
+     * Expected version that makes updateClient unconditional.
+     */
+    public static final long ANY_VERSION = 0;
+
+    /**
+     * Maximum number of keys resolved by one lookup.
+     */
+    public static final int MAX_LOOKUP_SIZE = 10_000;
+
+    /**
+     * Lookups of at least this many keys are resolved in parallel.
+     */
+    private static final int PARALLEL_LOOKUP_SIZE = 1_024;
+
+    private static final int LOCK_STRIPES = 256;
+
+    private final ClientRepository clientRepository;
+
+    private final List<ClientChangeListener> changeListeners;
+
+    private final ClientMetrics metrics;
+
+    private final ClientKeyFilter keyFilter;
+
+    private final StripedLocks locks = new StripedLocks(LOCK_STRIPES);
 
     public ClientService() {
-        this.clients = new ArrayList<>();
+        this(new InMemoryClientRepository());
+    }
+
+    public ClientService(ClientRepository clientRepository) {
+        this(clientRepository, List.of());
+    }
+
+    public ClientService(ClientRepository clientRepository, List<ClientChangeListener> changeListeners) {
+        this(clientRepository, changeListeners, ClientMetrics.disabled());
     }
 
-    public ClientService(List<Client> clients) {
-        this.clients = clients;
+    public ClientService(ClientRepository clientRepository, List<ClientChangeListener> changeListeners,
+                         ClientMetrics metrics) {
+        this(clientRepository, changeListeners, metrics, ClientKeyFilter.disabled());
+    }
+
+    /**
+     * The key filter only answers for the store if it is among the change listeners, as every
+     * ClientChangeListener bean is.
+     */
+    @Autowired
+    public ClientService(ClientRepository clientRepository, List<ClientChangeListener> changeListeners,
+                         ClientMetrics metrics, ClientKeyFilter keyFilter) {
+        this.clientRepository = clientRepository;
+        this.changeListeners = List.copyOf(changeListeners);
+        this.metrics = metrics;
+        this.keyFilter = keyFilter;
     }
 
     /**
      * Creates a new client.
+     * The ID number and mobile number are claimed atomically by the repository, so concurrent
+     * requests for the same keys cannot both succeed.
      *
      * @param client The client object to be created.
      * @return The created client.
@@ -37,21 +109,25 @@ public class ClientService {
      */
 
     public Client createClient(Client client) {
+        long startTime = metrics.start();
+        try {
+            if (!SaIdNumber.isValid(client.getIdNumber())) {
+                throw new ClientException(ErrorCode.INVALID_ID_NUMBER);
+            }
 
-        if (!isSouthAfricanIdNumberValid(client.getIdNumber())) {
-            throw new IllegalArgumentException(Constants.INVALID_ID_NUMBER);
-        }
-
-        if (isDuplicateIdNumber(client.getIdNumber())) {
-            throw new IllegalArgumentException(Constants.DUPLICATE_ID_NUMBER);
-        }
-
-        if (isDuplicateMobileNumber(client.getMobileNumber())) {
-            throw new IllegalArgumentException(Constants.DUPLICATE_MOBILE_NUMBER);
+            Client result = locks.withLock(client.getIdNumber(), () -> {
+                Client created = clientRepository.save(client);
+                notifyListeners(listener -> listener.onCreated(created),
+                        () -> clientRepository.remove(created.getIdNumber()),
+                        listener -> listener.onRemoved(created));
+                return created;
+            });
+            metrics.success(Operation.CREATE, startTime);
+            return result;
+        } catch (RuntimeException e) {
+            metrics.failure(Operation.CREATE, startTime, e);
+            throw e;
         }
-
-        clients.add(client);
-        return client;
     }
 
     /**
@@ -62,10 +138,15 @@ public class ClientService {
      */
 
     public Client getClientById(String idNumber) {
-        return clients.stream()
-                .filter(c -> c.getIdNumber().equals(idNumber))
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException(Constants.CLIENT_NOT_FOUND));
+        long startTime = metrics.start();
+        try {
+            Client client = findExisting(idNumber);
+            metrics.success(Operation.GET, startTime);
+            return client;
+        } catch (RuntimeException e) {
+            metrics.failure(Operation.GET, startTime, e);
+            throw e;
+        }
     }
 
 
@@ -80,102 +161,412 @@ public class ClientService {
      *                                  or if the client with the specified ID is not found.
      */
     public Client updateClient(String idNumber, Client updatedClient) {
-        Client client = getClientById(idNumber);
-        if (client != null) {
+        return updateClient(idNumber, updatedClient, ANY_VERSION);
+    }
 
-            if (!isSouthAfricanIdNumberValid(updatedClient.getIdNumber())) {
-                throw new IllegalArgumentException(Constants.INVALID_ID_NUMBER);
-            }
+    /**
+     * Updates a client if it is still at the version the caller read.
+     * The version is checked under the same lock as the write, so of two updates based on the same
+     * version, one succeeds and the other fails instead of silently overwriting it.
+     *
+     * @param idNumber        The ID number of the client to update.
+     * @param updatedClient   The updated client object.
+     * @param expectedVersion The version the update is based on, or ANY_VERSION.
+     * @return The updated client.
+     * @throws IllegalArgumentException if the ID number or mobile number is invalid or already exists,
+     *                                  if the client with the specified ID is not found, or if the
+     *                                  client is no longer at the expected version.
+     */
+    public Client updateClient(String idNumber, Client updatedClient, long expectedVersion) {
+        long startTime = metrics.start();
+        try {
+            Client result = locks.withLocks(idNumber, updatedClient.getIdNumber(), () -> {
+                Client previous = findExisting(idNumber);
+
+                if (expectedVersion != ANY_VERSION && previous.getVersion() != expectedVersion) {
+                    throw new ClientException(ErrorCode.VERSION_CONFLICT);
+                }
+                if (!SaIdNumber.isValid(updatedClient.getIdNumber())) {
+                    throw new ClientException(ErrorCode.INVALID_ID_NUMBER);
+                }
+
+                Client client = clientRepository.update(idNumber, updatedClient);
+                if (client == null) {
+                    throw new ClientException(ErrorCode.CLIENT_NOT_FOUND);
+                }
+                notifyListeners(listener -> listener.onUpdated(previous, client),
+                        () -> {
+                            if (!idNumber.equals(client.getIdNumber())) {
+                                clientRepository.remove(client.getIdNumber());
+                            }
+                            clientRepository.restore(previous);
+                        },
+                        listener -> listener.onUpdated(client, previous));
+                return client;
+            });
+            metrics.success(Operation.UPDATE, startTime);
+            return result;
+        } catch (RuntimeException e) {
+            metrics.failure(Operation.UPDATE, startTime, e);
+            throw e;
+        }
+    }
 
-            if (client.getIdNumber().equals(updatedClient.getIdNumber()) && isDuplicateIdNumber(updatedClient.getIdNumber())) {
-                throw new IllegalArgumentException(Constants.DUPLICATE_ID_NUMBER);
+    /**
+     * Re-applies a change that was already validated when it was first made, for example when the
+     * store is rebuilt from a snapshot and write-ahead log. Uniqueness checks are skipped, and applying
+     * the same change twice leaves the store unchanged apart from the version, which is taken from the
+     * client if set and otherwise follows on from the replaced client's. Change listeners are notified
+     * as for a create or update.
+     *
+     * @param previousIdNumber The ID number the client had before the change, or null for a create.
+     * @param client           The client as it was after the change.
+     */
+    public void restoreClient(String previousIdNumber, Client client) {
+        String oldIdNumber = previousIdNumber != null ? previousIdNumber : client.getIdNumber();
+        locks.withLocks(oldIdNumber, client.getIdNumber(), () -> {
+            Client previous = clientRepository.findByIdNumber(oldIdNumber).orElse(null);
+            long version = client.getVersion() != 0 ? client.getVersion()
+                    : previous != null ? previous.getVersion() + 1 : 1;
+            Client restored = client.withVersion(version);
+            boolean idNumberChanged = !oldIdNumber.equals(client.getIdNumber());
+            if (idNumberChanged) {
+                clientRepository.remove(oldIdNumber);
             }
+            // A change replayed out of its original context may land on a client that already holds the new ID number.
+            Client replaced = clientRepository.restore(restored);
+            notifyListeners(listener -> {
+                if (idNumberChanged && replaced != null) {
+                    listener.onRemoved(replaced);
+                }
+                if (previous != null) {
+                    listener.onUpdated(previous, restored);
+                } else {
+                    listener.onCreated(restored);
+                }
+            }, () -> {
+                clientRepository.remove(restored.getIdNumber());
+                if (replaced != null) {
+                    clientRepository.restore(replaced);
+                }
+                if (previous != null) {
+                    clientRepository.restore(previous);
+                }
+            }, listener -> {
+                if (previous != null) {
+                    listener.onUpdated(restored, previous);
+                } else {
+                    listener.onRemoved(restored);
+                }
+                if (idNumberChanged && replaced != null) {
+                    listener.onCreated(replaced);
+                }
+            });
+            return restored;
+        });
+    }
 
-            if (client.getMobileNumber().equals(updatedClient.getMobileNumber()) && isDuplicateMobileNumber(updatedClient.getMobileNumber())) {
-                throw new IllegalArgumentException(Constants.DUPLICATE_MOBILE_NUMBER);
+    /**
+     * Resolves many ID numbers and mobile numbers at once, in parallel for large batches.
+     * A key that matches no client, including a malformed one, is reported as not found instead of
+     * failing the batch.
+     *
+     * @param idNumbers     The ID numbers to resolve, or null.
+     * @param mobileNumbers The mobile numbers to resolve, or null.
+     * @return One result per key: the ID numbers first, then the mobile numbers, each in the order given.
+     * @throws ClientException if there are more than MAX_LOOKUP_SIZE keys.
+     */
+    public List<ClientLookupResult> lookupClients(List<String> idNumbers, List<String> mobileNumbers) {
+        long startTime = metrics.start();
+        try {
+            List<String> ids = idNumbers != null ? idNumbers : List.of();
+            List<String> mobiles = mobileNumbers != null ? mobileNumbers : List.of();
+            int size = ids.size() + mobiles.size();
+            if (size > MAX_LOOKUP_SIZE) {
+                throw new ClientException(ErrorCode.LOOKUP_TOO_LARGE);
             }
 
-            client.setFirstName(updatedClient.getFirstName());
-            client.setLastName(updatedClient.getLastName());
-            client.setMobileNumber(updatedClient.getMobileNumber());
-            client.setIdNumber(updatedClient.getIdNumber());
-            client.setPhysicalAddress(updatedClient.getPhysicalAddress());
-
-            return client;
-        } else {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+            ClientLookupResult[] results = new ClientLookupResult[size];
+            IntStream indexes = IntStream.range(0, size);
+            if (size >= PARALLEL_LOOKUP_SIZE) {
+                indexes = indexes.parallel();
+            }
+            indexes.forEach(i -> results[i] = i < ids.size()
+                    ? lookupByIdNumber(ids.get(i))
+                    : lookupByMobileNumber(mobiles.get(i - ids.size())));
+            metrics.success(Operation.LOOKUP, startTime);
+            return Arrays.asList(results);
+        } catch (RuntimeException e) {
+            metrics.failure(Operation.LOOKUP, startTime, e);
+            throw e;
         }
     }
 
     /**
-     Searches for clients based on the provided parameters.
-     @param firstName The first name of the client.
-     @param idNumber The ID number of the client.
-     @param mobileNumber The mobile number of the client.
-     @return The client matching the search criteria.
-     @throws IllegalArgumentException If no search criteria are provided or if a client with the specified first name, ID number, or mobile number is not found.
+     * Resolves many ID numbers and mobile numbers one at a time, as the results are consumed, so a caller
+     * writing them out can send each result as soon as it is resolved and holds one at a time.
+     * Results are as for lookupClients and in the same order. The lookup is recorded once the last result
+     * is read, or as failed when resolving a key throws or the stream is closed before it is read to the end.
+     *
+     * @param idNumbers     The ID numbers to resolve, or null.
+     * @param mobileNumbers The mobile numbers to resolve, or null.
+     * @return One result per key, resolved lazily: the ID numbers first, then the mobile numbers.
+     * @throws ClientException if there are more than MAX_LOOKUP_SIZE keys.
      */
-
-    public Optional<Client> searchClient(String firstName, String idNumber, String mobileNumber) {
-        if (firstName != null) {
-            return clients.stream()
-                    .filter(c -> c.getFirstName().equals(firstName))
-                    .findFirst();
+    public Stream<ClientLookupResult> streamLookupClients(List<String> idNumbers, List<String> mobileNumbers) {
+        long startTime = metrics.start();
+        List<String> ids = idNumbers != null ? idNumbers : List.of();
+        List<String> mobiles = mobileNumbers != null ? mobileNumbers : List.of();
+        if (ids.size() + mobiles.size() > MAX_LOOKUP_SIZE) {
+            ClientException e = new ClientException(ErrorCode.LOOKUP_TOO_LARGE);
+            metrics.failure(Operation.LOOKUP, startTime, e);
+            throw e;
         }
+        LookupIterator results = new LookupIterator(ids, mobiles, startTime);
+        return StreamSupport.stream(Spliterators.spliterator(results, ids.size() + mobiles.size(), Spliterator.ORDERED), false)
+                .onClose(results::close);
+    }
 
-        if (idNumber != null) {
-            return clients.stream()
-                    .filter(c -> c.getIdNumber().equals(idNumber))
-                    .findFirst();
+    /**
+     * Deletes a client, freeing its entries in every index of the store.
+     *
+     * @param idNumber        The ID number of the client to delete.
+     * @param expectedVersion The version the deletion is based on, or ANY_VERSION.
+     * @return The deleted client.
+     * @throws ClientException if no client has the given ID number, or if the client is no longer at the
+     *                         expected version.
+     */
+    public Client deleteClient(String idNumber, long expectedVersion) {
+        long startTime = metrics.start();
+        try {
+            Client result = locks.withLock(idNumber, () -> {
+                Client existing = findExisting(idNumber);
+                if (expectedVersion != ANY_VERSION && existing.getVersion() != expectedVersion) {
+                    throw new ClientException(ErrorCode.VERSION_CONFLICT);
+                }
+                return remove(idNumber);
+            });
+            metrics.success(Operation.DELETE, startTime);
+            return result;
+        } catch (RuntimeException e) {
+            metrics.failure(Operation.DELETE, startTime, e);
+            throw e;
         }
+    }
 
-        if (mobileNumber != null) {
-            return clients.stream()
-                    .filter(c -> c.getMobileNumber().equals(mobileNumber))
-                    .findFirst();
-        }
+    /**
+     * Removes a client without validation, for example when a replication follower drops clients its
+     * leader no longer has. Change listeners are notified.
+     *
+     * @param idNumber The ID number of the client.
+     * @return The removed client, or null if no client has the given ID number.
+     */
+    public Client removeClient(String idNumber) {
+        return locks.withLock(idNumber, () -> remove(idNumber));
+    }
 
-        return Optional.empty();
+    /**
+     * Removes a client only if it is still at the given version, so a change made since the caller read
+     * it keeps the client. Change listeners are notified.
+     *
+     * @param idNumber        The ID number of the client.
+     * @param expectedVersion The version the client must be at.
+     * @return The removed client, or null if no client has the given ID number at that version.
+     */
+    public Client removeClient(String idNumber, long expectedVersion) {
+        return locks.withLock(idNumber, () -> {
+            Client existing = clientRepository.findByIdNumber(idNumber).orElse(null);
+            return existing != null && existing.getVersion() == expectedVersion ? remove(idNumber) : null;
+        });
     }
 
+    /**
+     * Returns every stored client as a live view, which neither copies the store nor blocks writers.
+     *
+     * @return The stored clients, in no particular order.
+     */
+    public Iterable<Client> getAllClients() {
+        return clientRepository.findAll();
+    }
 
     /**
-     * Checks if a South African ID number is valid.
+     * Searches for clients matching every provided parameter.
+     * Results are ordered by ID number and paginated with an opaque keyset cursor.
      *
-     * @param idNumber The ID number to validate.
-     * @return true if the ID number is valid, false otherwise.
+     * @param criteria The search predicates.
+     * @param cursor   The cursor returned with the previous page, or null for the first page.
+     * @param limit    The maximum number of clients to return, capped at MAX_PAGE_SIZE.
+     * @return The page of matching clients.
+     * @throws IllegalArgumentException if no search criteria are provided or the cursor is invalid.
      */
-    private boolean isSouthAfricanIdNumberValid(String idNumber) {
-        if (idNumber.length() != 13 || !idNumber.matches("\\d{13}")) {
-            return false;
+
+    public ClientPage searchClients(ClientSearchCriteria criteria, String cursor, int limit) {
+        long startTime = metrics.start();
+        try {
+            if (criteria.isEmpty()) {
+                throw new ClientException(ErrorCode.NO_SEARCH_CRITERIA_PROVIDED);
+            }
+
+            int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+            List<Client> clients = clientRepository.search(criteria, decodeCursor(cursor), pageSize + 1);
+            ClientPage page;
+            if (clients.size() <= pageSize) {
+                page = new ClientPage(clients, null);
+            } else {
+                clients = clients.subList(0, pageSize);
+                page = new ClientPage(clients, encodeCursor(clients.get(pageSize - 1).getIdNumber()));
+            }
+            metrics.success(Operation.SEARCH, startTime);
+            return page;
+        } catch (RuntimeException e) {
+            metrics.failure(Operation.SEARCH, startTime, e);
+            throw e;
         }
-        char twelfthDigit = idNumber.charAt(11);
+    }
 
-        if (twelfthDigit != '8' && twelfthDigit != '9') {
-            return false;
+    private ClientLookupResult lookupByIdNumber(String idNumber) {
+        Client client = idNumber != null && keyFilter.mightContainIdNumber(idNumber)
+                ? clientRepository.findByIdNumber(idNumber).orElseGet(this::falsePositive) : null;
+        return new ClientLookupResult(idNumber, null, client != null, client);
+    }
+
+    private ClientLookupResult lookupByMobileNumber(String mobileNumber) {
+        Client client = mobileNumber != null && keyFilter.mightContainMobileNumber(mobileNumber)
+                ? clientRepository.findByMobileNumber(mobileNumber).orElseGet(this::falsePositive) : null;
+        return new ClientLookupResult(null, mobileNumber, client != null, client);
+    }
+
+    private Client remove(String idNumber) {
+        Client removed = clientRepository.remove(idNumber);
+        if (removed != null) {
+            notifyListeners(listener -> listener.onRemoved(removed),
+                    () -> clientRepository.restore(removed),
+                    listener -> listener.onCreated(removed));
         }
-        return true;
+        return removed;
     }
 
     /**
-     * Checks if an ID number already exists for any client.
+     * Notifies every listener of a change already made to the store. If a listener fails, for example
+     * because the write-ahead log cannot take the record, the change is undone in the store and the
+     * listeners notified before it receive the reverse change, so neither the store nor any listener is
+     * left with a change the caller was told failed.
      *
-     * @param idNumber The ID number to check.
-     * @return true if the ID number is a duplicate, false otherwise.
+     * @param change  Delivers the change to one listener.
+     * @param undo    Reverts the change in the store.
+     * @param reverse Delivers the reverse change to one listener.
      */
-    private boolean isDuplicateIdNumber(String idNumber) {
-        return clients.stream()
-                .anyMatch(c -> c.getIdNumber().equals(idNumber));
+    private void notifyListeners(Consumer<ClientChangeListener> change, Runnable undo,
+                                 Consumer<ClientChangeListener> reverse) {
+        int notified = 0;
+        try {
+            for (ClientChangeListener listener : changeListeners) {
+                change.accept(listener);
+                notified++;
+            }
+        } catch (RuntimeException e) {
+            undo.run();
+            for (int i = 0; i < notified; i++) {
+                try {
+                    reverse.accept(changeListeners.get(i));
+                } catch (RuntimeException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+            }
+            throw e;
+        }
     }
 
     /**
-     * Checks if a mobile number already exists for any client.
-     *
-     * @param mobileNumber The mobile number to check.
-     * @return true if the mobile number is a duplicate, false otherwise.
+     * Finds a client, answering from the key filter alone when the ID number is definitely not stored.
      */
-    private boolean isDuplicateMobileNumber(String mobileNumber) {
-        return clients.stream()
-                .anyMatch(c -> c.getMobileNumber().equals(mobileNumber));
+    private Client findExisting(String idNumber) {
+        Client client = keyFilter.mightContainIdNumber(idNumber)
+                ? clientRepository.findByIdNumber(idNumber).orElseGet(this::falsePositive) : null;
+        if (client == null) {
+            throw new ClientException(ErrorCode.CLIENT_NOT_FOUND);
+        }
+        return client;
+    }
+
+    private Client falsePositive() {
+        keyFilter.falsePositive();
+        return null;
+    }
+
+    private static String encodeCursor(String idNumber) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(idNumber.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new ClientException(ErrorCode.INVALID_SEARCH_CURSOR);
+        }
+    }
+
+    /**
+     * Resolves lookup keys one at a time and records the lookup in the metrics once, when it ends.
+     */
+    private class LookupIterator implements Iterator<ClientLookupResult> {
+
+        private final List<String> idNumbers;
+
+        private final List<String> mobileNumbers;
+
+        private final long startTime;
+
+        private int next;
+
+        private boolean recorded;
+
+        private LookupIterator(List<String> idNumbers, List<String> mobileNumbers, long startTime) {
+            this.idNumbers = idNumbers;
+            this.mobileNumbers = mobileNumbers;
+            this.startTime = startTime;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next < idNumbers.size() + mobileNumbers.size()) {
+                return true;
+            }
+            if (!recorded) {
+                recorded = true;
+                metrics.success(Operation.LOOKUP, startTime);
+            }
+            return false;
+        }
+
+        @Override
+        public ClientLookupResult next() {
+            if (next >= idNumbers.size() + mobileNumbers.size()) {
+                throw new NoSuchElementException();
+            }
+            int i = next++;
+            try {
+                return i < idNumbers.size()
+                        ? lookupByIdNumber(idNumbers.get(i))
+                        : lookupByMobileNumber(mobileNumbers.get(i - idNumbers.size()));
+            } catch (RuntimeException e) {
+                fail(e);
+                throw e;
+            }
+        }
+
+        private void close() {
+            fail(new IllegalStateException("Lookup stream closed before every key was resolved"));
+        }
+
+        private void fail(RuntimeException e) {
+            if (!recorded) {
+                recorded = true;
+                metrics.failure(Operation.LOOKUP, startTime, e);
+            }
+        }
     }
 }
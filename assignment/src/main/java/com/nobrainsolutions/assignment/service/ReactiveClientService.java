@@ -0,0 +1,204 @@
+package com.nobrainsolutions.assignment.service;
+
+import com.nobrainsolutions.assignment.cache.ClientResponseCache;
+import com.nobrainsolutions.assignment.changes.ClientChangeLog;
+import com.nobrainsolutions.assignment.dto.ClientChangeEvent;
+import com.nobrainsolutions.assignment.dto.ClientLookupResult;
+import com.nobrainsolutions.assignment.dto.ClientPage;
+import com.nobrainsolutions.assignment.dto.ClientSearchCriteria;
+import com.nobrainsolutions.assignment.entity.Client;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ *
+ * The ReactiveClientService class exposes the ClientService as Mono and Flux for the WebFlux stack.
+ * Lookups and searches only read the in-memory indexes and run on the calling event-loop thread.
+ * Creates and updates can wait for a stripe lock or a write-ahead log fsync, so they are moved to the
+ * write scheduler and never block an event loop.
+ */
+
+@Service
+public class ReactiveClientService {
+
+    /**
+     * Number of clients fetched per page while streaming search results.
+     */
+    public static final int STREAM_PAGE_SIZE = 500;
+
+    private static final int CHANGE_BATCH_SIZE = 256;
+
+    private static final Duration CHANGE_POLL_INTERVAL = Duration.ofMillis(10);
+
+    private final ClientService clientService;
+
+    private final ClientResponseCache clientResponseCache;
+
+    private final ClientChangeLog clientChangeLog;
+
+    private final Scheduler writeScheduler;
+
+    @Autowired
+    public ReactiveClientService(ClientService clientService, ClientResponseCache clientResponseCache,
+                                 ClientChangeLog clientChangeLog) {
+        this(clientService, clientResponseCache, clientChangeLog, Schedulers.boundedElastic());
+    }
+
+    public ReactiveClientService(ClientService clientService, ClientResponseCache clientResponseCache,
+                                 ClientChangeLog clientChangeLog, Scheduler writeScheduler) {
+        this.clientService = clientService;
+        this.clientResponseCache = clientResponseCache;
+        this.clientChangeLog = clientChangeLog;
+        this.writeScheduler = writeScheduler;
+    }
+
+    /**
+     * Creates a new client on the write scheduler.
+     *
+     * @param client The client object to be created.
+     * @return The created client.
+     */
+    public Mono<Client> createClient(Client client) {
+        return Mono.fromCallable(() -> clientService.createClient(client)).subscribeOn(writeScheduler);
+    }
+
+    /**
+     * Retrieves a client by ID.
+     *
+     * @param idNumber The ID number of the client.
+     * @return The client, or an IllegalArgumentException if not found.
+     */
+    public Mono<Client> getClientById(String idNumber) {
+        return Mono.fromCallable(() -> clientService.getClientById(idNumber));
+    }
+
+    /**
+     * Resolves many ID numbers and mobile numbers at once.
+     *
+     * @param idNumbers     The ID numbers to resolve, or null.
+     * @param mobileNumbers The mobile numbers to resolve, or null.
+     * @return One result per key, ID numbers first, each in the order given.
+     */
+    public Flux<ClientLookupResult> lookupClients(List<String> idNumbers, List<String> mobileNumbers) {
+        return Flux.defer(() -> Flux.fromIterable(clientService.lookupClients(idNumbers, mobileNumbers)));
+    }
+
+    /**
+     * Retrieves the serialized form of a client by ID from the response cache.
+     *
+     * @param idNumber The ID number of the client.
+     * @return The client as JSON with its ETag, or an IllegalArgumentException if not found.
+     */
+    public Mono<ClientResponseCache.CachedClient> getCachedClientById(String idNumber) {
+        return Mono.fromCallable(() -> clientResponseCache.get(idNumber, clientService::getClientById));
+    }
+
+    /**
+     * Updates a client on the write scheduler.
+     *
+     * @param idNumber      The ID number of the client to update.
+     * @param updatedClient The updated client object.
+     * @return The updated client.
+     */
+    public Mono<Client> updateClient(String idNumber, Client updatedClient) {
+        return updateClient(idNumber, updatedClient, null);
+    }
+
+    /**
+     * Updates a client on the write scheduler if it still has one of the given ETags.
+     *
+     * @param idNumber      The ID number of the client to update.
+     * @param updatedClient The updated client object.
+     * @param ifMatch       The If-Match header, or null for an unconditional update.
+     * @return The updated client, or an IllegalArgumentException if the client has changed.
+     */
+    public Mono<Client> updateClient(String idNumber, Client updatedClient, String ifMatch) {
+        return Mono.fromCallable(() -> clientService.updateClient(idNumber, updatedClient,
+                clientResponseCache.expectedVersion(idNumber, ifMatch, clientService::getClientById)))
+                .subscribeOn(writeScheduler);
+    }
+
+    /**
+     * Deletes a client on the write scheduler if it still has one of the given ETags.
+     *
+     * @param idNumber The ID number of the client to delete.
+     * @param ifMatch  The If-Match header, or null for an unconditional deletion.
+     * @return The deleted client.
+     */
+    public Mono<Client> deleteClient(String idNumber, String ifMatch) {
+        return Mono.fromCallable(() -> clientService.deleteClient(idNumber,
+                clientResponseCache.expectedVersion(idNumber, ifMatch, clientService::getClientById)))
+                .subscribeOn(writeScheduler);
+    }
+
+    /**
+     * Returns one page of clients matching every provided parameter.
+     *
+     * @param criteria The search predicates.
+     * @param cursor   The cursor returned with the previous page, or null for the first page.
+     * @param limit    The maximum number of clients to return.
+     * @return The page of matching clients.
+     */
+    public Mono<ClientPage> searchClients(ClientSearchCriteria criteria, String cursor, int limit) {
+        return Mono.fromCallable(() -> clientService.searchClients(criteria, cursor, limit));
+    }
+
+    /**
+     * Streams every client matching the search criteria, in ID number order.
+     * Pages of STREAM_PAGE_SIZE are fetched with the keyset cursor only as the subscriber requests
+     * more clients, so a slow consumer holds at most one page in memory.
+     *
+     * @param criteria The search predicates.
+     * @return The matching clients.
+     */
+    public Flux<Client> streamClients(ClientSearchCriteria criteria) {
+        return searchClients(criteria, null, STREAM_PAGE_SIZE)
+                .expand(page -> page.getNextCursor() == null
+                        ? Mono.empty()
+                        : searchClients(criteria, page.getNextCursor(), STREAM_PAGE_SIZE))
+                .concatMapIterable(ClientPage::getClients);
+    }
+
+    /**
+     * Streams every stored client, in no particular order, for a replication follower catching up.
+     *
+     * @return The stored clients.
+     */
+    public Flux<Client> streamAllClients() {
+        return Flux.defer(() -> Flux.fromIterable(clientService.getAllClients()));
+    }
+
+    /**
+     * Returns the sequence number of the last change that a snapshot started now is sure to contain.
+     *
+     * @return The sequence number.
+     */
+    public long lastChangeSequence() {
+        return clientChangeLog.lastSequence();
+    }
+
+    /**
+     * Streams every change after a given sequence number, without end.
+     * The log is polled only as the subscriber requests more events, and every CHANGE_POLL_INTERVAL
+     * while there are none, so a slow subscriber never holds up writers or other subscribers.
+     *
+     * @param after The sequence number of the last event already received, or null for new events only.
+     * @return The events, or an IllegalArgumentException if the offset is no longer available.
+     */
+    public Flux<ClientChangeEvent> streamChanges(Long after) {
+        return Flux.defer(() -> {
+            ClientChangeLog.Cursor cursor = clientChangeLog.cursor(after);
+            return Flux.<List<ClientChangeEvent>>generate(sink -> sink.next(cursor.poll(CHANGE_BATCH_SIZE)))
+                    .concatMap(events -> events.isEmpty()
+                            ? Mono.delay(CHANGE_POLL_INTERVAL).thenMany(Flux.<ClientChangeEvent>empty())
+                            : Flux.fromIterable(events), 1);
+        });
+    }
+}
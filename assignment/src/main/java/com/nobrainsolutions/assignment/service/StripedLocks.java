@@ -0,0 +1,83 @@
+package com.nobrainsolutions.assignment.service;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ *
+ * The StripedLocks class maps keys onto a fixed set of locks so that writes to the same key are
+ * serialized while writes to unrelated keys run in parallel.
+ */
+
+public class StripedLocks {
+
+    private final ReentrantLock[] locks;
+
+    private final int mask;
+
+    /**
+     * Creates the lock stripes.
+     *
+     * @param stripes The minimum number of stripes; rounded up to a power of two.
+     */
+    public StripedLocks(int stripes) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1) << 1);
+        this.locks = new ReentrantLock[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Runs an action while holding the stripe of a key.
+     *
+     * @param key    The key to lock.
+     * @param action The action to run.
+     * @return The result of the action.
+     */
+    public <T> T withLock(String key, Supplier<T> action) {
+        ReentrantLock lock = locks[indexFor(key)];
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Runs an action while holding the stripes of two keys.
+     * Stripes are always acquired in index order so concurrent callers cannot deadlock.
+     *
+     * @param first  The first key to lock.
+     * @param second The second key to lock.
+     * @param action The action to run.
+     * @return The result of the action.
+     */
+    public <T> T withLocks(String first, String second, Supplier<T> action) {
+        int a = indexFor(first);
+        int b = indexFor(second);
+        if (a == b) {
+            return withLock(first, action);
+        }
+        ReentrantLock outer = locks[Math.min(a, b)];
+        ReentrantLock inner = locks[Math.max(a, b)];
+        outer.lock();
+        try {
+            inner.lock();
+            try {
+                return action.get();
+            } finally {
+                inner.unlock();
+            }
+        } finally {
+            outer.unlock();
+        }
+    }
+
+    private int indexFor(String key) {
+        int h = key == null ? 0 : key.hashCode();
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
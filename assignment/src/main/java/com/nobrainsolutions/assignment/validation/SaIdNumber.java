@@ -0,0 +1,160 @@
+package com.nobrainsolutions.assignment.validation;
+
+import java.time.LocalDate;
+
+/**
+ *
+ * The SaIdNumber class parses South African ID numbers of the form YYMMDD SSSS C A Z, where
+ * YYMMDD is the date of birth, SSSS the gender sequence, C the citizenship digit, A the legacy
+ * digit (8 or 9) and Z the Luhn check digit.
+ * Validation is a single char-by-char pass without regular expressions or allocation.
+ */
+
+public final class SaIdNumber {
+
+    /**
+     * Length of a South African ID number.
+     */
+    public static final int LENGTH = 13;
+
+    /**
+     * Two-digit years up to this value are read as 20YY, later ones as 19YY.
+     */
+    private static final int CENTURY_PIVOT = LocalDate.now().getYear() % 100;
+
+    private static final int[] DAYS_IN_MONTH = {31, 29, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+
+    private final int birthYear;
+
+    private final int birthMonth;
+
+    private final int birthDay;
+
+    private final boolean male;
+
+    private final boolean citizen;
+
+    private SaIdNumber(int birthYear, int birthMonth, int birthDay, boolean male, boolean citizen) {
+        this.birthYear = birthYear;
+        this.birthMonth = birthMonth;
+        this.birthDay = birthDay;
+        this.male = male;
+        this.citizen = citizen;
+    }
+
+    /**
+     * Checks if a South African ID number is valid.
+     *
+     * @param idNumber The ID number to validate.
+     * @return true if the ID number has 13 digits, a valid date of birth, citizenship digit,
+     * legacy digit and Luhn check digit, false otherwise.
+     */
+    public static boolean isValid(CharSequence idNumber) {
+        if (idNumber == null || idNumber.length() != LENGTH) {
+            return false;
+        }
+
+        int sum = 0;
+        for (int i = 0; i < LENGTH; i++) {
+            int digit = idNumber.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return false;
+            }
+            // Luhn: every second digit counted from the check digit is doubled.
+            if ((i & 1) == 1) {
+                digit <<= 1;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+        }
+        if (sum % 10 != 0) {
+            return false;
+        }
+
+        int citizenship = idNumber.charAt(10) - '0';
+        if (citizenship > 2) {
+            return false;
+        }
+
+        char legacyDigit = idNumber.charAt(11);
+        if (legacyDigit != '8' && legacyDigit != '9') {
+            return false;
+        }
+
+        int year = fullYear(twoDigits(idNumber, 0));
+        int month = twoDigits(idNumber, 2);
+        int day = twoDigits(idNumber, 4);
+        return month >= 1 && month <= 12 && day >= 1 && day <= daysInMonth(year, month);
+    }
+
+    /**
+     * Parses a South African ID number.
+     *
+     * @param idNumber The ID number to parse.
+     * @return The decoded ID number, or null if the ID number is not valid.
+     */
+    public static SaIdNumber parse(CharSequence idNumber) {
+        if (!isValid(idNumber)) {
+            return null;
+        }
+        int sequence = twoDigits(idNumber, 6) * 100 + twoDigits(idNumber, 8);
+        return new SaIdNumber(
+                fullYear(twoDigits(idNumber, 0)),
+                twoDigits(idNumber, 2),
+                twoDigits(idNumber, 4),
+                sequence >= 5000,
+                idNumber.charAt(10) == '0');
+    }
+
+    /**
+     * @return The four-digit year of birth.
+     */
+    public int getBirthYear() {
+        return birthYear;
+    }
+
+    /**
+     * @return The month of birth, from 1 to 12.
+     */
+    public int getBirthMonth() {
+        return birthMonth;
+    }
+
+    /**
+     * @return The day of birth, from 1 to 31.
+     */
+    public int getBirthDay() {
+        return birthDay;
+    }
+
+    /**
+     * @return true if the gender sequence is 5000 or higher, false if it is below 5000.
+     */
+    public boolean isMale() {
+        return male;
+    }
+
+    /**
+     * @return true for South African citizens, false for permanent residents and refugees.
+     */
+    public boolean isCitizen() {
+        return citizen;
+    }
+
+    private static int twoDigits(CharSequence idNumber, int offset) {
+        return (idNumber.charAt(offset) - '0') * 10 + (idNumber.charAt(offset + 1) - '0');
+    }
+
+    private static int fullYear(int twoDigitYear) {
+        return twoDigitYear <= CENTURY_PIVOT ? 2000 + twoDigitYear : 1900 + twoDigitYear;
+    }
+
+    private static int daysInMonth(int year, int month) {
+        if (month == 2 && !(year % 4 == 0 && (year % 100 != 0 || year % 400 == 0))) {
+            return 28;
+        }
+        return DAYS_IN_MONTH[month - 1];
+    }
+}
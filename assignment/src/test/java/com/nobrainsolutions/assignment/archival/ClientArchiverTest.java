@@ -0,0 +1,126 @@
+package com.nobrainsolutions.assignment.archival;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nobrainsolutions.assignment.entity.Client;
+import com.nobrainsolutions.assignment.repository.InMemoryClientRepository;
+import com.nobrainsolutions.assignment.search.ClientTextIndex;
+import com.nobrainsolutions.assignment.service.ClientChangeListener;
+import com.nobrainsolutions.assignment.service.ClientService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * The ClientArchiverTest class is responsible for testing the ClientArchiver class.
+ * It contains test cases for archiving clients that were not changed for the maximum age, keeping clients
+ * changed since, and sweeping in batches.
+ */
+
+public class ClientArchiverTest {
+
+    private Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final AtomicLong now = new AtomicLong();
+
+    private InMemoryClientRepository clientRepository;
+
+    private ClientTextIndex clientTextIndex;
+
+    private ClientService clientService;
+
+    private ClientArchiver clientArchiver;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("client-archival");
+        clientRepository = new InMemoryClientRepository();
+        clientTextIndex = new ClientTextIndex(clientRepository);
+        // The archiver listens to the service it removes clients through.
+        clientService = new ClientService(clientRepository, List.of(clientTextIndex, new ClientChangeListener() {
+            @Override
+            public void onCreated(Client client) {
+                clientArchiver.onCreated(client);
+            }
+
+            @Override
+            public void onUpdated(Client previous, Client current) {
+                clientArchiver.onUpdated(previous, current);
+            }
+        }));
+        clientArchiver = new ClientArchiver(clientService, clientRepository, objectMapper, Duration.ofDays(30),
+                Duration.ofSeconds(1), 2, directory.resolve("archive.ndjson"), now::get);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(directory.resolve("archive.ndjson"));
+        Files.delete(directory);
+    }
+
+    @Test
+    void archivesClientsNotChangedForMaxAgeTest() throws IOException {
+
+        clientService.createClient(new Client("Vishal", "Nagdev", "9284121655", "8001015009087", "Pune"));
+        now.addAndGet(Duration.ofDays(10).toNanos());
+        clientService.createClient(new Client("John", "Smith", "0820000001", "8001015009095", "Durban"));
+
+        now.addAndGet(Duration.ofDays(25).toNanos());
+        assertEquals(1, clientArchiver.sweep());
+
+        assertFalse(clientRepository.existsByIdNumber("8001015009087"));
+        assertFalse(clientRepository.existsByMobileNumber("9284121655"));
+        assertTrue(clientTextIndex.searchByPrefix("vishal", 10).isEmpty());
+        assertTrue(clientRepository.existsByIdNumber("8001015009095"));
+        assertEquals(1, clientArchiver.pending());
+        List<String> archived = Files.readAllLines(directory.resolve("archive.ndjson"));
+        assertEquals(1, archived.size());
+        assertEquals("8001015009087", objectMapper.readTree(archived.get(0)).get("idNumber").asText());
+    }
+
+    @Test
+    void clientChangedSinceIsKeptTest() throws IOException {
+
+        clientService.createClient(new Client("Vishal", "Nagdev", "9284121655", "8001015009087", "Pune"));
+        now.addAndGet(Duration.ofDays(20).toNanos());
+        clientService.updateClient("8001015009087", new Client("Vishal", "Nagdev", "9284121655", "8001015009087", "Durban"));
+
+        now.addAndGet(Duration.ofDays(20).toNanos());
+        assertEquals(0, clientArchiver.sweep());
+        assertEquals("Durban", clientService.getClientById("8001015009087").getPhysicalAddress());
+        assertEquals(1, clientArchiver.pending());
+        assertFalse(Files.exists(directory.resolve("archive.ndjson")));
+
+        now.addAndGet(Duration.ofDays(20).toNanos());
+        assertEquals(1, clientArchiver.sweep());
+        assertEquals(0, clientRepository.size());
+    }
+
+    @Test
+    void sweepsInBatchesTest() throws IOException {
+
+        clientService.createClient(new Client("Vishal", "Nagdev", "9284121655", "8001015009087", "Pune"));
+        clientService.createClient(new Client("John", "Smith", "0820000001", "8001015009095", "Durban"));
+        clientService.createClient(new Client("Jane", "Smith", "0820000002", "9912314999084", "Durban"));
+        clientService.removeClient("8001015009095");
+
+        now.addAndGet(Duration.ofDays(31).toNanos());
+        assertEquals(1, clientArchiver.sweep());
+        assertEquals(1, clientRepository.size());
+        assertEquals(1, clientArchiver.sweep());
+        assertEquals(0, clientRepository.size());
+        assertEquals(0, clientArchiver.pending());
+        assertEquals(2, Files.readAllLines(directory.resolve("archive.ndjson")).size());
+    }
+}
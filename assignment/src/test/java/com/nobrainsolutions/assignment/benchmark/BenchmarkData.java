@@ -0,0 +1,129 @@
+package com.nobrainsolutions.assignment.benchmark;
+
+import com.nobrainsolutions.assignment.entity.Client;
+import com.nobrainsolutions.assignment.repository.ClientRepository;
+import com.nobrainsolutions.assignment.repository.CompactClientRepository;
+import com.nobrainsolutions.assignment.repository.InMemoryClientRepository;
+import com.nobrainsolutions.assignment.repository.ShardedClientRepository;
+
+import java.time.LocalDate;
+
+/**
+ *
+ * The BenchmarkData class generates deterministic, valid client records for the benchmarks.
+ * Record n always has the same ID number, mobile number and names, so stores of any size
+ * can be filled without collisions.
+ */
+
+public final class BenchmarkData {
+
+    /**
+     * Number of distinct first names handed out, so each name matches storeSize / FIRST_NAMES clients.
+     */
+    public static final int FIRST_NAMES = 1_000;
+
+    private static final LocalDate FIRST_BIRTH_DATE = LocalDate.of(1930, 1, 1);
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Creates an empty repository of the given storage engine.
+     *
+     * @param engine The value of client.store.engine: heap or compact.
+     * @return The repository.
+     */
+    public static ClientRepository repository(String engine) {
+        switch (engine) {
+            case "heap":
+                return new InMemoryClientRepository();
+            case "compact":
+                return new CompactClientRepository();
+            default:
+                throw new IllegalArgumentException("Unknown storage engine " + engine);
+        }
+    }
+
+    /**
+     * Creates an empty repository of the given storage engine, split into shards when shards is above 1.
+     *
+     * @param engine The value of client.store.engine: heap or compact.
+     * @param shards The value of client.store.shards.
+     * @return The repository.
+     */
+    public static ClientRepository repository(String engine, int shards) {
+        return shards > 1 ? new ShardedClientRepository(shards, engine, 1024) : repository(engine);
+    }
+
+    /**
+     * Builds the n-th client.
+     *
+     * @param n The sequence number of the client.
+     * @return A client with a valid, unique ID number and mobile number.
+     */
+    public static Client client(long n) {
+        return new Client(firstName(n), "Last" + n, mobileNumber(n), idNumber(n), n + " Main Road, Pretoria");
+    }
+
+    /**
+     * Builds the n-th valid South African ID number: 10 000 sequence numbers per birth date.
+     *
+     * @param n The sequence number of the client.
+     * @return A valid, unique ID number.
+     */
+    public static String idNumber(long n) {
+        LocalDate birthDate = FIRST_BIRTH_DATE.plusDays(n / 10_000);
+        char[] digits = new char[13];
+        putDigits(digits, 0, birthDate.getYear() % 100, 2);
+        putDigits(digits, 2, birthDate.getMonthValue(), 2);
+        putDigits(digits, 4, birthDate.getDayOfMonth(), 2);
+        putDigits(digits, 6, n % 10_000, 4);
+        digits[10] = '0';
+        digits[11] = '8';
+
+        int sum = 0;
+        for (int i = 0; i < 12; i++) {
+            int digit = digits[i] - '0';
+            if ((i & 1) == 1) {
+                digit <<= 1;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+        }
+        digits[12] = (char) ('0' + (10 - sum % 10) % 10);
+        return new String(digits);
+    }
+
+    /**
+     * Builds the n-th mobile number.
+     *
+     * @param n The sequence number of the client.
+     * @return A ten-digit mobile number, 07 and eight digits, unique for n below 100 million.
+     */
+    public static String mobileNumber(long n) {
+        char[] digits = new char[10];
+        digits[0] = '0';
+        digits[1] = '7';
+        putDigits(digits, 2, n, 8);
+        return new String(digits);
+    }
+
+    /**
+     * Returns the first name of the n-th client.
+     *
+     * @param n The sequence number of the client.
+     * @return One of FIRST_NAMES distinct first names.
+     */
+    public static String firstName(long n) {
+        return "First" + (n % FIRST_NAMES);
+    }
+
+    private static void putDigits(char[] target, int offset, long value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            target[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.nobrainsolutions.assignment.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nobrainsolutions.assignment.cache.ClientResponseCache;
+import com.nobrainsolutions.assignment.controller.ClientController;
+import com.nobrainsolutions.assignment.exception.GlobalExceptionHandler;
+import com.nobrainsolutions.assignment.metrics.ClientMetrics;
+import com.nobrainsolutions.assignment.repository.InMemoryClientRepository;
+import com.nobrainsolutions.assignment.service.ClientService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ *
+ * The ClientControllerBenchmark class measures the /clients endpoints through the Spring MVC
+ * dispatcher, including request binding, validation and JSON conversion, without the network.
+ * The response cache holds every client, so getClientById measures the steady state of a hot store,
+ * and getClientByIdNotModified a client revalidating its copy with If-None-Match.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ClientControllerBenchmark {
+
+    @Param({"1000", "1000000"})
+    private int storeSize;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final AtomicLong nextClient = new AtomicLong();
+
+    private MockMvc mockMvc;
+
+    private String[] idNumbers;
+
+    private String[] etags;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ClientResponseCache clientResponseCache = new ClientResponseCache(objectMapper, storeSize, Duration.ofHours(1));
+        ClientService clientService = new ClientService(new InMemoryClientRepository(), List.of(clientResponseCache));
+        idNumbers = new String[storeSize];
+        etags = new String[storeSize];
+        for (int i = 0; i < storeSize; i++) {
+            idNumbers[i] = clientService.createClient(BenchmarkData.client(i)).getIdNumber();
+            etags[i] = clientResponseCache.get(idNumbers[i], clientService::getClientById).getEtag();
+        }
+        nextClient.set(storeSize);
+
+        ClientController clientController = new ClientController();
+        ReflectionTestUtils.setField(clientController, "clientService", clientService);
+        ReflectionTestUtils.setField(clientController, "clientResponseCache", clientResponseCache);
+        GlobalExceptionHandler globalExceptionHandler = new GlobalExceptionHandler();
+        ReflectionTestUtils.setField(globalExceptionHandler, "clientMetrics", ClientMetrics.disabled());
+        ReflectionTestUtils.setField(globalExceptionHandler, "objectMapper", objectMapper);
+        mockMvc = MockMvcBuilders.standaloneSetup(clientController)
+                .setControllerAdvice(globalExceptionHandler)
+                .build();
+    }
+
+    @Benchmark
+    public MvcResult createClient() throws Exception {
+        byte[] body = objectMapper.writeValueAsBytes(BenchmarkData.client(nextClient.getAndIncrement()));
+        return mockMvc.perform(post("/clients").contentType(MediaType.APPLICATION_JSON).content(body)).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult getClientById() throws Exception {
+        String idNumber = idNumbers[ThreadLocalRandom.current().nextInt(storeSize)];
+        return mockMvc.perform(get("/clients/{idNumber}", idNumber)).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult getClientByIdNotModified() throws Exception {
+        int client = ThreadLocalRandom.current().nextInt(storeSize);
+        return mockMvc.perform(get("/clients/{idNumber}", idNumbers[client])
+                .header(HttpHeaders.IF_NONE_MATCH, etags[client])).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult searchClient() throws Exception {
+        String firstName = BenchmarkData.firstName(ThreadLocalRandom.current().nextInt(storeSize));
+        return mockMvc.perform(get("/clients/search").param("firstName", firstName)).andReturn();
+    }
+}
@@ -0,0 +1,66 @@
+package com.nobrainsolutions.assignment.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nobrainsolutions.assignment.service.ClientExportService;
+import com.nobrainsolutions.assignment.service.ClientService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ *
+ * The ClientExportBenchmark class measures exporting a store of storeSize clients in each format,
+ * with and without gzip, to an output that discards the bytes.
+ * Scores are whole exports per second; multiply by storeSize for records per second. Memory used
+ * by an export does not grow with storeSize.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class ClientExportBenchmark {
+
+    @Param({"1000000", "10000000"})
+    private int storeSize;
+
+    @Param({"heap", "compact"})
+    private String engine;
+
+    @Param({"ndjson", "csv", "binary"})
+    private String format;
+
+    @Param({"false", "true"})
+    private boolean gzip;
+
+    private ClientExportService clientExportService;
+
+    private ClientExportService.Format exportFormat;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ClientService clientService = new ClientService(BenchmarkData.repository(engine));
+        for (int i = 0; i < storeSize; i++) {
+            clientService.createClient(BenchmarkData.client(i));
+        }
+        clientExportService = new ClientExportService(clientService, new ObjectMapper());
+        exportFormat = ClientExportService.Format.of(format);
+    }
+
+    @Benchmark
+    public long export() throws IOException {
+        OutputStream out = OutputStream.nullOutputStream();
+        if (!gzip) {
+            return clientExportService.export(exportFormat, out);
+        }
+        GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024);
+        long count = clientExportService.export(exportFormat, compressed);
+        compressed.finish();
+        return count;
+    }
+}
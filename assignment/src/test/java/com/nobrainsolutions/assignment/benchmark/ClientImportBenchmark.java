@@ -0,0 +1,80 @@
+package com.nobrainsolutions.assignment.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nobrainsolutions.assignment.dto.BulkImportResult;
+import com.nobrainsolutions.assignment.entity.Client;
+import com.nobrainsolutions.assignment.repository.InMemoryClientRepository;
+import com.nobrainsolutions.assignment.service.ClientImportService;
+import com.nobrainsolutions.assignment.service.ClientService;
+import jakarta.validation.Validation;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *
+ * The ClientImportBenchmark class measures bulk import throughput into an empty store.
+ * Scores are reported in records per second.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@OperationsPerInvocation(ClientImportBenchmark.RECORDS)
+public class ClientImportBenchmark {
+
+    static final int RECORDS = 100_000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private byte[] json;
+
+    private byte[] csv;
+
+    private ClientImportService clientImportService;
+
+    @Setup(Level.Trial)
+    public void createUploads() throws IOException {
+        ByteArrayOutputStream jsonOut = new ByteArrayOutputStream();
+        StringBuilder csvOut = new StringBuilder("firstName,lastName,mobileNumber,idNumber,physicalAddress\n");
+        jsonOut.write('[');
+        for (int i = 0; i < RECORDS; i++) {
+            Client client = BenchmarkData.client(i);
+            if (i > 0) {
+                jsonOut.write(',');
+            }
+            jsonOut.write(objectMapper.writeValueAsBytes(client));
+            csvOut.append(client.getFirstName()).append(',')
+                    .append(client.getLastName()).append(',')
+                    .append(client.getMobileNumber()).append(',')
+                    .append(client.getIdNumber()).append(",\"")
+                    .append(client.getPhysicalAddress()).append("\"\n");
+        }
+        jsonOut.write(']');
+        json = jsonOut.toByteArray();
+        csv = csvOut.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Setup(Level.Invocation)
+    public void createEmptyStore() {
+        clientImportService = new ClientImportService(new ClientService(new InMemoryClientRepository()), objectMapper,
+                Validation.buildDefaultValidatorFactory().getValidator(), 1000, 1000, 65536);
+    }
+
+    @Benchmark
+    public BulkImportResult importJson() throws IOException {
+        return clientImportService.importJson(new ByteArrayInputStream(json));
+    }
+
+    @Benchmark
+    public BulkImportResult importCsv() throws IOException {
+        return clientImportService.importCsv(new ByteArrayInputStream(csv));
+    }
+}
@@ -0,0 +1,45 @@
+package com.nobrainsolutions.assignment.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nobrainsolutions.assignment.entity.Client;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *
+ * The ClientJsonBenchmark class measures Jackson serialization and deserialization of a Client,
+ * which is paid on every request to the /clients endpoints.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClientJsonBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private Client client;
+
+    private byte[] json;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        client = BenchmarkData.client(42);
+        json = objectMapper.writeValueAsBytes(client);
+    }
+
+    @Benchmark
+    public byte[] serializeClient() throws IOException {
+        return objectMapper.writeValueAsBytes(client);
+    }
+
+    @Benchmark
+    public Client deserializeClient() throws IOException {
+        return objectMapper.readValue(json, Client.class);
+    }
+}
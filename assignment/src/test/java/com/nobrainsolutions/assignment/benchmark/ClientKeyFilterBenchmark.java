@@ -0,0 +1,73 @@
+package com.nobrainsolutions.assignment.benchmark;
+
+import com.nobrainsolutions.assignment.entity.Client;
+import com.nobrainsolutions.assignment.exception.ClientException;
+import com.nobrainsolutions.assignment.keyfilter.ClientKeyFilter;
+import com.nobrainsolutions.assignment.metrics.ClientMetrics;
+import com.nobrainsolutions.assignment.repository.ClientRepository;
+import com.nobrainsolutions.assignment.service.ClientService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *
+ * The ClientKeyFilterBenchmark class measures what the client key filter saves on lookups of ID numbers
+ * that are not stored, such as scrapers probing random ones, and what it costs on lookups of stored ones,
+ * with and without the filter. Run it from several threads, where the read lock of the compact engine
+ * shows, e.g. ./mvnw -P benchmark verify -Djmh.includes=ClientKeyFilterBenchmark -Djmh.threads=8
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ClientKeyFilterBenchmark {
+
+    @Param({"1000000"})
+    private int storeSize;
+
+    @Param({"heap", "compact"})
+    private String engine;
+
+    @Param({"true", "false"})
+    private boolean filter;
+
+    private ClientService clientService;
+
+    private String[] idNumbers;
+
+    private String[] absentIdNumbers;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ClientRepository clientRepository = BenchmarkData.repository(engine);
+        ClientKeyFilter clientKeyFilter = new ClientKeyFilter(clientRepository, filter, 0.01, storeSize);
+        clientService = new ClientService(clientRepository, List.of(clientKeyFilter), ClientMetrics.disabled(),
+                clientKeyFilter);
+        idNumbers = new String[storeSize];
+        absentIdNumbers = new String[storeSize];
+        for (int i = 0; i < storeSize; i++) {
+            idNumbers[i] = clientService.createClient(BenchmarkData.client(i)).getIdNumber();
+            absentIdNumbers[i] = BenchmarkData.idNumber(storeSize + i);
+        }
+    }
+
+    @Benchmark
+    public Object getAbsentClient() {
+        try {
+            return clientService.getClientById(absentIdNumbers[ThreadLocalRandom.current().nextInt(storeSize)]);
+        } catch (ClientException e) {
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Client getClient() {
+        return clientService.getClientById(idNumbers[ThreadLocalRandom.current().nextInt(storeSize)]);
+    }
+}
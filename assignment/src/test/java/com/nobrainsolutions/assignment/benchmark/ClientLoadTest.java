@@ -0,0 +1,188 @@
+package com.nobrainsolutions.assignment.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ *
+ * The ClientLoadTest class drives a running application over HTTP with a fixed number of concurrent
+ * connections and reports throughput and latency percentiles.
+ * Each connection is served by its own virtual thread that sends one request at a time: 80% GET
+ * /clients/{idNumber}, 20% GET /clients/search by first name. The store is first filled with
+ * load.clients clients through POST /clients.
+ * Start the application once per execution mode, with rate limiting off since every connection comes
+ * from one address, and run the same load against each:
+ * java -jar target/assignment-0.0.1-SNAPSHOT.jar --spring.threads.virtual.enabled=true --client.rate-limit.enabled=false
+ * ./mvnw -P benchmark test-compile exec:exec@load-test -Dload.connections=10000
+ * Settings (system properties): load.url, load.connections, load.clients, load.warmup and load.duration.
+ */
+
+public final class ClientLoadTest {
+
+    private final HttpClient httpClient;
+
+    private final String baseUrl;
+
+    private final int clients;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final AtomicLong errors = new AtomicLong();
+
+    private volatile boolean recording;
+
+    private volatile boolean running = true;
+
+    private ClientLoadTest(String baseUrl, int clients, ExecutorService executor) {
+        this.baseUrl = baseUrl;
+        this.clients = clients;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .executor(executor)
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = System.getProperty("load.url", "http://localhost:9097");
+        int connections = Integer.getInteger("load.connections", 10_000);
+        int clients = Integer.getInteger("load.clients", 10_000);
+        Duration warmup = Duration.parse(System.getProperty("load.warmup", "PT10S"));
+        Duration duration = Duration.parse(System.getProperty("load.duration", "PT30S"));
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            ClientLoadTest loadTest = new ClientLoadTest(baseUrl, clients, executor);
+            loadTest.fill(executor);
+            loadTest.run(executor, connections, warmup, duration);
+        }
+    }
+
+    private void fill(ExecutorService executor) throws Exception {
+        List<Future<?>> futures = new ArrayList<>();
+        int batches = 64;
+        for (int batch = 0; batch < batches; batch++) {
+            int first = batch;
+            futures.add(executor.submit(() -> {
+                for (int n = first; n < clients; n += batches) {
+                    send(HttpRequest.newBuilder(URI.create(baseUrl + "/clients"))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(BenchmarkData.client(n))))
+                            .build());
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        System.out.printf("Created %d clients, %d errors%n", clients, errors.getAndSet(0));
+    }
+
+    private void run(ExecutorService executor, int connections, Duration warmup, Duration duration) throws Exception {
+        List<Recorder> recorders = new ArrayList<>(connections);
+        List<Future<?>> futures = new ArrayList<>(connections);
+        for (int i = 0; i < connections; i++) {
+            Recorder recorder = new Recorder();
+            recorders.add(recorder);
+            futures.add(executor.submit(() -> worker(recorder)));
+        }
+
+        Thread.sleep(warmup.toMillis());
+        errors.set(0);
+        recording = true;
+        long start = System.nanoTime();
+        Thread.sleep(duration.toMillis());
+        recording = false;
+        long elapsed = System.nanoTime() - start;
+        running = false;
+        for (Future<?> future : futures) {
+            future.get();
+        }
+
+        long count = 0;
+        for (Recorder recorder : recorders) {
+            count += recorder.size;
+        }
+        long[] latencies = new long[(int) count];
+        int offset = 0;
+        for (Recorder recorder : recorders) {
+            System.arraycopy(recorder.latencies, 0, latencies, offset, recorder.size);
+            offset += recorder.size;
+        }
+        Arrays.sort(latencies);
+
+        System.out.printf("connections=%d requests=%d errors=%d throughput=%.0f req/s%n",
+                connections, count, errors.get(), count / (elapsed / 1e9));
+        System.out.printf("latency ms: p50=%.2f p90=%.2f p99=%.2f p99.9=%.2f max=%.2f%n",
+                percentile(latencies, 0.50), percentile(latencies, 0.90), percentile(latencies, 0.99),
+                percentile(latencies, 0.999), latencies.length == 0 ? 0 : latencies[latencies.length - 1] / 1e6);
+    }
+
+    private Void worker(Recorder recorder) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (running) {
+            int n = random.nextInt(clients);
+            String path = random.nextInt(5) == 0
+                    ? "/clients/search?firstName=" + BenchmarkData.firstName(n) + "&limit=20"
+                    : "/clients/" + BenchmarkData.idNumber(n);
+            long start = System.nanoTime();
+            boolean ok = send(HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build());
+            if (recording && ok) {
+                recorder.add(System.nanoTime() - start);
+            }
+        }
+        return null;
+    }
+
+    private boolean send(HttpRequest request) {
+        try {
+            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() >= 300) {
+                errors.incrementAndGet();
+                return false;
+            }
+            return true;
+        } catch (Exception e) {
+            errors.incrementAndGet();
+            return false;
+        }
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1);
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+
+    /**
+     * Latencies of one connection, in nanoseconds; only written by its own worker.
+     */
+    private static final class Recorder {
+
+        private long[] latencies = new long[64];
+
+        private int size;
+
+        private void add(long latency) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = latency;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.nobrainsolutions.assignment.benchmark;
+
+import com.nobrainsolutions.assignment.dto.ClientPage;
+import com.nobrainsolutions.assignment.dto.ClientSearchCriteria;
+import com.nobrainsolutions.assignment.entity.Client;
+import com.nobrainsolutions.assignment.service.ClientService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ *
+ * The ClientServiceBenchmark class measures create, lookup, search and update on a
+ * ClientService pre-filled with storeSize clients, for each storage engine.
+ * Run it at different thread counts with -Djmh.threads=N.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class ClientServiceBenchmark {
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    private int storeSize;
+
+    @Param({"heap", "compact"})
+    private String engine;
+
+    private ClientService clientService;
+
+    private String[] idNumbers;
+
+    private final AtomicLong nextClient = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        clientService = new ClientService(BenchmarkData.repository(engine));
+        idNumbers = new String[storeSize];
+        for (int i = 0; i < storeSize; i++) {
+            Client client = clientService.createClient(BenchmarkData.client(i));
+            idNumbers[i] = client.getIdNumber();
+        }
+        nextClient.set(storeSize);
+    }
+
+    @Benchmark
+    public Client createClient() {
+        return clientService.createClient(BenchmarkData.client(nextClient.getAndIncrement()));
+    }
+
+    @Benchmark
+    public Client getClientById() {
+        return clientService.getClientById(randomIdNumber());
+    }
+
+    @Benchmark
+    public ClientPage searchClientsByFirstName() {
+        String firstName = BenchmarkData.firstName(ThreadLocalRandom.current().nextInt(storeSize));
+        return clientService.searchClients(new ClientSearchCriteria(firstName, null, null, null), null, 50);
+    }
+
+    @Benchmark
+    public ClientPage searchClientsByMobileNumber() {
+        String mobileNumber = BenchmarkData.mobileNumber(ThreadLocalRandom.current().nextInt(storeSize));
+        return clientService.searchClients(new ClientSearchCriteria(null, null, null, mobileNumber), null, 50);
+    }
+
+    @Benchmark
+    public ClientPage searchClientsByFirstAndLastName() {
+        int n = ThreadLocalRandom.current().nextInt(storeSize);
+        return clientService.searchClients(
+                new ClientSearchCriteria(BenchmarkData.firstName(n), "Last" + n, null, null), null, 50);
+    }
+
+    @Benchmark
+    public Client updateClient() {
+        int n = ThreadLocalRandom.current().nextInt(storeSize);
+        return clientService.updateClient(idNumbers[n], BenchmarkData.client(n).withPhysicalAddress("Updated " + n));
+    }
+
+    private String randomIdNumber() {
+        return idNumbers[ThreadLocalRandom.current().nextInt(storeSize)];
+    }
+}
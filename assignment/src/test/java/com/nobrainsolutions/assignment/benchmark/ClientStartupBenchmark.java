@@ -0,0 +1,148 @@
+package com.nobrainsolutions.assignment.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *
+ * The ClientStartupBenchmark class measures how long the application takes from process start until it
+ * serves its first successful POST /clients, and its resident set size at that moment.
+ * Each argument is name=command, a command line that starts the application; --server.port is appended.
+ * Every command is started startup.runs times in turn, each time in a fresh process that is stopped once
+ * measured, and the minimum, median and maximum of each measure are reported. The process is stopped with
+ * SIGTERM, so a JVM started with -XX:ArchiveClassesAtExit writes its class-data-sharing archive; the
+ * fast-startup build profile trains its archive this way.
+ * ./mvnw package -DskipTests
+ * ./mvnw -P fast-startup package test-compile exec:exec@startup-benchmark
+ * Settings (system properties): startup.runs, startup.port and startup.timeout. RSS is read from /proc
+ * and reported as 0 where that is not available.
+ */
+
+public final class ClientStartupBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(1))
+            .build();
+
+    private final int port;
+
+    private final Duration timeout;
+
+    private ClientStartupBenchmark(int port, Duration timeout) {
+        this.port = port;
+        this.timeout = timeout;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int runs = Integer.getInteger("startup.runs", 5);
+        int port = Integer.getInteger("startup.port", 9097);
+        Duration timeout = Duration.parse(System.getProperty("startup.timeout", "PT60S"));
+
+        ClientStartupBenchmark benchmark = new ClientStartupBenchmark(port, timeout);
+        List<String> names = new ArrayList<>();
+        List<List<String>> commands = new ArrayList<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator < 1) {
+                throw new IllegalArgumentException("Expected name=command, got " + arg);
+            }
+            names.add(arg.substring(0, separator));
+            List<String> command = new ArrayList<>(Arrays.asList(arg.substring(separator + 1).trim().split("\\s+")));
+            command.add("--server.port=" + port);
+            commands.add(command);
+        }
+
+        long[][] millis = new long[commands.size()][runs];
+        long[][] rss = new long[commands.size()][runs];
+        // Commands take turns, so drift in the machine's load affects each of them alike.
+        for (int run = 0; run < runs; run++) {
+            for (int i = 0; i < commands.size(); i++) {
+                long[] result = benchmark.measure(commands.get(i), run);
+                millis[i][run] = result[0];
+                rss[i][run] = result[1];
+                System.out.printf("%s run %d: %d ms, %d MB%n", names.get(i), run + 1, result[0], result[1] >> 20);
+            }
+        }
+
+        System.out.printf("%n%-20s %28s %28s%n", "", "first POST (ms) min/med/max", "RSS (MB) min/med/max");
+        for (int i = 0; i < commands.size(); i++) {
+            Arrays.sort(millis[i]);
+            Arrays.sort(rss[i]);
+            System.out.printf("%-20s %28s %28s%n", names.get(i),
+                    millis[i][0] + " / " + millis[i][runs / 2] + " / " + millis[i][runs - 1],
+                    (rss[i][0] >> 20) + " / " + (rss[i][runs / 2] >> 20) + " / " + (rss[i][runs - 1] >> 20));
+        }
+    }
+
+    /**
+     * Starts the application, waits for its first successful POST /clients, and stops it.
+     *
+     * @return The milliseconds until the POST succeeded and the resident set size in bytes then.
+     */
+    private long[] measure(List<String> command, int run) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/clients"))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(5))
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(BenchmarkData.client(run))))
+                .build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            long deadline = start + timeout.toNanos();
+            while (true) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Exited with " + process.exitValue() + ": " + String.join(" ", command));
+                }
+                if (System.nanoTime() - deadline > 0) {
+                    throw new IllegalStateException("No successful POST /clients within " + timeout + ": " + String.join(" ", command));
+                }
+                try {
+                    if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 201) {
+                        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                        return new long[]{elapsed, residentSetSize(process.pid())};
+                    }
+                } catch (IOException e) {
+                    // Not listening yet.
+                }
+                Thread.sleep(5);
+            }
+        } finally {
+            process.destroy();
+            if (!process.waitFor(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static long residentSetSize(long pid) throws IOException {
+        Path status = Path.of("/proc", Long.toString(pid), "status");
+        if (!Files.exists(status)) {
+            return 0;
+        }
+        for (String line : Files.readAllLines(status)) {
+            if (line.startsWith("VmRSS:")) {
+                return Long.parseLong(line.replaceAll("\\D", "")) * 1024;
+            }
+        }
+        return 0;
+    }
+}
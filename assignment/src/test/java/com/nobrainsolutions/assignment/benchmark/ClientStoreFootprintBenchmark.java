@@ -0,0 +1,106 @@
+package com.nobrainsolutions.assignment.benchmark;
+
+import com.nobrainsolutions.assignment.repository.ClientRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *
+ * The ClientStoreFootprintBenchmark class fills a repository of each storage engine with storeSize
+ * clients and reports, next to the fill time, the retained heap and off-heap bytes per client and the
+ * time the collector needs to trace the filled store.
+ * The extra figures are JMH secondary results: bytesPerClient, heapBytesPerClient, offHeapBytesPerClient,
+ * gcMillisDuringFill and fullGcMillis. Add -prof gc for allocation rates.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g", "-XX:MaxDirectMemorySize=8g"})
+public class ClientStoreFootprintBenchmark {
+
+    @Param({"1000000", "10000000"})
+    private int storeSize;
+
+    @Param({"heap", "compact"})
+    private String engine;
+
+    private ClientRepository clientRepository;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+
+        public double bytesPerClient;
+
+        public double heapBytesPerClient;
+
+        public double offHeapBytesPerClient;
+
+        public double gcMillisDuringFill;
+
+        public double fullGcMillis;
+    }
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        clientRepository = null;
+        System.gc();
+    }
+
+    @Benchmark
+    public int fill(Footprint footprint) {
+        long heapBefore = usedHeap();
+        long offHeapBefore = usedDirectMemory();
+        long gcBefore = gcMillis();
+
+        ClientRepository repository = BenchmarkData.repository(engine);
+        for (int i = 0; i < storeSize; i++) {
+            repository.save(BenchmarkData.client(i));
+        }
+        long gcAfterFill = gcMillis();
+
+        long fullGcStart = System.nanoTime();
+        System.gc();
+        long fullGcNanos = System.nanoTime() - fullGcStart;
+
+        long heapBytes = usedHeap() - heapBefore;
+        long offHeapBytes = usedDirectMemory() - offHeapBefore;
+        footprint.heapBytesPerClient = (double) heapBytes / storeSize;
+        footprint.offHeapBytesPerClient = (double) offHeapBytes / storeSize;
+        footprint.bytesPerClient = (double) (heapBytes + offHeapBytes) / storeSize;
+        footprint.gcMillisDuringFill = gcAfterFill - gcBefore;
+        footprint.fullGcMillis = fullGcNanos / 1_000_000.0;
+
+        clientRepository = repository;
+        return repository.size();
+    }
+
+    private static long usedHeap() {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static long usedDirectMemory() {
+        long used = 0;
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            if ("direct".equals(pool.getName())) {
+                used += pool.getMemoryUsed();
+            }
+        }
+        return used;
+    }
+
+    private static long gcMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            millis += Math.max(collector.getCollectionTime(), 0);
+        }
+        return millis;
+    }
+}
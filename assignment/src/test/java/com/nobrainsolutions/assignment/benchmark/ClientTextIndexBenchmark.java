@@ -0,0 +1,51 @@
+package com.nobrainsolutions.assignment.benchmark;
+
+import com.nobrainsolutions.assignment.entity.Client;
+import com.nobrainsolutions.assignment.repository.InMemoryClientRepository;
+import com.nobrainsolutions.assignment.search.ClientTextIndex;
+import com.nobrainsolutions.assignment.service.ClientService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *
+ * The ClientTextIndexBenchmark class measures top-10 prefix and fuzzy searches on stores of
+ * storeSize clients.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class ClientTextIndexBenchmark {
+
+    @Param({"100000", "1000000", "5000000"})
+    private int storeSize;
+
+    private ClientTextIndex clientTextIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        InMemoryClientRepository clientRepository = new InMemoryClientRepository();
+        clientTextIndex = new ClientTextIndex(clientRepository);
+        ClientService clientService = new ClientService(clientRepository, List.of(clientTextIndex));
+        for (int i = 0; i < storeSize; i++) {
+            clientService.createClient(BenchmarkData.client(i));
+        }
+    }
+
+    @Benchmark
+    public List<Client> searchByPrefix() {
+        return clientTextIndex.searchByPrefix("first" + ThreadLocalRandom.current().nextInt(100), 10);
+    }
+
+    @Benchmark
+    public List<Client> searchFuzzy() {
+        return clientTextIndex.searchFuzzy("frst" + ThreadLocalRandom.current().nextInt(BenchmarkData.FIRST_NAMES), 1, 10);
+    }
+}
@@ -0,0 +1,111 @@
+package com.nobrainsolutions.assignment.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nobrainsolutions.assignment.codec.ClientBinaryHttpMessageConverter;
+import com.nobrainsolutions.assignment.entity.Client;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *
+ * The ClientWireFormatBenchmark class compares the JSON and binary encodings of a Client through the
+ * HttpMessageConverters ClientController uses, so the cost includes what Spring MVC pays per request body.
+ * The bytes per record of each format are printed once per trial.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClientWireFormatBenchmark {
+
+    @Param({"json", "binary"})
+    private String format;
+
+    private HttpMessageConverter<Object> converter;
+
+    private Client client;
+
+    private byte[] body;
+
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(512);
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() throws IOException {
+        converter = (HttpMessageConverter<Object>) (HttpMessageConverter<?>) ("binary".equals(format)
+                ? new ClientBinaryHttpMessageConverter()
+                : new MappingJackson2HttpMessageConverter(new ObjectMapper()));
+        client = BenchmarkData.client(42).withVersion(7);
+        body = serializeClient();
+
+        int total = 0;
+        for (int i = 0; i < 10_000; i++) {
+            client = BenchmarkData.client(i);
+            total += serializeClient().length;
+        }
+        client = BenchmarkData.client(42).withVersion(7);
+        System.out.printf("%n%s: %.1f bytes per client%n", format, total / 10_000.0);
+    }
+
+    @Benchmark
+    public byte[] serializeClient() throws IOException {
+        buffer.reset();
+        converter.write(client, null, new Output());
+        return buffer.toByteArray();
+    }
+
+    @Benchmark
+    public Object deserializeClient() throws IOException {
+        return converter.read(Client.class, new Input(body));
+    }
+
+    private final class Output implements HttpOutputMessage {
+
+        private final HttpHeaders headers = new HttpHeaders();
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public OutputStream getBody() {
+            return buffer;
+        }
+    }
+
+    private static final class Input implements HttpInputMessage {
+
+        private final HttpHeaders headers = new HttpHeaders();
+
+        private final InputStream body;
+
+        private Input(byte[] body) {
+            this.body = new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public InputStream getBody() {
+            return body;
+        }
+    }
+}
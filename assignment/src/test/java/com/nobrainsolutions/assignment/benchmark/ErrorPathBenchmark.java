@@ -0,0 +1,117 @@
+package com.nobrainsolutions.assignment.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nobrainsolutions.assignment.entity.Client;
+import com.nobrainsolutions.assignment.exception.ClientException;
+import com.nobrainsolutions.assignment.exception.Constants;
+import com.nobrainsolutions.assignment.exception.ErrorResponse;
+import com.nobrainsolutions.assignment.exception.GlobalExceptionHandler;
+import com.nobrainsolutions.assignment.metrics.ClientMetrics;
+import com.nobrainsolutions.assignment.repository.InMemoryClientRepository;
+import com.nobrainsolutions.assignment.service.ClientService;
+import com.nobrainsolutions.assignment.validation.SaIdNumber;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ *
+ * The ErrorPathBenchmark class compares the cost of rejecting a create with an invalid ID number
+ * the way ClientService and GlobalExceptionHandler used to, with a stack-trace-capturing
+ * IllegalArgumentException, message comparisons, per-request timestamp formatting and serialization,
+ * with the ClientException path, and with a successful create for reference.
+ * Each call runs stackDepth frames deep, because a stack trace costs in proportion to the depth
+ * of the request thread, which is well over a hundred frames under Tomcat and Spring MVC.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ErrorPathBenchmark {
+
+    @Param({"20", "150"})
+    private int stackDepth;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Client invalidClient = new Client("Vishal", "Nagdev", "9284121655", "8001015009080", "Pune");
+
+    private ClientService clientService;
+
+    private GlobalExceptionHandler globalExceptionHandler;
+
+    private long nextClient;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        clientService = new ClientService(new InMemoryClientRepository());
+        globalExceptionHandler = new GlobalExceptionHandler();
+        ReflectionTestUtils.setField(globalExceptionHandler, "clientMetrics", ClientMetrics.disabled());
+        ReflectionTestUtils.setField(globalExceptionHandler, "objectMapper", objectMapper);
+    }
+
+    @Benchmark
+    public Object legacyInvalidIdNumber() {
+        return atDepth(stackDepth, () -> {
+            try {
+                if (!SaIdNumber.isValid(invalidClient.getIdNumber())) {
+                    throw new IllegalArgumentException(Constants.INVALID_ID_NUMBER);
+                }
+                return clientService.createClient(invalidClient);
+            } catch (IllegalArgumentException ex) {
+                return legacyHandler(ex);
+            }
+        });
+    }
+
+    @Benchmark
+    public Object invalidIdNumber() {
+        return atDepth(stackDepth, () -> {
+            try {
+                return clientService.createClient(invalidClient);
+            } catch (ClientException ex) {
+                return globalExceptionHandler.handleClientException(ex);
+            }
+        });
+    }
+
+    @Benchmark
+    public Object createClient() {
+        return atDepth(stackDepth, () -> clientService.createClient(BenchmarkData.client(nextClient++)));
+    }
+
+    /**
+     * The former GlobalExceptionHandler.handleIllegalArgumentException, followed by the JSON
+     * conversion the message converter performed on its result.
+     */
+    private byte[] legacyHandler(IllegalArgumentException ex) {
+        ErrorResponse errorResponse = new ErrorResponse();
+        if (ex.getMessage().equals("Invalid South African ID Number")
+                || ex.getMessage().equals(Constants.NO_SEARCH_CRITERIA_PROVIDED)
+                || ex.getMessage().equals(Constants.INVALID_SEARCH_CURSOR)
+                || ex.getMessage().equals(Constants.FIELD_TOO_LONG)) {
+            errorResponse.setTimestamp(LocalDateTime.now().format(DateTimeFormatter.ISO_DATE_TIME));
+            errorResponse.setStatus(HttpStatus.BAD_REQUEST.value());
+            errorResponse.setError(HttpStatus.BAD_REQUEST.getReasonPhrase());
+            errorResponse.setMessage(ex.getMessage());
+        }
+        try {
+            return objectMapper.writeValueAsBytes(new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST).getBody());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Object atDepth(int depth, Supplier<Object> call) {
+        return depth == 0 ? call.get() : atDepth(depth - 1, call);
+    }
+}
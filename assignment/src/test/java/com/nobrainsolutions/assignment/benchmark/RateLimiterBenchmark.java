@@ -0,0 +1,54 @@
+package com.nobrainsolutions.assignment.benchmark;
+
+import com.nobrainsolutions.assignment.metrics.ClientMetrics;
+import com.nobrainsolutions.assignment.ratelimit.ClientRateLimiter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ *
+ * The RateLimiterBenchmark class measures what the ClientRateLimiter adds to an admitted request:
+ * a bucket lookup for the caller and a compareAndSet on its bucket and on the global bucket.
+ * Limits are set high enough that every request is admitted, and the map has room for every caller;
+ * with several threads the global bucket is the one contended location.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimiterBenchmark {
+
+    @Param({"100", "100000"})
+    private int callers;
+
+    private ClientRateLimiter clientRateLimiter;
+
+    private String[] keys;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        clientRateLimiter = new ClientRateLimiter(1e9, 1_000_000_000, 1e9, 1_000_000_000, 2 * callers,
+                ClientMetrics.disabled());
+        keys = new String[callers];
+        for (int i = 0; i < callers; i++) {
+            keys[i] = "ip:10." + (i >> 16) + "." + ((i >> 8) & 255) + "." + (i & 255);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long tryAcquire() {
+        return clientRateLimiter.tryAcquire(keys[ThreadLocalRandom.current().nextInt(callers)]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long tryAcquireContended() {
+        return clientRateLimiter.tryAcquire(keys[ThreadLocalRandom.current().nextInt(callers)]);
+    }
+}
@@ -0,0 +1,38 @@
+package com.nobrainsolutions.assignment.benchmark;
+
+import com.nobrainsolutions.assignment.validation.SaIdNumber;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ *
+ * The SaIdNumberBenchmark class compares the regex-based ID number check that ClientService
+ * used to run on every create and update with the single-pass SaIdNumber validator.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SaIdNumberBenchmark {
+
+    @Param({"8001015009087", "8001015009080", "80010150O9087"})
+    private String idNumber;
+
+    @Benchmark
+    public boolean regexValidation() {
+        if (idNumber.length() != 13 || !idNumber.matches("\\d{13}")) {
+            return false;
+        }
+        char twelfthDigit = idNumber.charAt(11);
+        return twelfthDigit == '8' || twelfthDigit == '9';
+    }
+
+    @Benchmark
+    public boolean saIdNumberValidation() {
+        return SaIdNumber.isValid(idNumber);
+    }
+}
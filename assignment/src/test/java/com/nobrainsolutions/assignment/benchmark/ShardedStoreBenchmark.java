@@ -0,0 +1,76 @@
+package com.nobrainsolutions.assignment.benchmark;
+
+import com.nobrainsolutions.assignment.dto.ClientPage;
+import com.nobrainsolutions.assignment.dto.ClientSearchCriteria;
+import com.nobrainsolutions.assignment.entity.Client;
+import com.nobrainsolutions.assignment.service.ClientService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ *
+ * The ShardedStoreBenchmark class measures how a ClientService scales with threads for a single store
+ * and for one split into shards, on a mix of writes and reads over storeSize clients.
+ * Run it once per thread count and compare the throughput per shards value, e.g.
+ * for t in 1 2 4 8 16 32 64; do java -jar benchmarks.jar ShardedStoreBenchmark -t $t; done
+ * Scaling stops at the number of cores of the machine, so the thread counts above it show contention, not speed-up.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class ShardedStoreBenchmark {
+
+    @Param({"1000000"})
+    private int storeSize;
+
+    @Param({"heap", "compact"})
+    private String engine;
+
+    @Param({"1", "16", "64"})
+    private int shards;
+
+    private ClientService clientService;
+
+    private String[] idNumbers;
+
+    private final AtomicLong nextClient = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        clientService = new ClientService(BenchmarkData.repository(engine, shards));
+        idNumbers = new String[storeSize];
+        for (int i = 0; i < storeSize; i++) {
+            idNumbers[i] = clientService.createClient(BenchmarkData.client(i)).getIdNumber();
+        }
+        nextClient.set(storeSize);
+    }
+
+    @Benchmark
+    public Client createClient() {
+        return clientService.createClient(BenchmarkData.client(nextClient.getAndIncrement()));
+    }
+
+    @Benchmark
+    public Client updateClient() {
+        int n = ThreadLocalRandom.current().nextInt(storeSize);
+        return clientService.updateClient(idNumbers[n], BenchmarkData.client(n).withPhysicalAddress("Updated " + n));
+    }
+
+    @Benchmark
+    public Client getClientById() {
+        return clientService.getClientById(idNumbers[ThreadLocalRandom.current().nextInt(storeSize)]);
+    }
+
+    @Benchmark
+    public ClientPage searchClientsByFirstName() {
+        String firstName = BenchmarkData.firstName(ThreadLocalRandom.current().nextInt(storeSize));
+        return clientService.searchClients(new ClientSearchCriteria(firstName, null, null, null), null, 50);
+    }
+}
@@ -0,0 +1,129 @@
+package com.nobrainsolutions.assignment.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nobrainsolutions.assignment.entity.Client;
+import com.nobrainsolutions.assignment.exception.ClientException;
+import com.nobrainsolutions.assignment.exception.ErrorCode;
+import com.nobrainsolutions.assignment.repository.InMemoryClientRepository;
+import com.nobrainsolutions.assignment.service.ClientService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * The ClientResponseCacheTest class is responsible for testing the ClientResponseCache class.
+ * It contains test cases for hits, invalidation on update, expiry, the size bound and If-Match resolution.
+ */
+
+public class ClientResponseCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final AtomicLong now = new AtomicLong();
+
+    private ClientResponseCache clientResponseCache;
+
+    private ClientService clientService;
+
+    @BeforeEach
+    void setUp() {
+        clientResponseCache = new ClientResponseCache(objectMapper, 2, Duration.ofSeconds(60), now::get);
+        clientService = new ClientService(new InMemoryClientRepository(), List.of(clientResponseCache));
+        clientService.createClient(new Client("Vishal", "Nagdev", "9284121655", "8001015009087", "Pune"));
+        clientService.createClient(new Client("John", "Smith", "0820000001", "8001015009095", "Cape Town"));
+        clientService.createClient(new Client("Jane", "Smith", "0820000002", "9912314999084", "Durban"));
+    }
+
+    @Test
+    void hitReturnsSerializedClientTest() throws IOException {
+        AtomicInteger loads = new AtomicInteger();
+
+        ClientResponseCache.CachedClient first = clientResponseCache.get("8001015009087", idNumber -> {
+            loads.incrementAndGet();
+            return clientService.getClientById(idNumber);
+        });
+        ClientResponseCache.CachedClient second = clientResponseCache.get("8001015009087", idNumber -> {
+            loads.incrementAndGet();
+            return clientService.getClientById(idNumber);
+        });
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals("Pune", objectMapper.readValue(first.getBody(), Client.class).getPhysicalAddress());
+        assertTrue(first.getEtag().matches("\"[0-9a-f]{32}\""));
+        assertEquals(1, clientResponseCache.hitCount());
+        assertEquals(1, clientResponseCache.missCount());
+    }
+
+    @Test
+    void updateInvalidatesTest() throws IOException {
+        ClientResponseCache.CachedClient before = clientResponseCache.get("8001015009087", clientService::getClientById);
+
+        clientService.updateClient("8001015009087",
+                new Client("Vishal", "Nagdev", "9284121655", "8001015009087", "Johannesburg"));
+        ClientResponseCache.CachedClient after = clientResponseCache.get("8001015009087", clientService::getClientById);
+
+        assertNotEquals(before.getEtag(), after.getEtag());
+        assertEquals("Johannesburg", objectMapper.readValue(after.getBody(), Client.class).getPhysicalAddress());
+    }
+
+    @Test
+    void idNumberChangeInvalidatesTest() {
+        clientResponseCache.get("8001015009087", clientService::getClientById);
+
+        clientService.updateClient("8001015009087",
+                new Client("Vishal", "Nagdev", "9284121655", "8001015009186", "Pune"));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> clientResponseCache.get("8001015009087", clientService::getClientById));
+        assertEquals(0, clientResponseCache.size());
+    }
+
+    @Test
+    void entriesExpireTest() {
+        ClientResponseCache.CachedClient before = clientResponseCache.get("8001015009087", clientService::getClientById);
+
+        now.addAndGet(Duration.ofSeconds(59).toNanos());
+        assertSame(before, clientResponseCache.get("8001015009087", clientService::getClientById));
+
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertNotSame(before, clientResponseCache.get("8001015009087", clientService::getClientById));
+    }
+
+    @Test
+    void evictsUnreferencedEntriesFirstTest() {
+        ClientResponseCache.CachedClient vishal = clientResponseCache.get("8001015009087", clientService::getClientById);
+        clientResponseCache.get("8001015009095", clientService::getClientById);
+        clientResponseCache.get("8001015009087", clientService::getClientById);
+
+        clientResponseCache.get("9912314999084", clientService::getClientById);
+
+        assertEquals(2, clientResponseCache.size());
+        assertSame(vishal, clientResponseCache.get("8001015009087", clientService::getClientById));
+    }
+
+    @Test
+    void expectedVersionTest() {
+        String etag = clientResponseCache.get("8001015009087", clientService::getClientById).getEtag();
+
+        assertEquals(ClientService.ANY_VERSION, clientResponseCache.expectedVersion("8001015009087", null, clientService::getClientById));
+        assertEquals(ClientService.ANY_VERSION, clientResponseCache.expectedVersion("8001015009087", "*", clientService::getClientById));
+        assertEquals(1, clientResponseCache.expectedVersion("8001015009087", "\"other\", " + etag, clientService::getClientById));
+        assertEquals(ErrorCode.VERSION_CONFLICT, assertThrows(ClientException.class,
+                () -> clientResponseCache.expectedVersion("8001015009087", "W/" + etag, clientService::getClientById)).getErrorCode());
+
+        clientService.updateClient("8001015009087",
+                new Client("Vishal", "Nagdev", "9284121655", "8001015009087", "Johannesburg"));
+
+        assertEquals(ErrorCode.VERSION_CONFLICT, assertThrows(ClientException.class,
+                () -> clientResponseCache.expectedVersion("8001015009087", etag, clientService::getClientById)).getErrorCode());
+    }
+}
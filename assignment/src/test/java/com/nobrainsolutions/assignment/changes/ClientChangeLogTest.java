@@ -0,0 +1,103 @@
+package com.nobrainsolutions.assignment.changes;
+
+import com.nobrainsolutions.assignment.dto.ClientChangeEvent;
+import com.nobrainsolutions.assignment.entity.Client;
+import com.nobrainsolutions.assignment.exception.ClientException;
+import com.nobrainsolutions.assignment.exception.ErrorCode;
+import com.nobrainsolutions.assignment.repository.InMemoryClientRepository;
+import com.nobrainsolutions.assignment.service.ClientService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * The ClientChangeLogTest class is responsible for testing the ClientChangeLog class.
+ * It contains test cases for event order, resuming from an offset, and offsets that are no longer held.
+ */
+
+public class ClientChangeLogTest {
+
+    private final AtomicLong now = new AtomicLong(1_700_000_000_000L);
+
+    private ClientChangeLog clientChangeLog;
+
+    private ClientService clientService;
+
+    @BeforeEach
+    void setUp() {
+        clientChangeLog = new ClientChangeLog(4, now::get);
+        clientService = new ClientService(new InMemoryClientRepository(), List.of(clientChangeLog));
+    }
+
+    @Test
+    void eventsInCommitOrderTest() {
+        ClientChangeLog.Cursor cursor = clientChangeLog.cursor(null);
+
+        clientService.createClient(new Client("Vishal", "Nagdev", "9284121655", "8001015009087", "Pune"));
+        now.incrementAndGet();
+        clientService.updateClient("8001015009087",
+                new Client("Vishal", "Nagdev", "9284121655", "8001015009095", "Cape Town"));
+
+        List<ClientChangeEvent> events = cursor.poll(10);
+
+        assertEquals(2, events.size());
+        assertEquals(ClientChangeEvent.Type.CREATED, events.get(0).getType());
+        assertNull(events.get(0).getPreviousIdNumber());
+        assertEquals(ClientChangeEvent.Type.UPDATED, events.get(1).getType());
+        assertEquals("8001015009087", events.get(1).getPreviousIdNumber());
+        assertEquals("Cape Town", events.get(1).getClient().getPhysicalAddress());
+        assertEquals(events.get(0).getSequence() + 1, events.get(1).getSequence());
+        assertEquals(events.get(0).getTimestamp() + 1, events.get(1).getTimestamp());
+        assertEquals(events.get(1).getSequence(), cursor.position());
+        assertTrue(cursor.poll(10).isEmpty());
+    }
+
+    @Test
+    void resumeAfterOffsetTest() {
+        clientService.createClient(new Client("Vishal", "Nagdev", "9284121655", "8001015009087", "Pune"));
+        long offset = clientChangeLog.lastSequence();
+        clientService.createClient(new Client("John", "Smith", "0820000001", "8001015009095", "Cape Town"));
+        clientService.createClient(new Client("Jane", "Smith", "0820000002", "9912314999084", "Durban"));
+
+        ClientChangeLog.Cursor cursor = clientChangeLog.cursor(offset);
+
+        assertEquals("8001015009095", cursor.poll(1).get(0).getClient().getIdNumber());
+        assertEquals("9912314999084", cursor.poll(1).get(0).getClient().getIdNumber());
+        assertTrue(cursor.poll(1).isEmpty());
+    }
+
+    @Test
+    void overwrittenOffsetIsUnavailableTest() {
+        clientService.createClient(new Client("Vishal", "Nagdev", null, "8001015009087", "Pune"));
+        ClientChangeLog.Cursor cursor = clientChangeLog.cursor(null);
+        long offset = clientChangeLog.lastSequence();
+        for (int i = 0; i < 5; i++) {
+            clientService.updateClient("8001015009087", new Client("Vishal", "Nagdev", null, "8001015009087", "Pune " + i));
+        }
+
+        assertEquals(ErrorCode.CHANGE_OFFSET_UNAVAILABLE,
+                assertThrows(ClientException.class, () -> clientChangeLog.cursor(offset)).getErrorCode());
+        assertEquals(ErrorCode.CHANGE_OFFSET_UNAVAILABLE,
+                assertThrows(ClientException.class, () -> cursor.poll(10)).getErrorCode());
+        assertEquals(4, clientChangeLog.cursor(clientChangeLog.lastSequence() - 4).poll(10).size());
+    }
+
+    @Test
+    void offsetFromEarlierRunIsUnavailableTest() {
+        clientService.createClient(new Client("Vishal", "Nagdev", "9284121655", "8001015009087", "Pune"));
+        long offset = clientChangeLog.lastSequence();
+
+        now.addAndGet(1000);
+        ClientChangeLog restarted = new ClientChangeLog(4, now::get);
+
+        assertEquals(ErrorCode.CHANGE_OFFSET_UNAVAILABLE,
+                assertThrows(ClientException.class, () -> restarted.cursor(offset)).getErrorCode());
+        assertEquals(ErrorCode.CHANGE_OFFSET_UNAVAILABLE,
+                assertThrows(ClientException.class, () -> clientChangeLog.cursor(offset + 1)).getErrorCode());
+    }
+}
@@ -0,0 +1,100 @@
+package com.nobrainsolutions.assignment.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nobrainsolutions.assignment.benchmark.BenchmarkData;
+import com.nobrainsolutions.assignment.entity.Client;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * The ClientBinaryHttpMessageConverterTest class is responsible for testing the ClientBinaryHttpMessageConverter class.
+ * It contains test cases for reading and writing clients, validating what was read, rejecting malformed
+ * bodies, and the size of the encoding compared to JSON.
+ */
+
+public class ClientBinaryHttpMessageConverterTest {
+
+    private final ClientBinaryHttpMessageConverter converter = new ClientBinaryHttpMessageConverter();
+
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Test
+    void writeAndReadClientTest() throws IOException {
+
+        Client client = new Client("Vishal", "Nagdev", null, "8001015009087", "12 Main Road, Pune").withVersion(3);
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+
+        converter.write(client, ClientBinaryHttpMessageConverter.MEDIA_TYPE, output);
+
+        assertEquals(ClientBinaryHttpMessageConverter.MEDIA_TYPE, output.getHeaders().getContentType());
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(output.getBodyAsBytes()));
+        Client written = ClientBinaryCodec.read(in);
+        assertEquals(3, in.readLong());
+        assertEquals(0, in.available());
+        assertNull(written.getMobileNumber());
+        assertEquals("12 Main Road, Pune", written.getPhysicalAddress());
+
+        for (byte[] body : new byte[][]{output.getBodyAsBytes(), encode(client)}) {
+            Client read = converter.read(Client.class, new MockHttpInputMessage(body));
+
+            assertEquals("8001015009087", read.getIdNumber());
+            assertEquals(0, read.getVersion());
+            assertTrue(validator.validate(read).isEmpty());
+        }
+    }
+
+    @Test
+    void blankFieldFailsValidationTest() throws IOException {
+
+        Client read = converter.read(Client.class,
+                new MockHttpInputMessage(encode(new Client(" ", "Nagdev", null, "8001015009087", null))));
+
+        assertEquals(1, validator.validate(read).size());
+    }
+
+    @Test
+    void malformedBodyTest() throws IOException {
+
+        byte[] body = encode(BenchmarkData.client(1));
+        byte[] truncated = Arrays.copyOf(body, body.length - 1);
+        byte[] trailing = Arrays.copyOf(body, body.length + Long.BYTES + 1);
+        byte[] oversized = {0x7f, (byte) 0xff, (byte) 0xff, (byte) 0xff};
+
+        for (byte[] malformed : new byte[][]{truncated, trailing, oversized}) {
+            assertThrows(HttpMessageNotReadableException.class,
+                    () -> converter.read(Client.class, new MockHttpInputMessage(malformed)));
+        }
+    }
+
+    @Test
+    void binaryIsSmallerThanJsonTest() throws IOException {
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        for (int i = 0; i < 100; i++) {
+            Client client = BenchmarkData.client(i);
+            MockHttpOutputMessage output = new MockHttpOutputMessage();
+            converter.write(client, ClientBinaryHttpMessageConverter.MEDIA_TYPE, output);
+            assertTrue(output.getBodyAsBytes().length < objectMapper.writeValueAsBytes(client).length);
+        }
+    }
+
+    private static byte[] encode(Client client) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ClientBinaryCodec.write(new DataOutputStream(bytes), client);
+        return bytes.toByteArray();
+    }
+}
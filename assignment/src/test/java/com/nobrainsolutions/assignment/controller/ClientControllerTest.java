@@ -1,17 +1,35 @@
 package com.nobrainsolutions.assignment.controller;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nobrainsolutions.assignment.cache.ClientResponseCache;
+import com.nobrainsolutions.assignment.dto.BulkImportResult;
+import com.nobrainsolutions.assignment.dto.ClientPage;
+import com.nobrainsolutions.assignment.dto.ClientSearchCriteria;
 import com.nobrainsolutions.assignment.entity.Client;
+import com.nobrainsolutions.assignment.exception.ClientException;
+import com.nobrainsolutions.assignment.exception.ErrorCode;
+import com.nobrainsolutions.assignment.search.ClientTextIndex;
+import com.nobrainsolutions.assignment.service.ClientImportService;
 import com.nobrainsolutions.assignment.service.ClientService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
-import java.util.Optional;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 
@@ -26,6 +44,15 @@ public class ClientControllerTest {
     @Mock
     private ClientService clientService;
 
+    @Mock
+    private ClientImportService clientImportService;
+
+    @Mock
+    private ClientTextIndex clientTextIndex;
+
+    @Spy
+    private ClientResponseCache clientResponseCache = new ClientResponseCache(new ObjectMapper(), 100, Duration.ofMinutes(5));
+
     @InjectMocks
     private ClientController clientController;
 
@@ -49,32 +76,57 @@ public class ClientControllerTest {
     }
 
     @Test
-    void getClientByIdTest() {
+    void getClientByIdTest() throws IOException {
 
         String idNumber = "ID123";
         Client client = new Client("Vishal", "Nagdev", "9284121655", "7878", "Pune");
         when(clientService.getClientById(idNumber)).thenReturn(client);
 
-        ResponseEntity<Client> response = clientController.getClientById(idNumber);
+        ResponseEntity<byte[]> response = clientController.getClientById(idNumber);
+        ResponseEntity<byte[]> cachedResponse = clientController.getClientById(idNumber);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertEquals(client, response.getBody());
+        assertEquals("Pune", new ObjectMapper().readValue(response.getBody(), Client.class).getPhysicalAddress());
+        assertNotNull(response.getHeaders().getETag());
+        assertEquals(response.getHeaders().getETag(), cachedResponse.getHeaders().getETag());
         verify(clientService, times(1)).getClientById(idNumber);
     }
 
     @Test
-    void updateClientTest() {
+    void updateClientTest() throws IOException {
 
         String idNumber = "ID123";
         Client client = new Client("Vishal", "Nagdev", "9284121655", "7878", "Pune");
         Client updatedClient = new Client("Vishal", "Nagdev", "9284121655", "7878", "South Africa");
-        when(clientService.updateClient(idNumber, client)).thenReturn(updatedClient);
+        when(clientService.updateClient(idNumber, client, ClientService.ANY_VERSION)).thenReturn(updatedClient);
 
-        ResponseEntity<Client> response = clientController.updateClient(idNumber, client);
+        ResponseEntity<byte[]> response = clientController.updateClient(idNumber, null, client);
+        when(clientService.getClientById(idNumber)).thenReturn(updatedClient);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertEquals(updatedClient, response.getBody());
-        verify(clientService, times(1)).updateClient(idNumber, client);
+        assertEquals("South Africa", new ObjectMapper().readValue(response.getBody(), Client.class).getPhysicalAddress());
+        assertNotNull(response.getHeaders().getETag());
+        assertEquals(clientController.getClientById(idNumber).getHeaders().getETag(), response.getHeaders().getETag());
+        verify(clientService, times(1)).updateClient(idNumber, client, ClientService.ANY_VERSION);
+    }
+
+    @Test
+    void updateClientIfMatchTest() {
+
+        String idNumber = "ID123";
+        Client client = new Client("Vishal", "Nagdev", "9284121655", "7878", "Pune");
+        Client current = new Client("Vishal", "Nagdev", "9284121655", "7878", "Pune", 3);
+        when(clientService.getClientById(idNumber)).thenReturn(current);
+        when(clientService.updateClient(idNumber, client, 3)).thenReturn(client);
+        String etag = clientController.getClientById(idNumber).getHeaders().getETag();
+
+        ResponseEntity<byte[]> response = clientController.updateClient(idNumber, etag, client);
+        ClientException ex = assertThrows(ClientException.class,
+                () -> clientController.updateClient(idNumber, "\"stale\"", client));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(ErrorCode.VERSION_CONFLICT, ex.getErrorCode());
+        verify(clientService, times(1)).updateClient(idNumber, client, 3);
     }
 
     @Test
@@ -84,14 +136,63 @@ public class ClientControllerTest {
         String idNumber = "7878";
         String mobileNumber = "9284121655";
         Client client = new Client(firstName, "Nagdev", mobileNumber, idNumber, "Pune");
-        when(clientService.searchClient(firstName, idNumber, mobileNumber)).thenReturn(Optional.of(client));
+        ClientPage page = new ClientPage(List.of(client), null);
+        when(clientService.searchClients(any(ClientSearchCriteria.class), isNull(), eq(50))).thenReturn(page);
 
-        ResponseEntity<Client> response = clientController.searchClient(firstName, idNumber, mobileNumber);
+        ResponseEntity<ClientPage> response = clientController.searchClients(firstName, null, idNumber, mobileNumber, null, 50);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertEquals(client, response.getBody());
-        verify(clientService, times(1)).searchClient(firstName, idNumber, mobileNumber);
+        assertEquals(page, response.getBody());
+        verify(clientService, times(1)).searchClients(any(ClientSearchCriteria.class), isNull(), eq(50));
     }
 
-}
+    @Test
+    void searchClientWithoutCriteriaTest() {
+
+        ResponseEntity<ClientPage> response = clientController.searchClients(null, null, null, null, null, 50);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        verifyNoInteractions(clientService);
+    }
 
+    @Test
+    void importClientsJsonTest() throws Exception {
+
+        InputStream body = new ByteArrayInputStream("[]".getBytes());
+        BulkImportResult result = new BulkImportResult();
+        when(clientImportService.importJson(body)).thenReturn(result);
+
+        ResponseEntity<BulkImportResult> response = clientController.importClientsJson(body);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(result, response.getBody());
+        verify(clientImportService, times(1)).importJson(body);
+    }
+
+    @Test
+    void acceptsGzipTest() {
+
+        assertTrue(ClientController.acceptsGzip("gzip"));
+        assertTrue(ClientController.acceptsGzip("deflate, GZIP;q=0.5"));
+        assertTrue(ClientController.acceptsGzip("br;q=1.0, *;q=0.1"));
+        assertFalse(ClientController.acceptsGzip(null));
+        assertFalse(ClientController.acceptsGzip("identity"));
+        assertFalse(ClientController.acceptsGzip("gzip;q=0"));
+        assertFalse(ClientController.acceptsGzip("*, gzip;q=0.000"));
+        assertFalse(ClientController.acceptsGzip("x-notgzip, gzipped"));
+    }
+
+    @Test
+    void searchClientsByPrefixTest() {
+
+        Client client = new Client("Vishal", "Nagdev", "9284121655", "7878", "Pune");
+        when(clientTextIndex.searchByPrefix("vis", 10)).thenReturn(List.of(client));
+
+        ResponseEntity<List<Client>> response = clientController.searchClientsByPrefix("vis", 10);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(List.of(client), response.getBody());
+        verify(clientTextIndex, times(1)).searchByPrefix("vis", 10);
+    }
+
+}
@@ -0,0 +1,111 @@
+package com.nobrainsolutions.assignment.controller;
+
+import com.nobrainsolutions.assignment.changes.ClientChangeLog;
+import com.nobrainsolutions.assignment.service.ClientExportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ *
+ * The ClientStreamingTest class is responsible for testing the streamed exports and snapshots of ClientController
+ * against a running server.
+ * Tomcat's default async timeout is lowered to one second, so a response that streams for longer shows
+ * that the application's own request timeout is in force.
+ */
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class ClientStreamingTest {
+
+    private static final long TOMCAT_ASYNC_TIMEOUT = 1000;
+
+    private static final int LINES = 1000;
+
+    @LocalServerPort
+    private int port;
+
+    @MockBean
+    private ClientExportService clientExportService;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @TestConfiguration
+    static class ShortTomcatAsyncTimeout {
+
+        @Bean
+        WebServerFactoryCustomizer<TomcatServletWebServerFactory> shortAsyncTimeout() {
+            return factory -> factory.addConnectorCustomizers(connector -> connector.setAsyncTimeout(TOMCAT_ASYNC_TIMEOUT));
+        }
+    }
+
+    @Test
+    void exportOutlastsTomcatAsyncTimeoutTest() throws Exception {
+
+        exportSlowly();
+
+        HttpResponse<String> response = get("/clients/export");
+
+        assertEquals(200, response.statusCode());
+        assertEquals(LINES, response.body().lines().count());
+        assertTrue(response.body().endsWith("{\"line\":" + (LINES - 1) + "}\n"));
+    }
+
+    @Test
+    void snapshotOutlastsTomcatAsyncTimeoutTest() throws Exception {
+
+        exportSlowly();
+
+        // A follower that got a cut-off snapshot would drop every client missing from it.
+        HttpResponse<String> response = get("/clients/snapshot");
+
+        assertEquals(200, response.statusCode());
+        assertTrue(response.headers().firstValueAsLong(ClientChangeLog.SEQUENCE_HEADER).isPresent());
+        assertEquals(LINES, response.body().lines().count());
+        assertTrue(response.body().endsWith("{\"line\":" + (LINES - 1) + "}\n"));
+    }
+
+    /**
+     * Makes every export write one line, wait for three times Tomcat's async timeout, then write the rest;
+     * a response cut off by the timeout loses some of them.
+     */
+    private void exportSlowly() throws IOException {
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(1);
+            for (int i = 0; i < LINES; i++) {
+                out.write(("{\"line\":" + i + "}\n").getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                if (i == 0) {
+                    Thread.sleep(3 * TOMCAT_ASYNC_TIMEOUT);
+                }
+            }
+            return (long) LINES;
+        }).when(clientExportService).export(any(), any());
+    }
+
+    private HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Accept", MediaType.APPLICATION_NDJSON_VALUE)
+                .GET()
+                .build();
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
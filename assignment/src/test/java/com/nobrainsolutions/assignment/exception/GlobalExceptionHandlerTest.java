@@ -0,0 +1,67 @@
+package com.nobrainsolutions.assignment.exception;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nobrainsolutions.assignment.metrics.ClientMetrics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * The GlobalExceptionHandlerTest class is responsible for testing the GlobalExceptionHandler class.
+ * It contains test cases for the status and body of every ErrorCode and for stack-trace-free ClientExceptions.
+ */
+
+public class GlobalExceptionHandlerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private GlobalExceptionHandler globalExceptionHandler;
+
+    @BeforeEach
+    void setUp() {
+        globalExceptionHandler = new GlobalExceptionHandler();
+        ReflectionTestUtils.setField(globalExceptionHandler, "clientMetrics", ClientMetrics.disabled());
+        ReflectionTestUtils.setField(globalExceptionHandler, "objectMapper", objectMapper);
+    }
+
+    @Test
+    void handleClientExceptionTest() throws IOException {
+        for (ErrorCode errorCode : ErrorCode.values()) {
+            ResponseEntity<byte[]> response = globalExceptionHandler.handleClientException(new ClientException(errorCode));
+
+            ErrorResponse errorResponse = objectMapper.readValue(response.getBody(), ErrorResponse.class);
+            assertEquals(errorCode.getStatus(), response.getStatusCode());
+            assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+            assertEquals(errorCode.getStatus().value(), errorResponse.getStatus());
+            assertEquals(errorCode.getStatus().getReasonPhrase(), errorResponse.getError());
+            assertEquals(errorCode.getMessage(), errorResponse.getMessage());
+            assertNotNull(errorResponse.getTimestamp());
+        }
+    }
+
+    @Test
+    void errorCodeStatusTest() {
+        assertEquals(HttpStatus.BAD_REQUEST, ErrorCode.INVALID_ID_NUMBER.getStatus());
+        assertEquals(HttpStatus.BAD_REQUEST, ErrorCode.FIELD_TOO_LONG.getStatus());
+        assertEquals(HttpStatus.NOT_FOUND, ErrorCode.CLIENT_NOT_FOUND.getStatus());
+        assertEquals(HttpStatus.CONFLICT, ErrorCode.DUPLICATE_ID_NUMBER.getStatus());
+        assertEquals(HttpStatus.CONFLICT, ErrorCode.DUPLICATE_MOBILE_NUMBER.getStatus());
+    }
+
+    @Test
+    void clientExceptionHasNoStackTraceTest() {
+        ClientException exception = new ClientException(ErrorCode.DUPLICATE_ID_NUMBER);
+
+        assertEquals(0, exception.getStackTrace().length);
+        assertEquals(Constants.DUPLICATE_ID_NUMBER, exception.getMessage());
+        assertTrue(exception instanceof IllegalArgumentException);
+    }
+}
@@ -0,0 +1,155 @@
+package com.nobrainsolutions.assignment.keyfilter;
+
+import com.nobrainsolutions.assignment.benchmark.BenchmarkData;
+import com.nobrainsolutions.assignment.changes.ClientChangeLog;
+import com.nobrainsolutions.assignment.dto.ClientLookupResult;
+import com.nobrainsolutions.assignment.entity.Client;
+import com.nobrainsolutions.assignment.exception.ClientException;
+import com.nobrainsolutions.assignment.exception.ErrorCode;
+import com.nobrainsolutions.assignment.metrics.ClientMetrics;
+import com.nobrainsolutions.assignment.repository.InMemoryClientRepository;
+import com.nobrainsolutions.assignment.service.ClientChangeListener;
+import com.nobrainsolutions.assignment.service.ClientService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.annotation.AnnotationAwareOrderComparator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * The ClientKeyFilterTest class is responsible for testing the ClientKeyFilter class.
+ * It contains test cases for answering absent keys, following updates and deletes, the order of
+ * notification, the false-positive rate, and rebuilding while clients are being created and deleted.
+ */
+
+public class ClientKeyFilterTest {
+
+    private InMemoryClientRepository clientRepository;
+
+    private ClientKeyFilter clientKeyFilter;
+
+    private ClientService clientService;
+
+    @BeforeEach
+    void setUp() {
+        clientRepository = new InMemoryClientRepository();
+        clientKeyFilter = new ClientKeyFilter(clientRepository, true, 0.01, 16);
+        clientService = new ClientService(clientRepository, List.of(clientKeyFilter), ClientMetrics.disabled(),
+                clientKeyFilter);
+    }
+
+    @Test
+    void absentKeysAreAnsweredByTheFilterTest() {
+
+        clientService.createClient(new Client("Vishal", "Nagdev", "9284121655", "8001015009087", "Pune"));
+
+        assertTrue(clientKeyFilter.mightContainIdNumber("8001015009087"));
+        assertTrue(clientKeyFilter.mightContainMobileNumber("9284121655"));
+        ClientException e = assertThrows(ClientException.class, () -> clientService.getClientById("8001015009095"));
+        assertEquals(ErrorCode.CLIENT_NOT_FOUND, e.getErrorCode());
+        List<ClientLookupResult> results = clientService.lookupClients(List.of("8001015009087", "8001015009095"),
+                List.of("0820000001"));
+        assertTrue(results.get(0).isFound());
+        assertFalse(results.get(1).isFound());
+        assertFalse(results.get(2).isFound());
+        assertEquals(3, clientKeyFilter.negativeCount());
+        assertEquals(0, clientKeyFilter.falsePositiveCount());
+    }
+
+    @Test
+    void updatesAndDeletesAreFollowedTest() {
+
+        clientService.createClient(new Client("Vishal", "Nagdev", "9284121655", "8001015009087", "Pune"));
+        Client updated = clientService.updateClient("8001015009087",
+                new Client("Vishal", "Nagdev", "0820000001", "8001015009095", "Pune"));
+
+        assertFalse(clientKeyFilter.mightContainIdNumber("8001015009087"));
+        assertFalse(clientKeyFilter.mightContainMobileNumber("9284121655"));
+        assertTrue(clientKeyFilter.mightContainIdNumber("8001015009095"));
+        assertTrue(clientKeyFilter.mightContainMobileNumber("0820000001"));
+
+        clientService.deleteClient("8001015009095", updated.getVersion());
+
+        assertFalse(clientKeyFilter.mightContainIdNumber("8001015009095"));
+        assertFalse(clientKeyFilter.mightContainMobileNumber("0820000001"));
+    }
+
+    @Test
+    void filterIsNotifiedBeforeChangeLogTest() {
+
+        ClientChangeLog clientChangeLog = new ClientChangeLog(16);
+        List<ClientChangeListener> listeners = new ArrayList<>(List.of(clientChangeLog, clientKeyFilter));
+        // As Spring orders the listeners it injects into ClientService.
+        AnnotationAwareOrderComparator.sort(listeners);
+        clientService = new ClientService(clientRepository, listeners, ClientMetrics.disabled(), clientKeyFilter);
+        ClientChangeLog.Cursor cursor = clientChangeLog.cursor(clientChangeLog.lastSequence());
+
+        clientService.createClient(new Client("Vishal", "Nagdev", "9284121655", "8001015009087", "Pune"));
+
+        assertEquals(List.of(clientKeyFilter, clientChangeLog), listeners);
+        assertEquals("8001015009087", cursor.poll(1).get(0).getClient().getIdNumber());
+        assertTrue(clientKeyFilter.mightContainIdNumber("8001015009087"));
+    }
+
+    @Test
+    void falsePositiveRateTest() {
+
+        for (int i = 0; i < 10_000; i++) {
+            clientService.createClient(BenchmarkData.client(i));
+        }
+        clientKeyFilter.rebuild();
+        for (int i = 10_000; i < 110_000; i++) {
+            String idNumber = BenchmarkData.idNumber(i);
+            assertThrows(ClientException.class, () -> clientService.getClientById(idNumber));
+        }
+
+        assertEquals(100_000, clientKeyFilter.negativeCount() + clientKeyFilter.falsePositiveCount());
+        assertTrue(clientKeyFilter.observedFalsePositiveRate() < 0.02, "observed " + clientKeyFilter.observedFalsePositiveRate());
+        assertTrue(clientKeyFilter.expectedFalsePositiveRate() < 0.02, "expected " + clientKeyFilter.expectedFalsePositiveRate());
+    }
+
+    @Test
+    void rebuildKeepsConcurrentChangesTest() throws Exception {
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<?> rebuilds = executor.submit(() -> {
+                for (int i = 0; i < 50; i++) {
+                    clientKeyFilter.rebuild();
+                }
+            });
+            Future<?>[] writers = new Future<?>[3];
+            for (int w = 0; w < writers.length; w++) {
+                int writer = w;
+                writers[w] = executor.submit(() -> {
+                    for (int i = writer; i < 30_000; i += writers.length) {
+                        Client created = clientService.createClient(BenchmarkData.client(i));
+                        if (i % 2 == 0) {
+                            clientService.deleteClient(created.getIdNumber(), created.getVersion());
+                        }
+                    }
+                });
+            }
+            for (Future<?> writer : writers) {
+                writer.get(60, TimeUnit.SECONDS);
+            }
+            rebuilds.get(60, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(15_000, clientRepository.size());
+        for (Client client : clientRepository.findAll()) {
+            assertTrue(clientKeyFilter.mightContainIdNumber(client.getIdNumber()));
+            assertTrue(clientKeyFilter.mightContainMobileNumber(client.getMobileNumber()));
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.nobrainsolutions.assignment.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nobrainsolutions.assignment.cache.ClientResponseCache;
+import com.nobrainsolutions.assignment.dto.ClientLookupResult;
+import com.nobrainsolutions.assignment.dto.ClientSearchCriteria;
+import com.nobrainsolutions.assignment.entity.Client;
+import com.nobrainsolutions.assignment.keyfilter.ClientKeyFilter;
+import com.nobrainsolutions.assignment.repository.InMemoryClientRepository;
+import com.nobrainsolutions.assignment.search.ClientTextIndex;
+import com.nobrainsolutions.assignment.service.ClientService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * The ClientMetricsTest class is responsible for testing the ClientMetrics and ClientStoreMetrics classes.
+ * It contains test cases for the operation timers, validation failure counters, store gauges, cache meters
+ * and key filter meters.
+ */
+
+public class ClientMetricsTest {
+
+    private MeterRegistry meterRegistry;
+
+    private InMemoryClientRepository clientRepository;
+
+    private ClientTextIndex clientTextIndex;
+
+    private ClientResponseCache clientResponseCache;
+
+    private ClientKeyFilter clientKeyFilter;
+
+    private ClientService clientService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        clientRepository = new InMemoryClientRepository();
+        clientTextIndex = new ClientTextIndex(clientRepository);
+        clientResponseCache = new ClientResponseCache(new ObjectMapper(), 100, Duration.ofMinutes(5));
+        clientKeyFilter = new ClientKeyFilter(clientRepository, true, 0.01, 16);
+        clientService = new ClientService(clientRepository, List.of(clientTextIndex, clientResponseCache, clientKeyFilter),
+                new ClientMetrics(meterRegistry), clientKeyFilter);
+    }
+
+    @Test
+    void recordsOutcomePerOperationTest() {
+
+        clientService.createClient(new Client("Vishal", "Nagdev", "9284121655", "8001015009087", "Pune"));
+        assertThrows(IllegalArgumentException.class,
+                () -> clientService.createClient(new Client("John", "Smith", "9284121655", "8001015009095", "Pune")));
+        assertThrows(IllegalArgumentException.class,
+                () -> clientService.createClient(new Client("John", "Smith", "0820000001", "8001015009080", "Pune")));
+        clientService.getClientById("8001015009087");
+        assertThrows(IllegalArgumentException.class, () -> clientService.getClientById("8001015009095"));
+        assertThrows(IllegalArgumentException.class,
+                () -> clientService.updateClient("8001015009095", new Client("John", "Smith", null, "8001015009095", "Pune")));
+        clientService.searchClients(new ClientSearchCriteria("Vishal", null, null, null), null, 10);
+        assertThrows(IllegalArgumentException.class,
+                () -> clientService.searchClients(new ClientSearchCriteria(), null, 10));
+
+        assertEquals(1, timerCount("create", "success"));
+        assertEquals(1, timerCount("create", "duplicate"));
+        assertEquals(1, timerCount("create", "invalid"));
+        assertEquals(1, timerCount("get", "success"));
+        assertEquals(1, timerCount("get", "not_found"));
+        assertEquals(1, timerCount("update", "not_found"));
+        assertEquals(0, timerCount("get", "error"));
+        assertEquals(1, timerCount("search", "success"));
+        assertEquals(1, timerCount("search", "invalid"));
+        assertEquals(1.0, validationFailures("invalid_id_number"));
+        assertEquals(1.0, validationFailures("no_search_criteria"));
+        assertEquals(0.0, validationFailures("constraint_violation"));
+    }
+
+    @Test
+    void recordsStreamedLookupWhenItEndsTest() {
+
+        clientService.createClient(new Client("Vishal", "Nagdev", "9284121655", "8001015009087", "Pune"));
+
+        // The response writer reads every result without closing the stream first.
+        Stream<ClientLookupResult> complete = clientService.streamLookupClients(List.of("8001015009087", "8001015009095"), null);
+        assertEquals(2, complete.toList().size());
+        assertEquals(1, timerCount("lookup", "success"));
+        complete.close();
+
+        try (Stream<ClientLookupResult> cutOff = clientService.streamLookupClients(List.of("8001015009087"), List.of("0820000001"))) {
+            assertTrue(cutOff.iterator().next().isFound());
+        }
+
+        assertEquals(1, timerCount("lookup", "success"));
+        assertEquals(1, timerCount("lookup", "error"));
+    }
+
+    @Test
+    void storeGaugesTest() {
+
+        new ClientStoreMetrics(clientRepository, clientTextIndex, clientResponseCache, clientKeyFilter).bindTo(meterRegistry);
+        clientService.createClient(new Client("Vishal", "Nagdev", "9284121655", "8001015009087", "Pune"));
+        clientService.createClient(new Client("Vishal", "Smith", "0820000001", "8001015009095", "Cape Town"));
+
+        assertEquals(2.0, meterRegistry.get("client.store.size").gauge().value());
+        assertEquals(2.0, meterRegistry.get("client.index.size").tags("index", "mobileNumber").gauge().value());
+        assertEquals(1.0, meterRegistry.get("client.index.size").tags("index", "firstName").gauge().value());
+        assertEquals(2.0, meterRegistry.get("client.index.size").tags("index", "lastName").gauge().value());
+        assertTrue(meterRegistry.get("client.index.size").tags("index", "text").gauge().value() > 0);
+
+        clientResponseCache.get("8001015009087", clientService::getClientById);
+        clientResponseCache.get("8001015009087", clientService::getClientById);
+        assertEquals(1.0, meterRegistry.get("client.cache.size").gauge().value());
+        assertEquals(1.0, meterRegistry.get("client.cache.requests").tags("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("client.cache.requests").tags("result", "miss").functionCounter().count());
+
+        assertThrows(IllegalArgumentException.class, () -> clientService.getClientById("8001015009103"));
+        assertEquals(1.0, meterRegistry.get("client.key-filter.lookups").tags("result", "negative").functionCounter().count());
+        assertEquals(0.0, meterRegistry.get("client.key-filter.false-positive-rate").tags("kind", "observed").gauge().value());
+        double expected = meterRegistry.get("client.key-filter.false-positive-rate").tags("kind", "expected").gauge().value();
+        assertTrue(expected > 0 && expected < 0.01);
+        assertTrue(meterRegistry.get("client.key-filter.size").gauge().value() > 0);
+    }
+
+    private long timerCount(String operation, String outcome) {
+        return meterRegistry.get("client.service").tags("operation", operation, "outcome", outcome).timer().count();
+    }
+
+    private double validationFailures(String reason) {
+        return meterRegistry.get("client.validation.failures").tags("reason", reason).counter().count();
+    }
+}
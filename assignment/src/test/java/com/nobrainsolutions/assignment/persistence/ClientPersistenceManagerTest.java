@@ -0,0 +1,236 @@
+package com.nobrainsolutions.assignment.persistence;
+
+import com.nobrainsolutions.assignment.benchmark.BenchmarkData;
+import com.nobrainsolutions.assignment.entity.Client;
+import com.nobrainsolutions.assignment.repository.InMemoryClientRepository;
+import com.nobrainsolutions.assignment.service.ClientService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * The ClientPersistenceManagerTest class is responsible for testing recovery of the client store
+ * from snapshots and the write-ahead log.
+ */
+
+public class ClientPersistenceManagerTest {
+
+    private static final int SEGMENT_SIZE = 4096;
+
+    private Path directory;
+
+    private Node node;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("client-persistence");
+        node = new Node();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        node.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    void recoverFromWriteAheadLogTest() throws IOException {
+
+        for (int i = 0; i < 100; i++) {
+            node.clientService.createClient(client(i, "Pune"));
+        }
+        node.clientService.updateClient(BenchmarkData.idNumber(7), client(7, "Cape Town"));
+        node.clientService.updateClient(BenchmarkData.idNumber(8), new Client("Vishal", "Nagdev", "0830000008", BenchmarkData.idNumber(500), "Durban"));
+        node.close();
+
+        node = new Node();
+
+        assertEquals(100, node.clientRepository.size());
+        assertEquals("Cape Town", node.clientService.getClientById(BenchmarkData.idNumber(7)).getPhysicalAddress());
+        assertFalse(node.clientRepository.existsByIdNumber(BenchmarkData.idNumber(8)));
+        assertEquals("Durban", node.clientService.getClientById(BenchmarkData.idNumber(500)).getPhysicalAddress());
+        assertTrue(node.clientRepository.existsByMobileNumber("0830000008"));
+        assertFalse(node.clientRepository.existsByMobileNumber(BenchmarkData.mobileNumber(8)));
+    }
+
+    @Test
+    void recoverFromSnapshotAndLogTailTest() throws IOException {
+
+        for (int i = 0; i < 100; i++) {
+            node.clientService.createClient(client(i, "Pune"));
+        }
+        node.manager.snapshot();
+        node.clientService.createClient(client(100, "Pune"));
+        node.clientService.updateClient(BenchmarkData.idNumber(3), client(3, "Cape Town"));
+        node.close();
+
+        node = new Node();
+
+        assertEquals(101, node.clientRepository.size());
+        assertEquals("Cape Town", node.clientService.getClientById(BenchmarkData.idNumber(3)).getPhysicalAddress());
+        assertTrue(node.clientRepository.existsByIdNumber(BenchmarkData.idNumber(100)));
+    }
+
+    @Test
+    void recoveredStoreKeepsLoggingTest() throws IOException {
+
+        node.clientService.createClient(client(1, "Pune"));
+        node.close();
+        node = new Node();
+        node.clientService.createClient(client(2, "Pune"));
+        node.close();
+
+        node = new Node();
+
+        assertEquals(2, node.clientRepository.size());
+    }
+
+    @Test
+    void tornRecordDoesNotHideLaterSegmentsTest() throws IOException {
+
+        for (int i = 0; i < 10; i++) {
+            node.clientService.createClient(client(i, "Pune"));
+        }
+        node.close();
+        tearLastRecord();
+
+        node = new Node();
+        assertEquals(9, node.clientRepository.size());
+        node.clientService.createClient(client(10, "Pune"));
+        node.clientService.updateClient(BenchmarkData.idNumber(3), client(3, "Cape Town"));
+        node.close();
+
+        node = new Node();
+
+        assertEquals(10, node.clientRepository.size());
+        assertTrue(node.clientRepository.existsByIdNumber(BenchmarkData.idNumber(10)));
+        assertFalse(node.clientRepository.existsByIdNumber(BenchmarkData.idNumber(9)));
+        assertEquals("Cape Town", node.clientService.getClientById(BenchmarkData.idNumber(3)).getPhysicalAddress());
+    }
+
+    @Test
+    void recordTooLargeForTheLogIsNotStoredTest() throws IOException {
+
+        node.clientService.createClient(client(1, "Pune"));
+
+        assertThrows(IllegalStateException.class, () -> node.clientService.createClient(client(2, "x".repeat(SEGMENT_SIZE))));
+        assertFalse(node.clientRepository.existsByIdNumber(BenchmarkData.idNumber(2)));
+        node.close();
+
+        node = new Node();
+
+        assertEquals(1, node.clientRepository.size());
+        node.clientService.createClient(client(2, "Pune"));
+    }
+
+    @Test
+    void snapshotDeletesCoveredSegmentsTest() throws IOException {
+
+        for (int i = 0; i < 200; i++) {
+            node.clientService.createClient(client(i, "Pune"));
+        }
+        long segmentsBefore = countFiles("wal-");
+
+        node.manager.snapshot();
+
+        assertTrue(segmentsBefore > 1);
+        assertEquals(1, countFiles("wal-"));
+        assertEquals(1, countFiles("snapshot-"));
+    }
+
+    /**
+     * Corrupts the payload of the last record in the only segment, as a crash in the middle of writing it would.
+     */
+    private void tearLastRecord() throws IOException {
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.filter(path -> path.getFileName().toString().startsWith("wal-")).findFirst().orElseThrow();
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(segment));
+        int last = -1;
+        while (buffer.remaining() >= 16 && buffer.getInt(buffer.position()) > 0) {
+            last = buffer.position();
+            buffer.position(last + 16 + buffer.getInt(last));
+        }
+        buffer.put(last + 16, (byte) (buffer.get(last + 16) ^ 0xff));
+        Files.write(segment, buffer.array());
+    }
+
+    @Test
+    void failedFlushRollsBackWritesTest() throws IOException {
+
+        AtomicBoolean diskFailed = new AtomicBoolean();
+        node.close();
+        node = new Node(new ClientWriteAheadLog(directory, SEGMENT_SIZE, "group", Duration.ZERO, target -> {
+            if (diskFailed.get()) {
+                throw new UncheckedIOException(new IOException("Disk failed"));
+            }
+            target.force();
+        }));
+        node.clientService.createClient(client(1, "Pune"));
+        diskFailed.set(true);
+
+        // Without the failure reaching them, the writers would wait for the dead flusher forever.
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            assertThrows(IllegalStateException.class, () -> node.clientService.createClient(client(2, "Pune")));
+            assertThrows(IllegalStateException.class, () -> node.clientService.updateClient(BenchmarkData.idNumber(1), client(1, "Cape Town")));
+        });
+
+        assertEquals(1, node.clientRepository.size());
+        assertFalse(node.clientRepository.existsByIdNumber(BenchmarkData.idNumber(2)));
+        assertEquals("Pune", node.clientService.getClientById(BenchmarkData.idNumber(1)).getPhysicalAddress());
+    }
+
+    private long countFiles(String prefix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().startsWith(prefix)).count();
+        }
+    }
+
+    private static Client client(int n, String address) {
+        return BenchmarkData.client(n).withPhysicalAddress(address);
+    }
+
+    /**
+     * One application instance over the shared data directory.
+     */
+    private class Node {
+
+        private final InMemoryClientRepository clientRepository = new InMemoryClientRepository();
+        private final ClientWriteAheadLog writeAheadLog;
+        private final ClientService clientService;
+        private final ClientPersistenceManager manager;
+
+        private Node() throws IOException {
+            this(new ClientWriteAheadLog(directory, SEGMENT_SIZE, "group", Duration.ZERO));
+        }
+
+        private Node(ClientWriteAheadLog writeAheadLog) throws IOException {
+            this.writeAheadLog = writeAheadLog;
+            clientService = new ClientService(clientRepository, List.of(writeAheadLog));
+            manager = new ClientPersistenceManager(clientService, clientRepository, writeAheadLog,
+                    new ClientSnapshotStore(directory), Duration.ofHours(1));
+            manager.recover();
+        }
+
+        private void close() {
+            writeAheadLog.close();
+        }
+    }
+}
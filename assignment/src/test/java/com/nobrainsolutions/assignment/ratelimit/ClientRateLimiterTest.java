@@ -0,0 +1,100 @@
+package com.nobrainsolutions.assignment.ratelimit;
+
+import com.nobrainsolutions.assignment.metrics.ClientMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * The ClientRateLimiterTest class is responsible for testing the TokenBucket and ClientRateLimiter classes.
+ * It contains test cases for bursts, refill, concurrent acquisition, per-client and global limits
+ * and the bound on tracked clients.
+ */
+
+public class ClientRateLimiterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void burstThenRefillTest() {
+        TokenBucket bucket = new TokenBucket(10, 3);
+        long now = 5 * SECOND;
+
+        assertTrue(bucket.isFull(now));
+        assertEquals(0, bucket.tryAcquire(now));
+        assertEquals(0, bucket.tryAcquire(now));
+        assertEquals(0, bucket.tryAcquire(now));
+        assertEquals(SECOND / 10, bucket.tryAcquire(now));
+        assertFalse(bucket.isFull(now));
+
+        assertEquals(0, bucket.tryAcquire(now + SECOND / 10));
+        assertTrue(bucket.tryAcquire(now + SECOND / 10) > 0);
+        assertTrue(bucket.isFull(now + SECOND));
+    }
+
+    @Test
+    void concurrentAcquireAdmitsExactlyBurstTest() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(1, 1000);
+        AtomicInteger admitted = new AtomicInteger();
+        long now = System.nanoTime();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8; i++) {
+            executor.submit(() -> {
+                for (int j = 0; j < 500; j++) {
+                    if (bucket.tryAcquire(now) == 0) {
+                        admitted.incrementAndGet();
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(1000, admitted.get());
+    }
+
+    @Test
+    void clientLimitDoesNotDrainGlobalTest() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ClientRateLimiter limiter = new ClientRateLimiter(1, 2, 1, 3, 1000, new ClientMetrics(meterRegistry));
+        long now = SECOND;
+
+        assertEquals(0, limiter.tryAcquire("ip:10.0.0.1", now));
+        assertEquals(0, limiter.tryAcquire("ip:10.0.0.1", now));
+        assertTrue(limiter.tryAcquire("ip:10.0.0.1", now) > 0);
+        assertTrue(limiter.tryAcquire("ip:10.0.0.1", now) > 0);
+
+        assertEquals(0, limiter.tryAcquire("ip:10.0.0.2", now));
+        assertTrue(limiter.tryAcquire("ip:10.0.0.3", now) > 0);
+
+        assertEquals(2.0, meterRegistry.get("client.rate.limited").tags("scope", "client").counter().count());
+        assertEquals(1.0, meterRegistry.get("client.rate.limited").tags("scope", "global").counter().count());
+    }
+
+    @Test
+    void trackedClientsAreBoundedTest() {
+        ClientRateLimiter limiter = new ClientRateLimiter(1, 1, 1_000_000, 1_000_000, 128, ClientMetrics.disabled());
+        long now = SECOND;
+
+        for (int i = 0; i < 10_000; i++) {
+            limiter.tryAcquire("ip:" + i, now);
+        }
+        assertTrue(limiter.trackedClients() <= 128);
+
+        // Once their buckets have refilled, the old callers make room for new ones.
+        now += 2 * SECOND;
+        for (int i = 10_000; i < 10_064; i++) {
+            assertEquals(0, limiter.tryAcquire("ip:" + i, now));
+        }
+        assertTrue(limiter.trackedClients() <= 128);
+    }
+}
@@ -0,0 +1,130 @@
+package com.nobrainsolutions.assignment.replication;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nobrainsolutions.assignment.changes.ClientChangeLog;
+import com.nobrainsolutions.assignment.dto.ClientChangeEvent;
+import com.nobrainsolutions.assignment.entity.Client;
+import com.nobrainsolutions.assignment.repository.InMemoryClientRepository;
+import com.nobrainsolutions.assignment.search.ClientTextIndex;
+import com.nobrainsolutions.assignment.service.ClientService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * The ClientReplicatorTest class is responsible for testing the ClientReplicator class.
+ * It contains test cases for catching up from a snapshot that overlaps the changes, dropping clients the
+ * leader no longer has, and replicating removals.
+ */
+
+public class ClientReplicatorTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ClientChangeLog leaderChangeLog;
+
+    private ClientService leader;
+
+    private InMemoryClientRepository followerRepository;
+
+    private ClientTextIndex followerTextIndex;
+
+    private ClientService follower;
+
+    private ClientReplicator clientReplicator;
+
+    @BeforeEach
+    void setUp() {
+        leaderChangeLog = new ClientChangeLog(1024);
+        leader = new ClientService(new InMemoryClientRepository(), List.of(leaderChangeLog));
+
+        followerRepository = new InMemoryClientRepository();
+        followerTextIndex = new ClientTextIndex(followerRepository);
+        follower = new ClientService(followerRepository, List.of(followerTextIndex));
+        clientReplicator = new ClientReplicator(follower, objectMapper, "http://localhost:9097/", Duration.ofSeconds(1));
+    }
+
+    @Test
+    void catchUpFromOverlappingSnapshotTest() throws IOException {
+
+        leader.createClient(new Client("Vishal", "Nagdev", "9284121655", "8001015009087", "Pune"));
+        leader.createClient(new Client("John", "Smith", "0820000001", "8001015009095", "Durban"));
+        long sequence = leaderChangeLog.lastSequence();
+        ClientChangeLog.Cursor cursor = leaderChangeLog.cursor(sequence);
+
+        // Changes made while the snapshot is read may already show in it.
+        leader.updateClient("8001015009087", new Client("Vishal", "Nagdev", "9284121655", "8001015009087", "Cape Town"));
+        leader.updateClient("8001015009095", new Client("John", "Smith", "0820000001", "9912314999084", "Durban"));
+        List<String> snapshot = snapshot();
+
+        assertEquals(2, clientReplicator.applySnapshot(snapshot.stream()));
+        clientReplicator.applyChanges(changes(cursor));
+
+        assertEquals(2, follower.getClientById("8001015009087").getVersion());
+        assertEquals("Cape Town", follower.getClientById("8001015009087").getPhysicalAddress());
+        assertEquals(2, follower.getClientById("9912314999084").getVersion());
+        assertFalse(followerRepository.existsByIdNumber("8001015009095"));
+        assertEquals(2, followerRepository.size());
+        assertEquals("9912314999084", followerRepository.findByMobileNumber("0820000001").orElseThrow().getIdNumber());
+        assertEquals(1, followerTextIndex.searchByPrefix("john", 10).size());
+        assertEquals(Long.valueOf(cursor.position()), clientReplicator.position());
+    }
+
+    @Test
+    void catchUpDropsClientsTheLeaderNoLongerHasTest() throws IOException {
+
+        follower.createClient(new Client("John", "Smith", "0820000001", "8001015009095", "Durban"));
+        leader.createClient(new Client("John", "Smith", "0820000001", "9912314999084", "Durban"));
+
+        clientReplicator.applySnapshot(snapshot().stream());
+
+        assertFalse(followerRepository.existsByIdNumber("8001015009095"));
+        assertEquals(1, followerRepository.size());
+        assertEquals("9912314999084", followerRepository.findByMobileNumber("0820000001").orElseThrow().getIdNumber());
+        assertEquals(1, followerTextIndex.searchByPrefix("john", 10).size());
+    }
+
+    @Test
+    void removalIsReplicatedTest() throws IOException {
+
+        leader.createClient(new Client("Vishal", "Nagdev", "9284121655", "8001015009087", "Pune"));
+        ClientChangeLog.Cursor cursor = leaderChangeLog.cursor(leaderChangeLog.lastSequence() - 1);
+        leader.removeClient("8001015009087");
+
+        List<ClientChangeEvent> events = new ArrayList<>(cursor.poll(10));
+        assertEquals(ClientChangeEvent.Type.REMOVED, events.get(1).getType());
+        clientReplicator.applyChanges(Stream.concat(events.stream().map(this::toJson), Stream.of("")));
+
+        assertEquals(0, followerRepository.size());
+        assertTrue(followerTextIndex.searchByPrefix("vishal", 10).isEmpty());
+    }
+
+    private List<String> snapshot() {
+        List<String> lines = new ArrayList<>();
+        for (Client client : leader.getAllClients()) {
+            lines.add(toJson(client));
+        }
+        return lines;
+    }
+
+    private Stream<String> changes(ClientChangeLog.Cursor cursor) {
+        return cursor.poll(100).stream().map(this::toJson);
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.nobrainsolutions.assignment.repository;
+
+import com.nobrainsolutions.assignment.dto.ClientSearchCriteria;
+import com.nobrainsolutions.assignment.entity.Client;
+import com.nobrainsolutions.assignment.exception.ClientException;
+import com.nobrainsolutions.assignment.exception.ErrorCode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * The CompactClientRepositoryTest class is responsible for testing the CompactClientRepository class.
+ * It contains test cases for the packed columns, the string arena and the indexes.
+ */
+
+public class CompactClientRepositoryTest {
+
+    private CompactClientRepository clientRepository;
+
+    @BeforeEach
+    void setUp() {
+        clientRepository = new CompactClientRepository(16);
+    }
+
+    @Test
+    void saveIndexesClientTest() {
+
+        clientRepository.save(new Client("Vishal", "Nagdev", "9284121655", "8001015009087", "Pune"));
+
+        assertEquals(1, clientRepository.size());
+        assertClient("Vishal", "Nagdev", "9284121655", "8001015009087", "Pune",
+                clientRepository.findByIdNumber("8001015009087").orElse(null));
+        assertClient("Vishal", "Nagdev", "9284121655", "8001015009087", "Pune",
+                clientRepository.findByMobileNumber("9284121655").orElse(null));
+        assertEquals(1, clientRepository.search(byName("Vishal", null), null, 10).size());
+        assertEquals(1, clientRepository.search(byName(null, "Nagdev"), null, 10).size());
+        assertTrue(clientRepository.existsByIdNumber("8001015009087"));
+        assertTrue(clientRepository.existsByMobileNumber("9284121655"));
+    }
+
+    @Test
+    void packedFieldsKeepLeadingZerosTest() {
+
+        clientRepository.save(new Client("Vishal", "Nagdev", "0820000001", "0002295000083", "Pune"));
+
+        Client client = clientRepository.findByIdNumber("0002295000083").orElseThrow();
+
+        assertEquals("0002295000083", client.getIdNumber());
+        assertEquals("0820000001", client.getMobileNumber());
+        assertFalse(clientRepository.existsByIdNumber("2295000083"));
+        assertFalse(clientRepository.existsByMobileNumber("820000001"));
+    }
+
+    @Test
+    void nonNumericAndMissingFieldsTest() {
+
+        clientRepository.save(new Client("Vishal", "Nagdev", "+27 82 000 0001", "8001015009087", null));
+        clientRepository.save(new Client("John", "Smith", null, "8001015009095", "Cape Town"));
+
+        assertClient("Vishal", "Nagdev", "+27 82 000 0001", "8001015009087", null,
+                clientRepository.findByMobileNumber("+27 82 000 0001").orElse(null));
+        assertNull(clientRepository.findByIdNumber("8001015009095").orElseThrow().getMobileNumber());
+        assertFalse(clientRepository.existsByMobileNumber(null));
+        assertThrows(IllegalArgumentException.class,
+                () -> clientRepository.save(new Client("Jane", "Doe", "+27 82 000 0001", "9912314999084", "Durban")));
+    }
+
+    @Test
+    void saveRejectsDuplicatesAndInvalidIdNumbersTest() {
+
+        clientRepository.save(new Client("Vishal", "Nagdev", "0820000001", "8001015009087", "Pune"));
+
+        IllegalArgumentException duplicateId = assertThrows(IllegalArgumentException.class,
+                () -> clientRepository.save(new Client("John", "Smith", "0820000002", "8001015009087", "Pune")));
+        IllegalArgumentException duplicateMobile = assertThrows(IllegalArgumentException.class,
+                () -> clientRepository.save(new Client("John", "Smith", "0820000001", "8001015009095", "Pune")));
+        IllegalArgumentException invalidId = assertThrows(IllegalArgumentException.class,
+                () -> clientRepository.save(new Client("John", "Smith", "0820000003", "ID123", "Pune")));
+
+        assertEquals("Duplicate ID Number", duplicateId.getMessage());
+        assertEquals("Duplicate Mobile Number", duplicateMobile.getMessage());
+        assertEquals("Invalid South African ID Number", invalidId.getMessage());
+        assertEquals(1, clientRepository.size());
+    }
+
+    @Test
+    void updateReindexesChangedKeysTest() {
+
+        clientRepository.save(new Client("Vishal", "Nagdev", "9284121655", "8001015009087", "Pune"));
+
+        Client updated = clientRepository.update("8001015009087",
+                new Client("John", "Nagdev", "9284121650", "8001015009095", "Cape Town"));
+
+        assertClient("John", "Nagdev", "9284121650", "8001015009095", "Cape Town", updated);
+        assertEquals(1, clientRepository.size());
+        assertFalse(clientRepository.existsByIdNumber("8001015009087"));
+        assertFalse(clientRepository.existsByMobileNumber("9284121655"));
+        assertTrue(clientRepository.search(byName("Vishal", null), null, 10).isEmpty());
+        assertEquals(1, clientRepository.search(byName("John", "Nagdev"), null, 10).size());
+        assertNull(clientRepository.update("8001015009087", updated));
+    }
+
+    @Test
+    void updateRejectsKeysOfOtherClientsTest() {
+
+        clientRepository.save(new Client("Vishal", "Nagdev", "0820000001", "8001015009087", "Pune"));
+        clientRepository.save(new Client("John", "Smith", "0820000002", "8001015009095", "Pune"));
+
+        assertThrows(IllegalArgumentException.class, () -> clientRepository.update("8001015009087",
+                new Client("Vishal", "Nagdev", "0820000001", "8001015009095", "Pune")));
+        assertThrows(IllegalArgumentException.class, () -> clientRepository.update("8001015009087",
+                new Client("Vishal", "Nagdev", "0820000002", "8001015009087", "Pune")));
+
+        assertNotNull(clientRepository.update("8001015009087",
+                new Client("Vishal", "Nagdev", "0820000001", "8001015009087", "Durban")));
+        assertEquals("Durban", clientRepository.findByIdNumber("8001015009087").orElseThrow().getPhysicalAddress());
+    }
+
+    @Test
+    void searchPagesInIdNumberOrderTest() {
+
+        clientRepository.save(new Client("Vishal", "Nagdev", "0820000001", "9912314999084", "Pune"));
+        clientRepository.save(new Client("Vishal", "Smith", "0820000002", "8001015009087", "Pune"));
+        clientRepository.save(new Client("Vishal", "Nagdev", "0820000003", "8001015009095", "Pune"));
+
+        List<Client> first = clientRepository.search(byName("Vishal", null), null, 2);
+        List<Client> second = clientRepository.search(byName("Vishal", null), "8001015009095", 2);
+
+        assertEquals(List.of("8001015009087", "8001015009095"), idNumbers(first));
+        assertEquals(List.of("9912314999084"), idNumbers(second));
+        assertEquals(List.of("8001015009095", "9912314999084"), idNumbers(clientRepository.search(byName("Vishal", "Nagdev"), null, 10)));
+        assertTrue(clientRepository.search(byName("Unknown", null), null, 10).isEmpty());
+    }
+
+    @Test
+    void removeAndRestoreTest() {
+
+        clientRepository.save(new Client("Vishal", "Nagdev", "0820000001", "8001015009087", "Pune"));
+
+        assertNull(clientRepository.restore(new Client("John", "Smith", "0820000002", "8001015009095", "Pune")));
+        Client previous = clientRepository.restore(new Client("Vishal", "Nagdev", "0820000003", "8001015009087", "Durban"));
+        Client removed = clientRepository.remove("8001015009095");
+
+        assertClient("Vishal", "Nagdev", "0820000001", "8001015009087", "Pune", previous);
+        assertClient("John", "Smith", "0820000002", "8001015009095", "Pune", removed);
+        assertEquals(1, clientRepository.size());
+        assertFalse(clientRepository.existsByMobileNumber("0820000001"));
+        assertTrue(clientRepository.existsByMobileNumber("0820000003"));
+        assertTrue(clientRepository.search(byName(null, "Smith"), null, 10).isEmpty());
+        List<Client> all = new ArrayList<>();
+        clientRepository.findAll().forEach(all::add);
+        assertEquals(List.of("8001015009087"), idNumbers(all));
+    }
+
+    @Test
+    void churnKeepsIndexesConsistentTest() {
+
+        Random random = new Random(42);
+        Map<String, String> addresses = new HashMap<>();
+        for (int i = 0; i < 20_000; i++) {
+            String idNumber = String.format("80010150%05d", random.nextInt(2_000));
+            String address = "Street " + random.nextInt(50);
+            if (addresses.containsKey(idNumber) && random.nextBoolean()) {
+                clientRepository.remove(idNumber);
+                addresses.remove(idNumber);
+            } else {
+                clientRepository.restore(new Client("Vishal", "Nagdev", "07" + idNumber.substring(5), idNumber, address));
+                addresses.put(idNumber, address);
+            }
+        }
+
+        assertEquals(addresses.size(), clientRepository.size());
+        addresses.forEach((idNumber, address) ->
+                assertEquals(address, clientRepository.findByIdNumber(idNumber).orElseThrow().getPhysicalAddress()));
+        assertEquals(addresses.size(), clientRepository.search(byName("Vishal", null), null, 100_000).size());
+    }
+
+    @Test
+    void removedStringsAreReusedTest() {
+
+        for (int i = 0; i < 1_000; i++) {
+            clientRepository.save(new Client("First" + i, "Last" + i, null, String.format("80010150%05d", i), "Street " + i));
+        }
+        long reserved = clientRepository.offHeapBytes();
+
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < 1_000; i++) {
+                clientRepository.remove(String.format("80010150%05d", i));
+            }
+            for (int i = 0; i < 1_000; i++) {
+                int n = i + (round + 1) * 1_000;
+                clientRepository.save(new Client("First" + n, "Last" + n, null, String.format("80010150%05d", i), "Street " + n));
+            }
+        }
+
+        assertEquals(reserved, clientRepository.offHeapBytes());
+        assertEquals("Street 20999", clientRepository.findByIdNumber("8001015000999").orElseThrow().getPhysicalAddress());
+        assertEquals(1, clientRepository.search(byName("First20500", null), null, 10).size());
+    }
+
+    @Test
+    void rejectedFieldLeavesStoreUnchangedTest() {
+
+        clientRepository.save(new Client("Vishal", "Nagdev", "9284121655", "8001015009087", "Pune"));
+        int strings = clientRepository.stringCount();
+        long reserved = clientRepository.offHeapBytes();
+        String tooLong = "x".repeat(1 << 20);
+
+        ClientException e = assertThrows(ClientException.class, () -> clientRepository.save(
+                new Client("Sipho", "Nkosi", "n/a", "9912314999084", tooLong)));
+        assertThrows(ClientException.class, () -> clientRepository.restore(
+                new Client("Sipho", "Nkosi", "n/a", "9912314999084", tooLong)));
+        assertThrows(ClientException.class, () -> clientRepository.update("8001015009087",
+                new Client("Sipho", "Nkosi", "n/a", "8001015009087", tooLong)));
+
+        assertEquals(ErrorCode.FIELD_TOO_LONG, e.getErrorCode());
+        assertEquals(1, clientRepository.size());
+        assertEquals(1, clientRepository.usedSlots());
+        assertEquals(strings, clientRepository.stringCount());
+        assertEquals(reserved, clientRepository.offHeapBytes());
+        assertTrue(clientRepository.search(byName("Sipho", null), null, 10).isEmpty());
+        assertClient("Vishal", "Nagdev", "9284121655", "8001015009087", "Pune",
+                clientRepository.findByIdNumber("8001015009087").orElse(null));
+    }
+
+    private static void assertClient(String firstName, String lastName, String mobileNumber, String idNumber,
+                                     String physicalAddress, Client client) {
+        assertNotNull(client);
+        assertEquals(firstName, client.getFirstName());
+        assertEquals(lastName, client.getLastName());
+        assertEquals(mobileNumber, client.getMobileNumber());
+        assertEquals(idNumber, client.getIdNumber());
+        assertEquals(physicalAddress, client.getPhysicalAddress());
+    }
+
+    private static List<String> idNumbers(List<Client> clients) {
+        List<String> idNumbers = new ArrayList<>();
+        clients.forEach(client -> idNumbers.add(client.getIdNumber()));
+        return idNumbers;
+    }
+
+    private static ClientSearchCriteria byName(String firstName, String lastName) {
+        return new ClientSearchCriteria(firstName, lastName, null, null);
+    }
+}
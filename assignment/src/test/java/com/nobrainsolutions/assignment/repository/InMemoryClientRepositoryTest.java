@@ -0,0 +1,110 @@
+package com.nobrainsolutions.assignment.repository;
+
+import com.nobrainsolutions.assignment.dto.ClientSearchCriteria;
+import com.nobrainsolutions.assignment.entity.Client;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * The InMemoryClientRepositoryTest class is responsible for testing the InMemoryClientRepository class.
+ * It contains test cases for the primary and secondary indexes.
+ */
+
+public class InMemoryClientRepositoryTest {
+
+    private InMemoryClientRepository clientRepository;
+
+    @BeforeEach
+    void setUp() {
+        clientRepository = new InMemoryClientRepository();
+    }
+
+    @Test
+    void saveIndexesClientTest() {
+
+        Client saved = new Client("Vishal", "Nagdev", "9284121655", "8001015009087", "Pune");
+
+        Client client = clientRepository.save(saved);
+
+        assertEquals(0, saved.getVersion());
+        assertEquals(1, client.getVersion());
+        assertEquals(1, clientRepository.size());
+        assertEquals(client, clientRepository.findByIdNumber("8001015009087").orElse(null));
+        assertEquals(client, clientRepository.findByMobileNumber("9284121655").orElse(null));
+        assertEquals(List.of(client), clientRepository.search(byName("Vishal", null), null, 10));
+        assertEquals(List.of(client), clientRepository.search(byName(null, "Nagdev"), null, 10));
+        assertTrue(clientRepository.existsByIdNumber("8001015009087"));
+        assertTrue(clientRepository.existsByMobileNumber("9284121655"));
+    }
+
+    @Test
+    void updateReindexesChangedKeysTest() {
+
+        Client client = new Client("Vishal", "Nagdev", "9284121655", "8001015009087", "Pune");
+        clientRepository.save(client);
+
+        Client updatedClient = new Client("John", "Nagdev", "9284121650", "8001015009095", "Pune");
+        Client updated = clientRepository.update("8001015009087", updatedClient);
+
+        assertNotNull(updated);
+        assertEquals(1, clientRepository.size());
+        assertFalse(clientRepository.existsByIdNumber("8001015009087"));
+        assertFalse(clientRepository.existsByMobileNumber("9284121655"));
+        assertTrue(clientRepository.search(byName("Vishal", null), null, 10).isEmpty());
+        assertEquals(updated, clientRepository.findByIdNumber("8001015009095").orElse(null));
+        assertEquals(updated, clientRepository.findByMobileNumber("9284121650").orElse(null));
+        assertEquals(List.of(updated), clientRepository.search(byName("John", null), null, 10));
+    }
+
+    @Test
+    void updateUnknownClientTest() {
+
+        Client updatedClient = new Client("John", "Nagdev", "9284121650", "8001015009095", "Pune");
+
+        assertNull(clientRepository.update("8001015009087", updatedClient));
+        assertEquals(0, clientRepository.size());
+    }
+
+    @Test
+    void clientWithoutMobileNumberTest() {
+
+        Client client = new Client("Vishal", "Nagdev", null, "8001015009087", "Pune");
+
+        clientRepository.save(client);
+
+        assertFalse(clientRepository.existsByMobileNumber(null));
+        assertTrue(clientRepository.findByMobileNumber(null).isEmpty());
+    }
+
+    @Test
+    void searchUsesMostSelectiveIndexTest() {
+
+        clientRepository.save(new Client("Vishal", "Nagdev", "0820000001", "8001015009087", "Pune"));
+        clientRepository.save(new Client("Vishal", "Smith", "0820000002", "8001015009095", "Pune"));
+        clientRepository.save(new Client("John", "Smith", "0820000003", "9912314999084", "Pune"));
+
+        List<Client> result = clientRepository.search(byName("Vishal", "Smith"), null, 10);
+
+        assertEquals(1, result.size());
+        assertEquals("8001015009095", result.get(0).getIdNumber());
+        assertTrue(clientRepository.search(byName("Vishal", "Smith"), "8001015009095", 10).isEmpty());
+    }
+
+    @Test
+    void searchByUniqueKeyTest() {
+
+        Client client = clientRepository.save(new Client("Vishal", "Nagdev", "0820000001", "8001015009087", "Pune"));
+
+        assertEquals(List.of(client), clientRepository.search(new ClientSearchCriteria(null, null, null, "0820000001"), null, 10));
+        assertTrue(clientRepository.search(new ClientSearchCriteria("John", null, "8001015009087", null), null, 10).isEmpty());
+    }
+
+    private static ClientSearchCriteria byName(String firstName, String lastName) {
+        return new ClientSearchCriteria(firstName, lastName, null, null);
+    }
+}
@@ -0,0 +1,202 @@
+package com.nobrainsolutions.assignment.repository;
+
+import com.nobrainsolutions.assignment.benchmark.BenchmarkData;
+import com.nobrainsolutions.assignment.dto.ClientSearchCriteria;
+import com.nobrainsolutions.assignment.entity.Client;
+import com.nobrainsolutions.assignment.exception.ClientException;
+import com.nobrainsolutions.assignment.exception.ErrorCode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * The ShardedClientRepositoryTest class is responsible for testing the ShardedClientRepository class.
+ * It contains test cases for mobile number uniqueness across shards, ID number changes that move a client
+ * to another shard, and searches merged from every shard.
+ */
+
+public class ShardedClientRepositoryTest {
+
+    private ShardedClientRepository clientRepository;
+
+    @BeforeEach
+    void setUp() {
+        clientRepository = new ShardedClientRepository(8, "heap", 1024);
+    }
+
+    @Test
+    void duplicateMobileNumberAcrossShardsTest() {
+
+        String otherIdNumber = idNumberOnOtherShard("8001015009087");
+        clientRepository.save(new Client("Vishal", "Nagdev", "9284121655", "8001015009087", "Pune"));
+
+        ClientException exception = assertThrows(ClientException.class,
+                () -> clientRepository.save(new Client("John", "Smith", "9284121655", otherIdNumber, "Pune")));
+
+        assertEquals(ErrorCode.DUPLICATE_MOBILE_NUMBER, exception.getErrorCode());
+        assertFalse(clientRepository.existsByIdNumber(otherIdNumber));
+        assertEquals("8001015009087", clientRepository.findByMobileNumber("9284121655").orElseThrow().getIdNumber());
+    }
+
+    @Test
+    void failedSaveReleasesMobileNumberTest() {
+
+        clientRepository.save(new Client("Vishal", "Nagdev", "9284121655", "8001015009087", "Pune"));
+
+        assertThrows(ClientException.class,
+                () -> clientRepository.save(new Client("John", "Smith", "0820000001", "8001015009087", "Pune")));
+
+        assertFalse(clientRepository.existsByMobileNumber("0820000001"));
+    }
+
+    @Test
+    void idNumberChangeMovesClientToOtherShardTest() {
+
+        String otherIdNumber = idNumberOnOtherShard("8001015009087");
+        clientRepository.save(new Client("Vishal", "Nagdev", "9284121655", "8001015009087", "Pune"));
+
+        Client updated = clientRepository.update("8001015009087",
+                new Client("Vishal", "Nagdev", "9284121655", otherIdNumber, "Cape Town"));
+
+        assertEquals(2, updated.getVersion());
+        assertEquals(1, clientRepository.size());
+        assertFalse(clientRepository.existsByIdNumber("8001015009087"));
+        assertEquals(updated, clientRepository.findByIdNumber(otherIdNumber).orElse(null));
+        assertEquals(updated, clientRepository.findByMobileNumber("9284121655").orElse(null));
+        assertEquals(List.of(updated), clientRepository.search(
+                new ClientSearchCriteria(null, null, null, "9284121655"), null, 10));
+    }
+
+    @Test
+    void idNumberChangeToTakenIdNumberTest() {
+
+        String otherIdNumber = idNumberOnOtherShard("8001015009087");
+        clientRepository.save(new Client("Vishal", "Nagdev", "9284121655", "8001015009087", "Pune"));
+        clientRepository.save(new Client("John", "Smith", "0820000001", otherIdNumber, "Pune"));
+
+        assertThrows(ClientException.class, () -> clientRepository.update("8001015009087",
+                new Client("Vishal", "Nagdev", "0820000002", otherIdNumber, "Pune")));
+
+        assertTrue(clientRepository.existsByIdNumber("8001015009087"));
+        assertFalse(clientRepository.existsByMobileNumber("0820000002"));
+        assertEquals("John", clientRepository.findByIdNumber(otherIdNumber).orElseThrow().getFirstName());
+    }
+
+    @Test
+    void searchMergesShardsInIdNumberOrderTest() {
+
+        InMemoryClientRepository single = new InMemoryClientRepository();
+        for (int i = 0; i < 5_000; i++) {
+            clientRepository.save(BenchmarkData.client(i));
+            single.save(BenchmarkData.client(i));
+        }
+        ClientSearchCriteria criteria = new ClientSearchCriteria(BenchmarkData.firstName(7), null, null, null);
+
+        List<Client> firstPage = clientRepository.search(criteria, null, 3);
+        String after = firstPage.get(firstPage.size() - 1).getIdNumber();
+        List<Client> secondPage = clientRepository.search(criteria, after, 10);
+
+        assertEquals(idNumbers(single.search(criteria, null, 3)), idNumbers(firstPage));
+        assertEquals(idNumbers(single.search(criteria, after, 10)), idNumbers(secondPage));
+        assertEquals(5_000, clientRepository.size());
+        assertEquals(Integer.valueOf(5_000), clientRepository.indexSizes().get("mobileNumber"));
+    }
+
+    @Test
+    void searchRunsOnDedicatedThreadsTest() {
+
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        List<ClientRepository> shards = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            shards.add(new InMemoryClientRepository() {
+                @Override
+                public List<Client> search(ClientSearchCriteria criteria, String afterIdNumber, int limit) {
+                    threads.add(Thread.currentThread().getName());
+                    return super.search(criteria, afterIdNumber, limit);
+                }
+            });
+        }
+        ShardedClientRepository repository = new ShardedClientRepository(shards);
+        for (int i = 0; i < 100; i++) {
+            repository.save(BenchmarkData.client(i));
+        }
+
+        repository.search(new ClientSearchCriteria(BenchmarkData.firstName(7), null, null, null), null, 10);
+        repository.destroy();
+
+        assertTrue(threads.contains(Thread.currentThread().getName()));
+        assertTrue(threads.stream().anyMatch(name -> name.startsWith("client-shard-search-")));
+        assertTrue(threads.stream().noneMatch(name -> name.startsWith("ForkJoinPool")));
+    }
+
+    @Test
+    void movedClientIsNeverReadTwiceTest() {
+
+        String otherIdNumber = idNumberOnOtherShard("8001015009087");
+        List<List<String>> seenDuringMove = new ArrayList<>();
+        ShardedClientRepository[] repository = new ShardedClientRepository[1];
+        List<ClientRepository> shards = new ArrayList<>();
+        for (ClientRepository ignored : clientRepository.shards()) {
+            shards.add(new InMemoryClientRepository() {
+                @Override
+                public Client restore(Client client) {
+                    Client previous = super.restore(client);
+                    // The copy on the new shard exists; the one on the old shard is not removed yet.
+                    seenDuringMove.add(idNumbers(repository[0].search(
+                            new ClientSearchCriteria("Vishal", null, null, null), null, 10)));
+                    seenDuringMove.add(idNumbers(StreamSupport.stream(repository[0].findAll().spliterator(), false).toList()));
+                    seenDuringMove.add(repository[0].findByIdNumber(otherIdNumber).map(Client::getIdNumber).stream().toList());
+                    return previous;
+                }
+            });
+        }
+        repository[0] = new ShardedClientRepository(shards);
+        repository[0].save(new Client("Vishal", "Nagdev", "9284121655", "8001015009087", "Pune"));
+
+        repository[0].update("8001015009087", new Client("Vishal", "Nagdev", "9284121655", otherIdNumber, "Pune"));
+
+        assertEquals(List.of(List.of("8001015009087"), List.of("8001015009087"), List.of()), seenDuringMove);
+        assertEquals(List.of(otherIdNumber), idNumbers(repository[0].search(
+                new ClientSearchCriteria("Vishal", null, null, null), null, 10)));
+        repository[0].destroy();
+    }
+
+    /**
+     * Finds an ID number routed to another shard than the given one. Call it before storing either.
+     */
+    private String idNumberOnOtherShard(String idNumber) {
+        ClientRepository shard = shardOf(idNumber);
+        for (int i = 0; ; i++) {
+            String candidate = BenchmarkData.idNumber(i);
+            if (shardOf(candidate) != shard) {
+                return candidate;
+            }
+        }
+    }
+
+    private ClientRepository shardOf(String idNumber) {
+        Client probe = new Client("Probe", "Probe", null, idNumber, "Probe");
+        clientRepository.restore(probe);
+        try {
+            return clientRepository.shards().stream()
+                    .filter(shard -> shard.existsByIdNumber(idNumber))
+                    .findFirst()
+                    .orElseThrow();
+        } finally {
+            clientRepository.remove(idNumber);
+        }
+    }
+
+    private static List<String> idNumbers(List<Client> clients) {
+        return clients.stream().map(Client::getIdNumber).collect(Collectors.toList());
+    }
+}
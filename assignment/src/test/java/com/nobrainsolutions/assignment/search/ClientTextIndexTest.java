@@ -0,0 +1,138 @@
+package com.nobrainsolutions.assignment.search;
+
+import com.nobrainsolutions.assignment.benchmark.BenchmarkData;
+import com.nobrainsolutions.assignment.entity.Client;
+import com.nobrainsolutions.assignment.repository.InMemoryClientRepository;
+import com.nobrainsolutions.assignment.service.ClientService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * The ClientTextIndexTest class is responsible for testing the ClientTextIndex class.
+ * It contains test cases for prefix and fuzzy search and for incremental maintenance on update.
+ */
+
+public class ClientTextIndexTest {
+
+    private ClientService clientService;
+    private ClientTextIndex clientTextIndex;
+
+    @BeforeEach
+    void setUp() {
+        InMemoryClientRepository clientRepository = new InMemoryClientRepository();
+        clientTextIndex = new ClientTextIndex(clientRepository);
+        clientService = new ClientService(clientRepository, List.of(clientTextIndex));
+
+        clientService.createClient(new Client("Vishal", "Nagdev", "0820000001", "8001015009087", "12 Main Road, Pune"));
+        clientService.createClient(new Client("Vikram", "Naidoo", "0820000002", "8001015009095", "4 Long Street, Cape Town"));
+        clientService.createClient(new Client("Thandi", "Nkosi", "0820000003", "9912314999084", "7 Main Road, Durban"));
+    }
+
+    @Test
+    void searchByPrefixTest() {
+
+        List<Client> result = clientTextIndex.searchByPrefix("Vi", 10);
+
+        assertEquals(2, result.size());
+        assertEquals("8001015009095", result.get(0).getIdNumber());
+        assertEquals("8001015009087", result.get(1).getIdNumber());
+    }
+
+    @Test
+    void searchByPrefixWithSeveralTermsTest() {
+
+        List<Client> result = clientTextIndex.searchByPrefix("main dur", 10);
+
+        assertEquals(1, result.size());
+        assertEquals("Thandi", result.get(0).getFirstName());
+    }
+
+    @Test
+    void searchByPrefixHonoursLimitTest() {
+
+        assertEquals(1, clientTextIndex.searchByPrefix("n", 1).size());
+        assertTrue(clientTextIndex.searchByPrefix("zz", 10).isEmpty());
+        assertTrue(clientTextIndex.searchByPrefix("  ", 10).isEmpty());
+    }
+
+    @Test
+    void searchFuzzyTest() {
+
+        List<Client> oneTypo = clientTextIndex.searchFuzzy("Vishl", 1, 10);
+        List<Client> twoTypos = clientTextIndex.searchFuzzy("Nakosy", 2, 10);
+
+        assertEquals(1, oneTypo.size());
+        assertEquals("Vishal", oneTypo.get(0).getFirstName());
+        assertEquals(1, twoTypos.size());
+        assertEquals("Thandi", twoTypos.get(0).getFirstName());
+        assertTrue(clientTextIndex.searchFuzzy("Vishl", 0, 10).isEmpty());
+    }
+
+    @Test
+    void searchFuzzyShortNamesTest() {
+
+        // Three-letter names one edit apart share no trigram.
+        clientService.createClient(new Client("Jon", "Ng", "0820000004", BenchmarkData.idNumber(1), "Pune"));
+        clientService.createClient(new Client("Ann", "Bo", "0820000005", BenchmarkData.idNumber(2), "Durban"));
+
+        List<Client> oneTypo = clientTextIndex.searchFuzzy("Jan", 1, 10);
+        List<Client> twoTypos = clientTextIndex.searchFuzzy("Jnn", 2, 10);
+
+        assertEquals(1, oneTypo.size());
+        assertEquals("Jon", oneTypo.get(0).getFirstName());
+        assertEquals(List.of("Ann", "Jon"), twoTypos.stream().map(Client::getFirstName).toList());
+        assertTrue(clientTextIndex.searchFuzzy("Jan", 0, 10).isEmpty());
+        assertTrue(clientTextIndex.searchFuzzy("Xyz", 1, 10).isEmpty());
+    }
+
+    @Test
+    void searchFuzzyShortNamesExaminesFewTokensTest() {
+
+        for (int i = 0; i < 2_000; i++) {
+            clientService.createClient(BenchmarkData.client(i));
+        }
+        clientService.createClient(new Client("Jon", "Ng", "0820000004", BenchmarkData.idNumber(2_000), "Pune"));
+
+        // Thousands of tokens, among them short numbers such as 12, yet only those sharing a deletion are compared.
+        assertTrue(clientTextIndex.tokenCount() > 5_000);
+        assertTrue(clientTextIndex.fuzzyCandidates("jan", 1).size() <= 5);
+        assertTrue(clientTextIndex.fuzzyCandidates("jnn", 2).size() <= 10);
+        assertEquals("Jon", clientTextIndex.searchFuzzy("Jan", 1, 10).get(0).getFirstName());
+        assertEquals("Jon", clientTextIndex.searchFuzzy("Jnn", 2, 10).get(0).getFirstName());
+    }
+
+    @Test
+    void deletionsTest() {
+
+        assertEquals(Set.of("jon", "on", "jn", "jo"), ClientTextIndex.deletions("jon", 1));
+        assertEquals(Set.of("jon", "on", "jn", "jo", "n", "o", "j"), ClientTextIndex.deletions("jon", 2));
+    }
+
+    @Test
+    void updateReindexesClientTest() {
+
+        clientService.updateClient("8001015009087",
+                new Client("Sipho", "Nagdev", "0820000001", "8001015009087", "12 Main Road, Pune"));
+
+        assertEquals(1, clientTextIndex.searchByPrefix("vi", 10).size());
+        assertEquals("Sipho", clientTextIndex.searchByPrefix("sip", 10).get(0).getFirstName());
+        assertEquals(1, clientTextIndex.searchFuzzy("Siphp", 1, 10).size());
+        assertFalse(clientTextIndex.searchFuzzy("Vishal", 1, 10).stream()
+                .anyMatch(client -> client.getIdNumber().equals("8001015009087")));
+    }
+
+    @Test
+    void boundedEditDistanceTest() {
+
+        assertEquals(0, ClientTextIndex.boundedEditDistance("vishal", "vishal", 2));
+        assertEquals(1, ClientTextIndex.boundedEditDistance("vishal", "vishl", 2));
+        assertEquals(2, ClientTextIndex.boundedEditDistance("nkosi", "nakosy", 2));
+        assertEquals(3, ClientTextIndex.boundedEditDistance("vishal", "thandi", 2));
+    }
+}
@@ -0,0 +1,117 @@
+package com.nobrainsolutions.assignment.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nobrainsolutions.assignment.codec.ClientBinaryCodec;
+import com.nobrainsolutions.assignment.entity.Client;
+import com.nobrainsolutions.assignment.exception.ClientException;
+import com.nobrainsolutions.assignment.exception.ErrorCode;
+import com.nobrainsolutions.assignment.repository.InMemoryClientRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * The ClientExportServiceTest class is responsible for testing the ClientExportService class.
+ * It contains test cases for the NDJSON, CSV and binary formats.
+ */
+
+public class ClientExportServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ClientService clientService;
+
+    private ClientExportService clientExportService;
+
+    @BeforeEach
+    void setUp() {
+        clientService = new ClientService(new InMemoryClientRepository());
+        clientExportService = new ClientExportService(clientService, objectMapper);
+        clientService.createClient(new Client("Vishal", "Nagdev", "9284121655", "8001015009087", "12 Main Road, Pune"));
+        clientService.createClient(new Client("John", "Smith", null, "8001015009095", "\"The Oaks\""));
+        clientService.updateClient("8001015009095", new Client("John", "Smith", null, "8001015009095", "\"The Oaks\"\nDurban"));
+    }
+
+    @Test
+    void exportNdjsonTest() throws IOException {
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(2, clientExportService.export(ClientExportService.Format.NDJSON, out));
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        for (String line : lines) {
+            Client client = objectMapper.readValue(line, Client.class);
+            assertEquals(clientService.getClientById(client.getIdNumber()).getPhysicalAddress(), client.getPhysicalAddress());
+            assertEquals(clientService.getClientById(client.getIdNumber()).getVersion(),
+                    objectMapper.readTree(line).get("version").asLong());
+        }
+    }
+
+    @Test
+    void exportCsvCanBeImportedTest() throws IOException {
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        clientExportService.export(ClientExportService.Format.CSV, out);
+
+        Reader csv = new StringReader(out.toString(StandardCharsets.UTF_8));
+        assertEquals(List.of("firstName", "lastName", "mobileNumber", "idNumber", "physicalAddress", "version"),
+                ClientImportService.readCsvRecord(csv, 1000));
+        for (int i = 0; i < 2; i++) {
+            List<String> fields = ClientImportService.readCsvRecord(csv, 1000);
+            Client client = clientService.getClientById(fields.get(3));
+            assertEquals(client.getPhysicalAddress(), fields.get(4));
+            assertEquals(Long.toString(client.getVersion()), fields.get(5));
+        }
+        assertNull(ClientImportService.readCsvRecord(csv, 1000));
+
+        ClientService copy = new ClientService(new InMemoryClientRepository());
+        ClientImportService clientImportService = new ClientImportService(copy, objectMapper,
+                Validation.buildDefaultValidatorFactory().getValidator(), 10, 10, 1000);
+        assertEquals(2, clientImportService.importCsv(new ByteArrayInputStream(out.toByteArray())).getCreated());
+        assertNull(copy.getClientById("8001015009095").getMobileNumber());
+        assertEquals("12 Main Road, Pune", copy.getClientById("8001015009087").getPhysicalAddress());
+        assertEquals("\"The Oaks\"\nDurban", copy.getClientById("8001015009095").getPhysicalAddress());
+    }
+
+    @Test
+    void exportBinaryTest() throws IOException {
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        clientExportService.export(ClientExportService.Format.BINARY, out);
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(out.toByteArray()));
+        int count = 0;
+        while (in.available() > 0) {
+            Client client = ClientBinaryCodec.read(in);
+            long version = in.readLong();
+            assertEquals(clientService.getClientById(client.getIdNumber()).getVersion(), version);
+            assertEquals(clientService.getClientById(client.getIdNumber()).getMobileNumber(), client.getMobileNumber());
+            count++;
+        }
+        assertEquals(2, count);
+    }
+
+    @Test
+    void unknownFormatTest() {
+
+        assertEquals(ClientExportService.Format.BINARY, ClientExportService.Format.of("Binary"));
+        assertEquals(ErrorCode.INVALID_EXPORT_FORMAT,
+                assertThrows(ClientException.class, () -> ClientExportService.Format.of("xml")).getErrorCode());
+    }
+}
@@ -0,0 +1,158 @@
+package com.nobrainsolutions.assignment.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nobrainsolutions.assignment.dto.BulkImportResult;
+import com.nobrainsolutions.assignment.repository.InMemoryClientRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * The ClientImportServiceTest class is responsible for testing the ClientImportService class.
+ * It contains test cases for JSON and CSV imports, including rejected rows.
+ */
+
+public class ClientImportServiceTest {
+
+    private InMemoryClientRepository clientRepository;
+    private ClientImportService clientImportService;
+
+    @BeforeEach
+    void setUp() {
+        clientRepository = new InMemoryClientRepository();
+        clientImportService = new ClientImportService(new ClientService(clientRepository), new ObjectMapper(),
+                Validation.buildDefaultValidatorFactory().getValidator(), 2, 10, 200);
+    }
+
+    @Test
+    void importJsonTest() throws IOException {
+
+        String json = "["
+                + "{\"firstName\":\"Vishal\",\"lastName\":\"Nagdev\",\"mobileNumber\":\"9284121655\",\"idNumber\":\"8001015009087\",\"physicalAddress\":\"Pune\"},"
+                + "{\"firstName\":\"John\",\"lastName\":\"Smith\",\"mobileNumber\":\"9284121655\",\"idNumber\":\"8001015009095\"},"
+                + "{\"firstName\":\"Jane\",\"lastName\":\"Smith\",\"idNumber\":\"8001015009080\"},"
+                + "{\"firstName\":\"\",\"lastName\":\"Smith\",\"idNumber\":\"9912314999084\"},"
+                + "{\"firstName\":\"Jane\",\"lastName\":\"Smith\",\"mobileNumber\":\"0821234567\",\"idNumber\":\"9912314999084\"}"
+                + "]";
+
+        BulkImportResult result = clientImportService.importJson(stream(json));
+
+        assertEquals(5, result.getTotal());
+        assertEquals(2, result.getCreated());
+        assertEquals(3, result.getFailed());
+        assertEquals(2, clientRepository.size());
+        assertEquals(2, result.getErrors().get(0).getRow());
+        assertEquals("Duplicate Mobile Number", result.getErrors().get(0).getMessage());
+        assertEquals(3, result.getErrors().get(1).getRow());
+        assertEquals("Invalid South African ID Number", result.getErrors().get(1).getMessage());
+        assertEquals(4, result.getErrors().get(2).getRow());
+        assertFalse(result.isErrorsTruncated());
+    }
+
+    @Test
+    void importMalformedJsonTest() throws IOException {
+
+        String json = "[{\"firstName\":\"Vishal\",\"lastName\":\"Nagdev\",\"idNumber\":\"8001015009087\"}, {\"firstName\":";
+
+        BulkImportResult result = clientImportService.importJson(stream(json));
+
+        assertEquals(1, result.getCreated());
+        assertEquals(1, result.getFailed());
+        assertEquals(2, result.getErrors().get(0).getRow());
+    }
+
+    @Test
+    void importJsonSkipsElementsThatAreNotClientsTest() throws IOException {
+
+        String json = "["
+                + "{\"firstName\":\"Vishal\",\"lastName\":\"Nagdev\",\"idNumber\":\"8001015009087\"},"
+                + "\"8001015009095\","
+                + "[{\"firstName\":\"John\"}],"
+                + "{\"firstName\":{\"given\":[\"John\"]},\"lastName\":\"Smith\",\"idNumber\":\"8001015009095\"},"
+                + "{\"firstName\":\"John\",\"lastName\":\"Smith\",\"nickname\":\"JJ\",\"idNumber\":\"8001015009095\"},"
+                + "null,"
+                + "{\"firstName\":\"Jane\",\"lastName\":\"Smith\",\"idNumber\":\"9912314999084\"}"
+                + "]";
+
+        BulkImportResult result = clientImportService.importJson(stream(json));
+
+        assertEquals(7, result.getTotal());
+        assertEquals(2, result.getCreated());
+        assertEquals(5, result.getFailed());
+        assertEquals(List.of(2L, 3L, 4L, 5L, 6L), result.getErrors().stream().map(BulkImportResult.RowError::getRow).toList());
+        assertEquals("Expected a client object", result.getErrors().get(0).getMessage());
+        assertTrue(result.getErrors().get(2).getMessage().startsWith("Invalid client"));
+        assertTrue(clientRepository.existsByIdNumber("9912314999084"));
+    }
+
+    @Test
+    void importCsvTest() throws IOException {
+
+        String csv = "idNumber,firstName,lastName,mobileNumber,physicalAddress\n"
+                + "8001015009087,Vishal,Nagdev,9284121655,\"12 Main Road, Pune\"\n"
+                + "8001015009087,John,Smith,0821234567,Cape Town\n"
+                + "\n"
+                + "9912314999084,\"Jane \"\"JJ\"\"\",Smith,,\"4 Long Street\r\nCape Town\"\r\n";
+
+        BulkImportResult result = clientImportService.importCsv(stream(csv));
+
+        assertEquals(3, result.getTotal());
+        assertEquals(2, result.getCreated());
+        assertEquals(1, result.getFailed());
+        assertEquals("Duplicate ID Number", result.getErrors().get(0).getMessage());
+        assertEquals("12 Main Road, Pune", clientRepository.findByIdNumber("8001015009087").get().getPhysicalAddress());
+        assertEquals("Jane \"JJ\"", clientRepository.findByIdNumber("9912314999084").get().getFirstName());
+        assertNull(clientRepository.findByIdNumber("9912314999084").get().getMobileNumber());
+        assertEquals("4 Long Street\r\nCape Town", clientRepository.findByIdNumber("9912314999084").get().getPhysicalAddress());
+    }
+
+    @Test
+    void importCsvStopsUnterminatedQuoteAtRecordLimitTest() throws IOException {
+
+        StringBuilder csv = new StringBuilder("idNumber,firstName,lastName,physicalAddress\n")
+                .append("8001015009087,Vishal,Nagdev,\"12 Main Road\n");
+        for (int i = 0; i < 20; i++) {
+            csv.append("Pune, Pune, Pune\n");
+        }
+        csv.append("9912314999084,Jane,Smith,Cape Town\n");
+
+        BulkImportResult result = clientImportService.importCsv(stream(csv.toString()));
+
+        // The row with the unterminated quote fails once it passes the 200-character limit, and reading
+        // resumes at the next line; the lines after it are read as rows of their own.
+        assertEquals(1, result.getErrors().get(0).getRow());
+        assertEquals("CSV record longer than 200 characters", result.getErrors().get(0).getMessage());
+        assertNull(result.getErrors().get(0).getIdNumber());
+        assertEquals(1, result.getCreated());
+        assertTrue(clientRepository.existsByIdNumber("9912314999084"));
+        assertFalse(clientRepository.existsByIdNumber("8001015009087"));
+    }
+
+    @Test
+    void reportedErrorsAreCappedTest() throws IOException {
+
+        StringBuilder csv = new StringBuilder("firstName,lastName,idNumber\n");
+        for (int i = 0; i < 15; i++) {
+            csv.append("Vishal,Nagdev,7878\n");
+        }
+
+        BulkImportResult result = clientImportService.importCsv(stream(csv.toString()));
+
+        assertEquals(15, result.getFailed());
+        assertEquals(10, result.getErrors().size());
+        assertTrue(result.isErrorsTruncated());
+    }
+
+    private static InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,206 @@
+package com.nobrainsolutions.assignment.service;
+
+import com.nobrainsolutions.assignment.entity.Client;
+import com.nobrainsolutions.assignment.exception.ClientException;
+import com.nobrainsolutions.assignment.exception.ErrorCode;
+import com.nobrainsolutions.assignment.repository.InMemoryClientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * The ClientServiceConcurrencyTest class is responsible for stress testing the ClientService class.
+ * It hammers the service from hundreds of threads with colliding ID and mobile numbers and
+ * checks that no duplicates are ever stored, that readers never see a half-applied update and
+ * that conditional updates never lose a write.
+ */
+
+public class ClientServiceConcurrencyTest {
+
+    private static final int THREADS = 200;
+    private static final int OPERATIONS_PER_THREAD = 500;
+    private static final int ID_NUMBERS = 2_000;
+    private static final int MOBILE_NUMBERS = 1_000;
+
+    private ClientService clientService;
+    private InMemoryClientRepository clientRepository;
+
+    @BeforeEach
+    void setUp() {
+        clientRepository = new InMemoryClientRepository();
+        clientService = new ClientService(clientRepository);
+    }
+
+    @Test
+    void concurrentCreateClientTest() throws Exception {
+
+        AtomicInteger created = new AtomicInteger();
+
+        runConcurrently(random -> {
+            Client client = new Client("Vishal", "Nagdev", mobileNumber(random.nextInt(MOBILE_NUMBERS)),
+                    idNumber(random.nextInt(ID_NUMBERS)), "Pune");
+            try {
+                clientService.createClient(client);
+                created.incrementAndGet();
+            } catch (IllegalArgumentException ignored) {
+                // duplicates are expected
+            }
+        });
+
+        assertEquals(created.get(), clientRepository.size());
+        assertNoDuplicates();
+    }
+
+    @Test
+    void concurrentCreateAndUpdateClientTest() throws Exception {
+
+        for (int i = 0; i < MOBILE_NUMBERS / 2; i++) {
+            clientService.createClient(new Client("Vishal", "Nagdev", mobileNumber(i), idNumber(i), "Pune"));
+        }
+
+        runConcurrently(random -> {
+            String idNumber = idNumber(random.nextInt(ID_NUMBERS));
+            Client client = new Client("John", "Smith", mobileNumber(random.nextInt(MOBILE_NUMBERS)),
+                    idNumber(random.nextInt(ID_NUMBERS)), "Cape Town");
+            try {
+                if (random.nextBoolean()) {
+                    clientService.updateClient(idNumber, client);
+                } else {
+                    clientService.createClient(client);
+                }
+            } catch (IllegalArgumentException ignored) {
+                // duplicates and missing clients are expected
+            }
+        });
+
+        assertNoDuplicates();
+    }
+
+    @Test
+    void readersNeverSeePartialUpdateTest() throws Exception {
+
+        clientService.createClient(new Client("Vishal", "Nagdev", mobileNumber(0), idNumber(0), "Pune"));
+
+        runConcurrently(random -> {
+            if (random.nextBoolean()) {
+                clientService.updateClient(idNumber(0), random.nextBoolean()
+                        ? new Client("Vishal", "Nagdev", mobileNumber(0), idNumber(0), "Pune")
+                        : new Client("John", "Smith", mobileNumber(1), idNumber(0), "Cape Town"));
+            } else {
+                Client client = clientService.getClientById(idNumber(0));
+                String state = client.getFirstName() + " " + client.getLastName() + " "
+                        + client.getMobileNumber() + " " + client.getPhysicalAddress();
+                assertTrue(state.equals("Vishal Nagdev " + mobileNumber(0) + " Pune")
+                        || state.equals("John Smith " + mobileNumber(1) + " Cape Town"), state);
+            }
+        });
+    }
+
+    @Test
+    void conditionalUpdatesNeverLoseWritesTest() throws Exception {
+
+        clientService.createClient(new Client("Vishal", "Nagdev", null, idNumber(0), "0"));
+        AtomicInteger applied = new AtomicInteger();
+
+        runConcurrently(random -> {
+            Client current = clientService.getClientById(idNumber(0));
+            int count = Integer.parseInt(current.getPhysicalAddress());
+            try {
+                clientService.updateClient(idNumber(0),
+                        new Client("Vishal", "Nagdev", null, idNumber(0), Integer.toString(count + 1)), current.getVersion());
+                applied.incrementAndGet();
+            } catch (ClientException e) {
+                assertEquals(ErrorCode.VERSION_CONFLICT, e.getErrorCode());
+            }
+        });
+
+        Client client = clientService.getClientById(idNumber(0));
+        assertEquals(applied.get(), Integer.parseInt(client.getPhysicalAddress()));
+        assertEquals(applied.get() + 1, client.getVersion());
+    }
+
+    private void runConcurrently(Operation operation) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Throwable> failures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                        operation.run(random);
+                    }
+                } catch (Throwable e) {
+                    synchronized (failures) {
+                        failures.add(e);
+                    }
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(2, TimeUnit.MINUTES));
+        assertTrue(failures.isEmpty(), "Unexpected failures: " + failures);
+    }
+
+    private void assertNoDuplicates() {
+        Set<String> mobileNumbers = new HashSet<>();
+        int found = 0;
+        for (int i = 0; i < ID_NUMBERS; i++) {
+            Client client = clientRepository.findByIdNumber(idNumber(i)).orElse(null);
+            if (client == null) {
+                continue;
+            }
+            found++;
+            assertEquals(idNumber(i), client.getIdNumber());
+            assertTrue(mobileNumbers.add(client.getMobileNumber()), "Duplicate mobile number " + client.getMobileNumber());
+            assertSame(client, clientRepository.findByMobileNumber(client.getMobileNumber()).orElse(null));
+        }
+        assertEquals(found, clientRepository.size());
+        for (int i = 0; i < MOBILE_NUMBERS; i++) {
+            clientRepository.findByMobileNumber(mobileNumber(i))
+                    .ifPresent(client -> assertTrue(mobileNumbers.contains(client.getMobileNumber())));
+        }
+    }
+
+    /**
+     * Builds a valid South African ID number for 1980-01-01 with the given sequence number.
+     */
+    private static String idNumber(int sequence) {
+        String digits = String.format("800101%04d08", sequence);
+        int sum = 0;
+        for (int i = 0; i < digits.length(); i++) {
+            int digit = digits.charAt(i) - '0';
+            if (i % 2 == 1) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+        }
+        return digits + ((10 - sum % 10) % 10);
+    }
+
+    private static String mobileNumber(int sequence) {
+        return String.format("082%07d", sequence);
+    }
+
+    private interface Operation {
+        void run(ThreadLocalRandom random);
+    }
+}
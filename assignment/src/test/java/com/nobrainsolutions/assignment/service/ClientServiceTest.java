@@ -1,30 +1,43 @@
 package com.nobrainsolutions.assignment.service;
 
+import com.nobrainsolutions.assignment.dto.ClientLookupResult;
+import com.nobrainsolutions.assignment.dto.ClientPage;
+import com.nobrainsolutions.assignment.dto.ClientSearchCriteria;
 import com.nobrainsolutions.assignment.entity.Client;
+import com.nobrainsolutions.assignment.exception.ClientException;
+import com.nobrainsolutions.assignment.exception.ErrorCode;
+import com.nobrainsolutions.assignment.repository.ClientRepository;
+import com.nobrainsolutions.assignment.repository.InMemoryClientRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
  *
  * The ClientServiceTest class is responsible for testing the ClientService class.
- * It contains test cases for creating, retrieving, updating, and searching clients.
+ * It contains test cases for creating, retrieving, updating, deleting, searching, and looking up clients,
+ * and for undoing a change that a change listener failed to take.
  */
 
 public class ClientServiceTest {
 
     private ClientService clientService;
-    private List<Client> clients;
+    private ClientRepository clientRepository;
 
     @BeforeEach
     void setUp() {
-        clients = new ArrayList<>();
-        clientService = new ClientService(clients);
+        clientRepository = new InMemoryClientRepository();
+        clientService = new ClientService(clientRepository);
     }
 
     @Test
@@ -36,16 +49,16 @@ public class ClientServiceTest {
 
         // Assert
         assertNotNull(createdClient);
-        assertEquals(client, createdClient);
-        assertEquals(1, clients.size());
-        assertTrue(clients.contains(client));
+        assertEquals(1, createdClient.getVersion());
+        assertEquals(0, client.getVersion());
+        assertEquals(1, clientRepository.size());
+        assertEquals(createdClient, clientRepository.findByIdNumber(client.getIdNumber()).orElse(null));
     }
 
     @Test
     void getClientByIdTest() {
 
-        Client existingClient = new Client("Vishal", "Nagdev", "9284121655", "7878", "Pune");
-        clients.add(existingClient);
+        Client existingClient = clientRepository.save(new Client("Vishal", "Nagdev", "9284121655", "7878", "Pune"));
 
         Client client = clientService.getClientById(existingClient.getIdNumber());
 
@@ -57,24 +70,80 @@ public class ClientServiceTest {
     void updateClientTest() {
 
         Client existingClient = new Client("Vishal", "Nagdev", "9284121655", "8001015009087", "Pune");
-        clients.add(existingClient);
+        clientRepository.save(existingClient);
 
         String updatedFirstName = "Vishal";
         String updatedLastName = "Nagdev";
         String updatedMobileNumber = "9284121650";
-        String updatedIdNumber = "8001015009080";
+        String updatedIdNumber = "8001015009095";
         String updatedAddress = "South Africa";
         Client updatedClient = new Client(updatedFirstName, updatedLastName, updatedMobileNumber, updatedIdNumber, updatedAddress);
 
         Client updated = clientService.updateClient(existingClient.getIdNumber(), updatedClient);
 
         assertNotNull(updated);
-        assertEquals(existingClient, updated);
+        assertEquals(2, updated.getVersion());
+        assertEquals("Pune", existingClient.getPhysicalAddress());
         assertEquals(updatedFirstName, updated.getFirstName());
         assertEquals(updatedLastName, updated.getLastName());
         assertEquals(updatedMobileNumber, updated.getMobileNumber());
         assertEquals(updatedIdNumber, updated.getIdNumber());
         assertEquals(updatedAddress, updated.getPhysicalAddress());
+        assertFalse(clientRepository.existsByIdNumber("8001015009087"));
+        assertFalse(clientRepository.existsByMobileNumber("9284121655"));
+        assertEquals(updated, clientService.getClientById(updatedIdNumber));
+    }
+
+    @Test
+    void updateClientKeepingIdAndMobileNumberTest() {
+
+        Client existingClient = new Client("Vishal", "Nagdev", "9284121655", "8001015009087", "Pune");
+        clientRepository.save(existingClient);
+
+        Client updatedClient = new Client("Vishal", "Nagdev", "9284121655", "8001015009087", "South Africa");
+
+        Client updated = clientService.updateClient(existingClient.getIdNumber(), updatedClient);
+
+        assertEquals("South Africa", updated.getPhysicalAddress());
+        assertEquals(1, clientRepository.size());
+    }
+
+    @Test
+    void conditionalUpdateTest() {
+
+        Client existingClient = clientService.createClient(new Client("Vishal", "Nagdev", "9284121655", "8001015009087", "Pune"));
+
+        Client updated = clientService.updateClient("8001015009087",
+                new Client("Vishal", "Nagdev", "9284121655", "8001015009087", "Cape Town"), existingClient.getVersion());
+        ClientException ex = assertThrows(ClientException.class, () -> clientService.updateClient("8001015009087",
+                new Client("Vishal", "Nagdev", "9284121655", "8001015009087", "Durban"), existingClient.getVersion()));
+
+        assertEquals(ErrorCode.VERSION_CONFLICT, ex.getErrorCode());
+        assertEquals("Cape Town", clientService.getClientById("8001015009087").getPhysicalAddress());
+        assertEquals(updated.getVersion(), clientService.getClientById("8001015009087").getVersion());
+    }
+
+    @Test
+    void createClientWithInvalidChecksumTest() {
+
+        Client client = new Client("Vishal", "Nagdev", "9284121655", "8001015009080", "Pune");
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> clientService.createClient(client));
+
+        assertEquals("Invalid South African ID Number", ex.getMessage());
+        assertEquals(0, clientRepository.size());
+    }
+
+    @Test
+    void createClientWithDuplicateMobileNumberTest() {
+
+        clientService.createClient(new Client("Vishal", "Nagdev", "9284121655", "8001015009087", "Pune"));
+        Client duplicate = new Client("John", "Smith", "9284121655", "8001015009095", "Cape Town");
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> clientService.createClient(duplicate));
+
+        assertEquals("Duplicate Mobile Number", ex.getMessage());
+        assertEquals(1, clientRepository.size());
     }
 
     @Test
@@ -82,21 +151,209 @@ public class ClientServiceTest {
         // Arrange
         Client client = new Client("Vishal", "Nagdev", "9284121655", "7878", "Pune");
         String firstName = "Vishal";
-        clients.add(client);
+        clientRepository.save(client);
 
         // Act
-        Optional<Client> result = clientService.searchClient(firstName, null, null);
+        ClientPage result = clientService.searchClients(new ClientSearchCriteria(firstName, null, null, null), null, 10);
 
         // Assert
-        assertTrue(result.isPresent());
-        assertEquals(firstName, result.get().getFirstName());
+        assertEquals(1, result.getClients().size());
+        assertEquals(firstName, result.getClients().get(0).getFirstName());
+        assertNull(result.getNextCursor());
     }
-}
 
+    @Test
+    void searchClientsReturnsEveryMatchTest() {
+
+        clientService.createClient(new Client("Vishal", "Nagdev", "0820000001", "9912314999084", "Pune"));
+        clientService.createClient(new Client("Vishal", "Smith", "0820000002", "8001015009087", "Pune"));
+        clientService.createClient(new Client("Vishal", "Nagdev", "0820000003", "8001015009095", "Pune"));
+        clientService.createClient(new Client("John", "Nagdev", "0820000004", "0002295000083", "Pune"));
+
+        ClientPage result = clientService.searchClients(new ClientSearchCriteria("Vishal", "Nagdev", null, null), null, 10);
+
+        assertEquals(2, result.getClients().size());
+        assertEquals("8001015009095", result.getClients().get(0).getIdNumber());
+        assertEquals("9912314999084", result.getClients().get(1).getIdNumber());
+    }
+
+    @Test
+    void searchClientsPaginationTest() {
+
+        clientService.createClient(new Client("Vishal", "Nagdev", "0820000001", "9912314999084", "Pune"));
+        clientService.createClient(new Client("Vishal", "Smith", "0820000002", "8001015009087", "Pune"));
+        clientService.createClient(new Client("Vishal", "Nagdev", "0820000003", "8001015009095", "Pune"));
+        ClientSearchCriteria criteria = new ClientSearchCriteria("Vishal", null, null, null);
+
+        ClientPage first = clientService.searchClients(criteria, null, 2);
+        ClientPage second = clientService.searchClients(criteria, first.getNextCursor(), 2);
+
+        assertEquals(2, first.getClients().size());
+        assertEquals("8001015009087", first.getClients().get(0).getIdNumber());
+        assertEquals("8001015009095", first.getClients().get(1).getIdNumber());
+        assertNotNull(first.getNextCursor());
+        assertEquals(1, second.getClients().size());
+        assertEquals("9912314999084", second.getClients().get(0).getIdNumber());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void searchClientsWithoutCriteriaTest() {
+
+        assertThrows(IllegalArgumentException.class,
+                () -> clientService.searchClients(new ClientSearchCriteria(), null, 10));
+    }
+
+    @Test
+    void deleteClientTest() {
+
+        Client client = clientService.createClient(new Client("Vishal", "Nagdev", "9284121655", "8001015009087", "Pune"));
+
+        assertEquals(ErrorCode.VERSION_CONFLICT, assertThrows(ClientException.class,
+                () -> clientService.deleteClient("8001015009087", client.getVersion() + 1)).getErrorCode());
+        assertEquals(client, clientService.deleteClient("8001015009087", client.getVersion()));
+
+        assertEquals(0, clientRepository.size());
+        assertFalse(clientRepository.existsByMobileNumber("9284121655"));
+        assertTrue(clientService.searchClients(new ClientSearchCriteria("Vishal", null, null, null), null, 10).getClients().isEmpty());
+        assertEquals(ErrorCode.CLIENT_NOT_FOUND, assertThrows(ClientException.class,
+                () -> clientService.deleteClient("8001015009087", ClientService.ANY_VERSION)).getErrorCode());
+        clientService.createClient(new Client("John", "Smith", "9284121655", "8001015009095", "Pune"));
+    }
+
+    @Test
+    void lookupClientsTest() {
+
+        Client vishal = clientService.createClient(new Client("Vishal", "Nagdev", "9284121655", "8001015009087", "Pune"));
+        Client john = clientService.createClient(new Client("John", "Smith", "0820000001", "8001015009095", "Durban"));
+
+        List<ClientLookupResult> results = clientService.lookupClients(
+                Arrays.asList("8001015009095", "9912314999084", null, "8001015009087"),
+                List.of("9284121655", "0000000000"));
+
+        assertEquals(6, results.size());
+        assertEquals("8001015009095", results.get(0).getIdNumber());
+        assertEquals(john, results.get(0).getClient());
+        assertFalse(results.get(1).isFound());
+        assertEquals("9912314999084", results.get(1).getIdNumber());
+        assertNull(results.get(1).getClient());
+        assertFalse(results.get(2).isFound());
+        assertEquals(vishal, results.get(3).getClient());
+        assertEquals("9284121655", results.get(4).getMobileNumber());
+        assertEquals(vishal, results.get(4).getClient());
+        assertFalse(results.get(5).isFound());
+    }
 
+    @Test
+    void lookupClientsInParallelKeepsOrderTest() {
 
+        clientService.createClient(new Client("Vishal", "Nagdev", "9284121655", "8001015009087", "Pune"));
+        List<String> idNumbers = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            idNumbers.add(i % 2 == 0 ? "8001015009087" : "unknown" + i);
+        }
 
+        List<ClientLookupResult> results = clientService.lookupClients(idNumbers, null);
 
+        assertEquals(5_000, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(idNumbers.get(i), results.get(i).getIdNumber());
+            assertEquals(i % 2 == 0, results.get(i).isFound());
+        }
+    }
+
+    @Test
+    void streamLookupClientsResolvesEachKeyWhenConsumedTest() {
 
+        Client vishal = clientService.createClient(new Client("Vishal", "Nagdev", "9284121655", "8001015009087", "Pune"));
 
+        List<ClientLookupResult> results;
+        try (Stream<ClientLookupResult> stream = clientService.streamLookupClients(
+                List.of("8001015009087", "8001015009095"), List.of("0820000001"))) {
+            // Keys are only resolved as the stream is read, so a client created now is found.
+            Client john = clientService.createClient(new Client("John", "Smith", "0820000001", "8001015009095", "Durban"));
+            results = stream.toList();
+            assertEquals(john, results.get(1).getClient());
+        }
 
+        assertEquals(3, results.size());
+        assertEquals(vishal, results.get(0).getClient());
+        assertEquals("0820000001", results.get(2).getMobileNumber());
+        assertTrue(results.get(2).isFound());
+        List<String> idNumbers = Collections.nCopies(ClientService.MAX_LOOKUP_SIZE + 1, "8001015009087");
+        assertThrows(ClientException.class, () -> clientService.streamLookupClients(idNumbers, null));
+    }
+
+    @Test
+    void lookupClientsTooLargeTest() {
+
+        List<String> idNumbers = Collections.nCopies(ClientService.MAX_LOOKUP_SIZE, "8001015009087");
+
+        ClientException exception = assertThrows(ClientException.class,
+                () -> clientService.lookupClients(idNumbers, List.of("9284121655")));
+
+        assertEquals(ErrorCode.LOOKUP_TOO_LARGE, exception.getErrorCode());
+    }
+
+    @Test
+    void failedListenerUndoesChangeTest() {
+
+        Set<String> mirrored = new HashSet<>();
+        ClientChangeListener mirror = new ClientChangeListener() {
+            @Override
+            public void onCreated(Client client) {
+                mirrored.add(client.getIdNumber());
+            }
+
+            @Override
+            public void onUpdated(Client previous, Client current) {
+                mirrored.remove(previous.getIdNumber());
+                mirrored.add(current.getIdNumber());
+            }
+
+            @Override
+            public void onRemoved(Client client) {
+                mirrored.remove(client.getIdNumber());
+            }
+        };
+        AtomicBoolean failing = new AtomicBoolean();
+        ClientChangeListener log = new ClientChangeListener() {
+            @Override
+            public void onCreated(Client client) {
+                fail();
+            }
+
+            @Override
+            public void onUpdated(Client previous, Client current) {
+                fail();
+            }
+
+            @Override
+            public void onRemoved(Client client) {
+                fail();
+            }
+
+            private void fail() {
+                if (failing.get()) {
+                    throw new IllegalStateException("Log unavailable");
+                }
+            }
+        };
+        clientService = new ClientService(clientRepository, List.of(mirror, log));
+        Client existing = clientService.createClient(new Client("Vishal", "Nagdev", "9284121655", "8001015009087", "Pune"));
+        failing.set(true);
+
+        assertThrows(IllegalStateException.class,
+                () -> clientService.createClient(new Client("John", "Smith", "0820000001", "8001015009095", "Pune")));
+        assertThrows(IllegalStateException.class, () -> clientService.updateClient("8001015009087",
+                new Client("Vishal", "Nagdev", "0820000001", "8001015009095", "Cape Town")));
+        assertThrows(IllegalStateException.class, () -> clientService.deleteClient("8001015009087", existing.getVersion()));
+
+        assertEquals(Set.of("8001015009087"), mirrored);
+        assertEquals(1, clientRepository.size());
+        assertEquals(existing, clientRepository.findByIdNumber("8001015009087").orElse(null));
+        assertFalse(clientRepository.existsByIdNumber("8001015009095"));
+        assertFalse(clientRepository.existsByMobileNumber("0820000001"));
+        assertTrue(clientRepository.existsByMobileNumber("9284121655"));
+    }
+}
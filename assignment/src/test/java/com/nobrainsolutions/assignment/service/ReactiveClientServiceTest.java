@@ -0,0 +1,85 @@
+package com.nobrainsolutions.assignment.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nobrainsolutions.assignment.benchmark.BenchmarkData;
+import com.nobrainsolutions.assignment.cache.ClientResponseCache;
+import com.nobrainsolutions.assignment.changes.ClientChangeLog;
+import com.nobrainsolutions.assignment.dto.ClientPage;
+import com.nobrainsolutions.assignment.dto.ClientSearchCriteria;
+import com.nobrainsolutions.assignment.entity.Client;
+import com.nobrainsolutions.assignment.repository.InMemoryClientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * The ReactiveClientServiceTest class is responsible for testing the ReactiveClientService class.
+ * It checks that the Mono results and errors match ClientService and that streaming walks every page.
+ */
+
+public class ReactiveClientServiceTest {
+
+    private ReactiveClientService reactiveClientService;
+
+    @BeforeEach
+    void setUp() {
+        ClientResponseCache clientResponseCache = new ClientResponseCache(new ObjectMapper(), 100, Duration.ofMinutes(5));
+        ClientChangeLog clientChangeLog = new ClientChangeLog(1024);
+        ClientService clientService = new ClientService(new InMemoryClientRepository(),
+                List.of(clientResponseCache, clientChangeLog));
+        reactiveClientService = new ReactiveClientService(clientService, clientResponseCache, clientChangeLog,
+                Schedulers.immediate());
+    }
+
+    @Test
+    void createAndGetClientTest() {
+        Client client = new Client("Vishal", "Nagdev", "9284121655", "8001015009087", "Pune");
+
+        assertEquals(1, reactiveClientService.createClient(client).block().getVersion());
+        assertEquals(0, client.getVersion());
+        assertEquals("Vishal", reactiveClientService.getClientById("8001015009087").block().getFirstName());
+        assertNotNull(reactiveClientService.getCachedClientById("8001015009087").block().getEtag());
+    }
+
+    @Test
+    void getClientByIdNotFoundTest() {
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> reactiveClientService.getClientById("8001015009087").block());
+
+        assertEquals("Client not found", exception.getMessage());
+    }
+
+    @Test
+    void createClientIsDeferredUntilSubscribedTest() {
+        Client client = new Client("Vishal", "Nagdev", "9284121655", "8001015009087", "Pune");
+        reactiveClientService.createClient(client);
+
+        ClientPage page = reactiveClientService.searchClients(
+                new ClientSearchCriteria("Vishal", null, null, null), null, 10).block();
+
+        assertTrue(page.getClients().isEmpty());
+    }
+
+    @Test
+    void streamClientsTest() {
+        int count = ReactiveClientService.STREAM_PAGE_SIZE * 2 + 7;
+        for (int i = 0; i < count; i++) {
+            reactiveClientService.createClient(new Client("Vishal", "Nagdev", null, BenchmarkData.idNumber(i), "Pune")).block();
+        }
+        reactiveClientService.createClient(new Client("John", "Smith", null, BenchmarkData.idNumber(count), "Pune")).block();
+
+        List<Client> clients = reactiveClientService.streamClients(
+                new ClientSearchCriteria("Vishal", null, null, null)).collectList().block();
+
+        assertEquals(count, clients.size());
+        for (int i = 1; i < clients.size(); i++) {
+            assertTrue(clients.get(i - 1).getIdNumber().compareTo(clients.get(i).getIdNumber()) < 0);
+        }
+    }
+}
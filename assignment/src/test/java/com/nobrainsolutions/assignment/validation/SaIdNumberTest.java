@@ -0,0 +1,70 @@
+package com.nobrainsolutions.assignment.validation;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ *
+ * The SaIdNumberTest class is responsible for testing the SaIdNumber class.
+ * It contains test cases for the checksum, date of birth and decoded fields.
+ */
+
+public class SaIdNumberTest {
+
+    @Test
+    void validIdNumberTest() {
+
+        SaIdNumber idNumber = SaIdNumber.parse("8001015009087");
+
+        assertNotNull(idNumber);
+        assertEquals(1980, idNumber.getBirthYear());
+        assertEquals(1, idNumber.getBirthMonth());
+        assertEquals(1, idNumber.getBirthDay());
+        assertTrue(idNumber.isMale());
+        assertTrue(idNumber.isCitizen());
+    }
+
+    @Test
+    void femaleIdNumberTest() {
+
+        SaIdNumber idNumber = SaIdNumber.parse("9912314999084");
+
+        assertNotNull(idNumber);
+        assertEquals(1999, idNumber.getBirthYear());
+        assertEquals(12, idNumber.getBirthMonth());
+        assertEquals(31, idNumber.getBirthDay());
+        assertFalse(idNumber.isMale());
+    }
+
+    @Test
+    void leapDayTest() {
+
+        assertTrue(SaIdNumber.isValid("0002295000083"));
+        assertFalse(SaIdNumber.isValid("0102295000081"));
+        assertFalse(SaIdNumber.isValid("8002315000081"));
+    }
+
+    @Test
+    void invalidChecksumTest() {
+
+        assertFalse(SaIdNumber.isValid("8001015009080"));
+        assertNull(SaIdNumber.parse("8001015009080"));
+    }
+
+    @Test
+    void invalidCitizenshipTest() {
+
+        assertFalse(SaIdNumber.isValid("8001015000383"));
+    }
+
+    @Test
+    void invalidFormatTest() {
+
+        assertFalse(SaIdNumber.isValid(null));
+        assertFalse(SaIdNumber.isValid(""));
+        assertFalse(SaIdNumber.isValid("7878"));
+        assertFalse(SaIdNumber.isValid("80010150090871"));
+        assertFalse(SaIdNumber.isValid("80010150O9087"));
+    }
+}